@@ -0,0 +1,94 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.koryphe.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import uk.gov.gchq.koryphe.impl.binaryoperator.Max;
+import uk.gov.gchq.koryphe.impl.binaryoperator.Min;
+import uk.gov.gchq.koryphe.impl.binaryoperator.Product;
+import uk.gov.gchq.koryphe.impl.binaryoperator.Sum;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.BinaryOperator;
+
+/**
+ * Benchmarks the {@link uk.gov.gchq.koryphe.impl.binaryoperator.NumericAggregateFunction}s,
+ * and the comparable based {@link Max} and {@link Min} for reference. Each invocation
+ * aggregates every number in the data set, in the way values are folded together
+ * when aggregating groups of elements.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AggregatorBenchmark {
+    private static final int SIZE = 1000;
+
+    @Param({"Integer", "Long", "Double"})
+    public String type;
+
+    private Number[] numbers;
+    private final Sum sum = new Sum();
+    private final Max max = new Max();
+    private final Min min = new Min();
+    private final Product product = new Product();
+
+    @Setup
+    public void setup() {
+        numbers = DataGenerator.numbers(SIZE, type);
+    }
+
+    @Benchmark
+    public Object sum() {
+        return aggregate(sum);
+    }
+
+    @Benchmark
+    public Object max() {
+        return aggregate(max);
+    }
+
+    @Benchmark
+    public Object min() {
+        return aggregate(min);
+    }
+
+    @Benchmark
+    public Object product() {
+        return aggregate(product);
+    }
+
+    private Object aggregate(final BinaryOperator function) {
+        Object state = null;
+        for (final Number number : numbers) {
+            state = function.apply(state, number);
+        }
+        return state;
+    }
+}
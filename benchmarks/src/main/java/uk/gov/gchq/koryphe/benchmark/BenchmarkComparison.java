@@ -0,0 +1,245 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.koryphe.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares the JSON results of two JMH runs and flags regressions.
+ * <p>
+ * A benchmark has regressed if its score is worse than the baseline by more
+ * than the threshold percentage, and by more than the combined error of the two
+ * scores so that noisy benchmarks are not flagged. Whether a higher score is
+ * better depends on the benchmark mode. The normalised allocation rate reported
+ * by the GC profiler is compared in the same way, as allocating more per operation
+ * is a regression even when the score is unchanged.
+ * </p>
+ * <p>
+ * When run from the command line the arguments are the baseline results file, the
+ * current results file and optionally the threshold percentage, which defaults to
+ * {@value #DEFAULT_THRESHOLD_PERCENT}. The exit status is 1 if any benchmark has regressed.
+ * </p>
+ */
+public class BenchmarkComparison {
+    public static final double DEFAULT_THRESHOLD_PERCENT = 10;
+    public static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+
+    /**
+     * Allocation differences smaller than this are ignored, as escape analysis
+     * can remove a small allocation in one run and not in another.
+     */
+    public static final double ALLOCATION_TOLERANCE_BYTES = 16;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final double thresholdPercent;
+
+    public BenchmarkComparison() {
+        this(DEFAULT_THRESHOLD_PERCENT);
+    }
+
+    public BenchmarkComparison(final double thresholdPercent) {
+        if (thresholdPercent < 0) {
+            throw new IllegalArgumentException("Threshold must not be negative: " + thresholdPercent);
+        }
+        this.thresholdPercent = thresholdPercent;
+    }
+
+    public static void main(final String[] args) throws IOException {
+        if (args.length < 2 || args.length > 3) {
+            System.err.println("Usage: BenchmarkComparison <baseline.json> <current.json> [thresholdPercent]");
+            System.exit(2);
+        }
+
+        final BenchmarkComparison comparison = 3 == args.length
+                ? new BenchmarkComparison(Double.parseDouble(args[2]))
+                : new BenchmarkComparison();
+        final List<Change> changes = comparison.compare(new File(args[0]), new File(args[1]));
+        boolean regressed = false;
+        for (final Change change : changes) {
+            System.out.println(change.format());
+            regressed |= change.isRegression();
+        }
+        if (regressed) {
+            System.exit(1);
+        }
+    }
+
+    public List<Change> compare(final File baseline, final File current) throws IOException {
+        return compare(MAPPER.readTree(baseline), MAPPER.readTree(current));
+    }
+
+    /**
+     * Compares the results of two runs. Benchmarks that are only in one of the
+     * runs are ignored.
+     *
+     * @param baseline the JMH JSON results of the baseline run
+     * @param current  the JMH JSON results of the current run
+     * @return the changes for each benchmark and metric in both runs, sorted by benchmark
+     */
+    public List<Change> compare(final JsonNode baseline, final JsonNode current) {
+        final Map<String, JsonNode> baselineResults = index(baseline);
+        final Map<String, JsonNode> currentResults = index(current);
+
+        final List<Change> changes = new ArrayList<>();
+        for (final Map.Entry<String, JsonNode> entry : baselineResults.entrySet()) {
+            final JsonNode currentResult = currentResults.get(entry.getKey());
+            if (null == currentResult) {
+                continue;
+            }
+
+            final JsonNode baselineResult = entry.getValue();
+            final boolean higherIsBetter = "thrpt".equals(baselineResult.path("mode").asText());
+            changes.add(compare(entry.getKey(), "score", baselineResult.path("primaryMetric"), currentResult.path("primaryMetric"), higherIsBetter, 0));
+
+            final JsonNode baselineAllocation = getSecondaryMetric(baselineResult, ALLOCATION_METRIC);
+            final JsonNode currentAllocation = getSecondaryMetric(currentResult, ALLOCATION_METRIC);
+            if (null != baselineAllocation && null != currentAllocation) {
+                changes.add(compare(entry.getKey(), ALLOCATION_METRIC, baselineAllocation, currentAllocation, false, ALLOCATION_TOLERANCE_BYTES));
+            }
+        }
+        return changes;
+    }
+
+    private Change compare(final String benchmark, final String metric, final JsonNode baseline, final JsonNode current, final boolean higherIsBetter, final double tolerance) {
+        final double baselineScore = baseline.path("score").asDouble();
+        final double currentScore = current.path("score").asDouble();
+        final double error = getError(baseline) + getError(current);
+        final double worseBy = higherIsBetter ? baselineScore - currentScore : currentScore - baselineScore;
+        final double changePercent = 0 == baselineScore ? 0 : 100 * (currentScore - baselineScore) / Math.abs(baselineScore);
+        final boolean regression = worseBy > error
+                && worseBy > tolerance
+                && (0 == baselineScore || 100 * worseBy / Math.abs(baselineScore) > thresholdPercent);
+        return new Change(benchmark, metric, current.path("scoreUnit").asText(), baselineScore, currentScore, changePercent, regression);
+    }
+
+    private static double getError(final JsonNode metric) {
+        final double error = metric.path("scoreError").asDouble(0);
+        // JMH reports NaN for the error when there were too few iterations to calculate it
+        return Double.isNaN(error) ? 0 : error;
+    }
+
+    private static JsonNode getSecondaryMetric(final JsonNode result, final String name) {
+        final Iterator<Map.Entry<String, JsonNode>> metrics = result.path("secondaryMetrics").fields();
+        while (metrics.hasNext()) {
+            final Map.Entry<String, JsonNode> metric = metrics.next();
+            // Older versions of JMH prefix the profiler metrics with a middle dot
+            if (metric.getKey().equals(name) || metric.getKey().equals("\u00b7" + name)) {
+                return metric.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static Map<String, JsonNode> index(final JsonNode results) {
+        final Map<String, JsonNode> index = new LinkedHashMap<>();
+        for (final JsonNode result : results) {
+            final StringBuilder key = new StringBuilder(result.path("benchmark").asText())
+                    .append(" (").append(result.path("mode").asText()).append(")");
+            final Map<String, String> params = new TreeMap<>();
+            final Iterator<Map.Entry<String, JsonNode>> fields = result.path("params").fields();
+            while (fields.hasNext()) {
+                final Map.Entry<String, JsonNode> param = fields.next();
+                params.put(param.getKey(), param.getValue().asText());
+            }
+            if (!params.isEmpty()) {
+                key.append(" ").append(params);
+            }
+            index.put(key.toString(), result);
+        }
+        return index;
+    }
+
+    /**
+     * The change in a single metric of a single benchmark.
+     */
+    public static class Change {
+        private final String benchmark;
+        private final String metric;
+        private final String unit;
+        private final double baselineScore;
+        private final double currentScore;
+        private final double changePercent;
+        private final boolean regression;
+
+        public Change(final String benchmark, final String metric, final String unit, final double baselineScore, final double currentScore, final double changePercent, final boolean regression) {
+            this.benchmark = benchmark;
+            this.metric = metric;
+            this.unit = unit;
+            this.baselineScore = baselineScore;
+            this.currentScore = currentScore;
+            this.changePercent = changePercent;
+            this.regression = regression;
+        }
+
+        public String getBenchmark() {
+            return benchmark;
+        }
+
+        public String getMetric() {
+            return metric;
+        }
+
+        public String getUnit() {
+            return unit;
+        }
+
+        public double getBaselineScore() {
+            return baselineScore;
+        }
+
+        public double getCurrentScore() {
+            return currentScore;
+        }
+
+        public double getChangePercent() {
+            return changePercent;
+        }
+
+        public boolean isRegression() {
+            return regression;
+        }
+
+        public String format() {
+            return String.format("%-10s %s %s: %.3f -> %.3f %s (%+.1f%%)",
+                    regression ? "REGRESSION" : "ok", benchmark, metric, baselineScore, currentScore, unit, changePercent);
+        }
+
+        @Override
+        public String toString() {
+            return new ToStringBuilder(this)
+                    .append("benchmark", benchmark)
+                    .append("metric", metric)
+                    .append("unit", unit)
+                    .append("baselineScore", baselineScore)
+                    .append("currentScore", currentScore)
+                    .append("changePercent", changePercent)
+                    .append("regression", regression)
+                    .toString();
+        }
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.koryphe.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates representative data for the benchmarks. The data is generated from
+ * a fixed seed so that each run benchmarks the same data.
+ */
+public final class DataGenerator {
+    public static final long SEED = 4242L;
+
+    private static final String[] WORDS = {
+            "alpha", "bravo", "charlie", "delta", "echo", "foxtrot", "golf", "hotel",
+            "india", "juliet", "kilo", "lima", "mike", "november", "oscar", "papa"
+    };
+
+    private DataGenerator() {
+        // Empty
+    }
+
+    public static Random random() {
+        return new Random(SEED);
+    }
+
+    /**
+     * Generates strings made of words joined by hyphens, with a number on the end,
+     * e.g. "delta-kilo-417".
+     *
+     * @param count the number of strings
+     * @return the strings
+     */
+    public static String[] strings(final int count) {
+        final Random random = random();
+        final String[] strings = new String[count];
+        for (int i = 0; i < count; i++) {
+            strings[i] = word(random) + "-" + word(random) + "-" + random.nextInt(1000);
+        }
+        return strings;
+    }
+
+    /**
+     * Generates numbers of a single type, with values spread over the positive
+     * and negative range used by typical counts and measurements.
+     *
+     * @param count the number of numbers
+     * @param type  the type of number, one of Integer, Long or Double
+     * @return the numbers
+     */
+    public static Number[] numbers(final int count, final String type) {
+        final Random random = random();
+        final Number[] numbers = new Number[count];
+        for (int i = 0; i < count; i++) {
+            switch (type) {
+                case "Integer":
+                    numbers[i] = random.nextInt(20000) - 10000;
+                    break;
+                case "Long":
+                    numbers[i] = (long) (random.nextInt(20000) - 10000) * 1000000L;
+                    break;
+                case "Double":
+                    numbers[i] = random.nextGaussian() * 10000;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown number type: " + type);
+            }
+        }
+        return numbers;
+    }
+
+    /**
+     * Generates CSV lines with a header line, followed by rows of an integer id,
+     * a word, a double and a quoted free text value.
+     *
+     * @param count the number of rows, not including the header
+     * @return the lines
+     */
+    public static List<String> csvLines(final int count) {
+        final Random random = random();
+        final List<String> lines = new ArrayList<>(count + 1);
+        lines.add("id,name,score,description");
+        for (int i = 0; i < count; i++) {
+            lines.add(i + "," + word(random) + "," + random.nextDouble() * 100 + ",\"" + word(random) + " " + word(random) + ", " + word(random) + "\"");
+        }
+        return lines;
+    }
+
+    /**
+     * Generates an XML feed document of entries, each with an id attribute, a title,
+     * a score and a list of tags.
+     *
+     * @param count the number of entries
+     * @return the document
+     */
+    public static String xml(final int count) {
+        final Random random = random();
+        final StringBuilder xml = new StringBuilder("<feed>");
+        for (int i = 0; i < count; i++) {
+            xml.append("<entry id=\"").append(i).append("\">")
+                    .append("<title>").append(word(random)).append(' ').append(word(random)).append("</title>")
+                    .append("<score>").append(random.nextDouble() * 100).append("</score>")
+                    .append("<tags><tag>").append(word(random)).append("</tag><tag>").append(word(random)).append("</tag></tags>")
+                    .append("</entry>");
+        }
+        return xml.append("</feed>").toString();
+    }
+
+    /**
+     * Generates records with random values.
+     *
+     * @param count the number of records
+     * @return the records
+     */
+    public static Record[] records(final int count) {
+        final Random random = random();
+        final Record[] records = new Record[count];
+        for (int i = 0; i < count; i++) {
+            records[i] = new Record(word(random), random.nextInt(1000), random.nextLong());
+        }
+        return records;
+    }
+
+    private static String word(final Random random) {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+
+    /**
+     * A simple record with a public field and fields exposed by getters, to
+     * exercise both of the ways a {@link uk.gov.gchq.koryphe.tuple.ReflectiveTuple}
+     * can read values.
+     */
+    public static class Record {
+        public final int count;
+        private final String name;
+        private final long timestamp;
+
+        public Record(final String name, final int count, final long timestamp) {
+            this.name = name;
+            this.count = count;
+            this.timestamp = timestamp;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+    }
+}
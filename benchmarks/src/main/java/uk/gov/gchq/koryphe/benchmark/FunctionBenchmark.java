@@ -0,0 +1,126 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.koryphe.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import uk.gov.gchq.koryphe.impl.function.CsvLinesToMaps;
+import uk.gov.gchq.koryphe.impl.function.DeserialiseXml;
+import uk.gov.gchq.koryphe.impl.function.DeserialiseXmlElements;
+import uk.gov.gchq.koryphe.impl.function.StringRegexReplace;
+import uk.gov.gchq.koryphe.impl.function.StringReplace;
+import uk.gov.gchq.koryphe.impl.function.StringRewrite;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks functions that parse and rewrite text. Each invocation processes
+ * every line in the data set, or an XML document with an entry for every line.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FunctionBenchmark {
+    @Param({"100", "10000"})
+    public int lines;
+
+    private List<String> csvLines;
+    private CsvLinesToMaps csvLinesToMaps;
+    private StringRegexReplace whitespace;
+    private StringReplace hyphens;
+    private StringRewrite normalise;
+    private String xml;
+    private DeserialiseXml deserialiseXml;
+    private DeserialiseXml deserialiseXmlTitles;
+    private DeserialiseXmlElements deserialiseXmlElements;
+
+    @Setup
+    public void setup() {
+        csvLines = DataGenerator.csvLines(lines);
+        csvLinesToMaps = new CsvLinesToMaps()
+                .header("id", "name", "score", "description")
+                .firstRow(1)
+                .quoted();
+        whitespace = new StringRegexReplace("\\s+", " ");
+        hyphens = new StringReplace("-", " ");
+        normalise = new StringRewrite(whitespace, hyphens, new StringRegexReplace("(\\d+)\\.(\\d+)", "$1,$2"));
+        xml = DataGenerator.xml(lines);
+        deserialiseXml = new DeserialiseXml();
+        deserialiseXmlTitles = new DeserialiseXml().paths("feed/entry/title");
+        deserialiseXmlElements = new DeserialiseXmlElements("feed/entry");
+    }
+
+    @Benchmark
+    public void csvLinesToMaps(final Blackhole blackhole) {
+        for (final Map<String, Object> map : csvLinesToMaps.apply(csvLines)) {
+            blackhole.consume(map);
+        }
+    }
+
+    @Benchmark
+    public void stringRegexReplace(final Blackhole blackhole) {
+        for (final String line : csvLines) {
+            blackhole.consume(whitespace.apply(line));
+        }
+    }
+
+    @Benchmark
+    public void stringReplace(final Blackhole blackhole) {
+        for (final String line : csvLines) {
+            blackhole.consume(hyphens.apply(line));
+        }
+    }
+
+    @Benchmark
+    public void stringRewrite(final Blackhole blackhole) {
+        for (final String line : csvLines) {
+            blackhole.consume(normalise.apply(line));
+        }
+    }
+
+    @Benchmark
+    public Map<String, Object> deserialiseXml() {
+        return deserialiseXml.apply(xml);
+    }
+
+    @Benchmark
+    public Map<String, Object> deserialiseXmlPaths() {
+        return deserialiseXmlTitles.apply(xml);
+    }
+
+    @Benchmark
+    public void deserialiseXmlElements(final Blackhole blackhole) {
+        for (final Map<String, Object> entry : deserialiseXmlElements.apply(xml)) {
+            blackhole.consume(entry);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.koryphe.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import uk.gov.gchq.koryphe.impl.predicate.And;
+import uk.gov.gchq.koryphe.impl.predicate.IsLessThan;
+import uk.gov.gchq.koryphe.impl.predicate.IsMoreThan;
+import uk.gov.gchq.koryphe.impl.predicate.MultiRegex;
+import uk.gov.gchq.koryphe.impl.predicate.Or;
+import uk.gov.gchq.koryphe.impl.predicate.Regex;
+import uk.gov.gchq.koryphe.impl.predicate.range.InRange;
+import uk.gov.gchq.koryphe.tuple.ArrayTuple;
+import uk.gov.gchq.koryphe.tuple.Tuple;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Benchmarks composite predicates applied to tuples, range predicates applied
+ * to timestamps and regex predicates applied to strings. Each invocation tests
+ * every item in the data set.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PredicateBenchmark {
+    private static final int SIZE = 1000;
+    private static final String[] PATTERNS = {
+            "alpha-.*", ".*-bravo-.*", "charlie-[a-z]+-1[0-9]{2}", ".*-9[0-9]*",
+            "delta-echo-.*", "[a-f][a-z]*-golf-.*", ".*hotel.*", "india-.*-[0-9]"
+    };
+
+    @Param({"1", "8"})
+    public int patternCount;
+
+    private Tuple<Integer>[] tuples;
+    private String[] strings;
+    private Long[] timestamps;
+    private long[] primitiveTimestamps;
+    private And<Tuple<Integer>> and;
+    private Or<Tuple<Integer>> or;
+    private MultiRegex multiRegex;
+    private Regex regex;
+    private InRange<Long> inRange;
+
+    @Setup
+    public void setup() {
+        final DataGenerator.Record[] records = DataGenerator.records(SIZE);
+        tuples = new Tuple[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            tuples[i] = new ArrayTuple(records[i].getName(), records[i].count, records[i].getTimestamp());
+        }
+        strings = DataGenerator.strings(SIZE);
+        timestamps = new Long[SIZE];
+        primitiveTimestamps = new long[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            timestamps[i] = records[i].getTimestamp();
+            primitiveTimestamps[i] = records[i].getTimestamp();
+        }
+
+        and = new And.Builder<Tuple<Integer>>()
+                .select(1).execute(new IsMoreThan(100))
+                .select(1).execute(new IsLessThan(900))
+                .build();
+        or = new Or.Builder<Tuple<Integer>>()
+                .select(1).execute(new IsLessThan(100))
+                .select(1).execute(new IsMoreThan(900))
+                .build();
+
+        final Pattern[] patterns = new Pattern[patternCount];
+        for (int i = 0; i < patternCount; i++) {
+            patterns[i] = Pattern.compile(PATTERNS[i]);
+        }
+        inRange = new InRange.Builder<Long>()
+                .start(Long.MIN_VALUE / 2)
+                .end(Long.MAX_VALUE / 2)
+                .endInclusive(false)
+                .build();
+        multiRegex = new MultiRegex(patterns);
+        regex = new Regex(patterns[0]);
+    }
+
+    @Benchmark
+    public void predicateCompositeAnd(final Blackhole blackhole) {
+        for (final Tuple<Integer> tuple : tuples) {
+            blackhole.consume(and.test(tuple));
+        }
+    }
+
+    @Benchmark
+    public void predicateCompositeOr(final Blackhole blackhole) {
+        for (final Tuple<Integer> tuple : tuples) {
+            blackhole.consume(or.test(tuple));
+        }
+    }
+
+    @Benchmark
+    public void inRange(final Blackhole blackhole) {
+        for (final Long timestamp : timestamps) {
+            blackhole.consume(inRange.test(timestamp));
+        }
+    }
+
+    @Benchmark
+    public void inRangeLong(final Blackhole blackhole) {
+        for (final long timestamp : primitiveTimestamps) {
+            blackhole.consume(inRange.testLong(timestamp));
+        }
+    }
+
+    @Benchmark
+    public void multiRegex(final Blackhole blackhole) {
+        for (final String string : strings) {
+            blackhole.consume(multiRegex.test(string));
+        }
+    }
+
+    @Benchmark
+    public void regex(final Blackhole blackhole) {
+        for (final String string : strings) {
+            blackhole.consume(regex.test(string));
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.koryphe.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import uk.gov.gchq.koryphe.tuple.ArrayTuple;
+import uk.gov.gchq.koryphe.tuple.ReflectiveTuple;
+import uk.gov.gchq.koryphe.tuple.Tuple;
+import uk.gov.gchq.koryphe.tuple.TupleInputAdapter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks reading values from {@link Tuple}s, directly and through a
+ * {@link TupleInputAdapter}. Each invocation reads from every tuple in the data set.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TupleBenchmark {
+    private static final int SIZE = 1000;
+
+    private ReflectiveTuple[] reflectiveTuples;
+    private ArrayTuple[] arrayTuples;
+    private TupleInputAdapter<Integer, Object> singleAdapter;
+    private TupleInputAdapter<Integer, Object> multipleAdapter;
+
+    @Setup
+    public void setup() {
+        final DataGenerator.Record[] records = DataGenerator.records(SIZE);
+        reflectiveTuples = new ReflectiveTuple[SIZE];
+        arrayTuples = new ArrayTuple[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            final DataGenerator.Record record = records[i];
+            reflectiveTuples[i] = new ReflectiveTuple(record);
+            arrayTuples[i] = new ArrayTuple(record.getName(), record.count, record.getTimestamp());
+        }
+        singleAdapter = new TupleInputAdapter<>(new Integer[]{1});
+        multipleAdapter = new TupleInputAdapter<>(new Integer[]{0, 2});
+    }
+
+    @Benchmark
+    public void reflectiveTupleGetField(final Blackhole blackhole) {
+        for (final ReflectiveTuple tuple : reflectiveTuples) {
+            blackhole.consume(tuple.get("count"));
+        }
+    }
+
+    @Benchmark
+    public void reflectiveTupleGetMethod(final Blackhole blackhole) {
+        for (final ReflectiveTuple tuple : reflectiveTuples) {
+            blackhole.consume(tuple.get("name"));
+        }
+    }
+
+    @Benchmark
+    public void arrayTupleGet(final Blackhole blackhole) {
+        for (final ArrayTuple tuple : arrayTuples) {
+            blackhole.consume(tuple.get(1));
+        }
+    }
+
+    @Benchmark
+    public void tupleInputAdapterApplySingle(final Blackhole blackhole) {
+        for (final Tuple<Integer> tuple : arrayTuples) {
+            blackhole.consume(singleAdapter.apply(tuple));
+        }
+    }
+
+    @Benchmark
+    public void tupleInputAdapterApplyMultiple(final Blackhole blackhole) {
+        for (final Tuple<Integer> tuple : arrayTuples) {
+            blackhole.consume(multipleAdapter.apply(tuple));
+        }
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.koryphe.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BenchmarkComparisonTest {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Test
+    public void shouldFlagSlowerAverageTimeAsRegression() throws IOException {
+        // Given
+        final JsonNode baseline = results(result("TupleBenchmark.arrayTupleGet", "avgt", 10.0, 0.5));
+        final JsonNode current = results(result("TupleBenchmark.arrayTupleGet", "avgt", 12.0, 0.5));
+
+        // When
+        final List<BenchmarkComparison.Change> changes = new BenchmarkComparison(10).compare(baseline, current);
+
+        // Then
+        assertEquals(1, changes.size());
+        assertEquals("TupleBenchmark.arrayTupleGet (avgt)", changes.get(0).getBenchmark());
+        assertEquals(20.0, changes.get(0).getChangePercent(), 0.001);
+        assertTrue(changes.get(0).isRegression());
+    }
+
+    @Test
+    public void shouldFlagLowerThroughputAsRegression() throws IOException {
+        // Given
+        final JsonNode baseline = results(result("TupleBenchmark.arrayTupleGet", "thrpt", 100.0, 1.0));
+        final JsonNode current = results(result("TupleBenchmark.arrayTupleGet", "thrpt", 80.0, 1.0));
+
+        // When
+        final List<BenchmarkComparison.Change> changes = new BenchmarkComparison(10).compare(baseline, current);
+
+        // Then
+        assertTrue(changes.get(0).isRegression());
+    }
+
+    @Test
+    public void shouldNotFlagImprovementsOrChangesWithinThreshold() throws IOException {
+        // Given
+        final JsonNode baseline = results(
+                result("a", "avgt", 10.0, 0.1),
+                result("b", "thrpt", 100.0, 1.0));
+        final JsonNode current = results(
+                result("a", "avgt", 10.5, 0.1),
+                result("b", "thrpt", 150.0, 1.0));
+
+        // When
+        final List<BenchmarkComparison.Change> changes = new BenchmarkComparison(10).compare(baseline, current);
+
+        // Then
+        assertEquals(2, changes.size());
+        assertFalse(changes.get(0).isRegression());
+        assertFalse(changes.get(1).isRegression());
+    }
+
+    @Test
+    public void shouldNotFlagChangesWithinScoreError() throws IOException {
+        // Given
+        final JsonNode baseline = results(result("a", "avgt", 10.0, 2.0));
+        final JsonNode current = results(result("a", "avgt", 13.0, 2.0));
+
+        // When
+        final List<BenchmarkComparison.Change> changes = new BenchmarkComparison(10).compare(baseline, current);
+
+        // Then
+        assertFalse(changes.get(0).isRegression());
+    }
+
+    @Test
+    public void shouldFlagAllocationRegressions() throws IOException {
+        // Given
+        final JsonNode baseline = results(withAllocation(result("a", "avgt", 10.0, 0.1), 100.0));
+        final JsonNode current = results(withAllocation(result("a", "avgt", 10.0, 0.1), 200.0));
+
+        // When
+        final List<BenchmarkComparison.Change> changes = new BenchmarkComparison(10).compare(baseline, current);
+
+        // Then
+        assertEquals(2, changes.size());
+        assertFalse(changes.get(0).isRegression());
+        assertEquals(BenchmarkComparison.ALLOCATION_METRIC, changes.get(1).getMetric());
+        assertTrue(changes.get(1).isRegression());
+    }
+
+    @Test
+    public void shouldIgnoreSmallAllocationChanges() throws IOException {
+        // Given
+        final JsonNode baseline = results(withAllocation(result("a", "avgt", 10.0, 0.1), 0.0));
+        final JsonNode current = results(withAllocation(result("a", "avgt", 10.0, 0.1), 8.0));
+
+        // When
+        final List<BenchmarkComparison.Change> changes = new BenchmarkComparison(10).compare(baseline, current);
+
+        // Then
+        assertFalse(changes.get(1).isRegression());
+    }
+
+    @Test
+    public void shouldMatchBenchmarksByParamsAndIgnoreUnmatched() throws IOException {
+        // Given
+        final JsonNode baseline = results(
+                withParam(result("a", "avgt", 10.0, 0.1), "type", "Integer"),
+                withParam(result("a", "avgt", 10.0, 0.1), "type", "Long"),
+                result("removed", "avgt", 1.0, 0.1));
+        final JsonNode current = results(
+                withParam(result("a", "avgt", 50.0, 0.1), "type", "Long"),
+                withParam(result("a", "avgt", 10.0, 0.1), "type", "Integer"),
+                result("added", "avgt", 1.0, 0.1));
+
+        // When
+        final List<BenchmarkComparison.Change> changes = new BenchmarkComparison(10).compare(baseline, current);
+
+        // Then
+        assertEquals(2, changes.size());
+        assertEquals("a (avgt) {type=Integer}", changes.get(0).getBenchmark());
+        assertFalse(changes.get(0).isRegression());
+        assertEquals("a (avgt) {type=Long}", changes.get(1).getBenchmark());
+        assertTrue(changes.get(1).isRegression());
+    }
+
+    @Test
+    public void shouldRequireANonNegativeThreshold() {
+        assertThrows(IllegalArgumentException.class, () -> new BenchmarkComparison(-1));
+    }
+
+    private static JsonNode results(final String... results) throws IOException {
+        return MAPPER.readTree("[" + String.join(",", results) + "]");
+    }
+
+    private static String result(final String benchmark, final String mode, final double score, final double error) {
+        return "{\"benchmark\": \"" + benchmark + "\", \"mode\": \"" + mode + "\", "
+                + "\"primaryMetric\": {\"score\": " + score + ", \"scoreError\": " + error + ", \"scoreUnit\": \"us/op\"}, "
+                + "\"secondaryMetrics\": {}}";
+    }
+
+    private static String withAllocation(final String result, final double bytes) {
+        return result.replace("\"secondaryMetrics\": {}",
+                "\"secondaryMetrics\": {\"gc.alloc.rate.norm\": {\"score\": " + bytes + ", \"scoreError\": 0.0, \"scoreUnit\": \"B/op\"}}");
+    }
+
+    private static String withParam(final String result, final String name, final String value) {
+        return result.replace("{\"benchmark\"", "{\"params\": {\"" + name + "\": \"" + value + "\"}, \"benchmark\"");
+    }
+}
@@ -0,0 +1,252 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.koryphe.index;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * <p>
+ * A {@code ClassIndexProcessor} is an annotation processor that writes an index of
+ * Koryphe classes to {@value #INDEX_RESOURCE} at compile time. The index allows
+ * Koryphe's ReflectionUtil to find implementations without scanning the class path.
+ * </p>
+ * <p>
+ * The following are indexed:
+ * </p>
+ * <ul>
+ * <li>public concrete implementations of {@code Function}, {@code Predicate},
+ * {@code BinaryOperator} and {@code Comparator}</li>
+ * <li>classes annotated with {@code JsonSimpleClassName}</li>
+ * <li>public concrete subtypes of classes annotated with
+ * {@code JsonSimpleClassName(includeSubtypes = true)}</li>
+ * </ul>
+ * <p>
+ * Each line of the index is a key, either a base type or annotation class name,
+ * followed by a space and the binary name of an indexed class.
+ * The processor is registered as a service, so it runs automatically when this
+ * jar is on the compile class path. On incremental compiles the entries for classes
+ * that were not recompiled are kept from the existing index.
+ * </p>
+ */
+@SupportedAnnotationTypes("*")
+public class ClassIndexProcessor extends AbstractProcessor {
+    public static final String INDEX_RESOURCE = "META-INF/koryphe/class-index";
+
+    public static final String JSON_SIMPLE_CLASS_NAME = "uk.gov.gchq.koryphe.serialisation.json.JsonSimpleClassName";
+
+    public static final Set<String> BASE_TYPES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            "java.util.function.Function",
+            "java.util.function.Predicate",
+            "java.util.function.BinaryOperator",
+            "java.util.Comparator"
+    )));
+
+    private final Map<String, Set<String>> index = new TreeMap<>();
+    private final Set<String> processedClasses = new HashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+        for (final Element element : roundEnv.getRootElements()) {
+            indexElement(element);
+        }
+
+        if (roundEnv.processingOver()) {
+            writeIndex();
+        }
+
+        // Never claim the annotations, other processors may need them
+        return false;
+    }
+
+    private void indexElement(final Element element) {
+        if (!(element instanceof TypeElement)) {
+            return;
+        }
+
+        final TypeElement type = (TypeElement) element;
+        final String className = processingEnv.getElementUtils().getBinaryName(type).toString();
+        processedClasses.add(className);
+
+        if (isJsonSimpleClassName(type)) {
+            addEntry(JSON_SIMPLE_CLASS_NAME, className);
+        }
+
+        if (isPublicConcrete(type)) {
+            final Set<TypeElement> superTypes = new HashSet<>();
+            collectSuperTypes(type.asType(), superTypes);
+            for (final TypeElement superType : superTypes) {
+                final String superTypeName = superType.getQualifiedName().toString();
+                if (BASE_TYPES.contains(superTypeName)
+                        || (superType != type && includeSubtypes(superType))) {
+                    addEntry(processingEnv.getElementUtils().getBinaryName(superType).toString(), className);
+                }
+            }
+        }
+
+        for (final Element enclosed : type.getEnclosedElements()) {
+            indexElement(enclosed);
+        }
+    }
+
+    private boolean isPublicConcrete(final TypeElement type) {
+        final Set<Modifier> modifiers = type.getModifiers();
+        return (ElementKind.CLASS == type.getKind() || ElementKind.ENUM == type.getKind())
+                && modifiers.contains(Modifier.PUBLIC)
+                && !modifiers.contains(Modifier.ABSTRACT)
+                && (!type.getNestingKind().isNested() || modifiers.contains(Modifier.STATIC));
+    }
+
+    private void collectSuperTypes(final TypeMirror typeMirror, final Set<TypeElement> superTypes) {
+        if (TypeKind.DECLARED != typeMirror.getKind()) {
+            return;
+        }
+
+        final TypeElement element = (TypeElement) ((DeclaredType) typeMirror).asElement();
+        if (superTypes.add(element)) {
+            for (final TypeMirror superType : processingEnv.getTypeUtils().directSupertypes(typeMirror)) {
+                collectSuperTypes(superType, superTypes);
+            }
+        }
+    }
+
+    private boolean isJsonSimpleClassName(final TypeElement type) {
+        for (final AnnotationMirror annotation : type.getAnnotationMirrors()) {
+            final TypeElement annotationType = (TypeElement) annotation.getAnnotationType().asElement();
+            if (JSON_SIMPLE_CLASS_NAME.equals(annotationType.getQualifiedName().toString())
+                    || null != getJsonSimpleClassName(annotationType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean includeSubtypes(final TypeElement type) {
+        final AnnotationMirror annotation = getJsonSimpleClassName(type);
+        if (null == annotation) {
+            return false;
+        }
+
+        for (final Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry
+                : processingEnv.getElementUtils().getElementValuesWithDefaults(annotation).entrySet()) {
+            if ("includeSubtypes".equals(entry.getKey().getSimpleName().toString())) {
+                return Boolean.TRUE.equals(entry.getValue().getValue());
+            }
+        }
+        return false;
+    }
+
+    private AnnotationMirror getJsonSimpleClassName(final TypeElement type) {
+        final List<? extends AnnotationMirror> annotations = type.getAnnotationMirrors();
+        for (final AnnotationMirror annotation : annotations) {
+            final TypeElement annotationType = (TypeElement) annotation.getAnnotationType().asElement();
+            if (JSON_SIMPLE_CLASS_NAME.equals(annotationType.getQualifiedName().toString())) {
+                return annotation;
+            }
+        }
+        return null;
+    }
+
+    private void addEntry(final String key, final String className) {
+        index.computeIfAbsent(key, k -> new TreeSet<>()).add(className);
+    }
+
+    private void writeIndex() {
+        mergeExistingIndex();
+        if (index.isEmpty()) {
+            return;
+        }
+
+        try {
+            final FileObject resource = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", INDEX_RESOURCE);
+            try (final Writer writer = new OutputStreamWriter(resource.openOutputStream(), StandardCharsets.UTF_8)) {
+                for (final Map.Entry<String, Set<String>> entry : index.entrySet()) {
+                    for (final String className : entry.getValue()) {
+                        writer.write(entry.getKey() + " " + className + "\n");
+                    }
+                }
+            }
+        } catch (final IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Unable to write Koryphe class index: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Adds the entries from an index written by a previous compile, for classes
+     * that were not compiled this time and still exist.
+     */
+    private void mergeExistingIndex() {
+        final FileObject existing;
+        try {
+            existing = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", INDEX_RESOURCE);
+        } catch (final IOException | IllegalArgumentException e) {
+            // There is no existing index
+            return;
+        }
+
+        try (final BufferedReader reader = new BufferedReader(new InputStreamReader(existing.openInputStream(), StandardCharsets.UTF_8))) {
+            String line = reader.readLine();
+            while (null != line) {
+                final int separator = line.indexOf(' ');
+                if (separator > 0) {
+                    final String className = line.substring(separator + 1);
+                    if (!processedClasses.contains(className)
+                            && null != processingEnv.getElementUtils().getTypeElement(className.replace('$', '.'))) {
+                        addEntry(line.substring(0, separator), className);
+                    }
+                }
+                line = reader.readLine();
+            }
+        } catch (final IOException e) {
+            // There is no existing index
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.koryphe.index;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ClassIndexProcessorTest {
+
+    @TempDir
+    Path outputDir;
+
+    @Test
+    public void shouldIndexPublicConcreteFunctionsAndPredicates() throws IOException {
+        // Given
+        final JavaFileObject function = source("test.MyFunction",
+                "package test;\n"
+                        + "public class MyFunction implements java.util.function.Function<String, String> {\n"
+                        + "    public String apply(final String s) { return s; }\n"
+                        + "    public static class Nested extends MyFunction { }\n"
+                        + "    private static class Hidden extends MyFunction { }\n"
+                        + "}\n");
+        final JavaFileObject predicate = source("test.MyPredicate",
+                "package test;\n"
+                        + "public abstract class MyPredicate implements java.util.function.Predicate<String> { }\n");
+
+        // When
+        final List<String> index = compile(function, predicate);
+
+        // Then
+        assertEquals(Arrays.asList(
+                "java.util.function.Function test.MyFunction",
+                "java.util.function.Function test.MyFunction$Nested"
+        ), index);
+    }
+
+    @Test
+    public void shouldIndexJsonSimpleClassNameAnnotatedClassesAndSubtypes() throws IOException {
+        // Given
+        final JavaFileObject annotation = source(ClassIndexProcessor.JSON_SIMPLE_CLASS_NAME,
+                "package uk.gov.gchq.koryphe.serialisation.json;\n"
+                        + "public @interface JsonSimpleClassName { boolean includeSubtypes() default false; }\n");
+        final JavaFileObject base = source("test.Base",
+                "package test;\n"
+                        + "@uk.gov.gchq.koryphe.serialisation.json.JsonSimpleClassName(includeSubtypes = true)\n"
+                        + "public abstract class Base { }\n");
+        final JavaFileObject impl = source("test.Impl",
+                "package test;\n"
+                        + "public class Impl extends Base { }\n");
+
+        // When
+        final List<String> index = compile(annotation, base, impl);
+
+        // Then
+        assertTrue(index.contains(ClassIndexProcessor.JSON_SIMPLE_CLASS_NAME + " test.Base"));
+        assertTrue(index.contains("test.Base test.Impl"));
+        assertFalse(index.contains(ClassIndexProcessor.JSON_SIMPLE_CLASS_NAME + " test.Impl"));
+    }
+
+    @Test
+    public void shouldNotWriteIndexWhenNothingIsIndexed() throws IOException {
+        // Given
+        final JavaFileObject plain = source("test.Plain", "package test;\npublic class Plain { }\n");
+
+        // When
+        final List<String> index = compile(plain);
+
+        // Then
+        assertTrue(index.isEmpty());
+    }
+
+    @Test
+    public void shouldKeepEntriesForClassesNotRecompiled() throws IOException {
+        // Given
+        final JavaFileObject first = source("test.First",
+                "package test;\n"
+                        + "public class First implements java.util.function.Predicate<String> {\n"
+                        + "    public boolean test(final String s) { return true; }\n"
+                        + "}\n");
+        final JavaFileObject removed = source("test.Removed",
+                "package test;\n"
+                        + "public class Removed implements java.util.function.Predicate<String> {\n"
+                        + "    public boolean test(final String s) { return true; }\n"
+                        + "}\n");
+        compile(first, removed);
+        Files.delete(outputDir.resolve("test/Removed.class"));
+        final JavaFileObject second = source("test.Second",
+                "package test;\n"
+                        + "public class Second implements java.util.function.Predicate<String> {\n"
+                        + "    public boolean test(final String s) { return false; }\n"
+                        + "}\n");
+
+        // When
+        final List<String> index = compile(second);
+
+        // Then
+        assertEquals(Arrays.asList(
+                "java.util.function.Predicate test.First",
+                "java.util.function.Predicate test.Second"
+        ), index);
+    }
+
+    private List<String> compile(final JavaFileObject... sources) throws IOException {
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        try (final StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8)) {
+            fileManager.setLocation(StandardLocation.CLASS_OUTPUT, Collections.singletonList(outputDir.toFile()));
+            fileManager.setLocation(StandardLocation.CLASS_PATH, Collections.singletonList(outputDir.toFile()));
+            final JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, null, null, null, Arrays.asList(sources));
+            task.setProcessors(Collections.singletonList(new ClassIndexProcessor()));
+            assertTrue(task.call(), "Compilation failed");
+        }
+
+        final File index = outputDir.resolve(ClassIndexProcessor.INDEX_RESOURCE).toFile();
+        return index.exists() ? Files.readAllLines(index.toPath(), StandardCharsets.UTF_8) : Collections.emptyList();
+    }
+
+    private static JavaFileObject source(final String className, final String code) {
+        return new SimpleJavaFileObject(URI.create("string:///" + className.replace('.', '/') + JavaFileObject.Kind.SOURCE.extension), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(final boolean ignoreEncodingErrors) {
+                return code;
+            }
+        };
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.koryphe.clock;
+
+import java.util.Iterator;
+import java.util.ServiceLoader;
+
+/**
+ * Utility methods for getting the {@link KorypheClock} used by time-relative components.
+ * <p>
+ * The default clock is the first {@link KorypheClock} registered with the
+ * {@link ServiceLoader}. If there is none, it is a {@link CoarseClock} with the
+ * resolution in the {@value #RESOLUTION_MILLIS_KEY} system property, which defaults
+ * to {@value #DEFAULT_RESOLUTION_MILLIS} milliseconds. A resolution of 0 uses the
+ * {@link SystemClock} instead.
+ * </p>
+ */
+public final class ClockUtil {
+    public static final String RESOLUTION_MILLIS_KEY = "koryphe.clock.resolutionMillis";
+    public static final long DEFAULT_RESOLUTION_MILLIS = 10;
+
+    private static volatile KorypheClock clock;
+
+    private ClockUtil() {
+        // Empty
+    }
+
+    /**
+     * Gets the current time from the clock.
+     *
+     * @return the number of milliseconds since the epoch
+     */
+    public static long currentTimeMillis() {
+        return getClock().currentTimeMillis();
+    }
+
+    public static KorypheClock getClock() {
+        KorypheClock current = clock;
+        if (null == current) {
+            synchronized (ClockUtil.class) {
+                current = clock;
+                if (null == current) {
+                    current = loadClock();
+                    clock = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Sets the clock used by all time-relative components. Setting the clock
+     * to null restores the default clock.
+     *
+     * @param clock the clock
+     */
+    public static void setClock(final KorypheClock clock) {
+        ClockUtil.clock = clock;
+    }
+
+    private static KorypheClock loadClock() {
+        final Iterator<KorypheClock> clocks = ServiceLoader.load(KorypheClock.class).iterator();
+        if (clocks.hasNext()) {
+            return clocks.next();
+        }
+
+        final long resolutionMillis = Long.parseLong(System.getProperty(RESOLUTION_MILLIS_KEY, Long.toString(DEFAULT_RESOLUTION_MILLIS)));
+        return 0 == resolutionMillis ? SystemClock.INSTANCE : new CoarseClock(resolutionMillis);
+    }
+}
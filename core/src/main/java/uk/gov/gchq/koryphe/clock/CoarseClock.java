@@ -0,0 +1,73 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.koryphe.clock;
+
+import java.io.Closeable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A <code>CoarseClock</code> is a {@link KorypheClock} which is updated from
+ * {@link System#currentTimeMillis()} by a daemon thread at a fixed resolution.
+ * <p>
+ * Reading the time is a single volatile read, at the cost of the time being up
+ * to one resolution behind the system clock. Time-relative components only
+ * recompute their bounds when the time changes, so a coarser resolution also
+ * means they recompute less often.
+ * </p>
+ */
+public class CoarseClock implements KorypheClock, Closeable {
+    private final long resolutionMillis;
+    private final ScheduledExecutorService ticker;
+    private volatile long time;
+
+    public CoarseClock(final long resolutionMillis) {
+        if (resolutionMillis < 1) {
+            throw new IllegalArgumentException("Resolution must be at least 1 millisecond, but was " + resolutionMillis);
+        }
+
+        this.resolutionMillis = resolutionMillis;
+        this.time = System.currentTimeMillis();
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "koryphe-clock");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(this::tick, resolutionMillis, resolutionMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return time;
+    }
+
+    public long getResolutionMillis() {
+        return resolutionMillis;
+    }
+
+    /**
+     * Stops the thread updating this clock. The time will no longer change.
+     */
+    @Override
+    public void close() {
+        ticker.shutdownNow();
+    }
+
+    private void tick() {
+        time = System.currentTimeMillis();
+    }
+}
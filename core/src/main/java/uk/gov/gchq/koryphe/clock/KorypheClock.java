@@ -0,0 +1,34 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.koryphe.clock;
+
+/**
+ * A <code>KorypheClock</code> provides the current time to time-relative
+ * components, such as {@link uk.gov.gchq.koryphe.impl.predicate.AgeOff} and
+ * {@link uk.gov.gchq.koryphe.impl.predicate.range.InTimeRange}.
+ * <p>
+ * Implementations may be registered with the {@link java.util.ServiceLoader}, in
+ * which case the first one found is used by {@link ClockUtil#getClock()}.
+ * </p>
+ */
+public interface KorypheClock {
+    /**
+     * Gets the current time.
+     *
+     * @return the number of milliseconds since the epoch
+     */
+    long currentTimeMillis();
+}
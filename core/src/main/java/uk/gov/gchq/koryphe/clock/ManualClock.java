@@ -0,0 +1,45 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.koryphe.clock;
+
+/**
+ * A <code>ManualClock</code> is a {@link KorypheClock} which only changes when it
+ * is set or advanced, so time-relative components can be tested deterministically.
+ */
+public class ManualClock implements KorypheClock {
+    private volatile long time;
+
+    public ManualClock() {
+        this(System.currentTimeMillis());
+    }
+
+    public ManualClock(final long time) {
+        this.time = time;
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return time;
+    }
+
+    public void setTime(final long time) {
+        this.time = time;
+    }
+
+    public synchronized void advance(final long millis) {
+        time += millis;
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.koryphe.clock;
+
+/**
+ * A <code>SystemClock</code> is a {@link KorypheClock} which reads
+ * {@link System#currentTimeMillis()} every time it is called.
+ */
+public final class SystemClock implements KorypheClock {
+    public static final SystemClock INSTANCE = new SystemClock();
+
+    private SystemClock() {
+        // Empty
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+}
@@ -18,13 +18,14 @@ package uk.gov.gchq.koryphe.impl.function;
 
 import uk.gov.gchq.koryphe.Since;
 import uk.gov.gchq.koryphe.Summary;
+import uk.gov.gchq.koryphe.clock.ClockUtil;
 import uk.gov.gchq.koryphe.function.KorypheFunction;
 
 import java.util.Date;
 
 /**
  * A <code>CurrentDate</code> is a {@link java.util.function.Function} that
- * returns the current {@link Date}.
+ * returns the current {@link Date}, from the {@link ClockUtil#getClock() clock}.
  * It takes no arguments.
  */
 @Since("1.8.0")
@@ -32,6 +33,6 @@ import java.util.Date;
 public class CurrentDate extends KorypheFunction<Object, Date> {
     @Override
     public Date apply(final Object ignored) {
-        return new Date();
+        return new Date(ClockUtil.currentTimeMillis());
     }
 }
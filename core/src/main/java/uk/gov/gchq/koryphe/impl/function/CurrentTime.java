@@ -18,11 +18,12 @@ package uk.gov.gchq.koryphe.impl.function;
 
 import uk.gov.gchq.koryphe.Since;
 import uk.gov.gchq.koryphe.Summary;
+import uk.gov.gchq.koryphe.clock.ClockUtil;
 import uk.gov.gchq.koryphe.function.KorypheFunction;
 
 /**
  * A <code>CurrentTime</code> is a {@link java.util.function.Function} that
- * returns the current time in milliseconds.
+ * returns the current time in milliseconds, from the {@link ClockUtil#getClock() clock}.
  * It takes no arguments.
  */
 @Since("1.8.0")
@@ -30,6 +31,6 @@ import uk.gov.gchq.koryphe.function.KorypheFunction;
 public class CurrentTime extends KorypheFunction<Object, Long> {
     @Override
     public Long apply(final Object ignored) {
-        return System.currentTimeMillis();
+        return ClockUtil.currentTimeMillis();
     }
 }
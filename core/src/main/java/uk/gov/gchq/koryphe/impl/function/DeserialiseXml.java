@@ -16,30 +16,119 @@
 
 package uk.gov.gchq.koryphe.impl.function;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
-import org.json.XML;
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.apache.commons.lang3.builder.ToStringBuilder;
 
 import uk.gov.gchq.koryphe.Since;
 import uk.gov.gchq.koryphe.Summary;
 import uk.gov.gchq.koryphe.function.KorypheFunction;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
 import static java.util.Objects.isNull;
 
+/**
+ * A {@code DeserialiseXml} parses an XML document into nested {@link Map}s.
+ * <p>
+ * The document is read in a single pass with a StAX parser. The maps have the same
+ * layout as those produced by {@code org.json.XML.toJSONObject(xml).toMap()}.
+ * </p>
+ * <p>
+ * If paths are provided, only the elements on those paths are converted. Each path is
+ * a '/' separated list of element names starting at the document element, for example
+ * {@code "feed/entry/title"}, and a {@code *} matches any element name. The ancestors of
+ * the selected elements only contain the selected elements, and any other elements
+ * are skipped.
+ * </p>
+ *
+ * @see DeserialiseXmlElements
+ */
 @Since("1.8.0")
 @Summary("Parses an XML document into multiple Maps")
 @JsonPropertyOrder(alphabetic = true)
+@JsonInclude(JsonInclude.Include.NON_DEFAULT)
 public class DeserialiseXml extends KorypheFunction<String, Map<String, Object>> implements Serializable {
     private static final long serialVersionUID = -6302491770456683336L;
 
+    private final List<String> paths = new ArrayList<>();
+    private transient XmlMapReader reader;
+
     @Override
     public Map<String, Object> apply(final String xml) {
         if (isNull(xml)) {
             return null;
         }
 
-        return XML.toJSONObject(xml).toMap();
+        return getReader().read(xml);
+    }
+
+    XmlMapReader getReader() {
+        XmlMapReader compiled = reader;
+        if (null == compiled) {
+            compiled = XmlMapReader.paths(paths);
+            reader = compiled;
+        }
+        return compiled;
+    }
+
+    public List<String> getPaths() {
+        return Collections.unmodifiableList(paths);
+    }
+
+    public void setPaths(final List<String> paths) {
+        this.paths.clear();
+        if (null != paths) {
+            this.paths.addAll(paths);
+        }
+        this.reader = null;
+    }
+
+    public DeserialiseXml paths(final String... paths) {
+        return paths(Arrays.asList(paths));
+    }
+
+    public DeserialiseXml paths(final Collection<String> paths) {
+        this.paths.addAll(paths);
+        this.reader = null;
+        return this;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (null == o || !getClass().equals(o.getClass())) {
+            return false;
+        }
+
+        final DeserialiseXml that = (DeserialiseXml) o;
+        return new EqualsBuilder()
+                .append(paths, that.paths)
+                .isEquals();
+    }
+
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder(61, 29)
+                .append(paths)
+                .toHashCode();
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("paths", paths)
+                .toString();
     }
 }
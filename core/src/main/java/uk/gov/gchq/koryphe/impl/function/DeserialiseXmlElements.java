@@ -0,0 +1,111 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.koryphe.impl.function;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import uk.gov.gchq.koryphe.Since;
+import uk.gov.gchq.koryphe.Summary;
+import uk.gov.gchq.koryphe.function.KorypheFunction;
+
+import java.io.Serializable;
+import java.util.Map;
+
+import static java.util.Objects.isNull;
+
+/**
+ * A {@code DeserialiseXmlElements} lazily parses the repeated elements of an XML document.
+ * <p>
+ * The elements are selected by a '/' separated path of element names starting at the
+ * document element, for example {@code "feed/entry"}, where a {@code *} matches any
+ * element name. Each element is returned as a {@link Map} from its name to its value,
+ * which is the same as applying {@link DeserialiseXml} to the element on its own.
+ * </p>
+ * <p>
+ * The document is parsed as the returned iterable is iterated, so only one element is
+ * held in memory at a time. Each iteration parses the document again.
+ * </p>
+ */
+@Since("1.10.1")
+@Summary("Lazily parses the repeated elements of an XML document into Maps")
+@JsonPropertyOrder(alphabetic = true)
+public class DeserialiseXmlElements extends KorypheFunction<String, Iterable<Map<String, Object>>> implements Serializable {
+    private static final long serialVersionUID = 2967130548221097391L;
+
+    private String path;
+
+    public DeserialiseXmlElements() {
+    }
+
+    public DeserialiseXmlElements(final String path) {
+        this.path = path;
+    }
+
+    @Override
+    public Iterable<Map<String, Object>> apply(final String xml) {
+        if (isNull(xml)) {
+            return null;
+        }
+
+        return XmlMapReader.elements(xml, path);
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(final String path) {
+        this.path = path;
+    }
+
+    public DeserialiseXmlElements path(final String path) {
+        this.path = path;
+        return this;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (null == o || !getClass().equals(o.getClass())) {
+            return false;
+        }
+
+        final DeserialiseXmlElements that = (DeserialiseXmlElements) o;
+        return new EqualsBuilder()
+                .append(path, that.path)
+                .isEquals();
+    }
+
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder(37, 73)
+                .append(path)
+                .toHashCode();
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("path", path)
+                .toString();
+    }
+}
@@ -15,6 +15,7 @@
  */
 package uk.gov.gchq.koryphe.impl.function;
 
+import uk.gov.gchq.koryphe.Deterministic;
 import uk.gov.gchq.koryphe.Since;
 import uk.gov.gchq.koryphe.Summary;
 import uk.gov.gchq.koryphe.function.KorypheFunction;
@@ -24,6 +25,7 @@ import java.util.Map;
 /**
  * A {@link DictionaryLookup} is a {@link KorypheFunction} that takes a key and using a dictionary returns a value.
  */
+@Deterministic
 @Since("1.7.0")
 @Summary("Looks up a value in a map")
 public class DictionaryLookup<K, V> extends KorypheFunction<K, V> {
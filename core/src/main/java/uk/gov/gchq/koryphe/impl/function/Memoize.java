@@ -0,0 +1,285 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.koryphe.impl.function;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import uk.gov.gchq.koryphe.Since;
+import uk.gov.gchq.koryphe.Summary;
+import uk.gov.gchq.koryphe.ValidationResult;
+import uk.gov.gchq.koryphe.function.KorypheFunction;
+import uk.gov.gchq.koryphe.signature.InputValidator;
+import uk.gov.gchq.koryphe.signature.OutputValidator;
+import uk.gov.gchq.koryphe.signature.Signature;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * A <code>Memoize</code> caches the output of a {@link Function} for each input, so
+ * applying it to a repeated input is a cache lookup rather than repeating the work.
+ * <p>
+ * The cache is bounded and evicts the least recently used entries once it holds
+ * more than the max size. If a weigher is set, the max size is the max total weight of the
+ * cached outputs instead of the number of entries. Entries can optionally expire a fixed time after they are
+ * cached. Byte and object array inputs are compared by their contents, other inputs must implement equals.
+ * </p>
+ * <p>
+ * The function should be {@link uk.gov.gchq.koryphe.Deterministic}. Cached outputs are returned
+ * to every caller with the same input, so they must not be modified.
+ * </p>
+ *
+ * @param <I> the input type
+ * @param <O> the output type
+ */
+@Since("1.10.1")
+@Summary("Caches the output of a function for each input")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class Memoize<I, O> extends KorypheFunction<I, O> implements InputValidator, OutputValidator {
+    public static final long DEFAULT_MAX_SIZE = 10000;
+
+    private static final Object NULL = new Object();
+
+    private Function<I, O> function;
+    private long maxSize = DEFAULT_MAX_SIZE;
+    private Long expireAfterMillis;
+    private Function<Object, Integer> weigher;
+
+    private transient volatile Cache<Object, Object> cache;
+
+    public Memoize() {
+    }
+
+    public Memoize(final Function<I, O> function) {
+        this.function = function;
+    }
+
+    public Memoize(final Function<I, O> function, final long maxSize) {
+        this(function);
+        setMaxSize(maxSize);
+    }
+
+    @Override
+    public O apply(final I input) {
+        if (null == function) {
+            return null;
+        }
+
+        if (null == input) {
+            return function.apply(null);
+        }
+
+        final Cache<Object, Object> outputs = getCache();
+        final Object key = getKey(input);
+        Object output = outputs.getIfPresent(key);
+        if (null == output) {
+            final O result = function.apply(input);
+            output = null != result ? result : NULL;
+            outputs.put(key, output);
+        }
+        return NULL == output ? null : (O) output;
+    }
+
+    private Cache<Object, Object> getCache() {
+        Cache<Object, Object> result = cache;
+        if (null == result) {
+            synchronized (this) {
+                result = cache;
+                if (null == result) {
+                    result = createCache();
+                    cache = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    private Cache<Object, Object> createCache() {
+        final CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder().recordStats();
+        if (null != weigher) {
+            builder.maximumWeight(maxSize)
+                    .weigher((key, value) -> NULL == value ? 0 : weigh(value));
+        } else {
+            builder.maximumSize(maxSize);
+        }
+        if (null != expireAfterMillis) {
+            builder.expireAfterWrite(expireAfterMillis, TimeUnit.MILLISECONDS);
+        }
+        return builder.build();
+    }
+
+    private int weigh(final Object output) {
+        final Integer weight = weigher.apply(output);
+        if (null == weight) {
+            throw new IllegalArgumentException("Weigher " + weigher + " returned a null weight for output: " + output);
+        }
+        return weight;
+    }
+
+    private static Object getKey(final Object input) {
+        if (input instanceof byte[]) {
+            return ByteBuffer.wrap(((byte[]) input).clone());
+        }
+
+        if (input instanceof Object[]) {
+            return Arrays.asList(((Object[]) input).clone());
+        }
+
+        return input;
+    }
+
+    @JsonTypeInfo(use = JsonTypeInfo.Id.CLASS, include = JsonTypeInfo.As.PROPERTY, property = "class")
+    public Function<I, O> getFunction() {
+        return function;
+    }
+
+    public void setFunction(final Function<I, O> function) {
+        this.function = function;
+        cache = null;
+    }
+
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(final long maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Max size must be at least 1");
+        }
+        this.maxSize = maxSize;
+        cache = null;
+    }
+
+    public Long getExpireAfterMillis() {
+        return expireAfterMillis;
+    }
+
+    public void setExpireAfterMillis(final Long expireAfterMillis) {
+        if (null != expireAfterMillis && expireAfterMillis < 1) {
+            throw new IllegalArgumentException("Expire after millis must be at least 1");
+        }
+        this.expireAfterMillis = expireAfterMillis;
+        cache = null;
+    }
+
+    @JsonTypeInfo(use = JsonTypeInfo.Id.CLASS, include = JsonTypeInfo.As.PROPERTY, property = "class")
+    public Function<Object, Integer> getWeigher() {
+        return weigher;
+    }
+
+    public void setWeigher(final Function<Object, Integer> weigher) {
+        this.weigher = weigher;
+        cache = null;
+    }
+
+    @JsonIgnore
+    public long getHitCount() {
+        final Cache<Object, Object> current = cache;
+        return null != current ? current.stats().hitCount() : 0;
+    }
+
+    @JsonIgnore
+    public long getMissCount() {
+        final Cache<Object, Object> current = cache;
+        return null != current ? current.stats().missCount() : 0;
+    }
+
+    /**
+     * @return the proportion of inputs that were found in the cache, or 1 if there have been no inputs
+     */
+    @JsonIgnore
+    public double getHitRate() {
+        final Cache<Object, Object> current = cache;
+        return null != current ? current.stats().hitRate() : 1.0;
+    }
+
+    @JsonIgnore
+    public long getEvictionCount() {
+        final Cache<Object, Object> current = cache;
+        return null != current ? current.stats().evictionCount() : 0;
+    }
+
+    @JsonIgnore
+    public long size() {
+        final Cache<Object, Object> current = cache;
+        return null != current ? current.size() : 0;
+    }
+
+    public void clear() {
+        final Cache<Object, Object> current = cache;
+        if (null != current) {
+            current.invalidateAll();
+        }
+    }
+
+    @Override
+    public ValidationResult isInputValid(final Class<?>... arguments) {
+        return Signature.getInputSignature(function).assignable(arguments);
+    }
+
+    @Override
+    public ValidationResult isOutputValid(final Class<?>... arguments) {
+        return Signature.getOutputSignature(function).assignable(arguments);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+
+        if (null == obj || getClass() != obj.getClass()) {
+            return false;
+        }
+
+        final Memoize that = (Memoize) obj;
+        return new EqualsBuilder()
+                .append(function, that.function)
+                .append(maxSize, that.maxSize)
+                .append(expireAfterMillis, that.expireAfterMillis)
+                .append(weigher, that.weigher)
+                .isEquals();
+    }
+
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder(53, 29)
+                .append(function)
+                .append(maxSize)
+                .append(expireAfterMillis)
+                .append(weigher)
+                .toHashCode();
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("function", function)
+                .append("maxSize", maxSize)
+                .append("expireAfterMillis", expireAfterMillis)
+                .append("weigher", weigher)
+                .toString();
+    }
+}
@@ -21,7 +21,11 @@ import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import uk.gov.gchq.koryphe.Since;
 import uk.gov.gchq.koryphe.Summary;
 import uk.gov.gchq.koryphe.function.KorypheFunction;
+import uk.gov.gchq.koryphe.iterable.CloseableIterator;
 import uk.gov.gchq.koryphe.util.CloseableUtil;
+import uk.gov.gchq.koryphe.util.IterableUtil;
+
+import java.util.List;
 
 /**
  * A {@code NthItem} is a {@link KorypheFunction} that returns an item based on user selection,
@@ -50,7 +54,17 @@ public class NthItem<T> extends KorypheFunction<Iterable<T>, T> {
             throw new IllegalArgumentException("Input cannot be null");
         }
         try {
-            return Iterables.get(input, selection);
+            if (selection < 0 || input instanceof List) {
+                return Iterables.get(input, selection);
+            }
+
+            // Limiting the iterable allows sources that support skipping to seek straight to the selection
+            try (final CloseableIterator<T> itr = IterableUtil.limit(input, selection, null, true).iterator()) {
+                if (!itr.hasNext()) {
+                    throw new IndexOutOfBoundsException("position (" + selection + ") must be less than the number of elements in the iterable");
+                }
+                return itr.next();
+            }
         } finally {
             CloseableUtil.close(input);
         }
@@ -18,6 +18,7 @@ package uk.gov.gchq.koryphe.impl.function;
 import com.fasterxml.jackson.annotation.JsonGetter;
 import com.fasterxml.jackson.annotation.JsonSetter;
 
+import uk.gov.gchq.koryphe.Deterministic;
 import uk.gov.gchq.koryphe.Since;
 import uk.gov.gchq.koryphe.Summary;
 import uk.gov.gchq.koryphe.function.KorypheFunction;
@@ -34,6 +35,7 @@ import static java.util.Objects.nonNull;
 /**
  * Parses a date string and returns the timestamp as a {@link Long}.
  */
+@Deterministic
 @Since("1.8.0")
 @Summary("Parses a date string into a timestamp")
 public class ParseTime extends KorypheFunction<String, Long> {
@@ -16,6 +16,7 @@
 
 package uk.gov.gchq.koryphe.impl.function;
 
+import uk.gov.gchq.koryphe.Deterministic;
 import uk.gov.gchq.koryphe.Since;
 import uk.gov.gchq.koryphe.Summary;
 import uk.gov.gchq.koryphe.function.KorypheFunction;
@@ -24,15 +25,22 @@ import uk.gov.gchq.koryphe.function.KorypheFunction;
  * A {@code StringRegexReplace} is a {@link java.util.function.Function} which takes an input string and applies the
  * provided regular expression to find matching substrings to replace. It then replaces all of these matches with the
  * provided replacement string.
+ * <p>
+ * The regular expression is compiled once, when the function is first applied,
+ * and regular expressions which only match literal text are applied without a
+ * {@link java.util.regex.Matcher}.
+ * </p>
  *
  * @see StringReplace
  */
+@Deterministic
 @Since("1.9.0")
 @Summary("Replace all portions of a string which match a regular expression.")
 public class StringRegexReplace extends KorypheFunction<String, String> {
 
     private String regex;
     private String replacement;
+    private StringRewriter rewriter;
 
     public StringRegexReplace() {
     }
@@ -40,6 +48,7 @@ public class StringRegexReplace extends KorypheFunction<String, String> {
     public StringRegexReplace(final String regex, final String replacement) {
         this.regex = regex;
         this.replacement = replacement;
+        this.rewriter = null;
     }
 
     @Override
@@ -48,7 +57,16 @@ public class StringRegexReplace extends KorypheFunction<String, String> {
             return null;
         }
 
-        return input.replaceAll(regex, replacement);
+        return getRewriter().apply(input);
+    }
+
+    StringRewriter getRewriter() {
+        StringRewriter compiled = rewriter;
+        if (null == compiled) {
+            compiled = StringRewriter.regex(regex, replacement);
+            rewriter = compiled;
+        }
+        return compiled;
     }
 
     public String getRegex() {
@@ -57,6 +75,7 @@ public class StringRegexReplace extends KorypheFunction<String, String> {
 
     public void setRegex(final String regex) {
         this.regex = regex;
+        this.rewriter = null;
     }
 
     public String getReplacement() {
@@ -65,5 +84,6 @@ public class StringRegexReplace extends KorypheFunction<String, String> {
 
     public void setReplacement(final String replacement) {
         this.replacement = replacement;
+        this.rewriter = null;
     }
 }
@@ -20,13 +20,16 @@ import uk.gov.gchq.koryphe.Since;
 import uk.gov.gchq.koryphe.Summary;
 import uk.gov.gchq.koryphe.function.KorypheFunction;
 
-import java.util.Arrays;
 import java.util.List;
-import java.util.regex.Pattern;
 
 /**
  * A {@code StringRegexSplit} is a {@link java.util.function.Function} which splits an input string based on the
  * provided regular expression.
+ * <p>
+ * The regular expression is compiled once, when the function is first applied,
+ * and regular expressions which only match literal text are split on using
+ * {@link String#indexOf(String)}.
+ * </p>
  *
  * @see StringSplit
  */
@@ -35,6 +38,7 @@ import java.util.regex.Pattern;
 public class StringRegexSplit extends KorypheFunction<String, List<String>> {
 
     private String regex;
+    private StringRewriter splitter;
 
     public StringRegexSplit() {
     }
@@ -49,8 +53,12 @@ public class StringRegexSplit extends KorypheFunction<String, List<String>> {
             return null;
         }
 
-        final Pattern pattern = Pattern.compile(regex);
-        return Arrays.asList(pattern.split(input));
+        StringRewriter compiled = splitter;
+        if (null == compiled) {
+            compiled = StringRewriter.splitter(regex);
+            splitter = compiled;
+        }
+        return compiled.split(input);
     }
 
     public String getRegex() {
@@ -59,5 +67,6 @@ public class StringRegexSplit extends KorypheFunction<String, List<String>> {
 
     public void setRegex(final String regex) {
         this.regex = regex;
+        this.splitter = null;
     }
 }
@@ -16,8 +16,6 @@
 
 package uk.gov.gchq.koryphe.impl.function;
 
-import org.apache.commons.lang3.StringUtils;
-
 import uk.gov.gchq.koryphe.Since;
 import uk.gov.gchq.koryphe.Summary;
 import uk.gov.gchq.koryphe.function.KorypheFunction;
@@ -32,6 +30,7 @@ public class StringReplace extends KorypheFunction<String, String> {
 
     private String replacement;
     private String searchString;
+    private StringRewriter rewriter;
 
     public StringReplace() {
     }
@@ -43,8 +42,17 @@ public class StringReplace extends KorypheFunction<String, String> {
 
     @Override
     public String apply(final String input) {
-        // If null, StringUtils will return null.
-        return StringUtils.replace(input, searchString, replacement);
+        // If null, the rewriter will return null.
+        return getRewriter().apply(input);
+    }
+
+    StringRewriter getRewriter() {
+        StringRewriter compiled = rewriter;
+        if (null == compiled) {
+            compiled = StringRewriter.literal(searchString, replacement);
+            rewriter = compiled;
+        }
+        return compiled;
     }
 
     public String getReplacement() {
@@ -53,6 +61,7 @@ public class StringReplace extends KorypheFunction<String, String> {
 
     public void setReplacement(final String replacement) {
         this.replacement = replacement;
+        this.rewriter = null;
     }
 
     public String getSearchString() {
@@ -61,5 +70,6 @@ public class StringReplace extends KorypheFunction<String, String> {
 
     public void setSearchString(final String searchString) {
         this.searchString = searchString;
+        this.rewriter = null;
     }
 }
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.koryphe.impl.function;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import uk.gov.gchq.koryphe.Since;
+import uk.gov.gchq.koryphe.Summary;
+import uk.gov.gchq.koryphe.function.KorypheFunction;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A {@code StringRewrite} is a {@link java.util.function.Function} which rewrites an
+ * input string by applying an ordered list of rules, each to the output of the last.
+ * <p>
+ * {@link StringReplace} and {@link StringRegexReplace} rules are applied to a shared
+ * pair of buffers, so no intermediate {@link String} is created between them. Any
+ * other {@code Function<String, String>} can also be used as a rule, in which case
+ * it is applied to the text rewritten so far as a {@link String}.
+ * </p>
+ *
+ * @see StringReplace
+ * @see StringRegexReplace
+ */
+@Since("1.10.1")
+@Summary("Applies an ordered list of string replacements")
+public class StringRewrite extends KorypheFunction<String, String> {
+    private List<Function<String, String>> rules = new ArrayList<>();
+
+    public StringRewrite() {
+        // empty
+    }
+
+    @SafeVarargs
+    public StringRewrite(final Function<String, String>... rules) {
+        this(new ArrayList<>(Arrays.asList(rules)));
+    }
+
+    public StringRewrite(final List<Function<String, String>> rules) {
+        this.rules = rules;
+    }
+
+    @Override
+    public String apply(final String input) {
+        if (null == input || null == rules) {
+            return input;
+        }
+
+        CharSequence current = input;
+        StringBuilder target = null;
+        for (final Function<String, String> rule : rules) {
+            final StringRewriter rewriter = getRewriter(rule);
+            if (null != rewriter) {
+                if (null == target) {
+                    target = new StringBuilder(current.length() + 16);
+                } else {
+                    target.setLength(0);
+                }
+                if (rewriter.rewrite(current, target)) {
+                    // The buffer that has just been read from is reused for the next rule's output
+                    final StringBuilder previous = current instanceof StringBuilder ? (StringBuilder) current : null;
+                    current = target;
+                    target = previous;
+                }
+            } else if (null != rule) {
+                current = rule.apply(current.toString());
+                if (null == current) {
+                    return null;
+                }
+            }
+        }
+        return current.toString();
+    }
+
+    private static StringRewriter getRewriter(final Function<String, String> rule) {
+        if (rule instanceof StringRegexReplace) {
+            return ((StringRegexReplace) rule).getRewriter();
+        }
+        if (rule instanceof StringReplace) {
+            return ((StringReplace) rule).getRewriter();
+        }
+        return null;
+    }
+
+    @JsonTypeInfo(use = JsonTypeInfo.Id.CLASS, include = JsonTypeInfo.As.PROPERTY, property = "class")
+    public List<Function<String, String>> getRules() {
+        return rules;
+    }
+
+    public void setRules(final List<Function<String, String>> rules) {
+        this.rules = rules;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+
+        if (null == obj || getClass() != obj.getClass()) {
+            return false;
+        }
+
+        final StringRewrite that = (StringRewrite) obj;
+        return new EqualsBuilder()
+                .append(rules, that.rules)
+                .isEquals();
+    }
+
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder(47, 13)
+                .append(rules)
+                .toHashCode();
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("rules", rules)
+                .toString();
+    }
+}
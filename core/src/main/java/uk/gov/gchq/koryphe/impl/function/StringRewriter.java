@@ -0,0 +1,348 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.koryphe.impl.function;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A {@code StringRewriter} is a find and replace rule compiled once so it can be
+ * applied to many strings. Rules whose regular expression only matches literal
+ * text are applied with {@link String#indexOf(String)} rather than a {@link Matcher},
+ * and replacement strings are parsed once rather than on every match.
+ * <p>
+ * Rewriters can write their output into a {@link StringBuilder} so that several
+ * rules can be applied in turn without creating an intermediate {@link String}
+ * for each rule.
+ * </p>
+ */
+final class StringRewriter {
+    private static final String REGEX_META_CHARACTERS = "\\[](){}.*+?^$|";
+    private static final StringRewriter IDENTITY = new StringRewriter(null, null, null);
+
+    private final String search;
+    private final Pattern pattern;
+    private final Object[] replacement;
+
+    private StringRewriter(final String search, final Pattern pattern, final Object[] replacement) {
+        this.search = search;
+        this.pattern = pattern;
+        this.replacement = replacement;
+    }
+
+    /**
+     * Creates a rewriter which replaces all occurrences of a literal search string,
+     * with the same behaviour as {@link org.apache.commons.lang3.StringUtils#replace(String, String, String)}.
+     *
+     * @param search      the string to search for
+     * @param replacement the literal replacement
+     * @return the rewriter
+     */
+    static StringRewriter literal(final String search, final String replacement) {
+        if (null == search || search.isEmpty() || null == replacement) {
+            return IDENTITY;
+        }
+        return new StringRewriter(search, null, new Object[]{replacement});
+    }
+
+    /**
+     * Creates a rewriter which replaces all matches of a regular expression,
+     * with the same behaviour as {@link String#replaceAll(String, String)}, except
+     * that references to groups that do not exist are rejected straight away rather
+     * than when the first match is found.
+     *
+     * @param regex       the regular expression
+     * @param replacement the replacement, which may refer to captured groups
+     * @return the rewriter
+     */
+    static StringRewriter regex(final String regex, final String replacement) {
+        if (null == regex) {
+            throw new IllegalArgumentException("A regex is required");
+        }
+        if (null == replacement) {
+            throw new IllegalArgumentException("A replacement is required");
+        }
+
+        final String literal = toLiteral(regex);
+        if (null != literal) {
+            // With no groups, the only reference the replacement can make is $0, the match itself
+            final StringBuilder resolved = new StringBuilder();
+            for (final Object part : parseReplacement(replacement, 0, regex)) {
+                resolved.append(part instanceof Integer ? literal : part);
+            }
+            return new StringRewriter(literal, null, new Object[]{resolved.toString()});
+        }
+
+        final Pattern pattern = Pattern.compile(regex);
+        return new StringRewriter(null, pattern, parseReplacement(replacement, pattern.matcher("").groupCount(), regex));
+    }
+
+    /**
+     * Creates a rewriter which can only be used to {@link #split(String)} strings.
+     *
+     * @param regex the regular expression to split around
+     * @return the rewriter
+     */
+    static StringRewriter splitter(final String regex) {
+        if (null == regex) {
+            throw new IllegalArgumentException("A regex is required");
+        }
+
+        final String literal = toLiteral(regex);
+        return new StringRewriter(literal, null == literal ? Pattern.compile(regex) : null, null);
+    }
+
+    /**
+     * @param regex the regular expression
+     * @return the text matched by the regular expression if it only matches literal
+     * text, otherwise null.
+     */
+    private static String toLiteral(final String regex) {
+        if (regex.isEmpty()) {
+            return null;
+        }
+
+        final StringBuilder literal = new StringBuilder(regex.length());
+        for (int i = 0; i < regex.length(); i++) {
+            final char c = regex.charAt(i);
+            if ('\\' == c) {
+                // An escaped symbol is literal, but escaped letters and digits are character classes or references
+                if (i + 1 == regex.length() || Character.isLetterOrDigit(regex.charAt(i + 1))) {
+                    return null;
+                }
+                literal.append(regex.charAt(++i));
+            } else if (REGEX_META_CHARACTERS.indexOf(c) >= 0) {
+                return null;
+            } else {
+                literal.append(c);
+            }
+        }
+        return literal.toString();
+    }
+
+    /**
+     * Splits a string around matches of the rule, with the same behaviour as
+     * {@link Pattern#split(CharSequence)}.
+     *
+     * @param input the string to split
+     * @return the parts of the string
+     */
+    List<String> split(final String input) {
+        if (null != pattern) {
+            return Arrays.asList(pattern.split(input));
+        }
+
+        int index = input.indexOf(search);
+        if (index < 0) {
+            return Collections.singletonList(input);
+        }
+
+        final List<String> parts = new ArrayList<>();
+        int start = 0;
+        while (index >= 0) {
+            parts.add(input.substring(start, index));
+            start = index + search.length();
+            index = input.indexOf(search, start);
+        }
+        parts.add(input.substring(start));
+
+        // Trailing empty strings are discarded, as they are by Pattern.split
+        int size = parts.size();
+        while (size > 0 && parts.get(size - 1).isEmpty()) {
+            size--;
+        }
+        return parts.subList(0, size);
+    }
+
+    /**
+     * Applies the rule to a string.
+     *
+     * @param input the string to rewrite
+     * @return the rewritten string, which is the input itself if nothing matched
+     */
+    String apply(final String input) {
+        if (null == input) {
+            return null;
+        }
+
+        final StringBuilder output = new StringBuilder(input.length() + 16);
+        return rewrite(input, output) ? output.toString() : input;
+    }
+
+    /**
+     * Applies the rule to some text, appending the result to the output.
+     * If nothing matched then the output is left unchanged.
+     *
+     * @param input  the text to rewrite
+     * @param output the builder to append the rewritten text to
+     * @return true if the text was rewritten
+     */
+    boolean rewrite(final CharSequence input, final StringBuilder output) {
+        if (null != pattern) {
+            return rewriteRegex(input, output);
+        }
+        if (null != search) {
+            return rewriteLiteral(input, output);
+        }
+        return false;
+    }
+
+    private boolean rewriteLiteral(final CharSequence input, final StringBuilder output) {
+        int index = indexOf(input, search, 0);
+        if (index < 0) {
+            return false;
+        }
+
+        final String literalReplacement = (String) replacement[0];
+        int start = 0;
+        while (index >= 0) {
+            output.append(input, start, index).append(literalReplacement);
+            start = index + search.length();
+            index = indexOf(input, search, start);
+        }
+        output.append(input, start, input.length());
+        return true;
+    }
+
+    private boolean rewriteRegex(final CharSequence input, final StringBuilder output) {
+        final Matcher matcher = pattern.matcher(input);
+        if (!matcher.find()) {
+            return false;
+        }
+
+        int start = 0;
+        do {
+            output.append(input, start, matcher.start());
+            for (final Object part : replacement) {
+                if (part instanceof Integer) {
+                    appendGroup(output, input, matcher, (Integer) part);
+                } else if (part instanceof GroupName) {
+                    final String group = matcher.group(((GroupName) part).name);
+                    if (null != group) {
+                        output.append(group);
+                    }
+                } else {
+                    output.append((String) part);
+                }
+            }
+            start = matcher.end();
+        } while (matcher.find());
+        output.append(input, start, input.length());
+        return true;
+    }
+
+    private static void appendGroup(final StringBuilder output, final CharSequence input, final Matcher matcher, final int group) {
+        final int groupStart = matcher.start(group);
+        if (groupStart >= 0) {
+            output.append(input, groupStart, matcher.end(group));
+        }
+    }
+
+    private static int indexOf(final CharSequence input, final String search, final int fromIndex) {
+        if (input instanceof String) {
+            return ((String) input).indexOf(search, fromIndex);
+        }
+        if (input instanceof StringBuilder) {
+            return ((StringBuilder) input).indexOf(search, fromIndex);
+        }
+        return input.toString().indexOf(search, fromIndex);
+    }
+
+    /**
+     * Parses a replacement string into literal text, group numbers and group names,
+     * following the rules of {@link Matcher#appendReplacement(StringBuffer, String)}.
+     *
+     * @param replacement the replacement string
+     * @param groupCount  the number of groups in the regular expression
+     * @param regex       the regular expression, for error messages
+     * @return the parts of the replacement: strings, group numbers and group names
+     */
+    private static Object[] parseReplacement(final String replacement, final int groupCount, final String regex) {
+        final List<Object> parts = new ArrayList<>();
+        final StringBuilder text = new StringBuilder();
+        int i = 0;
+        while (i < replacement.length()) {
+            final char c = replacement.charAt(i++);
+            if ('\\' == c) {
+                if (i == replacement.length()) {
+                    throw new IllegalArgumentException("Character to be escaped is missing in replacement: " + replacement);
+                }
+                text.append(replacement.charAt(i++));
+            } else if ('$' == c) {
+                if (i == replacement.length()) {
+                    throw new IllegalArgumentException("Illegal group reference: group index is missing in replacement: " + replacement);
+                }
+
+                final Object group;
+                if ('{' == replacement.charAt(i)) {
+                    final int end = replacement.indexOf('}', i);
+                    if (end < 0) {
+                        throw new IllegalArgumentException("Named capturing group is missing trailing '}' in replacement: " + replacement);
+                    }
+                    final String name = replacement.substring(i + 1, end);
+                    // Named groups are counted as groups, so with no groups the name cannot exist
+                    if (0 == groupCount) {
+                        throw new IllegalArgumentException("No group with name {" + name + "}");
+                    }
+                    group = new GroupName(name);
+                    i = end + 1;
+                } else {
+                    int number = replacement.charAt(i++) - '0';
+                    if (number < 0 || number > 9) {
+                        throw new IllegalArgumentException("Illegal group reference in replacement: " + replacement);
+                    }
+                    // Further digits are only part of the reference while they make a valid group number
+                    while (i < replacement.length()) {
+                        final int next = replacement.charAt(i) - '0';
+                        if (next < 0 || next > 9 || number * 10 + next > groupCount) {
+                            break;
+                        }
+                        number = number * 10 + next;
+                        i++;
+                    }
+                    if (number > groupCount) {
+                        throw new IllegalArgumentException("No group " + number + " in regex: " + regex);
+                    }
+                    group = number;
+                }
+
+                if (text.length() > 0) {
+                    parts.add(text.toString());
+                    text.setLength(0);
+                }
+                parts.add(group);
+            } else {
+                text.append(c);
+            }
+        }
+        if (text.length() > 0) {
+            parts.add(text.toString());
+        }
+        return parts.toArray();
+    }
+
+    private static final class GroupName {
+        private final String name;
+
+        private GroupName(final String name) {
+            this.name = name;
+        }
+    }
+}
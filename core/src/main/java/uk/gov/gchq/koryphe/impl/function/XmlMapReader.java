@@ -0,0 +1,393 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.koryphe.impl.function;
+
+import org.json.JSONObject;
+import org.json.XML;
+
+import uk.gov.gchq.koryphe.iterable.CloseableIterable;
+import uk.gov.gchq.koryphe.iterable.CloseableIterator;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * An {@code XmlMapReader} converts XML documents into nested {@link Map}s in a single
+ * pass over a StAX {@link XMLStreamReader}, without building an intermediate document tree.
+ * <p>
+ * The maps have the same layout as {@code XML.toJSONObject(xml).toMap()}: attributes and
+ * child elements become keys, repeated keys are collected into a {@link List}, text is
+ * held under a {@code content} key and an element containing only text is replaced by
+ * its value. Attribute values and text are converted with {@link XML#stringToValue(String)}.
+ * </p>
+ * <p>
+ * A reader can be limited to a set of element paths. Each path is a '/' separated list
+ * of element names starting at the document element, where a {@code *} matches any
+ * element name. Elements on a path are materialised in full, their ancestors only contain
+ * the selected elements and all other elements are skipped without being converted.
+ * </p>
+ */
+final class XmlMapReader {
+    static final String CONTENT_KEY = "content";
+    private static final String WILDCARD = "*";
+    private static final String REPORT_CDATA_PROPERTY = "http://java.sun.com/xml/stream/properties/report-cdata-event";
+    private static final XMLInputFactory FACTORY = createFactory();
+    private static final XmlMapReader ALL = new XmlMapReader(Collections.emptyList());
+
+    private final List<String[]> paths;
+
+    private XmlMapReader(final List<String[]> paths) {
+        this.paths = paths;
+    }
+
+    /**
+     * Creates a reader which converts whole documents.
+     *
+     * @return the reader
+     */
+    static XmlMapReader all() {
+        return ALL;
+    }
+
+    /**
+     * Creates a reader which only converts the elements on the given paths.
+     *
+     * @param paths the element paths to select, or an empty collection to select every element
+     * @return the reader
+     */
+    static XmlMapReader paths(final List<String> paths) {
+        if (null == paths || paths.isEmpty()) {
+            return ALL;
+        }
+
+        final List<String[]> splitPaths = new ArrayList<>(paths.size());
+        for (final String path : paths) {
+            splitPaths.add(splitPath(path));
+        }
+        return new XmlMapReader(splitPaths);
+    }
+
+    /**
+     * Converts an XML document into a map keyed by the name of the document element.
+     *
+     * @param xml the XML document
+     * @return the map
+     */
+    Map<String, Object> read(final String xml) {
+        final XMLStreamReader reader = createReader(xml);
+        try {
+            final Map<String, Object> result = new HashMap<>();
+            while (reader.hasNext()) {
+                if (XMLStreamConstants.START_ELEMENT == reader.next()) {
+                    readSelected(reader, paths, 0, result);
+                }
+            }
+            return result;
+        } catch (final XMLStreamException e) {
+            throw new RuntimeException("Failed to deserialise XML", e);
+        } finally {
+            close(reader);
+        }
+    }
+
+    /**
+     * Lazily converts each element found on the given path. Each item is a map from
+     * the element name to its value, so it is the same as reading the element as a document.
+     * A new parse of the document is started each time the iterable is iterated.
+     *
+     * @param xml  the XML document
+     * @param path the '/' separated path to the elements
+     * @return the elements
+     */
+    static CloseableIterable<Map<String, Object>> elements(final String xml, final String path) {
+        final String[] segments = splitPath(path);
+        return new CloseableIterable<Map<String, Object>>() {
+            @Override
+            public void close() {
+                // Iterators hold the parsers and are closed individually
+            }
+
+            @Override
+            public CloseableIterator<Map<String, Object>> iterator() {
+                return new ElementIterator(createReader(xml), segments);
+            }
+        };
+    }
+
+    private static void readSelected(final XMLStreamReader reader, final List<String[]> selectedPaths, final int depth, final Map<String, Object> parent) throws XMLStreamException {
+        if (selectedPaths.isEmpty()) {
+            accumulate(parent, elementName(reader), readElement(reader));
+            return;
+        }
+
+        final String name = elementName(reader);
+        final List<String[]> matchingPaths = new ArrayList<>(selectedPaths.size());
+        for (final String[] path : selectedPaths) {
+            if (matches(path, depth, name)) {
+                if (depth == path.length - 1) {
+                    accumulate(parent, name, readElement(reader));
+                    return;
+                }
+                matchingPaths.add(path);
+            }
+        }
+
+        if (matchingPaths.isEmpty()) {
+            skipElement(reader);
+            return;
+        }
+
+        final Map<String, Object> element = new HashMap<>();
+        while (XMLStreamConstants.END_ELEMENT != reader.next()) {
+            if (XMLStreamConstants.START_ELEMENT == reader.getEventType()) {
+                readSelected(reader, matchingPaths, depth + 1, element);
+            }
+        }
+        if (!element.isEmpty()) {
+            accumulate(parent, name, element);
+        }
+    }
+
+    /**
+     * Converts the element at the current position of the reader, leaving the
+     * reader on the matching end element.
+     *
+     * @param reader the reader, positioned on a start element
+     * @return the value of the element
+     * @throws XMLStreamException if the XML is not well formed
+     */
+    private static Object readElement(final XMLStreamReader reader) throws XMLStreamException {
+        final Map<String, Object> element = new HashMap<>();
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            accumulate(element, qualifiedName(reader.getAttributePrefix(i), reader.getAttributeLocalName(i)), toValue(reader.getAttributeValue(i)));
+        }
+
+        StringBuilder text = null;
+        while (true) {
+            final int event = reader.next();
+            if (XMLStreamConstants.CHARACTERS == event || XMLStreamConstants.SPACE == event) {
+                if (null == text) {
+                    text = new StringBuilder();
+                }
+                text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                continue;
+            }
+
+            // Text is split by any other markup, in the same way as org.json
+            if (null != text) {
+                addText(element, text);
+                text.setLength(0);
+            }
+
+            if (XMLStreamConstants.START_ELEMENT == event) {
+                accumulate(element, elementName(reader), readElement(reader));
+            } else if (XMLStreamConstants.CDATA == event) {
+                if (0 < reader.getTextLength()) {
+                    accumulate(element, CONTENT_KEY, reader.getText());
+                }
+            } else if (XMLStreamConstants.END_ELEMENT == event) {
+                break;
+            }
+        }
+
+        if (element.isEmpty()) {
+            return "";
+        }
+        if (1 == element.size() && element.containsKey(CONTENT_KEY)) {
+            return element.get(CONTENT_KEY);
+        }
+        return element;
+    }
+
+    private static void addText(final Map<String, Object> element, final StringBuilder text) {
+        final String trimmed = text.toString().trim();
+        if (!trimmed.isEmpty()) {
+            accumulate(element, CONTENT_KEY, toValue(trimmed));
+        }
+    }
+
+    private static void skipElement(final XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (0 < depth) {
+            final int event = reader.next();
+            if (XMLStreamConstants.START_ELEMENT == event) {
+                depth++;
+            } else if (XMLStreamConstants.END_ELEMENT == event) {
+                depth--;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void accumulate(final Map<String, Object> map, final String key, final Object value) {
+        final Object existing = map.get(key);
+        if (null == existing && !map.containsKey(key)) {
+            // Lists are wrapped so they are not confused with repeated keys, as in org.json
+            map.put(key, value instanceof List ? new ArrayList<>(Collections.singletonList(value)) : value);
+        } else if (existing instanceof List) {
+            ((List<Object>) existing).add(value);
+        } else {
+            final List<Object> values = new ArrayList<>();
+            values.add(existing);
+            values.add(value);
+            map.put(key, values);
+        }
+    }
+
+    private static Object toValue(final String string) {
+        final Object value = XML.stringToValue(string);
+        return JSONObject.NULL.equals(value) ? null : value;
+    }
+
+    private static boolean matches(final String[] path, final int depth, final String name) {
+        return depth < path.length && (WILDCARD.equals(path[depth]) || path[depth].equals(name));
+    }
+
+    private static String elementName(final XMLStreamReader reader) {
+        return qualifiedName(reader.getPrefix(), reader.getLocalName());
+    }
+
+    private static String qualifiedName(final String prefix, final String localName) {
+        if (null == prefix || prefix.isEmpty() || -1 < localName.indexOf(':')) {
+            return localName;
+        }
+        return prefix + ':' + localName;
+    }
+
+    private static String[] splitPath(final String path) {
+        if (null == path) {
+            throw new IllegalArgumentException("XML path cannot be null");
+        }
+
+        final String[] segments = path.split("/");
+        if (0 == segments.length) {
+            throw new IllegalArgumentException("XML path must contain at least one element name: " + path);
+        }
+        for (final String segment : segments) {
+            if (segment.isEmpty()) {
+                throw new IllegalArgumentException("XML path contains an empty element name: " + path);
+            }
+        }
+        return segments;
+    }
+
+    private static XMLStreamReader createReader(final String xml) {
+        try {
+            return FACTORY.createXMLStreamReader(new StringReader(xml));
+        } catch (final XMLStreamException e) {
+            throw new RuntimeException("Failed to deserialise XML", e);
+        }
+    }
+
+    private static void close(final XMLStreamReader reader) {
+        try {
+            reader.close();
+        } catch (final XMLStreamException e) {
+            // Ignore exception
+        }
+    }
+
+    private static XMLInputFactory createFactory() {
+        final XMLInputFactory factory = XMLInputFactory.newFactory();
+        // Qualified names are kept as they appear in the document, in the same way as org.json
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        if (factory.isPropertySupported(REPORT_CDATA_PROPERTY)) {
+            factory.setProperty(REPORT_CDATA_PROPERTY, true);
+        }
+        return factory;
+    }
+
+    private static final class ElementIterator implements CloseableIterator<Map<String, Object>> {
+        private final XMLStreamReader reader;
+        private final String[] path;
+        private int depth;
+        private Map<String, Object> nextElement;
+        private boolean closed;
+
+        private ElementIterator(final XMLStreamReader reader, final String[] path) {
+            this.reader = reader;
+            this.path = path;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (null == nextElement && !closed) {
+                try {
+                    nextElement = readNextElement();
+                } catch (final XMLStreamException e) {
+                    close();
+                    throw new RuntimeException("Failed to deserialise XML", e);
+                }
+                if (null == nextElement) {
+                    close();
+                }
+            }
+            return null != nextElement;
+        }
+
+        @Override
+        public Map<String, Object> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("Reached the end of the iterator");
+            }
+
+            final Map<String, Object> element = nextElement;
+            nextElement = null;
+            return element;
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                XmlMapReader.close(reader);
+            }
+        }
+
+        private Map<String, Object> readNextElement() throws XMLStreamException {
+            while (reader.hasNext()) {
+                final int event = reader.next();
+                if (XMLStreamConstants.START_ELEMENT == event) {
+                    final String name = elementName(reader);
+                    if (!matches(path, depth, name)) {
+                        skipElement(reader);
+                    } else if (depth == path.length - 1) {
+                        final Map<String, Object> element = new HashMap<>(2);
+                        element.put(name, readElement(reader));
+                        return element;
+                    } else {
+                        depth++;
+                    }
+                } else if (XMLStreamConstants.END_ELEMENT == event) {
+                    depth--;
+                }
+            }
+            return null;
+        }
+    }
+}
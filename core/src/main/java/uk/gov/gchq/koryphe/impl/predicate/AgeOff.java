@@ -22,10 +22,12 @@ import org.apache.commons.lang3.builder.ToStringBuilder;
 
 import uk.gov.gchq.koryphe.Since;
 import uk.gov.gchq.koryphe.Summary;
+import uk.gov.gchq.koryphe.clock.ClockUtil;
 import uk.gov.gchq.koryphe.predicate.KoryphePredicate;
 
 /**
  * An <code>AgeOff</code> is a {@link java.util.function.Predicate} that ages off old data based on a provided age of time in milliseconds.
+ * The current time is read from the {@link ClockUtil#getClock() clock}.
  */
 @Since("1.0.0")
 @Summary("Checks if a timestamp is recent based on a provided age off time")
@@ -50,7 +52,7 @@ public class AgeOff extends KoryphePredicate<Long> {
 
     @Override
     public boolean test(final Long input) {
-        return null != input && (System.currentTimeMillis() - input) < ageOffTime;
+        return null != input && (ClockUtil.currentTimeMillis() - input) < ageOffTime;
     }
 
     public long getAgeOffTime() {
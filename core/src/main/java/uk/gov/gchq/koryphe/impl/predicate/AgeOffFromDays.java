@@ -18,6 +18,7 @@ package uk.gov.gchq.koryphe.impl.predicate;
 
 import uk.gov.gchq.koryphe.Since;
 import uk.gov.gchq.koryphe.Summary;
+import uk.gov.gchq.koryphe.clock.ClockUtil;
 import uk.gov.gchq.koryphe.tuple.predicate.KoryphePredicate2;
 
 /**
@@ -33,6 +34,6 @@ public class AgeOffFromDays extends KoryphePredicate2<Long, Integer> {
     public boolean test(final Long timestamp, final Integer days) {
         return null != timestamp
                 && null != days
-                && (System.currentTimeMillis() - (days * DAYS_TO_MILLISECONDS) < timestamp);
+                && (ClockUtil.currentTimeMillis() - (days * DAYS_TO_MILLISECONDS) < timestamp);
     }
 }
@@ -31,15 +31,21 @@ import uk.gov.gchq.koryphe.predicate.KoryphePredicate;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.Set;
 
 /**
  * An <code>AreIn</code> is a {@link java.util.function.BiPredicate}
  * that checks if a provided {@link java.util.Collection} contains all the provided input values.
+ * <p>
+ * If the allowed values are not a {@link Set}, a {@link HashSet} copy of them is used to look up
+ * the input values, so changes to the allowed values collection after it has been set are not seen.
+ * </p>
  */
 @Since("1.0.0")
 @Summary("Checks if a provided collection contains all the provided input values")
 public class AreIn extends KoryphePredicate<Collection<?>> {
     private Collection<?> allowedValues;
+    private transient volatile Collection<?> allowedValuesSet;
 
     public AreIn() {
         // Required for serialisation
@@ -60,6 +66,7 @@ public class AreIn extends KoryphePredicate<Collection<?>> {
 
     public void setValues(final Collection<?> allowedValues) {
         this.allowedValues = allowedValues;
+        this.allowedValuesSet = null;
     }
 
     @JsonTypeInfo(use = JsonTypeInfo.Id.CLASS, include = JsonTypeInfo.As.WRAPPER_OBJECT)
@@ -76,11 +83,38 @@ public class AreIn extends KoryphePredicate<Collection<?>> {
         } else {
             allowedValues = new HashSet<>(0);
         }
+        allowedValuesSet = null;
     }
 
     @Override
     public boolean test(final Collection<?> input) {
-        return null == allowedValues || allowedValues.isEmpty() || (null != input && allowedValues.containsAll(input));
+        if (null == allowedValues || allowedValues.isEmpty()) {
+            return true;
+        }
+
+        if (null == input) {
+            return false;
+        }
+
+        final Collection<?> allowed = getAllowedValuesSet();
+        if (input instanceof HashSet && allowed instanceof HashSet && input.size() > allowed.size()) {
+            // A hash set with more values than are allowed must contain a value that is not allowed
+            return false;
+        }
+        return allowed.containsAll(input);
+    }
+
+    private Collection<?> getAllowedValuesSet() {
+        if (allowedValues instanceof Set) {
+            return allowedValues;
+        }
+
+        Collection<?> result = allowedValuesSet;
+        if (null == result) {
+            result = new HashSet<>(allowedValues);
+            allowedValuesSet = result;
+        }
+        return result;
     }
 
     @Override
@@ -0,0 +1,288 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.koryphe.impl.predicate;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import uk.gov.gchq.koryphe.Since;
+import uk.gov.gchq.koryphe.Summary;
+import uk.gov.gchq.koryphe.ValidationResult;
+import uk.gov.gchq.koryphe.predicate.KoryphePredicate;
+import uk.gov.gchq.koryphe.signature.InputValidator;
+import uk.gov.gchq.koryphe.signature.Signature;
+import uk.gov.gchq.koryphe.util.ComponentUtil;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * A <code>CachedPredicate</code> caches the result of a {@link Predicate} for each input,
+ * so testing a repeated input is a lookup rather than repeating the test.
+ * <p>
+ * Results for {@link String} inputs are held in a table of 64 bit fingerprints of the strings, with
+ * the result in the lowest bit, so each entry takes 8 bytes. A string is only added to the table the second
+ * time it is seen, so strings that are only seen once do not evict repeated strings. Results for other
+ * inputs are held in a bounded cache that evicts the least recently used entries, so they must implement equals.
+ * Null inputs are not cached.
+ * </p>
+ * <p>
+ * Strings are compared by fingerprint, so two different strings with the same 64 bit fingerprint would share a
+ * result. If the wrapped predicate is {@link uk.gov.gchq.koryphe.Stateful} its results are not cached.
+ * </p>
+ *
+ * @param <I> Type of input to be validated
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.CLASS, include = JsonTypeInfo.As.PROPERTY, property = "class")
+@Since("1.10.1")
+@Summary("Caches the result of a predicate for each input")
+public class CachedPredicate<I> extends KoryphePredicate<I> implements InputValidator {
+    public static final int DEFAULT_MAX_SIZE = 10000;
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final long RESULT_BIT = 1L;
+
+    @JsonTypeInfo(use = JsonTypeInfo.Id.CLASS, include = JsonTypeInfo.As.PROPERTY, property = "class")
+    private Predicate<I> predicate;
+    private int maxSize = DEFAULT_MAX_SIZE;
+
+    private transient volatile Results results;
+
+    public CachedPredicate() {
+    }
+
+    public CachedPredicate(final Predicate<I> predicate) {
+        this.predicate = predicate;
+    }
+
+    public CachedPredicate(final Predicate<I> predicate, final int maxSize) {
+        this(predicate);
+        setMaxSize(maxSize);
+    }
+
+    @Override
+    public boolean test(final I input) {
+        if (null == predicate) {
+            return true;
+        }
+
+        if (null == input || ComponentUtil.isStateful(predicate)) {
+            return predicate.test(input);
+        }
+
+        final Results cached = getResults();
+        if (input instanceof String) {
+            return cached.testString((String) input);
+        }
+        return cached.testObject(input);
+    }
+
+    private Results getResults() {
+        Results result = results;
+        if (null == result) {
+            synchronized (this) {
+                result = results;
+                if (null == result) {
+                    result = new Results(maxSize);
+                    results = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Creates a 64 bit fingerprint of a string, using FNV-1a over the characters
+     * followed by the MurmurHash3 finaliser to spread the bits.
+     *
+     * @param value the string
+     * @return the fingerprint, with the lowest bit clear and never 0
+     */
+    static long fingerprint(final String value) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+
+        final long fingerprint = hash & ~RESULT_BIT;
+        return 0 != fingerprint ? fingerprint : 2;
+    }
+
+    public Predicate<I> getPredicate() {
+        return predicate;
+    }
+
+    public void setPredicate(final Predicate<I> predicate) {
+        this.predicate = predicate;
+        results = null;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(final int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Max size must be at least 1");
+        }
+        this.maxSize = maxSize;
+        results = null;
+    }
+
+    @JsonIgnore
+    public long getHitCount() {
+        final Results current = results;
+        return null != current ? current.hits.sum() : 0;
+    }
+
+    @JsonIgnore
+    public long getMissCount() {
+        final Results current = results;
+        return null != current ? current.misses.sum() : 0;
+    }
+
+    /**
+     * @return the proportion of inputs that were found in the cache, or 1 if there have been no inputs
+     */
+    @JsonIgnore
+    public double getHitRate() {
+        // Read the results once, so the hits and misses come from the same results
+        final Results current = results;
+        if (null == current) {
+            return 1.0;
+        }
+        final long hits = current.hits.sum();
+        final long total = hits + current.misses.sum();
+        return 0 == total ? 1.0 : hits / (double) total;
+    }
+
+    public void clear() {
+        results = null;
+    }
+
+    @Override
+    public ValidationResult isInputValid(final Class<?>... arguments) {
+        if (null == predicate) {
+            return new ValidationResult();
+        }
+
+        return Signature.getInputSignature(predicate).assignable(arguments);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+
+        if (null == obj || getClass() != obj.getClass()) {
+            return false;
+        }
+
+        final CachedPredicate that = (CachedPredicate) obj;
+        return new EqualsBuilder()
+                .append(predicate, that.predicate)
+                .append(maxSize, that.maxSize)
+                .isEquals();
+    }
+
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder(59, 23)
+                .append(predicate)
+                .append(maxSize)
+                .toHashCode();
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("predicate", predicate)
+                .append("maxSize", maxSize)
+                .toString();
+    }
+
+    /**
+     * The cached results. Each table is direct mapped, so an entry replaces whatever
+     * was in its slot, and each slot is a single long so it can be read and written without locking.
+     * The doorkeeper holds the fingerprints of strings seen once, which are admitted to the
+     * results table if they are seen again.
+     */
+    private final class Results {
+        private final AtomicLongArray table;
+        private final AtomicLongArray doorkeeper;
+        private final int mask;
+        private final Cache<Object, Boolean> objects;
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+
+        private Results(final int maxSize) {
+            final int capacity = Integer.highestOneBit(Math.max(16, maxSize - 1)) << 1;
+            this.table = new AtomicLongArray(capacity);
+            this.doorkeeper = new AtomicLongArray(capacity);
+            this.mask = capacity - 1;
+            this.objects = CacheBuilder.newBuilder()
+                    .maximumSize(maxSize)
+                    .build();
+        }
+
+        private boolean testString(final String input) {
+            final long fingerprint = fingerprint(input);
+            final int slot = (int) (fingerprint >>> 1) & mask;
+            final long entry = table.get(slot);
+            if ((entry & ~RESULT_BIT) == fingerprint) {
+                hits.increment();
+                return RESULT_BIT == (entry & RESULT_BIT);
+            }
+
+            misses.increment();
+            final boolean result = predicate.test((I) input);
+            final int doorkeeperSlot = (int) (fingerprint >>> 32) & mask;
+            if (doorkeeper.get(doorkeeperSlot) == fingerprint) {
+                table.set(slot, result ? fingerprint | RESULT_BIT : fingerprint);
+            } else {
+                doorkeeper.set(doorkeeperSlot, fingerprint);
+            }
+            return result;
+        }
+
+        private boolean testObject(final I input) {
+            final Boolean cached = objects.getIfPresent(input);
+            if (null != cached) {
+                hits.increment();
+                return cached;
+            }
+
+            misses.increment();
+            final boolean result = predicate.test(input);
+            objects.put(input, result);
+            return result;
+        }
+    }
+}
@@ -27,6 +27,7 @@ import uk.gov.gchq.koryphe.Summary;
 import uk.gov.gchq.koryphe.ValidationResult;
 import uk.gov.gchq.koryphe.predicate.KoryphePredicate;
 import uk.gov.gchq.koryphe.signature.InputValidator;
+import uk.gov.gchq.koryphe.util.PrimitiveRange;
 
 /**
  * An <code>IsLessThan</code> is a {@link java.util.function.Predicate} that checks that the input
@@ -38,6 +39,7 @@ import uk.gov.gchq.koryphe.signature.InputValidator;
 public class IsLessThan extends KoryphePredicate<Comparable> implements InputValidator {
     private Comparable controlValue;
     private boolean orEqualTo;
+    private PrimitiveRange primitiveRange;
 
     public IsLessThan() {
         // Required for serialisation
@@ -60,6 +62,7 @@ public class IsLessThan extends KoryphePredicate<Comparable> implements InputVal
 
     public void setControlValue(final Comparable controlValue) {
         this.controlValue = controlValue;
+        this.primitiveRange = null;
     }
 
     public boolean getOrEqualTo() {
@@ -68,10 +71,16 @@ public class IsLessThan extends KoryphePredicate<Comparable> implements InputVal
 
     public void setOrEqualTo(final boolean orEqualTo) {
         this.orEqualTo = orEqualTo;
+        this.primitiveRange = null;
     }
 
     @Override
     public boolean test(final Comparable input) {
+        final PrimitiveRange range = getPrimitiveRange();
+        if (range.supports(input)) {
+            return range.inRange(input, input);
+        }
+
         if (null == input || !controlValue.getClass().isAssignableFrom(input.getClass())) {
             return false;
         }
@@ -84,6 +93,39 @@ public class IsLessThan extends KoryphePredicate<Comparable> implements InputVal
         return compareVal > 0;
     }
 
+    /**
+     * Tests a primitive value without boxing it. This is the same as testing
+     * the boxed {@link Long}.
+     *
+     * @param input the value to test
+     * @return true if the value is less than the control value
+     */
+    public boolean testLong(final long input) {
+        final PrimitiveRange range = getPrimitiveRange();
+        return range.supports(Long.class) ? range.inRange(input, input) : test(Long.valueOf(input));
+    }
+
+    /**
+     * Tests a primitive value without boxing it. This is the same as testing
+     * the boxed {@link Double}.
+     *
+     * @param input the value to test
+     * @return true if the value is less than the control value
+     */
+    public boolean testDouble(final double input) {
+        final PrimitiveRange range = getPrimitiveRange();
+        return range.supports(Double.class) ? range.inRange(input, input) : test(Double.valueOf(input));
+    }
+
+    PrimitiveRange getPrimitiveRange() {
+        PrimitiveRange range = primitiveRange;
+        if (null == range) {
+            range = PrimitiveRange.of(null, controlValue, null, orEqualTo);
+            primitiveRange = range;
+        }
+        return range;
+    }
+
     @Override
     public ValidationResult isInputValid(final Class<?>... arguments) {
         final ValidationResult result = new ValidationResult();
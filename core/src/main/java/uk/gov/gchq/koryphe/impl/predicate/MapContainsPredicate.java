@@ -25,16 +25,29 @@ import uk.gov.gchq.koryphe.Since;
 import uk.gov.gchq.koryphe.Summary;
 import uk.gov.gchq.koryphe.predicate.KoryphePredicate;
 
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Hashtable;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
+import java.util.regex.Pattern;
 
 /**
  * An <code>MapContainsPredicate</code> is a {@link Predicate} that checks
  * whether a {@link Map} contains a key that matches a given predicate.
+ * <p>
+ * If the key predicate is an {@link IsEqual}, an {@link IsIn} or a {@link Regex} without any
+ * special characters, and the map is hash based, the keys it accepts are looked up in the map
+ * rather than testing every key in the map.
+ * </p>
  */
 @Since("1.0.0")
 @Summary("Checks if a map contains a key that matches a predicate")
 public class MapContainsPredicate extends KoryphePredicate<Map> {
+    private static final String REGEX_SPECIAL_CHARACTERS = "\\^$.|?*+()[]{}";
+
     private Predicate keyPredicate;
 
     public MapContainsPredicate() {
@@ -57,6 +70,10 @@ public class MapContainsPredicate extends KoryphePredicate<Map> {
     @Override
     public boolean test(final Map input) {
         if (null != input && null != keyPredicate) {
+            if (isLookupSupported(input)) {
+                return containsAcceptedKey(input);
+            }
+
             for (final Object key : input.keySet()) {
                 if (keyPredicate.test(key)) {
                     return true;
@@ -67,6 +84,77 @@ public class MapContainsPredicate extends KoryphePredicate<Map> {
         return false;
     }
 
+    private boolean isLookupSupported(final Map input) {
+        if (!(input instanceof HashMap || input instanceof ConcurrentHashMap || input instanceof Hashtable)) {
+            return false;
+        }
+
+        final Class<?> clazz = keyPredicate.getClass();
+        if (IsEqual.class == clazz) {
+            return true;
+        }
+
+        if (IsIn.class == clazz) {
+            // Only look up the allowed values if there are fewer of them than keys in the map
+            final Set<Object> allowedValues = ((IsIn) keyPredicate).getAllowedValues();
+            return null == allowedValues || (allowedValues instanceof HashSet && allowedValues.size() <= input.size());
+        }
+
+        return Regex.class == clazz && null != getLiteral(((Regex) keyPredicate).getControlValue());
+    }
+
+    private boolean containsAcceptedKey(final Map input) {
+        final Class<?> clazz = keyPredicate.getClass();
+        if (IsEqual.class == clazz) {
+            return containsKey(input, ((IsEqual) keyPredicate).getControlValue());
+        }
+
+        if (IsIn.class == clazz) {
+            final Set<Object> allowedValues = ((IsIn) keyPredicate).getAllowedValues();
+            if (null != allowedValues) {
+                for (final Object allowedValue : allowedValues) {
+                    if (containsKey(input, allowedValue)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        return input.containsKey(getLiteral(((Regex) keyPredicate).getControlValue()));
+    }
+
+    private static boolean containsKey(final Map input, final Object key) {
+        // Only a HashMap can contain a null key, the other maps throw an exception when looking it up
+        return null != key ? input.containsKey(key) : input instanceof HashMap && input.containsKey(null);
+    }
+
+    /**
+     * @param pattern the pattern
+     * @return the only string the pattern matches, or null if it could match more than one string
+     */
+    private static String getLiteral(final Pattern pattern) {
+        if (null == pattern) {
+            return null;
+        }
+
+        if (Pattern.LITERAL == pattern.flags()) {
+            return pattern.pattern();
+        }
+
+        if (0 != pattern.flags()) {
+            return null;
+        }
+
+        final String regex = pattern.pattern();
+        for (int i = 0; i < regex.length(); i++) {
+            if (REGEX_SPECIAL_CHARACTERS.indexOf(regex.charAt(i)) >= 0) {
+                return null;
+            }
+        }
+        return regex;
+    }
+
     @Override
     public boolean equals(final Object obj) {
         if (this == obj) {
@@ -17,6 +17,7 @@
 package uk.gov.gchq.koryphe.impl.predicate.range;
 
 import com.fasterxml.jackson.annotation.JsonGetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import com.fasterxml.jackson.annotation.JsonSetter;
@@ -57,8 +58,9 @@ import java.util.TimeZone;
  * DAY, HOUR, MINUTE, SECOND and MILLISECOND using the offsetUnit field.
  * <p>
  * At the point when test is called on the class the
- * current system time is used to calculate the start and end values based on:
- * System.currentTimeMillis() + offset.
+ * current time is used to calculate the start and end values based on:
+ * {@link uk.gov.gchq.koryphe.clock.ClockUtil#currentTimeMillis()} + offset.
+ * The values are reused until the time next changes.
  * </p>
  * <p>
  * You can configure the start and end time strings using one of the following formats:
@@ -109,6 +111,21 @@ public abstract class AbstractInTimeRange<T extends Comparable<T>> extends Koryp
         return predicate.isEndInclusive();
     }
 
+    @JsonIgnore
+    public boolean isRelative() {
+        return predicate.isRelative();
+    }
+
+    @JsonIgnore
+    public T getStartValue() {
+        return predicate.getStartValue();
+    }
+
+    @JsonIgnore
+    public T getEndValue() {
+        return predicate.getEndValue();
+    }
+
     public TimeUnit getOffsetUnit() {
         return predicate.getOffsetUnit();
     }
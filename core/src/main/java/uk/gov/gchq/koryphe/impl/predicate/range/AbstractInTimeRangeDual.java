@@ -17,6 +17,7 @@
 package uk.gov.gchq.koryphe.impl.predicate.range;
 
 import com.fasterxml.jackson.annotation.JsonGetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import com.fasterxml.jackson.annotation.JsonSetter;
@@ -25,8 +26,10 @@ import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 
+import uk.gov.gchq.koryphe.clock.ClockUtil;
 import uk.gov.gchq.koryphe.tuple.predicate.KoryphePredicate2;
 import uk.gov.gchq.koryphe.util.DateUtil;
+import uk.gov.gchq.koryphe.util.PrimitiveRange;
 import uk.gov.gchq.koryphe.util.RangeUtil;
 import uk.gov.gchq.koryphe.util.TimeUnit;
 
@@ -63,8 +66,9 @@ import java.util.function.Function;
  * DAY, HOUR, MINUTE, SECOND, MILLISECOND and MICROSECOND using the offsetUnit field.
  * <p>
  * At the point when test is called on the class the
- * current system time is used to calculate the start and end values based on:
- * System.currentTimeMillis() + offset.
+ * current time is used to calculate the start and end values based on:
+ * {@link uk.gov.gchq.koryphe.clock.ClockUtil#currentTimeMillis()} + offset.
+ * The values are reused until the time next changes.
  * </p>
  * <p>
  * By default checks are carried out assuming the data will be in milliseconds.
@@ -106,6 +110,7 @@ public abstract class AbstractInTimeRangeDual<T extends Comparable<T>> extends K
     private TimeZone timeZone;
 
     private final Function<Long, T> toT;
+    private Bounds<T> bounds;
 
     protected AbstractInTimeRangeDual() {
         this(t -> (T) t);
@@ -123,15 +128,21 @@ public abstract class AbstractInTimeRangeDual<T extends Comparable<T>> extends K
         this.endTime = timeUnit.fromMilliSeconds(DateUtil.parseTime(end, timeZone));
         this.startOffsetTime = timeUnit.fromMilliSeconds(TimeUnit.asMilliSeconds(offsetUnit, startOffset));
         this.endOffsetTime = timeUnit.fromMilliSeconds(TimeUnit.asMilliSeconds(offsetUnit, endOffset));
+        this.bounds = null;
     }
 
     @Override
     public boolean test(final Comparable<T> startValue, final Comparable<T> endValue) {
+        final Bounds<T> currentBounds = getBounds();
+        if (currentBounds.range.supports(startValue) && currentBounds.range.supports(endValue)) {
+            return currentBounds.range.inRange(startValue, endValue);
+        }
+
         return RangeUtil.inRange(
                 startValue,
                 endValue,
-                getValueFromOffset(startTime, startOffsetTime),
-                getValueFromOffset(endTime, endOffsetTime),
+                currentBounds.start,
+                currentBounds.end,
                 startInclusive,
                 endInclusive,
                 startFullyContained,
@@ -139,12 +150,43 @@ public abstract class AbstractInTimeRangeDual<T extends Comparable<T>> extends K
         );
     }
 
-    private T getValueFromOffset(final Long value, final Long offset) {
+    /**
+     * Gets the start and end of the range. These are only recomputed when the
+     * range is relative to the current time and the time has changed.
+     *
+     * @return the bounds
+     */
+    private Bounds<T> getBounds() {
+        final Bounds<T> current = bounds;
+        if (null != current && !current.relative) {
+            return current;
+        }
+
+        final long now = ClockUtil.currentTimeMillis();
+        if (null != current && now == current.time) {
+            return current;
+        }
+
+        final boolean relative = isRelative();
+        final T start = getValueFromOffset(startTime, startOffsetTime, now);
+        final T end = getValueFromOffset(endTime, endOffsetTime, now);
+        final Bounds<T> updated = new Bounds<>(
+                now,
+                relative,
+                start,
+                end,
+                PrimitiveRange.of(start, end, startInclusive, endInclusive, startFullyContained, endFullyContained)
+        );
+        bounds = updated;
+        return updated;
+    }
+
+    private T getValueFromOffset(final Long value, final Long offset, final long now) {
         if (null == offset) {
             return null != value ? toT.apply(value) : null;
         }
 
-        final long base = null != value ? value : timeUnit.fromMilliSeconds(System.currentTimeMillis());
+        final long base = null != value ? value : timeUnit.fromMilliSeconds(now);
         return toT.apply(base + offset);
     }
 
@@ -239,6 +281,31 @@ public abstract class AbstractInTimeRangeDual<T extends Comparable<T>> extends K
         return endFullyContained;
     }
 
+    /**
+     * @return true if either end of the range moves with the current time
+     */
+    @JsonIgnore
+    public boolean isRelative() {
+        return (null != startOffsetTime && null == startTime)
+                || (null != endOffsetTime && null == endTime);
+    }
+
+    /**
+     * @return the start of the range at the current time, or null if unbounded
+     */
+    @JsonIgnore
+    public T getStartValue() {
+        return getBounds().start;
+    }
+
+    /**
+     * @return the end of the range at the current time, or null if unbounded
+     */
+    @JsonIgnore
+    public T getEndValue() {
+        return getBounds().end;
+    }
+
     public TimeUnit getOffsetUnit() {
         return offsetUnit;
     }
@@ -262,10 +329,12 @@ public abstract class AbstractInTimeRangeDual<T extends Comparable<T>> extends K
 
     protected void setStartInclusive(final Boolean startInclusive) {
         this.startInclusive = startInclusive;
+        this.bounds = null;
     }
 
     protected void setStartFullyContained(final Boolean startFullyContained) {
         this.startFullyContained = startFullyContained;
+        this.bounds = null;
     }
 
     protected void setEnd(final String end) {
@@ -278,10 +347,12 @@ public abstract class AbstractInTimeRangeDual<T extends Comparable<T>> extends K
 
     protected void setEndInclusive(final Boolean endInclusive) {
         this.endInclusive = endInclusive;
+        this.bounds = null;
     }
 
     protected void setEndFullyContained(final Boolean endFullyContained) {
         this.endFullyContained = endFullyContained;
+        this.bounds = null;
     }
 
     protected void setOffsetUnit(final TimeUnit offsetUnit) {
@@ -301,6 +372,22 @@ public abstract class AbstractInTimeRangeDual<T extends Comparable<T>> extends K
         this.timeZone = timeZone;
     }
 
+    private static final class Bounds<T> {
+        private final long time;
+        private final boolean relative;
+        private final T start;
+        private final T end;
+        private final PrimitiveRange range;
+
+        private Bounds(final long time, final boolean relative, final T start, final T end, final PrimitiveRange range) {
+            this.time = time;
+            this.relative = relative;
+            this.start = start;
+            this.end = end;
+            this.range = range;
+        }
+    }
+
     @JsonPOJOBuilder(withPrefix = "")
     public abstract static class BaseBuilder<
             B extends BaseBuilder<B, R, T>,
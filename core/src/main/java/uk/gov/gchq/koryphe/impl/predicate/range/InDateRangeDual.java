@@ -56,8 +56,9 @@ import java.util.Date;
  * DAY, HOUR, MINUTE, SECOND and MILLISECOND using the offsetUnit field.
  * <p>
  * At the point when test is called on the class the
- * current system time is used to calculate the start and end values based on:
- * System.currentTimeMillis() + offset.
+ * current time is used to calculate the start and end values based on:
+ * {@link uk.gov.gchq.koryphe.clock.ClockUtil#currentTimeMillis()} + offset.
+ * The values are reused until the time next changes.
  * </p>
  * <p>
  * You can configure the start and end time strings using one of the following formats:
@@ -66,6 +66,28 @@ public class InRange<T extends Comparable<T>> extends KoryphePredicate<T> {
         return predicate.test(value, value);
     }
 
+    /**
+     * Tests a primitive value without boxing it. This is the same as testing
+     * the boxed {@link Long}.
+     *
+     * @param value the value to test
+     * @return true if the value is in the range
+     */
+    public boolean testLong(final long value) {
+        return predicate.testLong(value, value);
+    }
+
+    /**
+     * Tests a primitive value without boxing it. This is the same as testing
+     * the boxed {@link Double}.
+     *
+     * @param value the value to test
+     * @return true if the value is in the range
+     */
+    public boolean testDouble(final double value) {
+        return predicate.testDouble(value, value);
+    }
+
     @JsonTypeInfo(use = JsonTypeInfo.Id.CLASS, include = JsonTypeInfo.As.WRAPPER_OBJECT)
     public T getStart() {
         return predicate.getStart();
@@ -27,6 +27,7 @@ import org.apache.commons.lang3.builder.ToStringBuilder;
 import uk.gov.gchq.koryphe.Since;
 import uk.gov.gchq.koryphe.Summary;
 import uk.gov.gchq.koryphe.tuple.predicate.KoryphePredicate2;
+import uk.gov.gchq.koryphe.util.PrimitiveRange;
 import uk.gov.gchq.koryphe.util.RangeUtil;
 
 /**
@@ -68,6 +69,8 @@ public class InRangeDual<T extends Comparable<T>> extends KoryphePredicate2<Comp
     private Boolean startFullyContained;
     private Boolean endFullyContained;
 
+    private PrimitiveRange primitiveRange;
+
     public void initialise() {
         if (null != getStart() && null != getEnd()
                 && !getStart().getClass().equals(getEnd().getClass())) {
@@ -77,6 +80,11 @@ public class InRangeDual<T extends Comparable<T>> extends KoryphePredicate2<Comp
 
     @Override
     public boolean test(final Comparable<T> startValue, final Comparable<T> endValue) {
+        final PrimitiveRange range = getPrimitiveRange();
+        if (range.supports(startValue) && range.supports(endValue)) {
+            return range.inRange(startValue, endValue);
+        }
+
         return RangeUtil.inRange(
                 startValue, endValue,
                 start, end,
@@ -85,6 +93,49 @@ public class InRangeDual<T extends Comparable<T>> extends KoryphePredicate2<Comp
         );
     }
 
+    /**
+     * Tests primitive start and end values without boxing them. This is the
+     * same as testing the boxed {@link Long}s.
+     *
+     * @param startValue the start value to test
+     * @param endValue   the end value to test
+     * @return true if the values are in the range
+     */
+    public boolean testLong(final long startValue, final long endValue) {
+        final PrimitiveRange range = getPrimitiveRange();
+        if (range.supports(Long.class)) {
+            return range.inRange(startValue, endValue);
+        }
+
+        return test((Comparable) Long.valueOf(startValue), (Comparable) Long.valueOf(endValue));
+    }
+
+    /**
+     * Tests primitive start and end values without boxing them. This is the
+     * same as testing the boxed {@link Double}s.
+     *
+     * @param startValue the start value to test
+     * @param endValue   the end value to test
+     * @return true if the values are in the range
+     */
+    public boolean testDouble(final double startValue, final double endValue) {
+        final PrimitiveRange range = getPrimitiveRange();
+        if (range.supports(Double.class)) {
+            return range.inRange(startValue, endValue);
+        }
+
+        return test((Comparable) Double.valueOf(startValue), (Comparable) Double.valueOf(endValue));
+    }
+
+    PrimitiveRange getPrimitiveRange() {
+        PrimitiveRange range = primitiveRange;
+        if (null == range) {
+            range = PrimitiveRange.of(start, end, startInclusive, endInclusive, startFullyContained, endFullyContained);
+            primitiveRange = range;
+        }
+        return range;
+    }
+
     @JsonTypeInfo(use = JsonTypeInfo.Id.CLASS, include = JsonTypeInfo.As.WRAPPER_OBJECT)
     public T getStart() {
         return start;
@@ -113,26 +164,32 @@ public class InRangeDual<T extends Comparable<T>> extends KoryphePredicate2<Comp
 
     protected void setStart(final T start) {
         this.start = start;
+        this.primitiveRange = null;
     }
 
     protected void setEnd(final T end) {
         this.end = end;
+        this.primitiveRange = null;
     }
 
     protected void setStartInclusive(final Boolean startInclusive) {
         this.startInclusive = startInclusive;
+        this.primitiveRange = null;
     }
 
     protected void setEndInclusive(final Boolean endInclusive) {
         this.endInclusive = endInclusive;
+        this.primitiveRange = null;
     }
 
     protected void setStartFullyContained(final Boolean startFullyContained) {
         this.startFullyContained = startFullyContained;
+        this.primitiveRange = null;
     }
 
     protected void setEndFullyContained(final Boolean endFullyContained) {
         this.endFullyContained = endFullyContained;
+        this.primitiveRange = null;
     }
 
     @Override
@@ -50,8 +50,9 @@ import uk.gov.gchq.koryphe.Summary;
  * DAY, HOUR, MINUTE, SECOND and MILLISECOND using the offsetUnit field.
  * <p>
  * At the point when test is called on the class the
- * current system time is used to calculate the start and end values based on:
- * System.currentTimeMillis() + offset.
+ * current time is used to calculate the start and end values based on:
+ * {@link uk.gov.gchq.koryphe.clock.ClockUtil#currentTimeMillis()} + offset.
+ * The values are reused until the time next changes.
  * </p>
  * <p>
  * By default checks are carried out assuming the data will be in milliseconds.
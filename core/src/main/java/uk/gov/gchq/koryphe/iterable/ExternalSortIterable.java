@@ -0,0 +1,286 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.koryphe.iterable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import uk.gov.gchq.koryphe.util.CloseableUtil;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * An {@code ExternalSortIterable} is a {@link CloseableIterable} that returns the items
+ * of another {@link Iterable} sorted according to a {@link Comparator}, without needing
+ * to hold all of the items in memory at once.
+ * <p>
+ * When an iterator is requested the source is read in full. Items are buffered in
+ * memory up to a configurable limit, at which point the buffer is sorted and spilled
+ * to a temporary file as a sorted run. The runs are then lazily merged using a
+ * {@link MergeSortedIterable}. If the source fits within the limit nothing is written
+ * to disk. Spilled items are written with Java serialisation, so must be
+ * {@link java.io.Serializable}. Temporary files are created in the given directory, or the
+ * default temporary directory if none is given, and are only readable by the owner where the
+ * file system supports it. They are deleted when the iterator is exhausted or closed.
+ * </p>
+ *
+ * @param <T> the type of items in the iterable
+ */
+public class ExternalSortIterable<T> implements CloseableIterable<T> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExternalSortIterable.class);
+
+    /**
+     * The number of items written between resets of the object stream, to
+     * stop it holding references to every item it has written.
+     */
+    private static final int RESET_INTERVAL = 1000;
+    private static final String RUN_PREFIX = "koryphe-sort-";
+    private static final String RUN_SUFFIX = ".run";
+
+    private final Iterable<T> iterable;
+    private final Comparator<? super T> comparator;
+    private final int maxItemsInMemory;
+    private final Path tempDirectory;
+
+    public ExternalSortIterable(final Iterable<T> iterable, final Comparator<? super T> comparator, final int maxItemsInMemory) {
+        this(iterable, comparator, maxItemsInMemory, null);
+    }
+
+    public ExternalSortIterable(final Iterable<T> iterable, final Comparator<? super T> comparator, final int maxItemsInMemory, final Path tempDirectory) {
+        if (null == iterable) {
+            throw new IllegalArgumentException("Iterable cannot be null");
+        }
+        if (null == comparator) {
+            throw new IllegalArgumentException("Comparator cannot be null");
+        }
+        if (maxItemsInMemory < 1) {
+            throw new IllegalArgumentException("Maximum number of items in memory must be at least 1");
+        }
+        this.iterable = iterable;
+        this.comparator = comparator;
+        this.maxItemsInMemory = maxItemsInMemory;
+        this.tempDirectory = tempDirectory;
+    }
+
+    @Override
+    public void close() {
+        CloseableUtil.close(iterable);
+    }
+
+    @Override
+    public CloseableIterator<T> iterator() {
+        final List<File> runs = new ArrayList<>();
+        final List<T> buffer = new ArrayList<>();
+        final Iterator<T> iterator = iterable.iterator();
+        try {
+            while (iterator.hasNext()) {
+                buffer.add(iterator.next());
+                if (buffer.size() >= maxItemsInMemory) {
+                    runs.add(writeRun(buffer));
+                    buffer.clear();
+                }
+            }
+        } catch (final IOException e) {
+            deleteRuns(runs);
+            throw new RuntimeException("Unable to write sorted run to disk", e);
+        } catch (final RuntimeException e) {
+            deleteRuns(runs);
+            throw e;
+        } finally {
+            CloseableUtil.close(iterator);
+        }
+
+        buffer.sort(comparator);
+        if (runs.isEmpty()) {
+            return new ListIterator<>(buffer);
+        }
+
+        final List<Iterable<T>> sortedRuns = new ArrayList<>(runs.size() + 1);
+        for (final File run : runs) {
+            sortedRuns.add(new RunIterable<>(run));
+        }
+        sortedRuns.add(buffer);
+        return new RunMergingIterator<>(new MergeSortedIterable<>(sortedRuns, comparator).iterator(), runs);
+    }
+
+    public Comparator<? super T> getComparator() {
+        return comparator;
+    }
+
+    public int getMaxItemsInMemory() {
+        return maxItemsInMemory;
+    }
+
+    /**
+     * @return the directory sorted runs are written to, or null to use the default temporary directory
+     */
+    public Path getTempDirectory() {
+        return tempDirectory;
+    }
+
+    private File writeRun(final List<T> items) throws IOException {
+        items.sort(comparator);
+        // Files.createTempFile only gives the owner access on POSIX file systems, unlike File.createTempFile
+        final File run = (null != tempDirectory
+                ? Files.createTempFile(tempDirectory, RUN_PREFIX, RUN_SUFFIX)
+                : Files.createTempFile(RUN_PREFIX, RUN_SUFFIX)).toFile();
+        try (final ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(Files.newOutputStream(run.toPath())))) {
+            out.writeInt(items.size());
+            int written = 0;
+            for (final T item : items) {
+                out.writeObject(item);
+                if (++written % RESET_INTERVAL == 0) {
+                    out.reset();
+                }
+            }
+        } catch (final IOException | RuntimeException e) {
+            deleteRun(run);
+            throw e;
+        }
+        return run;
+    }
+
+    private static void deleteRuns(final List<File> runs) {
+        for (final File run : runs) {
+            deleteRun(run);
+        }
+    }
+
+    private static void deleteRun(final File run) {
+        try {
+            Files.deleteIfExists(run.toPath());
+        } catch (final IOException e) {
+            LOGGER.warn("Unable to delete temporary sort file {}", run, e);
+        }
+    }
+
+    private static final class ListIterator<T> implements CloseableIterator<T> {
+        private final Iterator<T> iterator;
+
+        private ListIterator(final List<T> items) {
+            this.iterator = items.iterator();
+        }
+
+        @Override
+        public void close() {
+            // nothing to close
+        }
+
+        @Override
+        public boolean hasNext() {
+            return iterator.hasNext();
+        }
+
+        @Override
+        public T next() {
+            return iterator.next();
+        }
+    }
+
+    private static final class RunMergingIterator<T> implements CloseableIterator<T> {
+        private final CloseableIterator<T> iterator;
+        private final List<File> runs;
+
+        private RunMergingIterator(final CloseableIterator<T> iterator, final List<File> runs) {
+            this.iterator = iterator;
+            this.runs = runs;
+        }
+
+        @Override
+        public boolean hasNext() {
+            final boolean hasNext = iterator.hasNext();
+            if (!hasNext) {
+                close();
+            }
+            return hasNext;
+        }
+
+        @Override
+        public T next() {
+            return iterator.next();
+        }
+
+        @Override
+        public void close() {
+            iterator.close();
+            deleteRuns(runs);
+        }
+    }
+
+    private static final class RunIterable<T> implements Iterable<T> {
+        private final File run;
+
+        private RunIterable(final File run) {
+            this.run = run;
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return new RunIterator<>(run);
+        }
+    }
+
+    private static final class RunIterator<T> implements CloseableIterator<T> {
+        private final ObjectInputStream in;
+        private int remaining;
+
+        private RunIterator(final File run) {
+            try {
+                this.in = new ObjectInputStream(new BufferedInputStream(Files.newInputStream(run.toPath())));
+                this.remaining = in.readInt();
+            } catch (final IOException e) {
+                throw new RuntimeException("Unable to read sorted run from disk", e);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("Reached the end of the iterator");
+            }
+
+            try {
+                remaining--;
+                return (T) in.readObject();
+            } catch (final IOException | ClassNotFoundException e) {
+                throw new RuntimeException("Unable to read sorted run from disk", e);
+            }
+        }
+
+        @Override
+        public void close() {
+            CloseableUtil.close(in);
+        }
+    }
+}
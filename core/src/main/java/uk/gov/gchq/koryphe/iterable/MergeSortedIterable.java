@@ -0,0 +1,138 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.koryphe.iterable;
+
+import uk.gov.gchq.koryphe.util.CloseableUtil;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * A {@code MergeSortedIterable} lazily merges several {@link Iterable}s, each of which
+ * is already sorted according to the same {@link Comparator}, into a single sorted
+ * {@link CloseableIterable}.
+ * <p>
+ * The next item of each input is held on a heap, so each item costs O(log k) comparisons
+ * for k inputs. Items that compare as equal are returned in the order of their inputs.
+ * </p>
+ *
+ * @param <T> the type of items in the iterables
+ */
+public class MergeSortedIterable<T> implements CloseableIterable<T> {
+    private final Iterable<? extends Iterable<? extends T>> iterables;
+    private final Comparator<? super T> comparator;
+
+    public MergeSortedIterable(final Iterable<? extends Iterable<? extends T>> iterables, final Comparator<? super T> comparator) {
+        if (null == iterables) {
+            throw new IllegalArgumentException("iterables are required");
+        }
+        if (null == comparator) {
+            throw new IllegalArgumentException("Comparator cannot be null");
+        }
+        this.iterables = iterables;
+        this.comparator = comparator;
+    }
+
+    @Override
+    public void close() {
+        for (final Iterable<? extends T> iterable : iterables) {
+            CloseableUtil.close(iterable);
+        }
+    }
+
+    @Override
+    public CloseableIterator<T> iterator() {
+        return new MergeSortedIterator<>(iterables, comparator);
+    }
+
+    private static final class MergeSortedIterator<T> implements CloseableIterator<T> {
+        private final Iterable<? extends Iterable<? extends T>> iterables;
+        private final List<Iterator<? extends T>> iterators = new ArrayList<>();
+        private final PriorityQueue<Head<T>> heads;
+
+        private boolean initialised;
+
+        private MergeSortedIterator(final Iterable<? extends Iterable<? extends T>> iterables, final Comparator<? super T> comparator) {
+            this.iterables = iterables;
+            this.heads = new PriorityQueue<>((first, second) -> {
+                final int result = comparator.compare(first.item, second.item);
+                return 0 != result ? result : Integer.compare(first.index, second.index);
+            });
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (!initialised) {
+                initialised = true;
+                for (final Iterable<? extends T> iterable : iterables) {
+                    final Iterator<? extends T> iterator = iterable.iterator();
+                    iterators.add(iterator);
+                    if (iterator.hasNext()) {
+                        heads.add(new Head<>(iterator.next(), iterator, iterators.size() - 1));
+                    }
+                }
+            }
+
+            final boolean hasNext = !heads.isEmpty();
+            if (!hasNext) {
+                close();
+            }
+            return hasNext;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("Reached the end of the iterator");
+            }
+
+            final Head<T> head = heads.poll();
+            final T item = head.item;
+            if (head.iterator.hasNext()) {
+                // Reuse the head rather than allocating a new one for every item
+                head.item = head.iterator.next();
+                heads.add(head);
+            } else {
+                CloseableUtil.close(head.iterator);
+            }
+            return item;
+        }
+
+        @Override
+        public void close() {
+            heads.clear();
+            for (final Iterator<? extends T> iterator : iterators) {
+                CloseableUtil.close(iterator);
+            }
+        }
+    }
+
+    private static final class Head<T> {
+        private final Iterator<? extends T> iterator;
+        private final int index;
+        private T item;
+
+        private Head(final T item, final Iterator<? extends T> iterator, final int index) {
+            this.item = item;
+            this.iterator = iterator;
+            this.index = index;
+        }
+    }
+}
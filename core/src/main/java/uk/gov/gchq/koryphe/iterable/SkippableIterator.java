@@ -0,0 +1,36 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.koryphe.iterable;
+
+import java.util.Iterator;
+
+/**
+ * A {@code SkippableIterator} is an {@link Iterator} that is able to move past
+ * a number of items without having to read each of them in turn, for example by
+ * seeking within an underlying source.
+ *
+ * @param <T> the type of items in the iterator
+ */
+public interface SkippableIterator<T> extends Iterator<T> {
+    /**
+     * Skips over up to the given number of items. Fewer items will only be
+     * skipped if the iterator is exhausted first.
+     *
+     * @param n the number of items to skip
+     * @return the number of items actually skipped
+     */
+    int skip(int n);
+}
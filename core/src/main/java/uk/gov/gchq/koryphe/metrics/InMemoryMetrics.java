@@ -0,0 +1,166 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.koryphe.metrics;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <code>InMemoryMetrics</code> hold the counts and a latency histogram for a component.
+ * Values are held in {@link LongAdder}s, which are striped across cells under
+ * contention, so recording does not lock.
+ * <p>
+ * The latency histogram has a bucket for each power of 2 nanoseconds. Bucket 0
+ * holds durations of 0ns and bucket i holds durations from 2^(i-1) to 2^i - 1 ns.
+ * </p>
+ */
+public class InMemoryMetrics implements Metrics {
+    public static final int NUM_BUCKETS = Long.SIZE;
+
+    private final String name;
+    private final LongAdder[] outcomeCounts = new LongAdder[Outcome.values().length];
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAdder[] buckets = new LongAdder[NUM_BUCKETS];
+
+    public InMemoryMetrics(final String name) {
+        this.name = name;
+        for (int i = 0; i < outcomeCounts.length; i++) {
+            outcomeCounts[i] = new LongAdder();
+        }
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    @Override
+    public void record(final Outcome outcome, final long durationNanos) {
+        final long duration = Math.max(0, durationNanos);
+        outcomeCounts[outcome.ordinal()].increment();
+        totalNanos.add(duration);
+        buckets[getBucket(duration)].increment();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getCount(final Outcome outcome) {
+        return outcomeCounts[outcome.ordinal()].sum();
+    }
+
+    public long getInvocationCount() {
+        long count = 0;
+        for (final LongAdder outcomeCount : outcomeCounts) {
+            count += outcomeCount.sum();
+        }
+        return count;
+    }
+
+    public long getPassCount() {
+        return getCount(Outcome.PASS);
+    }
+
+    public long getFailCount() {
+        return getCount(Outcome.FAIL);
+    }
+
+    public long getExceptionCount() {
+        return getCount(Outcome.EXCEPTION);
+    }
+
+    public long getTotalTimeNanos() {
+        return totalNanos.sum();
+    }
+
+    public double getMeanTimeNanos() {
+        final long count = getInvocationCount();
+        return 0 == count ? 0 : (double) getTotalTimeNanos() / count;
+    }
+
+    /**
+     * @return the number of invocations in each latency bucket.
+     */
+    public long[] getLatencyHistogram() {
+        final long[] histogram = new long[NUM_BUCKETS];
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            histogram[i] = buckets[i].sum();
+        }
+        return histogram;
+    }
+
+    /**
+     * Gets an upper bound for a percentile of the latencies, accurate to the
+     * nearest power of 2.
+     *
+     * @param percentile the percentile, between 0 and 100
+     * @return the upper bound of the latency bucket containing the percentile, in nanoseconds
+     */
+    public long getLatencyPercentileNanos(final double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100, but was " + percentile);
+        }
+
+        final long[] histogram = getLatencyHistogram();
+        long count = 0;
+        for (final long bucketCount : histogram) {
+            count += bucketCount;
+        }
+        if (0 == count) {
+            return 0;
+        }
+
+        final long target = Math.max(1, (long) Math.ceil(count * percentile / 100));
+        long seen = 0;
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            seen += histogram[i];
+            if (seen >= target) {
+                return getBucketUpperBound(i);
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    public void reset() {
+        for (final LongAdder outcomeCount : outcomeCounts) {
+            outcomeCount.reset();
+        }
+        totalNanos.reset();
+        for (final LongAdder bucket : buckets) {
+            bucket.reset();
+        }
+    }
+
+    private static int getBucket(final long durationNanos) {
+        return Math.min(NUM_BUCKETS - 1, Long.SIZE - Long.numberOfLeadingZeros(durationNanos));
+    }
+
+    private static long getBucketUpperBound(final int bucket) {
+        return bucket >= NUM_BUCKETS - 1 ? Long.MAX_VALUE : (1L << bucket) - 1;
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("name", name)
+                .append("invocations", getInvocationCount())
+                .append("passes", getPassCount())
+                .append("fails", getFailCount())
+                .append("exceptions", getExceptionCount())
+                .append("meanTimeNanos", getMeanTimeNanos())
+                .toString();
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.koryphe.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An <code>InMemoryMetricsRegistry</code> holds {@link InMemoryMetrics} for each
+ * component in memory, so they can be inspected to find slow components.
+ */
+public class InMemoryMetricsRegistry implements MetricsRegistry {
+    private final Map<String, InMemoryMetrics> metrics = new ConcurrentHashMap<>();
+
+    @Override
+    public InMemoryMetrics getMetrics(final String name) {
+        return metrics.computeIfAbsent(name, InMemoryMetrics::new);
+    }
+
+    /**
+     * @return a snapshot of all the metrics, sorted by name.
+     */
+    public Map<String, InMemoryMetrics> getAllMetrics() {
+        return Collections.unmodifiableMap(new TreeMap<>(metrics));
+    }
+
+    public void reset() {
+        for (final InMemoryMetrics componentMetrics : metrics.values()) {
+            componentMetrics.reset();
+        }
+    }
+
+    public void clear() {
+        metrics.clear();
+    }
+}
@@ -0,0 +1,277 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.koryphe.metrics;
+
+import uk.gov.gchq.koryphe.adapted.InputAdapted;
+import uk.gov.gchq.koryphe.binaryoperator.AdaptedBinaryOperator;
+import uk.gov.gchq.koryphe.binaryoperator.BinaryOperatorMap;
+import uk.gov.gchq.koryphe.composite.Composite;
+import uk.gov.gchq.koryphe.function.AdaptedFunction;
+import uk.gov.gchq.koryphe.function.FunctionMap;
+import uk.gov.gchq.koryphe.impl.function.IterableFunction;
+import uk.gov.gchq.koryphe.impl.predicate.Not;
+import uk.gov.gchq.koryphe.predicate.AdaptedPredicate;
+import uk.gov.gchq.koryphe.predicate.PredicateMap;
+import uk.gov.gchq.koryphe.util.ComponentCopier;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Utility methods for instrumenting trees of {@link Function}s, {@link Predicate}s
+ * and {@link BinaryOperator}s.
+ * <p>
+ * Each component in the tree is wrapped so that its invocations are recorded to
+ * the {@link Metrics} for its path in the tree, e.g. "And/1:TupleAdaptedPredicate/IsMoreThan".
+ * Adapters such as {@link uk.gov.gchq.koryphe.tuple.predicate.TupleAdaptedPredicate}
+ * are not wrapped themselves, as composites may rely on their type, but the
+ * components they adapt are. The tree passed in is not modified: each component
+ * with children is shallow copied and the instrumented children are set on the copy.
+ * </p>
+ * <p>
+ * Recording is off by default. It can be switched on at runtime with
+ * {@link #setEnabled(boolean)}, or with the {@value #ENABLED_KEY} system property.
+ * Whilst it is off, instrumented components only add a volatile read to each invocation.
+ * </p>
+ */
+public final class Instrumentation {
+    public static final String ENABLED_KEY = "koryphe.metrics.enabled";
+
+    private static volatile boolean enabled = Boolean.parseBoolean(System.getProperty(ENABLED_KEY, "false"));
+    private static volatile MetricsRegistry defaultRegistry;
+    private static volatile IterableTracer iterableTracer = loadIterableTracer();
+
+    private Instrumentation() {
+        // Empty
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(final boolean enabled) {
+        Instrumentation.enabled = enabled;
+    }
+
+    /**
+     * Gets the default registry. This is the first {@link MetricsRegistry}
+     * registered with the {@link ServiceLoader}, or an {@link InMemoryMetricsRegistry}.
+     *
+     * @return the default registry
+     */
+    public static MetricsRegistry getDefaultRegistry() {
+        MetricsRegistry registry = defaultRegistry;
+        if (null == registry) {
+            synchronized (Instrumentation.class) {
+                registry = defaultRegistry;
+                if (null == registry) {
+                    final Iterator<MetricsRegistry> registries = ServiceLoader.load(MetricsRegistry.class).iterator();
+                    registry = registries.hasNext() ? registries.next() : new InMemoryMetricsRegistry();
+                    defaultRegistry = registry;
+                }
+            }
+        }
+        return registry;
+    }
+
+    public static void setDefaultRegistry(final MetricsRegistry registry) {
+        defaultRegistry = registry;
+    }
+
+    /**
+     * Gets the tracer for {@link uk.gov.gchq.koryphe.util.IterableUtil} pipeline
+     * stages. This is the first {@link IterableTracer} registered with the
+     * {@link ServiceLoader}, or null if there is none.
+     *
+     * @return the tracer, or null
+     */
+    public static IterableTracer getIterableTracer() {
+        return iterableTracer;
+    }
+
+    public static void setIterableTracer(final IterableTracer iterableTracer) {
+        Instrumentation.iterableTracer = iterableTracer;
+    }
+
+    public static <I> Predicate<I> instrument(final Predicate<I> predicate) {
+        return instrument(predicate, getDefaultRegistry());
+    }
+
+    public static <I> Predicate<I> instrument(final Predicate<I> predicate, final MetricsRegistry registry) {
+        return (Predicate<I>) instrument(predicate, getName(predicate), registry);
+    }
+
+    public static <I, O> Function<I, O> instrument(final Function<I, O> function) {
+        return instrument(function, getDefaultRegistry());
+    }
+
+    public static <I, O> Function<I, O> instrument(final Function<I, O> function, final MetricsRegistry registry) {
+        return (Function<I, O>) instrument(function, getName(function), registry);
+    }
+
+    public static <T> BinaryOperator<T> instrument(final BinaryOperator<T> binaryOperator) {
+        return instrument(binaryOperator, getDefaultRegistry());
+    }
+
+    public static <T> BinaryOperator<T> instrument(final BinaryOperator<T> binaryOperator, final MetricsRegistry registry) {
+        return (BinaryOperator<T>) instrument(binaryOperator, getName(binaryOperator), registry);
+    }
+
+    private static Object instrument(final Object component, final String path, final MetricsRegistry registry) {
+        if (null == component
+                || component instanceof InstrumentedPredicate
+                || component instanceof InstrumentedFunction
+                || component instanceof InstrumentedBinaryOperator) {
+            return component;
+        }
+
+        final Object instrumented = instrumentChildren(component, path, registry);
+
+        // Adapters are not wrapped as composites may rely on their type.
+        if (instrumented instanceof InputAdapted) {
+            return instrumented;
+        }
+        if (instrumented instanceof Predicate) {
+            return new InstrumentedPredicate<>((Predicate) instrumented, registry.getMetrics(path, component));
+        }
+        if (instrumented instanceof BinaryOperator) {
+            return new InstrumentedBinaryOperator<>((BinaryOperator) instrumented, registry.getMetrics(path, component));
+        }
+        if (instrumented instanceof Function) {
+            return new InstrumentedFunction<>((Function) instrumented, registry.getMetrics(path, component));
+        }
+        return instrumented;
+    }
+
+    /**
+     * Instruments the children of a component on a copy of the component, so
+     * the tree that was passed in is left unchanged.
+     *
+     * @param component the component
+     * @param path      the path of the component in the tree
+     * @param registry  the registry to record the metrics to
+     * @return a copy of the component with its children instrumented, or the
+     * component itself if it has no children
+     */
+    private static Object instrumentChildren(final Object component, final String path, final MetricsRegistry registry) {
+        if (component instanceof Composite) {
+            final Composite composite = copy((Composite) component);
+            if (null != composite.getComponents()) {
+                composite.setComponents(instrumentAll(composite.getComponents(), path, registry));
+            }
+            return composite;
+        }
+        if (component instanceof AdaptedPredicate) {
+            final AdaptedPredicate adapted = copy((AdaptedPredicate) component);
+            adapted.setPredicate((Predicate) instrumentChild(adapted.getPredicate(), path, registry));
+            return adapted;
+        }
+        if (component instanceof AdaptedFunction) {
+            final AdaptedFunction adapted = copy((AdaptedFunction) component);
+            adapted.setFunction((Function) instrumentChild(adapted.getFunction(), path, registry));
+            return adapted;
+        }
+        if (component instanceof AdaptedBinaryOperator) {
+            final AdaptedBinaryOperator adapted = copy((AdaptedBinaryOperator) component);
+            adapted.setBinaryOperator((BinaryOperator) instrumentChild(adapted.getBinaryOperator(), path, registry));
+            return adapted;
+        }
+        if (component instanceof Not) {
+            final Not not = copy((Not) component);
+            not.setPredicate((Predicate) instrumentChild(not.getPredicate(), path, registry));
+            return not;
+        }
+        if (component instanceof PredicateMap) {
+            final PredicateMap map = copy((PredicateMap) component);
+            map.setPredicate((Predicate) instrumentChild(map.getPredicate(), path, registry));
+            return map;
+        }
+        if (component instanceof FunctionMap) {
+            final FunctionMap map = copy((FunctionMap) component);
+            map.setFunction((Function) instrumentChild(map.getFunction(), path, registry));
+            return map;
+        }
+        if (component instanceof BinaryOperatorMap) {
+            final BinaryOperatorMap map = copy((BinaryOperatorMap) component);
+            map.setBinaryOperator((BinaryOperator) instrumentChild(map.getBinaryOperator(), path, registry));
+            return map;
+        }
+        if (component instanceof IterableFunction) {
+            final IterableFunction iterableFunction = copy((IterableFunction) component);
+            if (null != iterableFunction.getFunctions()) {
+                iterableFunction.setFunctions(instrumentAll(iterableFunction.getFunctions(), path, registry));
+            }
+            return iterableFunction;
+        }
+        if (component instanceof uk.gov.gchq.koryphe.impl.predicate.If) {
+            final uk.gov.gchq.koryphe.impl.predicate.If ifPredicate = copy((uk.gov.gchq.koryphe.impl.predicate.If) component);
+            ifPredicate.setPredicate((Predicate) instrumentChild(ifPredicate.getPredicate(), path + "/predicate", registry));
+            ifPredicate.setThen((Predicate) instrumentChild(ifPredicate.getThen(), path + "/then", registry));
+            ifPredicate.setOtherwise((Predicate) instrumentChild(ifPredicate.getOtherwise(), path + "/otherwise", registry));
+            return ifPredicate;
+        }
+        if (component instanceof uk.gov.gchq.koryphe.impl.function.If) {
+            final uk.gov.gchq.koryphe.impl.function.If ifFunction = copy((uk.gov.gchq.koryphe.impl.function.If) component);
+            ifFunction.setPredicate((Predicate) instrumentChild(ifFunction.getPredicate(), path + "/predicate", registry));
+            ifFunction.setThen((Function) instrumentChild(ifFunction.getThen(), path + "/then", registry));
+            ifFunction.setOtherwise((Function) instrumentChild(ifFunction.getOtherwise(), path + "/otherwise", registry));
+            return ifFunction;
+        }
+        return component;
+    }
+
+    private static <T> T copy(final T component) {
+        try {
+            return ComponentCopier.shallowCopy(component);
+        } catch (final IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unable to instrument " + component.getClass().getName() + " as it cannot be copied", e);
+        }
+    }
+
+    private static List instrumentAll(final List<?> components, final String path, final MetricsRegistry registry) {
+        final List<Object> instrumented = new ArrayList<>(components.size());
+        int i = 0;
+        for (final Object child : components) {
+            instrumented.add(instrument(child, path + "/" + i + ":" + getName(child), registry));
+            i++;
+        }
+        return instrumented;
+    }
+
+    private static Object instrumentChild(final Object child, final String path, final MetricsRegistry registry) {
+        return instrument(child, path + "/" + getName(child), registry);
+    }
+
+    private static IterableTracer loadIterableTracer() {
+        final Iterator<IterableTracer> tracers = ServiceLoader.load(IterableTracer.class).iterator();
+        return tracers.hasNext() ? tracers.next() : null;
+    }
+
+    private static String getName(final Object component) {
+        if (null == component) {
+            return "null";
+        }
+
+        // Anonymous classes do not have a simple name
+        final String simpleName = component.getClass().getSimpleName();
+        return simpleName.isEmpty() ? component.getClass().getName() : simpleName;
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.koryphe.metrics;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import uk.gov.gchq.koryphe.ValidationResult;
+import uk.gov.gchq.koryphe.signature.InputValidator;
+import uk.gov.gchq.koryphe.signature.OutputValidator;
+import uk.gov.gchq.koryphe.signature.Signature;
+
+import java.util.function.BinaryOperator;
+
+/**
+ * An <code>InstrumentedBinaryOperator</code> records the outcome and duration of each
+ * application of the wrapped {@link BinaryOperator}.
+ *
+ * @param <T> the type of the operands and result
+ */
+public class InstrumentedBinaryOperator<T> implements BinaryOperator<T>, InputValidator, OutputValidator {
+    private final BinaryOperator<T> binaryOperator;
+    private final Metrics metrics;
+
+    public InstrumentedBinaryOperator(final BinaryOperator<T> binaryOperator, final Metrics metrics) {
+        this.binaryOperator = binaryOperator;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public T apply(final T state, final T input) {
+        if (!Instrumentation.isEnabled()) {
+            return binaryOperator.apply(state, input);
+        }
+
+        final long start = System.nanoTime();
+        final T result;
+        try {
+            result = binaryOperator.apply(state, input);
+        } catch (final RuntimeException | Error e) {
+            metrics.record(Metrics.Outcome.EXCEPTION, System.nanoTime() - start);
+            throw e;
+        }
+        metrics.record(Metrics.Outcome.SUCCESS, System.nanoTime() - start);
+        return result;
+    }
+
+    @Override
+    public ValidationResult isInputValid(final Class<?>... arguments) {
+        return Signature.getInputSignature((BinaryOperator) binaryOperator).assignable(arguments);
+    }
+
+    @Override
+    public ValidationResult isOutputValid(final Class<?>... arguments) {
+        return Signature.getOutputSignature((BinaryOperator) binaryOperator).assignable(arguments);
+    }
+
+    public BinaryOperator<T> getBinaryOperator() {
+        return binaryOperator;
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("binaryOperator", binaryOperator)
+                .toString();
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.koryphe.metrics;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import uk.gov.gchq.koryphe.ValidationResult;
+import uk.gov.gchq.koryphe.signature.InputValidator;
+import uk.gov.gchq.koryphe.signature.OutputValidator;
+import uk.gov.gchq.koryphe.signature.Signature;
+
+import java.util.function.Function;
+
+/**
+ * An <code>InstrumentedFunction</code> records the outcome and duration of each
+ * application of the wrapped {@link Function}.
+ *
+ * @param <I> the input type
+ * @param <O> the output type
+ */
+public class InstrumentedFunction<I, O> implements Function<I, O>, InputValidator, OutputValidator {
+    private final Function<I, O> function;
+    private final Metrics metrics;
+
+    public InstrumentedFunction(final Function<I, O> function, final Metrics metrics) {
+        this.function = function;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public O apply(final I input) {
+        if (!Instrumentation.isEnabled()) {
+            return function.apply(input);
+        }
+
+        final long start = System.nanoTime();
+        final O result;
+        try {
+            result = function.apply(input);
+        } catch (final RuntimeException | Error e) {
+            metrics.record(Metrics.Outcome.EXCEPTION, System.nanoTime() - start);
+            throw e;
+        }
+        metrics.record(Metrics.Outcome.SUCCESS, System.nanoTime() - start);
+        return result;
+    }
+
+    @Override
+    public ValidationResult isInputValid(final Class<?>... arguments) {
+        return Signature.getInputSignature(function).assignable(arguments);
+    }
+
+    @Override
+    public ValidationResult isOutputValid(final Class<?>... arguments) {
+        return Signature.getOutputSignature(function).assignable(arguments);
+    }
+
+    public Function<I, O> getFunction() {
+        return function;
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("function", function)
+                .toString();
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.koryphe.metrics;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import uk.gov.gchq.koryphe.ValidationResult;
+import uk.gov.gchq.koryphe.signature.InputValidator;
+import uk.gov.gchq.koryphe.signature.Signature;
+
+import java.util.function.Predicate;
+
+/**
+ * An <code>InstrumentedPredicate</code> records the outcome and duration of each
+ * test of the wrapped {@link Predicate}.
+ *
+ * @param <I> the input type
+ */
+public class InstrumentedPredicate<I> implements Predicate<I>, InputValidator {
+    private final Predicate<I> predicate;
+    private final Metrics metrics;
+
+    public InstrumentedPredicate(final Predicate<I> predicate, final Metrics metrics) {
+        this.predicate = predicate;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public boolean test(final I input) {
+        if (!Instrumentation.isEnabled()) {
+            return predicate.test(input);
+        }
+
+        final long start = System.nanoTime();
+        final boolean result;
+        try {
+            result = predicate.test(input);
+        } catch (final RuntimeException | Error e) {
+            metrics.record(Metrics.Outcome.EXCEPTION, System.nanoTime() - start);
+            throw e;
+        }
+        metrics.record(result ? Metrics.Outcome.PASS : Metrics.Outcome.FAIL, System.nanoTime() - start);
+        return result;
+    }
+
+    @Override
+    public ValidationResult isInputValid(final Class<?>... arguments) {
+        return Signature.getInputSignature(predicate).assignable(arguments);
+    }
+
+    public Predicate<I> getPredicate() {
+        return predicate;
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("predicate", predicate)
+                .toString();
+    }
+}
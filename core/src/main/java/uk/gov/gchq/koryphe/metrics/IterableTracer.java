@@ -0,0 +1,41 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.koryphe.metrics;
+
+import uk.gov.gchq.koryphe.iterable.CloseableIterator;
+
+/**
+ * An <code>IterableTracer</code> observes the iterators created by the lazy
+ * {@link uk.gov.gchq.koryphe.util.IterableUtil} stages, such as map, filter and limit.
+ * <p>
+ * Implementations are registered with the {@link java.util.ServiceLoader} and are
+ * only called while {@link Instrumentation#isEnabled()}. Consecutive map and filter
+ * stages are fused into a single pipeline, so they are traced as one stage with
+ * each of their components.
+ * </p>
+ */
+public interface IterableTracer {
+    /**
+     * Traces an iterator created by a stage.
+     *
+     * @param stage      the name of the stage, e.g. "pipeline" or "limit"
+     * @param components the functions and predicates applied by the stage, which may be empty
+     * @param iterator   the iterator for the stage
+     * @param <T>        the type of items
+     * @return the iterator to use in place of the given iterator
+     */
+    <T> CloseableIterator<T> trace(final String stage, final Object[] components, final CloseableIterator<T> iterator);
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.koryphe.metrics;
+
+/**
+ * <code>Metrics</code> record the invocations of a single instrumented component.
+ * Implementations must be thread safe and should be cheap to call, as they are
+ * called on every invocation.
+ */
+public interface Metrics {
+    /**
+     * Records an invocation of the component.
+     *
+     * @param outcome       the outcome of the invocation
+     * @param durationNanos the duration of the invocation in nanoseconds
+     */
+    void record(final Outcome outcome, final long durationNanos);
+
+    enum Outcome {
+        /**
+         * A function or binary operator returned a result.
+         */
+        SUCCESS,
+        /**
+         * A predicate returned true.
+         */
+        PASS,
+        /**
+         * A predicate returned false.
+         */
+        FAIL,
+        /**
+         * The component threw an exception.
+         */
+        EXCEPTION
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.koryphe.metrics;
+
+/**
+ * A <code>MetricsRegistry</code> provides the {@link Metrics} for instrumented components.
+ * <p>
+ * This is the extension point for publishing metrics to a monitoring system. The
+ * default registry used by {@link Instrumentation} is loaded using a
+ * {@link java.util.ServiceLoader}, falling back to an {@link InMemoryMetricsRegistry}
+ * if no implementation is registered.
+ * </p>
+ */
+public interface MetricsRegistry {
+    /**
+     * Gets the metrics for a component, creating them if required.
+     * Calling this multiple times with the same name should return the same metrics.
+     *
+     * @param name the name of the component, which is its path in the instrumented tree
+     * @return the metrics
+     */
+    Metrics getMetrics(final String name);
+
+    /**
+     * Gets the metrics for a component, creating them if required.
+     * Registries that report details of the component itself, such as its class,
+     * can override this. By default the component is ignored.
+     *
+     * @param name      the name of the component, which is its path in the instrumented tree
+     * @param component the component being instrumented
+     * @return the metrics
+     */
+    default Metrics getMetrics(final String name, final Object component) {
+        return getMetrics(name);
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.koryphe.predicate.index;
+
+/**
+ * A {@code FieldConstraint} describes the values a single field may take if a
+ * {@link java.util.function.Predicate} is to pass. Constraints are conservative:
+ * every value that passes the predicate passes the constraint, but a value that
+ * passes the constraint may still need to be checked against the residual predicate
+ * in the {@link IndexHints}.
+ */
+public abstract class FieldConstraint {
+    FieldConstraint() {
+        // Only the constraints in this package are understood by stores
+    }
+
+    /**
+     * @param value the field value to test
+     * @return true if the value satisfies the constraint
+     */
+    public abstract boolean test(final Object value);
+
+    /**
+     * Combines two constraints on the same field that must both hold.
+     *
+     * @param other the other constraint
+     * @return the exact intersection, or null if it cannot be represented
+     */
+    public abstract FieldConstraint intersect(final FieldConstraint other);
+
+    /**
+     * Combines two constraints on the same field where either may hold.
+     *
+     * @param other the other constraint
+     * @return a constraint covering both, or null if the field is unconstrained
+     */
+    public abstract FieldConstraint union(final FieldConstraint other);
+}
@@ -0,0 +1,319 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.koryphe.predicate.index;
+
+import uk.gov.gchq.koryphe.impl.predicate.And;
+import uk.gov.gchq.koryphe.impl.predicate.IsEqual;
+import uk.gov.gchq.koryphe.impl.predicate.IsIn;
+import uk.gov.gchq.koryphe.impl.predicate.IsLessThan;
+import uk.gov.gchq.koryphe.impl.predicate.IsMoreThan;
+import uk.gov.gchq.koryphe.impl.predicate.Or;
+import uk.gov.gchq.koryphe.impl.predicate.Regex;
+import uk.gov.gchq.koryphe.impl.predicate.range.AbstractInTimeRange;
+import uk.gov.gchq.koryphe.impl.predicate.range.InRange;
+import uk.gov.gchq.koryphe.predicate.PredicateComposite;
+import uk.gov.gchq.koryphe.tuple.predicate.IntegerTupleAdaptedPredicate;
+import uk.gov.gchq.koryphe.tuple.predicate.TupleAdaptedPredicate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Walks a {@link Predicate} tree and extracts {@link IndexHints}: conservative
+ * {@link FieldConstraint}s a store can use to seek and skip, and the residual
+ * predicate that still has to be evaluated against each input.
+ * <ul>
+ * <li>{@link IsEqual} and {@link IsIn} give a {@link PointConstraint}.</li>
+ * <li>{@link IsMoreThan}, {@link IsLessThan}, {@link InRange} and {@link AbstractInTimeRange}s
+ * with absolute bounds give a {@link RangeConstraint}.</li>
+ * <li>{@link Regex} gives a {@link PrefixConstraint} if it starts with a literal prefix,
+ * or a {@link PointConstraint} if it is entirely literal.</li>
+ * <li>{@link And}, and other {@link PredicateComposite}s, intersect the constraints of
+ * their predicates.</li>
+ * <li>{@link Or} unions the constraints on fields constrained by all of its predicates.</li>
+ * <li>{@link TupleAdaptedPredicate}s selecting a single field constrain that field.</li>
+ * </ul>
+ * Anything else, including {@link uk.gov.gchq.koryphe.impl.predicate.Not}, is left in the residual.
+ */
+public final class IndexHintExtractor {
+    private static final String REGEX_SYNTAX = "\\^$.|?*+()[]{}";
+    private static final String REGEX_OPTIONAL = "?*{";
+
+    private IndexHintExtractor() {
+        // Empty
+    }
+
+    /**
+     * @param predicate the predicate to analyse
+     * @param <I>       the type of input to the predicate
+     * @return the constraints and residual predicate
+     */
+    public static <I> IndexHints<I> extract(final Predicate<I> predicate) {
+        if (null == predicate) {
+            throw new IllegalArgumentException("Predicate is required");
+        }
+
+        final Analysis analysis = analyse(predicate, IndexHints.INPUT);
+        return new IndexHints<>(analysis.constraints, (Predicate<I>) analysis.residual);
+    }
+
+    private static Analysis analyse(final Predicate<?> predicate, final Object field) {
+        if (predicate instanceof Or) {
+            return analyseOr((Or<?>) predicate, field);
+        }
+
+        if (predicate instanceof PredicateComposite) {
+            return analyseAnd((PredicateComposite<?, ?>) predicate, field);
+        }
+
+        if (predicate instanceof TupleAdaptedPredicate) {
+            // A nested selection refers to fields of a field, which cannot be keyed
+            return IndexHints.INPUT == field ? analyseSelection((TupleAdaptedPredicate<?, ?>) predicate) : Analysis.residual(predicate);
+        }
+
+        if (predicate instanceof IsEqual) {
+            final Object value = ((IsEqual) predicate).getControlValue();
+            return null != value ? Analysis.exact(field, new PointConstraint(Collections.singleton(value))) : Analysis.residual(predicate);
+        }
+
+        if (predicate instanceof IsIn) {
+            return Analysis.exact(field, new PointConstraint(((IsIn) predicate).getAllowedValues()));
+        }
+
+        if (predicate instanceof IsMoreThan) {
+            final IsMoreThan isMoreThan = (IsMoreThan) predicate;
+            return null != isMoreThan.getControlValue()
+                    ? Analysis.exact(field, new RangeConstraint(isMoreThan.getControlValue(), null, isMoreThan.getOrEqualTo(), true))
+                    : Analysis.residual(predicate);
+        }
+
+        if (predicate instanceof IsLessThan) {
+            final IsLessThan isLessThan = (IsLessThan) predicate;
+            return null != isLessThan.getControlValue()
+                    ? Analysis.exact(field, new RangeConstraint(null, isLessThan.getControlValue(), true, isLessThan.getOrEqualTo()))
+                    : Analysis.residual(predicate);
+        }
+
+        if (predicate instanceof InRange) {
+            final InRange<?> inRange = (InRange<?>) predicate;
+            return analyseRange(predicate, field, inRange.getStart(), inRange.getEnd(), inRange.isStartInclusive(), inRange.isEndInclusive());
+        }
+
+        if (predicate instanceof AbstractInTimeRange) {
+            final AbstractInTimeRange<?> inTimeRange = (AbstractInTimeRange<?>) predicate;
+            // A range relative to the current time moves, so only the residual can apply it
+            return inTimeRange.isRelative()
+                    ? Analysis.residual(predicate)
+                    : analyseRange(predicate, field, inTimeRange.getStartValue(), inTimeRange.getEndValue(), inTimeRange.isStartInclusive(), inTimeRange.isEndInclusive());
+        }
+
+        if (predicate instanceof Regex) {
+            return analyseRegex((Regex) predicate, field);
+        }
+
+        return Analysis.residual(predicate);
+    }
+
+    private static Analysis analyseAnd(final PredicateComposite<?, ?> composite, final Object field) {
+        final Map<Object, FieldConstraint> constraints = new LinkedHashMap<>();
+        final List<Predicate> residuals = new ArrayList<>();
+        boolean changed = false;
+        for (final Predicate<?> component : getComponents(composite)) {
+            final Analysis analysis = analyse(component, field);
+            boolean lossy = false;
+            for (final Map.Entry<Object, FieldConstraint> entry : analysis.constraints.entrySet()) {
+                final FieldConstraint current = constraints.get(entry.getKey());
+                final FieldConstraint combined = null != current ? current.intersect(entry.getValue()) : entry.getValue();
+                if (null != combined) {
+                    constraints.put(entry.getKey(), combined);
+                } else {
+                    lossy = true;
+                }
+            }
+
+            // If a constraint could not be combined, the whole predicate is kept to apply it
+            final Predicate<?> residual = lossy ? component : analysis.residual;
+            if (null != residual) {
+                residuals.add(residual);
+            }
+            changed = changed || residual != component;
+        }
+
+        final Predicate<?> residual;
+        if (!changed) {
+            residual = composite;
+        } else if (residuals.isEmpty()) {
+            residual = null;
+        } else if (1 == residuals.size()) {
+            residual = residuals.get(0);
+        } else {
+            residual = new And<>(residuals);
+        }
+        return new Analysis(constraints, residual);
+    }
+
+    private static Analysis analyseOr(final Or<?> or, final Object field) {
+        final List<? extends Predicate<?>> components = getComponents(or);
+        if (components.isEmpty()) {
+            return Analysis.residual(or);
+        }
+
+        Map<Object, FieldConstraint> constraints = null;
+        boolean exact = true;
+        for (final Predicate<?> component : components) {
+            final Analysis analysis = analyse(component, field);
+            exact = exact && null == analysis.residual && 1 == analysis.constraints.size();
+            if (null == constraints) {
+                constraints = new LinkedHashMap<>(analysis.constraints);
+                continue;
+            }
+
+            final Iterator<Map.Entry<Object, FieldConstraint>> itr = constraints.entrySet().iterator();
+            while (itr.hasNext()) {
+                final Map.Entry<Object, FieldConstraint> entry = itr.next();
+                final FieldConstraint other = analysis.constraints.get(entry.getKey());
+                final FieldConstraint combined = null != other ? entry.getValue().union(other) : null;
+                if (null == combined) {
+                    itr.remove();
+                } else {
+                    // Only the union of points is exact, other unions may cover gaps
+                    exact = exact && entry.getValue() instanceof PointConstraint && other instanceof PointConstraint;
+                    entry.setValue(combined);
+                }
+            }
+        }
+
+        // The union is only exact if every predicate was captured by a constraint on the same field
+        exact = exact && 1 == constraints.size();
+        return new Analysis(constraints, exact ? null : or);
+    }
+
+    private static Analysis analyseSelection(final TupleAdaptedPredicate<?, ?> adapted) {
+        final Object[] selection = adapted.getSelection();
+        if (null == selection || 1 != selection.length || null == adapted.getPredicate()) {
+            return Analysis.residual(adapted);
+        }
+
+        final Analysis analysis = analyse(adapted.getPredicate(), selection[0]);
+        final Predicate<?> residual;
+        if (null == analysis.residual) {
+            residual = null;
+        } else if (analysis.residual == adapted.getPredicate()) {
+            residual = adapted;
+        } else if (adapted instanceof IntegerTupleAdaptedPredicate) {
+            residual = new IntegerTupleAdaptedPredicate(analysis.residual, (Integer[]) selection);
+        } else {
+            residual = new TupleAdaptedPredicate(analysis.residual, selection);
+        }
+        return new Analysis(analysis.constraints, residual);
+    }
+
+    private static Analysis analyseRange(final Predicate<?> predicate, final Object field,
+                                         final Object start, final Object end,
+                                         final Boolean startInclusive, final Boolean endInclusive) {
+        if ((null != start && !(start instanceof Comparable))
+                || (null != end && !(end instanceof Comparable))
+                || (null != start && null != end && start.getClass() != end.getClass())) {
+            return Analysis.residual(predicate);
+        }
+
+        return Analysis.exact(field, new RangeConstraint((Comparable) start, (Comparable) end,
+                null == startInclusive || startInclusive, null == endInclusive || endInclusive));
+    }
+
+    private static Analysis analyseRegex(final Regex regex, final Object field) {
+        final Pattern pattern = regex.getControlValue();
+        if (null == pattern || 0 != pattern.flags() || pattern.pattern().indexOf('|') >= 0) {
+            return Analysis.residual(regex);
+        }
+
+        final String expression = pattern.pattern();
+        final StringBuilder prefix = new StringBuilder();
+        int i = expression.startsWith("^") ? 1 : 0;
+        boolean literal = true;
+        while (i < expression.length()) {
+            final char current = expression.charAt(i);
+            final int next;
+            if ('\\' == current) {
+                // Escaped syntax is literal, but escaped letters and digits are classes or references
+                if (i + 1 >= expression.length() || Character.isLetterOrDigit(expression.charAt(i + 1))) {
+                    literal = false;
+                    break;
+                }
+                next = i + 2;
+            } else if (REGEX_SYNTAX.indexOf(current) >= 0) {
+                literal = false;
+                break;
+            } else {
+                next = i + 1;
+            }
+
+            // A quantified character may not be present at all
+            if (next < expression.length() && REGEX_OPTIONAL.indexOf(expression.charAt(next)) >= 0) {
+                literal = false;
+                break;
+            }
+
+            prefix.append(expression.charAt(next - 1));
+            i = next;
+            if (i < expression.length() && '+' == expression.charAt(i)) {
+                literal = false;
+                break;
+            }
+        }
+
+        if (literal) {
+            return Analysis.exact(field, new PointConstraint(Collections.singleton(prefix.toString())));
+        }
+
+        return 0 != prefix.length() ? Analysis.partial(field, new PrefixConstraint(prefix.toString()), regex) : Analysis.residual(regex);
+    }
+
+    private static List<? extends Predicate<?>> getComponents(final PredicateComposite<?, ?> composite) {
+        final List<? extends Predicate<?>> components = composite.getComponents();
+        return null != components ? components : Collections.emptyList();
+    }
+
+    private static final class Analysis {
+        private final Map<Object, FieldConstraint> constraints;
+        private final Predicate<?> residual;
+
+        private Analysis(final Map<Object, FieldConstraint> constraints, final Predicate<?> residual) {
+            this.constraints = constraints;
+            this.residual = residual;
+        }
+
+        private static Analysis exact(final Object field, final FieldConstraint constraint) {
+            return partial(field, constraint, null);
+        }
+
+        private static Analysis partial(final Object field, final FieldConstraint constraint, final Predicate<?> residual) {
+            final Map<Object, FieldConstraint> constraints = new LinkedHashMap<>();
+            constraints.put(field, constraint);
+            return new Analysis(constraints, residual);
+        }
+
+        private static Analysis residual(final Predicate<?> predicate) {
+            return new Analysis(new LinkedHashMap<>(), predicate);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.koryphe.predicate.index;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import uk.gov.gchq.koryphe.impl.predicate.And;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * The result of {@link IndexHintExtractor#extract(Predicate)}: a {@link FieldConstraint}
+ * per field and a residual {@link Predicate}. An input passes the original predicate if,
+ * and only if, every field passes its constraint and the input passes the residual.
+ * <p>
+ * Fields are keyed by the selection of a {@link uk.gov.gchq.koryphe.tuple.predicate.TupleAdaptedPredicate},
+ * or by {@link #INPUT} for constraints on the whole input.
+ * </p>
+ *
+ * @param <I> the type of input to the predicate
+ */
+public final class IndexHints<I> {
+    /**
+     * The key of the constraint on the whole input, rather than on a selected field.
+     */
+    public static final Object INPUT = new Object() {
+        @Override
+        public String toString() {
+            return "INPUT";
+        }
+    };
+
+    private final Map<Object, FieldConstraint> constraints;
+    private final Predicate<I> residual;
+
+    IndexHints(final Map<Object, FieldConstraint> constraints, final Predicate<I> residual) {
+        this.constraints = Collections.unmodifiableMap(constraints);
+        this.residual = residual;
+    }
+
+    public Map<Object, FieldConstraint> getConstraints() {
+        return constraints;
+    }
+
+    /**
+     * @param field the selection, or {@link #INPUT}
+     * @return the constraint on the field, or null if it is unconstrained
+     */
+    public FieldConstraint getConstraint(final Object field) {
+        return constraints.get(field);
+    }
+
+    /**
+     * @return true if some of the predicate is not captured by the constraints
+     */
+    public boolean hasResidual() {
+        return null != residual;
+    }
+
+    /**
+     * @return the predicate still to be evaluated, or an empty {@link And} if the constraints are exact
+     */
+    public Predicate<I> getResidual() {
+        return null != residual ? residual : new And<>();
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("constraints", constraints)
+                .append("residual", residual)
+                .toString();
+    }
+}
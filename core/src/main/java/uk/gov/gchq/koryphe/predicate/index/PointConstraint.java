@@ -0,0 +1,98 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.koryphe.predicate.index;
+
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * A {@code PointConstraint} restricts a field to a set of values, compared using
+ * {@link Object#equals(Object)}. An empty set means no value can pass.
+ */
+public final class PointConstraint extends FieldConstraint {
+    private final Set<Object> points;
+
+    public PointConstraint(final Collection<?> points) {
+        this.points = null != points ? Collections.unmodifiableSet(new LinkedHashSet<>(points)) : Collections.emptySet();
+    }
+
+    public Set<Object> getPoints() {
+        return points;
+    }
+
+    @Override
+    public boolean test(final Object value) {
+        return points.contains(value);
+    }
+
+    @Override
+    public FieldConstraint intersect(final FieldConstraint other) {
+        final Set<Object> result = new LinkedHashSet<>();
+        for (final Object point : points) {
+            if (other.test(point)) {
+                result.add(point);
+            }
+        }
+        return new PointConstraint(result);
+    }
+
+    @Override
+    public FieldConstraint union(final FieldConstraint other) {
+        if (other instanceof PointConstraint) {
+            final Set<Object> result = new LinkedHashSet<>(points);
+            result.addAll(((PointConstraint) other).points);
+            return new PointConstraint(result);
+        }
+
+        return other.union(this);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+
+        if (null == obj || !getClass().equals(obj.getClass())) {
+            return false;
+        }
+
+        final PointConstraint that = (PointConstraint) obj;
+        return new EqualsBuilder()
+                .append(points, that.points)
+                .isEquals();
+    }
+
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder(23, 41)
+                .append(points)
+                .toHashCode();
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("points", points)
+                .toString();
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.koryphe.predicate.index;
+
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import java.util.Collections;
+
+/**
+ * A {@code PrefixConstraint} restricts a field to {@link String}s starting with a prefix.
+ */
+public final class PrefixConstraint extends FieldConstraint {
+    private final String prefix;
+
+    public PrefixConstraint(final String prefix) {
+        if (null == prefix) {
+            throw new IllegalArgumentException("Prefix is required");
+        }
+        this.prefix = prefix;
+    }
+
+    public String getPrefix() {
+        return prefix;
+    }
+
+    @Override
+    public boolean test(final Object value) {
+        return value instanceof String && ((String) value).startsWith(prefix);
+    }
+
+    @Override
+    public FieldConstraint intersect(final FieldConstraint other) {
+        if (other instanceof PointConstraint) {
+            return other.intersect(this);
+        }
+
+        if (other instanceof PrefixConstraint) {
+            final String otherPrefix = ((PrefixConstraint) other).prefix;
+            if (otherPrefix.startsWith(prefix)) {
+                return other;
+            }
+            if (prefix.startsWith(otherPrefix)) {
+                return this;
+            }
+            return new PointConstraint(Collections.emptySet());
+        }
+
+        return null;
+    }
+
+    @Override
+    public FieldConstraint union(final FieldConstraint other) {
+        String common = prefix;
+        if (other instanceof PrefixConstraint) {
+            common = commonPrefix(common, ((PrefixConstraint) other).prefix);
+        } else if (other instanceof PointConstraint) {
+            for (final Object point : ((PointConstraint) other).getPoints()) {
+                if (!(point instanceof String)) {
+                    return null;
+                }
+                common = commonPrefix(common, (String) point);
+            }
+        } else {
+            return null;
+        }
+
+        return common.isEmpty() ? null : new PrefixConstraint(common);
+    }
+
+    private static String commonPrefix(final String first, final String second) {
+        final int length = Math.min(first.length(), second.length());
+        int i = 0;
+        while (i < length && first.charAt(i) == second.charAt(i)) {
+            i++;
+        }
+        return first.substring(0, i);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+
+        if (null == obj || !getClass().equals(obj.getClass())) {
+            return false;
+        }
+
+        final PrefixConstraint that = (PrefixConstraint) obj;
+        return new EqualsBuilder()
+                .append(prefix, that.prefix)
+                .isEquals();
+    }
+
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder(29, 43)
+                .append(prefix)
+                .toHashCode();
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("prefix", prefix)
+                .toString();
+    }
+}
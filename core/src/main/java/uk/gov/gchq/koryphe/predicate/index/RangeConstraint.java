@@ -0,0 +1,216 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.koryphe.predicate.index;
+
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import java.util.Collections;
+
+/**
+ * A {@code RangeConstraint} restricts a field to {@link Comparable} values between a
+ * start and an end, either of which may be null if unbounded. Only values of the same
+ * class as the bounds, or a subclass, are in the range.
+ */
+@SuppressWarnings("unchecked")
+public final class RangeConstraint extends FieldConstraint {
+    private final Comparable start;
+    private final Comparable end;
+    private final boolean startInclusive;
+    private final boolean endInclusive;
+
+    public RangeConstraint(final Comparable start, final Comparable end, final boolean startInclusive, final boolean endInclusive) {
+        if (null != start && null != end && start.getClass() != end.getClass()) {
+            throw new IllegalArgumentException("Start and end must be of the same class, but were "
+                    + start.getClass().getName() + " and " + end.getClass().getName());
+        }
+        this.start = start;
+        this.end = end;
+        this.startInclusive = null == start || startInclusive;
+        this.endInclusive = null == end || endInclusive;
+    }
+
+    public Comparable getStart() {
+        return start;
+    }
+
+    public Comparable getEnd() {
+        return end;
+    }
+
+    public boolean isStartInclusive() {
+        return startInclusive;
+    }
+
+    public boolean isEndInclusive() {
+        return endInclusive;
+    }
+
+    /**
+     * @return the class of the bounds, or null if the range is unbounded
+     */
+    public Class<?> getType() {
+        return null != start ? start.getClass() : null != end ? end.getClass() : null;
+    }
+
+    @Override
+    public boolean test(final Object value) {
+        if (!(value instanceof Comparable)) {
+            return false;
+        }
+
+        final Class<?> type = getType();
+        if (null != type && !type.isInstance(value)) {
+            return false;
+        }
+
+        return compareStarts(start, startInclusive, (Comparable) value, true) <= 0
+                && compareEnds(end, endInclusive, (Comparable) value, true) >= 0;
+    }
+
+    @Override
+    public FieldConstraint intersect(final FieldConstraint other) {
+        if (other instanceof PointConstraint) {
+            return other.intersect(this);
+        }
+
+        final RangeConstraint that = other instanceof RangeConstraint ? (RangeConstraint) other : null;
+        if (null == that || !isCompatible(that)) {
+            return null;
+        }
+
+        final RangeConstraint lower = compareStarts(start, startInclusive, that.start, that.startInclusive) >= 0 ? this : that;
+        final RangeConstraint upper = compareEnds(end, endInclusive, that.end, that.endInclusive) <= 0 ? this : that;
+        if (null != lower.start && null != upper.end) {
+            final int compare = lower.start.compareTo(upper.end);
+            if (compare > 0 || (0 == compare && !(lower.startInclusive && upper.endInclusive))) {
+                return new PointConstraint(Collections.emptySet());
+            }
+        }
+
+        return new RangeConstraint(lower.start, upper.end, lower.startInclusive, upper.endInclusive);
+    }
+
+    @Override
+    public FieldConstraint union(final FieldConstraint other) {
+        if (other instanceof PointConstraint) {
+            RangeConstraint result = this;
+            for (final Object point : ((PointConstraint) other).getPoints()) {
+                final Class<?> type = result.getType();
+                if (!(point instanceof Comparable) || (null != type && type != point.getClass())) {
+                    return null;
+                }
+                result = result.hull(new RangeConstraint((Comparable) point, (Comparable) point, true, true));
+            }
+            return result;
+        }
+
+        final RangeConstraint that = other instanceof RangeConstraint ? (RangeConstraint) other : null;
+        return null != that && isCompatible(that) ? hull(that) : null;
+    }
+
+    private RangeConstraint hull(final RangeConstraint that) {
+        final RangeConstraint lower = compareStarts(start, startInclusive, that.start, that.startInclusive) <= 0 ? this : that;
+        final RangeConstraint upper = compareEnds(end, endInclusive, that.end, that.endInclusive) >= 0 ? this : that;
+        return new RangeConstraint(lower.start, upper.end, lower.startInclusive, upper.endInclusive);
+    }
+
+    private boolean isCompatible(final RangeConstraint other) {
+        final Class<?> type = getType();
+        final Class<?> otherType = other.getType();
+        return null == type || null == otherType || type == otherType;
+    }
+
+    /**
+     * Orders two starts, where a null start comes first and an exclusive
+     * start comes after an inclusive start with the same value.
+     *
+     * @param first           the first start
+     * @param firstInclusive  true if the first start is inclusive
+     * @param second          the second start
+     * @param secondInclusive true if the second start is inclusive
+     * @return a negative number, zero or a positive number as the first start is before, equal to or after the second
+     */
+    private static int compareStarts(final Comparable first, final boolean firstInclusive,
+                                     final Comparable second, final boolean secondInclusive) {
+        if (null == first || null == second) {
+            return null == first ? (null == second ? 0 : -1) : 1;
+        }
+
+        final int result = first.compareTo(second);
+        return 0 != result ? result : Boolean.compare(secondInclusive, firstInclusive);
+    }
+
+    /**
+     * Orders two ends, where a null end comes last and an exclusive
+     * end comes before an inclusive end with the same value.
+     *
+     * @param first           the first end
+     * @param firstInclusive  true if the first end is inclusive
+     * @param second          the second end
+     * @param secondInclusive true if the second end is inclusive
+     * @return a negative number, zero or a positive number as the first end is before, equal to or after the second
+     */
+    private static int compareEnds(final Comparable first, final boolean firstInclusive,
+                                   final Comparable second, final boolean secondInclusive) {
+        if (null == first || null == second) {
+            return null == first ? (null == second ? 0 : 1) : -1;
+        }
+
+        final int result = first.compareTo(second);
+        return 0 != result ? result : Boolean.compare(firstInclusive, secondInclusive);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+
+        if (null == obj || !getClass().equals(obj.getClass())) {
+            return false;
+        }
+
+        final RangeConstraint that = (RangeConstraint) obj;
+        return new EqualsBuilder()
+                .append(start, that.start)
+                .append(end, that.end)
+                .append(startInclusive, that.startInclusive)
+                .append(endInclusive, that.endInclusive)
+                .isEquals();
+    }
+
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder(31, 47)
+                .append(start)
+                .append(end)
+                .append(startInclusive)
+                .append(endInclusive)
+                .toHashCode();
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+                .append("start", start)
+                .append("end", end)
+                .append("startInclusive", startInclusive)
+                .append("endInclusive", endInclusive)
+                .toString();
+    }
+}
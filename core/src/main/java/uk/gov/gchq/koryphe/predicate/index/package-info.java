@@ -0,0 +1,21 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+/**
+ * Analysis of {@link java.util.function.Predicate} trees into per-field
+ * {@link uk.gov.gchq.koryphe.predicate.index.FieldConstraint}s, so that stores can
+ * seek and skip instead of scanning, see {@link uk.gov.gchq.koryphe.predicate.index.IndexHintExtractor}.
+ */
+package uk.gov.gchq.koryphe.predicate.index;
@@ -0,0 +1,533 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.koryphe.predicate.simplify;
+
+import uk.gov.gchq.koryphe.impl.predicate.And;
+import uk.gov.gchq.koryphe.impl.predicate.If;
+import uk.gov.gchq.koryphe.impl.predicate.IsEqual;
+import uk.gov.gchq.koryphe.impl.predicate.IsIn;
+import uk.gov.gchq.koryphe.impl.predicate.IsLessThan;
+import uk.gov.gchq.koryphe.impl.predicate.IsMoreThan;
+import uk.gov.gchq.koryphe.impl.predicate.Not;
+import uk.gov.gchq.koryphe.impl.predicate.Or;
+import uk.gov.gchq.koryphe.impl.predicate.range.InRange;
+import uk.gov.gchq.koryphe.predicate.AdaptedPredicate;
+import uk.gov.gchq.koryphe.predicate.PredicateComposite;
+import uk.gov.gchq.koryphe.predicate.index.FieldConstraint;
+import uk.gov.gchq.koryphe.predicate.index.PointConstraint;
+import uk.gov.gchq.koryphe.predicate.index.RangeConstraint;
+import uk.gov.gchq.koryphe.tuple.predicate.IntegerTupleAdaptedPredicate;
+import uk.gov.gchq.koryphe.tuple.predicate.TupleAdaptedPredicate;
+import uk.gov.gchq.koryphe.tuple.predicate.TupleAdaptedPredicateComposite;
+import uk.gov.gchq.koryphe.util.ComponentUtil;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Rewrites a {@link Predicate} tree into an equivalent, and usually cheaper, tree.
+ * <ul>
+ * <li>Nested {@link And}s and {@link Or}s are flattened and {@code Not(Not(x))} becomes {@code x}.</li>
+ * <li>Constants are folded, using an empty {@link And} for true and an empty {@link Or} for false,
+ * and unreachable predicates, including the untaken branch of an {@link If} with a constant
+ * condition, are removed.</li>
+ * <li>Duplicate predicates are removed.</li>
+ * <li>{@link IsEqual}s and {@link IsIn}s, {@link InRange}s, {@link IsMoreThan}s and {@link IsLessThan}s
+ * on the same selection are merged.</li>
+ * </ul>
+ * The simplified predicate gives the same result for every input that the original predicate
+ * gives a result for. It may return a result where the original would have thrown an exception,
+ * for example because a predicate that would have failed on the input is no longer evaluated.
+ * Trees are never modified, so unchanged parts of the tree are shared with the original.
+ * <p>
+ * Predicates are only removed, merged or reordered if they are not {@link uk.gov.gchq.koryphe.Stateful}, and only
+ * considered duplicates if they implement {@link Object#equals(Object)} using their fields.
+ * </p>
+ */
+public final class PredicateSimplifier {
+    private PredicateSimplifier() {
+        // Empty
+    }
+
+    /**
+     * @param predicate the predicate to simplify
+     * @param <I>       the type of input to the predicate
+     * @return an equivalent predicate, or the original predicate if it cannot be simplified
+     */
+    public static <I> Predicate<I> simplify(final Predicate<I> predicate) {
+        if (null == predicate) {
+            throw new IllegalArgumentException("Predicate is required");
+        }
+
+        return simplifyPredicate(predicate);
+    }
+
+    private static Predicate simplifyPredicate(final Predicate predicate) {
+        final Class<?> clazz = predicate.getClass();
+        if (Or.class == clazz) {
+            return simplifyComposite((PredicateComposite) predicate, true);
+        }
+
+        if (And.class == clazz || PredicateComposite.class == clazz || TupleAdaptedPredicateComposite.class == clazz) {
+            return simplifyComposite((PredicateComposite) predicate, false);
+        }
+
+        if (Not.class == clazz) {
+            return simplifyNot((Not) predicate);
+        }
+
+        if (If.class == clazz) {
+            return simplifyIf((If) predicate);
+        }
+
+        if (isSelection(predicate)) {
+            return simplifySelection((TupleAdaptedPredicate) predicate);
+        }
+
+        return predicate;
+    }
+
+    private static Predicate simplifyComposite(final PredicateComposite composite, final boolean or) {
+        final List<Predicate> components = composite.getComponents();
+        if (null == components) {
+            return composite;
+        }
+
+        final List<Predicate> flattened = new ArrayList<>(components.size());
+        for (final Predicate component : components) {
+            final Predicate simplified = simplifyPredicate(component);
+            if (isComposite(simplified, or) && null != ((PredicateComposite) simplified).getComponents()) {
+                flattened.addAll(((PredicateComposite) simplified).getComponents());
+            } else {
+                flattened.add(simplified);
+            }
+        }
+
+        List<Predicate> result = new ArrayList<>(flattened.size());
+        for (final Predicate component : flattened) {
+            if (isConstant(component, !or)) {
+                continue;
+            }
+            result.add(component);
+            if (isConstant(component, or)) {
+                // Nothing after a false And component or a true Or component is evaluated
+                if (!isStateful(result)) {
+                    return constant(or);
+                }
+                break;
+            }
+        }
+
+        if (!isStateful(result)) {
+            result = merge(result, or);
+            if (null == result) {
+                return constant(or);
+            }
+        }
+
+        if (result.isEmpty()) {
+            return constant(!or);
+        }
+
+        // A single selection is left wrapped, as composites unpack selections of non-tuple inputs
+        if (1 == result.size() && !isSelection(result.get(0))) {
+            return result.get(0);
+        }
+
+        if (isSame(components, result)) {
+            return composite;
+        }
+
+        return or ? new Or<>(result) : new And<>(result);
+    }
+
+    /**
+     * Merges and removes duplicate components.
+     *
+     * @param components the components of the composite
+     * @param or         true if the components are from an {@link Or}
+     * @return the merged components, or null if the composite is constant
+     */
+    private static List<Predicate> merge(final List<Predicate> components, final boolean or) {
+        final List<Predicate> result = new ArrayList<>(components.size());
+        for (final Predicate component : components) {
+            boolean merged = false;
+            for (int i = 0; i < result.size() && !merged; i++) {
+                final Predicate existing = result.get(i);
+                if (isDuplicate(existing, component)) {
+                    merged = true;
+                } else if (isSameSelection(existing, component)) {
+                    final Predicate combined = combine(getSelected(existing), getSelected(component), or);
+                    if (null != combined) {
+                        if (isConstant(combined, or)) {
+                            return null;
+                        }
+                        result.set(i, select(existing, combined));
+                        merged = true;
+                    }
+                }
+            }
+
+            if (!merged) {
+                result.add(component);
+            }
+        }
+        return result;
+    }
+
+    private static Predicate combine(final Predicate first, final Predicate second, final boolean or) {
+        final Set<Object> firstValues = getValues(first);
+        final Set<Object> secondValues = getValues(second);
+        if (null != firstValues && null != secondValues) {
+            final Set<Object> values = new HashSet<>(firstValues);
+            if (or) {
+                values.addAll(secondValues);
+            } else {
+                values.retainAll(secondValues);
+            }
+            return values.isEmpty() ? constant(false) : new IsIn(values);
+        }
+
+        if (InRange.class == first.getClass() && InRange.class == second.getClass()) {
+            return combineRanges((InRange) first, (InRange) second, or);
+        }
+
+        if (IsMoreThan.class == first.getClass() && IsMoreThan.class == second.getClass()) {
+            final IsMoreThan firstMoreThan = (IsMoreThan) first;
+            final IsMoreThan secondMoreThan = (IsMoreThan) second;
+            final int compare = compareControlValues(firstMoreThan.getControlValue(), !firstMoreThan.getOrEqualTo(),
+                    secondMoreThan.getControlValue(), !secondMoreThan.getOrEqualTo());
+            return Integer.MIN_VALUE == compare ? null : (compare > 0) != or ? first : second;
+        }
+
+        if (IsLessThan.class == first.getClass() && IsLessThan.class == second.getClass()) {
+            final IsLessThan firstLessThan = (IsLessThan) first;
+            final IsLessThan secondLessThan = (IsLessThan) second;
+            final int compare = compareControlValues(firstLessThan.getControlValue(), firstLessThan.getOrEqualTo(),
+                    secondLessThan.getControlValue(), secondLessThan.getOrEqualTo());
+            return Integer.MIN_VALUE == compare ? null : (compare < 0) != or ? first : second;
+        }
+
+        return null;
+    }
+
+    private static Predicate combineRanges(final InRange first, final InRange second, final boolean or) {
+        final RangeConstraint firstRange = toRange(first);
+        final RangeConstraint secondRange = toRange(second);
+        if (null == firstRange || null == secondRange) {
+            return null;
+        }
+
+        final FieldConstraint intersection = firstRange.intersect(secondRange);
+        if (!or) {
+            if (intersection instanceof PointConstraint) {
+                return constant(false);
+            }
+            return intersection instanceof RangeConstraint ? toInRange((RangeConstraint) intersection) : null;
+        }
+
+        // The hull of two ranges is only their union if they overlap or touch
+        final boolean touching = isTouching(firstRange, secondRange) || isTouching(secondRange, firstRange);
+        if (!(intersection instanceof RangeConstraint) && !touching) {
+            return null;
+        }
+        final FieldConstraint union = firstRange.union(secondRange);
+        return union instanceof RangeConstraint ? toInRange((RangeConstraint) union) : null;
+    }
+
+    private static boolean isTouching(final RangeConstraint first, final RangeConstraint second) {
+        return null != first.getEnd() && null != second.getStart()
+                && (first.isEndInclusive() || second.isStartInclusive())
+                && 0 == first.getEnd().compareTo(second.getStart());
+    }
+
+    private static RangeConstraint toRange(final InRange range) {
+        final Object start = range.getStart();
+        final Object end = range.getEnd();
+        if (null != start && null != end && start.getClass() != end.getClass()) {
+            return null;
+        }
+
+        return new RangeConstraint((Comparable) start, (Comparable) end,
+                !Boolean.FALSE.equals(range.isStartInclusive()), !Boolean.FALSE.equals(range.isEndInclusive()));
+    }
+
+    private static InRange toInRange(final RangeConstraint range) {
+        final InRange.Builder builder = new InRange.Builder().start(range.getStart()).end(range.getEnd());
+        if (!range.isStartInclusive()) {
+            builder.startInclusive(false);
+        }
+        if (!range.isEndInclusive()) {
+            builder.endInclusive(false);
+        }
+        return (InRange) builder.build();
+    }
+
+    /**
+     * Compares the boundaries of two comparisons in the same direction.
+     *
+     * @param first       the first control value
+     * @param firstAfter  true if the first boundary is just after its control value
+     * @param second      the second control value
+     * @param secondAfter true if the second boundary is just after its control value
+     * @return the sign of the comparison, or {@link Integer#MIN_VALUE} if the values cannot be compared
+     */
+    private static int compareControlValues(final Comparable first, final boolean firstAfter,
+                                            final Comparable second, final boolean secondAfter) {
+        if (null == first || null == second || first.getClass() != second.getClass()) {
+            return Integer.MIN_VALUE;
+        }
+
+        final int compare = first.compareTo(second);
+        return 0 != compare ? Integer.signum(compare) : Boolean.compare(firstAfter, secondAfter);
+    }
+
+    private static Set<Object> getValues(final Predicate predicate) {
+        if (IsEqual.class == predicate.getClass()) {
+            return Collections.singleton(((IsEqual) predicate).getControlValue());
+        }
+
+        if (IsIn.class == predicate.getClass()) {
+            return ((IsIn) predicate).getAllowedValues();
+        }
+
+        return null;
+    }
+
+    private static Predicate simplifyNot(final Not not) {
+        final Predicate predicate = not.getPredicate();
+        if (null == predicate) {
+            return constant(false);
+        }
+
+        final Predicate simplified = simplifyPredicate(predicate);
+        if (Not.class == simplified.getClass() && null != ((Not) simplified).getPredicate()) {
+            return ((Not) simplified).getPredicate();
+        }
+
+        if (isConstant(simplified, true) || isConstant(simplified, false)) {
+            return constant(!isConstant(simplified, true));
+        }
+
+        return simplified == predicate ? not : new Not<>(simplified);
+    }
+
+    private static Predicate simplifyIf(final If ifPredicate) {
+        if (null != ifPredicate.getCondition()) {
+            return simplifyBranch(ifPredicate.getCondition() ? ifPredicate.getThen() : ifPredicate.getOtherwise());
+        }
+
+        if (null == ifPredicate.getPredicate()) {
+            return simplifyBranch(ifPredicate.getOtherwise());
+        }
+
+        final Predicate predicate = simplifyPredicate(ifPredicate.getPredicate());
+        if (isConstant(predicate, true) || isConstant(predicate, false)) {
+            return simplifyBranch(isConstant(predicate, true) ? ifPredicate.getThen() : ifPredicate.getOtherwise());
+        }
+
+        final Predicate then = simplifyBranch(ifPredicate.getThen());
+        final Predicate otherwise = simplifyBranch(ifPredicate.getOtherwise());
+        if (!isStateful(predicate)) {
+            if (isConstant(then, false) && isConstant(otherwise, false)) {
+                return constant(false);
+            }
+            if (isConstant(then, true) && isConstant(otherwise, true)) {
+                return constant(true);
+            }
+        }
+        if (isConstant(then, true) && isConstant(otherwise, false)) {
+            return predicate;
+        }
+        if (isConstant(then, false) && isConstant(otherwise, true)) {
+            return new Not<>(predicate);
+        }
+
+        if (predicate == ifPredicate.getPredicate() && then == ifPredicate.getThen() && otherwise == ifPredicate.getOtherwise()) {
+            return ifPredicate;
+        }
+
+        // A missing branch is already false, so it is not replaced by a constant
+        return new If<>(predicate,
+                null != ifPredicate.getThen() ? then : null,
+                null != ifPredicate.getOtherwise() ? otherwise : null);
+    }
+
+    private static Predicate simplifyBranch(final Predicate branch) {
+        return null != branch ? simplifyPredicate(branch) : constant(false);
+    }
+
+    private static Predicate simplifySelection(final TupleAdaptedPredicate selection) {
+        final Predicate predicate = selection.getPredicate();
+        if (null == predicate) {
+            return selection;
+        }
+
+        final Predicate simplified = simplifyPredicate(predicate);
+        if (isConstant(simplified, true) || isConstant(simplified, false)) {
+            return simplified;
+        }
+
+        return simplified == predicate ? selection : select(selection, simplified);
+    }
+
+    private static boolean isSelection(final Predicate predicate) {
+        return TupleAdaptedPredicate.class == predicate.getClass() || IntegerTupleAdaptedPredicate.class == predicate.getClass();
+    }
+
+    private static boolean isSameSelection(final Predicate first, final Predicate second) {
+        if (isSelection(first) || isSelection(second)) {
+            return first.getClass() == second.getClass()
+                    && null != ((TupleAdaptedPredicate) first).getSelection()
+                    && null != ((TupleAdaptedPredicate) first).getPredicate()
+                    && null != ((TupleAdaptedPredicate) second).getPredicate()
+                    && Arrays.equals(((TupleAdaptedPredicate) first).getSelection(), ((TupleAdaptedPredicate) second).getSelection());
+        }
+
+        // Neither predicate is a selection, so both test the whole input
+        return true;
+    }
+
+    private static Predicate getSelected(final Predicate predicate) {
+        return isSelection(predicate) ? ((TupleAdaptedPredicate) predicate).getPredicate() : predicate;
+    }
+
+    private static Predicate select(final Predicate selection, final Predicate predicate) {
+        if (!isSelection(selection)) {
+            return predicate;
+        }
+
+        final Object[] selected = ((TupleAdaptedPredicate) selection).getSelection();
+        if (selection instanceof IntegerTupleAdaptedPredicate) {
+            return new IntegerTupleAdaptedPredicate(predicate, (Integer[]) selected);
+        }
+        return new TupleAdaptedPredicate(predicate, selected);
+    }
+
+    private static boolean isComposite(final Predicate predicate, final boolean or) {
+        if (or) {
+            return Or.class == predicate.getClass();
+        }
+
+        final Class<?> clazz = predicate.getClass();
+        return And.class == clazz || PredicateComposite.class == clazz || TupleAdaptedPredicateComposite.class == clazz;
+    }
+
+    /**
+     * @param predicate the predicate
+     * @param value     the constant value
+     * @return true if the predicate is the constant for the value: an empty {@link And} or an empty {@link Or}
+     */
+    private static boolean isConstant(final Predicate predicate, final boolean value) {
+        if (value) {
+            return And.class == predicate.getClass()
+                    && (null == ((And) predicate).getComponents() || ((And) predicate).getComponents().isEmpty());
+        }
+
+        return Or.class == predicate.getClass()
+                && null != ((Or) predicate).getComponents() && ((Or) predicate).getComponents().isEmpty();
+    }
+
+    private static Predicate constant(final boolean value) {
+        return value ? new And<>() : new Or<>();
+    }
+
+    private static boolean isDuplicate(final Predicate first, final Predicate second) {
+        if (first == second) {
+            return true;
+        }
+
+        if (isSelection(first) && isSelection(second) && isSameSelection(first, second)) {
+            return isDuplicate(getSelected(first), getSelected(second));
+        }
+
+        return hasValueEquals(first) && first.equals(second);
+    }
+
+    private static boolean hasValueEquals(final Predicate predicate) {
+        if (!ComponentUtil.hasValueEquals(predicate)) {
+            return false;
+        }
+
+        if (predicate instanceof PredicateComposite) {
+            final List<Predicate> components = ((PredicateComposite) predicate).getComponents();
+            return null == components || components.stream().allMatch(PredicateSimplifier::hasValueEquals);
+        }
+
+        if (predicate instanceof Not) {
+            return hasValueEquals(((Not) predicate).getPredicate());
+        }
+
+        if (predicate instanceof If) {
+            final If ifPredicate = (If) predicate;
+            return hasValueEquals(ifPredicate.getPredicate())
+                    && hasValueEquals(ifPredicate.getThen())
+                    && hasValueEquals(ifPredicate.getOtherwise());
+        }
+
+        return true;
+    }
+
+    private static boolean isStateful(final List<Predicate> predicates) {
+        return predicates.stream().anyMatch(PredicateSimplifier::isStateful);
+    }
+
+    private static boolean isStateful(final Predicate predicate) {
+        if (null == predicate) {
+            return false;
+        }
+
+        if (ComponentUtil.isStateful(predicate)) {
+            return true;
+        }
+
+        if (predicate instanceof PredicateComposite) {
+            final List<Predicate> components = ((PredicateComposite) predicate).getComponents();
+            return null != components && isStateful(components);
+        }
+
+        if (predicate instanceof Not) {
+            return isStateful(((Not) predicate).getPredicate());
+        }
+
+        if (predicate instanceof If) {
+            final If ifPredicate = (If) predicate;
+            return isStateful(ifPredicate.getPredicate())
+                    || isStateful(ifPredicate.getThen())
+                    || isStateful(ifPredicate.getOtherwise());
+        }
+
+        return predicate instanceof AdaptedPredicate && isStateful(((AdaptedPredicate) predicate).getPredicate());
+    }
+
+    private static boolean isSame(final List<Predicate> first, final List<Predicate> second) {
+        if (first.size() != second.size()) {
+            return false;
+        }
+
+        for (int i = 0; i < first.size(); i++) {
+            if (first.get(i) != second.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,747 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.koryphe.serialisation.binary;
+
+import com.fasterxml.jackson.core.Base64Variant;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.ObjectCodec;
+import com.fasterxml.jackson.core.Version;
+import com.fasterxml.jackson.core.base.ParserMinimalBase;
+import com.fasterxml.jackson.core.json.JsonReadContext;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A <code>BinarySerialiser</code> encodes objects into a compact binary form of
+ * the JSON that the provided {@link ObjectMapper} would produce, so a function,
+ * predicate or aggregator tree deserialised from the binary form is equivalent
+ * to one deserialised from the JSON.
+ * <p>
+ * The layout is:
+ * </p>
+ * <ul>
+ * <li>a 2 byte magic header followed by the layout version.</li>
+ * <li>a stream of tagged JSON tokens.</li>
+ * <li>strings, including field names and class names, are held in a dictionary.
+ * The first occurrence of a string is written in full and assigned the next id,
+ * after which it is written as a varint id.</li>
+ * <li>integers are written as zig-zag varints and floating point numbers as 8 bytes.</li>
+ * </ul>
+ * <p>
+ * Instances are thread safe if the provided {@link ObjectMapper} is.
+ * </p>
+ */
+public class BinarySerialiser {
+    public static final int VERSION_1 = 1;
+    public static final int CURRENT_VERSION = VERSION_1;
+
+    private static final byte MAGIC_1 = 'K';
+    private static final byte MAGIC_2 = 'B';
+
+    private static final byte START_OBJECT = 1;
+    private static final byte END_OBJECT = 2;
+    private static final byte START_ARRAY = 3;
+    private static final byte END_ARRAY = 4;
+    private static final byte FIELD_NAME = 5;
+    private static final byte FIELD_NAME_REF = 6;
+    private static final byte STRING = 7;
+    private static final byte STRING_REF = 8;
+    private static final byte INT = 9;
+    private static final byte LONG = 10;
+    private static final byte BIG_INTEGER = 11;
+    private static final byte DOUBLE = 12;
+    private static final byte BIG_DECIMAL = 13;
+    private static final byte TRUE = 14;
+    private static final byte FALSE = 15;
+    private static final byte NULL = 16;
+    private static final byte BINARY = 17;
+
+    private static final String INVALID_FORMAT = "Invalid binary format: ";
+
+    private final ObjectMapper mapper;
+
+    public BinarySerialiser(final ObjectMapper mapper) {
+        if (null == mapper) {
+            throw new IllegalArgumentException("ObjectMapper is required");
+        }
+        this.mapper = mapper;
+    }
+
+    /**
+     * Serialises an object into the binary form.
+     *
+     * @param object the object to serialise
+     * @return the binary form of the object
+     * @throws IOException if the object cannot be serialised
+     */
+    public byte[] serialise(final Object object) throws IOException {
+        final TokenBuffer buffer = new TokenBuffer(mapper, false);
+        mapper.writeValue(buffer, object);
+        try (final JsonParser parser = buffer.asParser(mapper)) {
+            return encode(parser);
+        }
+    }
+
+    /**
+     * Deserialises an object from the binary form.
+     *
+     * @param bytes the binary form
+     * @param type  the type to deserialise into
+     * @param <T>   the type to deserialise into
+     * @return the deserialised object
+     * @throws IOException if the object cannot be deserialised
+     */
+    public <T> T deserialise(final byte[] bytes, final Class<T> type) throws IOException {
+        try (final JsonParser parser = createParser(bytes)) {
+            return mapper.readValue(parser, type);
+        } catch (final JsonMappingException e) {
+            throw unwrapInvalidFormat(e);
+        }
+    }
+
+    /**
+     * Deserialises an object from the binary form.
+     *
+     * @param bytes         the binary form
+     * @param typeReference the type to deserialise into
+     * @param <T>           the type to deserialise into
+     * @return the deserialised object
+     * @throws IOException if the object cannot be deserialised
+     */
+    public <T> T deserialise(final byte[] bytes, final TypeReference<T> typeReference) throws IOException {
+        try (final JsonParser parser = createParser(bytes)) {
+            return mapper.readValue(parser, typeReference);
+        } catch (final JsonMappingException e) {
+            throw unwrapInvalidFormat(e);
+        }
+    }
+
+    /**
+     * Converts JSON into the binary form without deserialising it.
+     *
+     * @param json the JSON
+     * @return the binary form
+     * @throws IOException if the JSON cannot be parsed
+     */
+    public byte[] fromJson(final String json) throws IOException {
+        try (final JsonParser parser = mapper.getFactory().createParser(json)) {
+            return encode(parser);
+        }
+    }
+
+    /**
+     * Converts the binary form back into JSON without deserialising it.
+     *
+     * @param bytes the binary form
+     * @return the JSON
+     * @throws IOException if the JSON cannot be written
+     */
+    public String toJson(final byte[] bytes) throws IOException {
+        final StringWriter writer = new StringWriter();
+        try (final JsonParser parser = createParser(bytes);
+             final JsonGenerator generator = mapper.getFactory().createGenerator(writer)) {
+            while (null != parser.nextToken()) {
+                generator.copyCurrentEvent(parser);
+            }
+        }
+        return writer.toString();
+    }
+
+    private static byte[] encode(final JsonParser parser) throws IOException {
+        final Output output = new Output();
+        output.write(MAGIC_1);
+        output.write(MAGIC_2);
+        output.writeVarInt(CURRENT_VERSION);
+
+        JsonToken token = parser.nextToken();
+        while (null != token) {
+            switch (token) {
+                case START_OBJECT:
+                    output.write(START_OBJECT);
+                    break;
+                case END_OBJECT:
+                    output.write(END_OBJECT);
+                    break;
+                case START_ARRAY:
+                    output.write(START_ARRAY);
+                    break;
+                case END_ARRAY:
+                    output.write(END_ARRAY);
+                    break;
+                case FIELD_NAME:
+                    output.writeString(FIELD_NAME, FIELD_NAME_REF, parser.getCurrentName());
+                    break;
+                case VALUE_STRING:
+                    output.writeString(STRING, STRING_REF, parser.getText());
+                    break;
+                case VALUE_NUMBER_INT:
+                    encodeInteger(parser, output);
+                    break;
+                case VALUE_NUMBER_FLOAT:
+                    encodeFloat(parser, output);
+                    break;
+                case VALUE_TRUE:
+                    output.write(TRUE);
+                    break;
+                case VALUE_FALSE:
+                    output.write(FALSE);
+                    break;
+                case VALUE_NULL:
+                    output.write(NULL);
+                    break;
+                case VALUE_EMBEDDED_OBJECT:
+                    final Object embedded = parser.getEmbeddedObject();
+                    if (!(embedded instanceof byte[])) {
+                        throw new IllegalArgumentException("Unable to encode embedded object of type " + (null == embedded ? null : embedded.getClass().getName()));
+                    }
+                    output.write(BINARY);
+                    output.writeBytes((byte[]) embedded);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unable to encode JSON token " + token);
+            }
+            token = parser.nextToken();
+        }
+
+        return output.toByteArray();
+    }
+
+    private static void encodeInteger(final JsonParser parser, final Output output) throws IOException {
+        if (JsonParser.NumberType.BIG_INTEGER == parser.getNumberType()) {
+            final BigInteger value = parser.getBigIntegerValue();
+            if (value.bitLength() >= Long.SIZE) {
+                output.write(BIG_INTEGER);
+                output.writeBytes(value.toByteArray());
+                return;
+            }
+        }
+
+        // Use the smallest type, as a JSON parser would
+        final long value = parser.getLongValue();
+        if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+            output.write(INT);
+        } else {
+            output.write(LONG);
+        }
+        output.writeVarLong(value);
+    }
+
+    private static void encodeFloat(final JsonParser parser, final Output output) throws IOException {
+        switch (parser.getNumberType()) {
+            case BIG_DECIMAL:
+                final BigDecimal value = parser.getDecimalValue();
+                output.write(BIG_DECIMAL);
+                output.writeVarInt(value.scale());
+                output.writeBytes(value.unscaledValue().toByteArray());
+                break;
+            case FLOAT:
+                // Convert via the textual form so the value matches the JSON
+                output.write(DOUBLE);
+                output.writeDouble(Double.parseDouble(Float.toString(parser.getFloatValue())));
+                break;
+            default:
+                output.write(DOUBLE);
+                output.writeDouble(parser.getDoubleValue());
+                break;
+        }
+    }
+
+    private static JsonMappingException unwrapInvalidFormat(final JsonMappingException e) {
+        // Jackson wraps exceptions thrown by the parser, so expose corrupt bytes as they are reported elsewhere
+        for (Throwable cause = e.getCause(); null != cause; cause = cause.getCause()) {
+            if (cause instanceof IllegalArgumentException && null != cause.getMessage() && cause.getMessage().startsWith(INVALID_FORMAT)) {
+                throw (IllegalArgumentException) cause;
+            }
+        }
+        return e;
+    }
+
+    private JsonParser createParser(final byte[] bytes) {
+        if (null == bytes || bytes.length < 3 || MAGIC_1 != bytes[0] || MAGIC_2 != bytes[1]) {
+            throw new IllegalArgumentException("Bytes are not in the Koryphe binary format");
+        }
+
+        final Input input = new Input(bytes, 2);
+        final int version = input.readVarInt();
+        if (VERSION_1 != version) {
+            throw new IllegalArgumentException("Unsupported binary format version: " + version + ". The latest supported version is " + CURRENT_VERSION);
+        }
+        return new Version1Parser(input, mapper);
+    }
+
+    /**
+     * Streams the JSON tokens straight out of the version 1 binary form, so
+     * the {@link ObjectMapper} can deserialise from the bytes without them
+     * first being copied into an intermediate token buffer.
+     */
+    private static final class Version1Parser extends ParserMinimalBase {
+        private final Input input;
+        private final List<String> strings = new ArrayList<>();
+        private ObjectCodec codec;
+        private JsonReadContext context = JsonReadContext.createRootContext(null);
+        private boolean closed;
+
+        private String text;
+        private Number number;
+        private NumberType numberType;
+        private byte[] binary;
+
+        private Version1Parser(final Input input, final ObjectCodec codec) {
+            this.input = input;
+            this.codec = codec;
+        }
+
+        @Override
+        public JsonToken nextToken() throws IOException {
+            if (closed || !input.hasRemaining()) {
+                _handleEOF();
+                _currToken = null;
+                return null;
+            }
+
+            final byte tag = input.read();
+            switch (tag) {
+                case START_OBJECT:
+                    context = context.createChildObjectContext(0, 0);
+                    _currToken = JsonToken.START_OBJECT;
+                    break;
+                case END_OBJECT:
+                    endContext(context.inObject());
+                    _currToken = JsonToken.END_OBJECT;
+                    break;
+                case START_ARRAY:
+                    context = context.createChildArrayContext(0, 0);
+                    _currToken = JsonToken.START_ARRAY;
+                    break;
+                case END_ARRAY:
+                    endContext(context.inArray());
+                    _currToken = JsonToken.END_ARRAY;
+                    break;
+                case FIELD_NAME:
+                    context.setCurrentName(input.readString(strings));
+                    _currToken = JsonToken.FIELD_NAME;
+                    break;
+                case FIELD_NAME_REF:
+                    context.setCurrentName(input.readStringRef(strings));
+                    _currToken = JsonToken.FIELD_NAME;
+                    break;
+                case STRING:
+                    text = input.readString(strings);
+                    _currToken = JsonToken.VALUE_STRING;
+                    break;
+                case STRING_REF:
+                    text = input.readStringRef(strings);
+                    _currToken = JsonToken.VALUE_STRING;
+                    break;
+                case INT:
+                    setNumber((int) input.readVarLong(), NumberType.INT, JsonToken.VALUE_NUMBER_INT);
+                    break;
+                case LONG:
+                    setNumber(input.readVarLong(), NumberType.LONG, JsonToken.VALUE_NUMBER_INT);
+                    break;
+                case BIG_INTEGER:
+                    setNumber(new BigInteger(input.readBytes()), NumberType.BIG_INTEGER, JsonToken.VALUE_NUMBER_INT);
+                    break;
+                case DOUBLE:
+                    setNumber(input.readDouble(), NumberType.DOUBLE, JsonToken.VALUE_NUMBER_FLOAT);
+                    break;
+                case BIG_DECIMAL:
+                    final int scale = input.readVarInt();
+                    setNumber(new BigDecimal(new BigInteger(input.readBytes()), scale), NumberType.BIG_DECIMAL, JsonToken.VALUE_NUMBER_FLOAT);
+                    break;
+                case TRUE:
+                    _currToken = JsonToken.VALUE_TRUE;
+                    break;
+                case FALSE:
+                    _currToken = JsonToken.VALUE_FALSE;
+                    break;
+                case NULL:
+                    _currToken = JsonToken.VALUE_NULL;
+                    break;
+                case BINARY:
+                    binary = input.readBytes();
+                    _currToken = JsonToken.VALUE_EMBEDDED_OBJECT;
+                    break;
+                default:
+                    throw new IllegalArgumentException(INVALID_FORMAT + "unknown tag " + tag);
+            }
+            return _currToken;
+        }
+
+        private void endContext(final boolean expected) {
+            if (!expected) {
+                throw new IllegalArgumentException(INVALID_FORMAT + "unbalanced " + context.getTypeDesc());
+            }
+            context = context.getParent();
+        }
+
+        private void setNumber(final Number value, final NumberType type, final JsonToken token) {
+            number = value;
+            numberType = type;
+            _currToken = token;
+        }
+
+        @Override
+        protected void _handleEOF() {
+            if (!context.inRoot()) {
+                throw new IllegalArgumentException(INVALID_FORMAT + "unexpected end of bytes");
+            }
+        }
+
+        @Override
+        public String getCurrentName() {
+            if (JsonToken.START_OBJECT == _currToken || JsonToken.START_ARRAY == _currToken) {
+                return context.getParent().getCurrentName();
+            }
+            return context.getCurrentName();
+        }
+
+        @Override
+        public void overrideCurrentName(final String name) {
+            final JsonReadContext nameContext = JsonToken.START_OBJECT == _currToken || JsonToken.START_ARRAY == _currToken ? context.getParent() : context;
+            try {
+                nameContext.setCurrentName(name);
+            } catch (final IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        @Override
+        public JsonStreamContext getParsingContext() {
+            return context;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        @Override
+        public boolean isClosed() {
+            return closed;
+        }
+
+        @Override
+        public ObjectCodec getCodec() {
+            return codec;
+        }
+
+        @Override
+        public void setCodec(final ObjectCodec codec) {
+            this.codec = codec;
+        }
+
+        @Override
+        public Version version() {
+            return Version.unknownVersion();
+        }
+
+        @Override
+        public JsonLocation getTokenLocation() {
+            return JsonLocation.NA;
+        }
+
+        @Override
+        public JsonLocation getCurrentLocation() {
+            return JsonLocation.NA;
+        }
+
+        @Override
+        public String getText() {
+            if (null == _currToken) {
+                return null;
+            }
+            switch (_currToken) {
+                case VALUE_STRING:
+                    return text;
+                case FIELD_NAME:
+                    return context.getCurrentName();
+                case VALUE_NUMBER_INT:
+                case VALUE_NUMBER_FLOAT:
+                    return number.toString();
+                default:
+                    return _currToken.asString();
+            }
+        }
+
+        @Override
+        public char[] getTextCharacters() {
+            final String value = getText();
+            return null == value ? null : value.toCharArray();
+        }
+
+        @Override
+        public boolean hasTextCharacters() {
+            return false;
+        }
+
+        @Override
+        public int getTextLength() {
+            final String value = getText();
+            return null == value ? 0 : value.length();
+        }
+
+        @Override
+        public int getTextOffset() {
+            return 0;
+        }
+
+        @Override
+        public Number getNumberValue() throws IOException {
+            checkNumber();
+            return number;
+        }
+
+        @Override
+        public NumberType getNumberType() throws IOException {
+            checkNumber();
+            return numberType;
+        }
+
+        @Override
+        public int getIntValue() throws IOException {
+            return getNumberValue().intValue();
+        }
+
+        @Override
+        public long getLongValue() throws IOException {
+            return getNumberValue().longValue();
+        }
+
+        @Override
+        public float getFloatValue() throws IOException {
+            return getNumberValue().floatValue();
+        }
+
+        @Override
+        public double getDoubleValue() throws IOException {
+            return getNumberValue().doubleValue();
+        }
+
+        @Override
+        public BigInteger getBigIntegerValue() throws IOException {
+            final Number value = getNumberValue();
+            if (value instanceof BigInteger) {
+                return (BigInteger) value;
+            }
+            if (value instanceof BigDecimal) {
+                return ((BigDecimal) value).toBigInteger();
+            }
+            if (value instanceof Double) {
+                return BigDecimal.valueOf(value.doubleValue()).toBigInteger();
+            }
+            return BigInteger.valueOf(value.longValue());
+        }
+
+        @Override
+        public BigDecimal getDecimalValue() throws IOException {
+            final Number value = getNumberValue();
+            if (value instanceof BigDecimal) {
+                return (BigDecimal) value;
+            }
+            if (value instanceof BigInteger) {
+                return new BigDecimal((BigInteger) value);
+            }
+            if (value instanceof Double) {
+                return BigDecimal.valueOf(value.doubleValue());
+            }
+            return BigDecimal.valueOf(value.longValue());
+        }
+
+        private void checkNumber() throws JsonParseException {
+            if (JsonToken.VALUE_NUMBER_INT != _currToken && JsonToken.VALUE_NUMBER_FLOAT != _currToken) {
+                throw _constructError("Current token (" + _currToken + ") not numeric, can not use numeric value accessors");
+            }
+        }
+
+        @Override
+        public Object getEmbeddedObject() {
+            return JsonToken.VALUE_EMBEDDED_OBJECT == _currToken ? binary : null;
+        }
+
+        @Override
+        public byte[] getBinaryValue(final Base64Variant base64Variant) throws IOException {
+            if (JsonToken.VALUE_EMBEDDED_OBJECT == _currToken) {
+                return binary;
+            }
+            if (JsonToken.VALUE_STRING != _currToken) {
+                throw _constructError("Current token (" + _currToken + ") not VALUE_STRING or VALUE_EMBEDDED_OBJECT, can not access as binary");
+            }
+            try {
+                return base64Variant.decode(text);
+            } catch (final IllegalArgumentException e) {
+                throw _constructError("Failed to decode VALUE_STRING as base64 (" + base64Variant + "): " + e.getMessage());
+            }
+        }
+    }
+
+    private static final class Output {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final Map<String, Integer> stringIds = new HashMap<>();
+
+        private void write(final byte value) {
+            bytes.write(value);
+        }
+
+        private void writeVarInt(final int value) {
+            int remaining = value;
+            while ((remaining & ~0x7F) != 0) {
+                bytes.write((remaining & 0x7F) | 0x80);
+                remaining >>>= 7;
+            }
+            bytes.write(remaining);
+        }
+
+        private void writeVarLong(final long value) {
+            // Zig-zag encode so small negative numbers are also small
+            long remaining = (value << 1) ^ (value >> 63);
+            while ((remaining & ~0x7FL) != 0) {
+                bytes.write((int) ((remaining & 0x7F) | 0x80));
+                remaining >>>= 7;
+            }
+            bytes.write((int) remaining);
+        }
+
+        private void writeDouble(final double value) {
+            final long bits = Double.doubleToLongBits(value);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                bytes.write((int) (bits >>> shift));
+            }
+        }
+
+        private void writeBytes(final byte[] value) {
+            writeVarInt(value.length);
+            bytes.write(value, 0, value.length);
+        }
+
+        private void writeString(final byte tag, final byte refTag, final String value) {
+            final Integer id = stringIds.get(value);
+            if (null == id) {
+                stringIds.put(value, stringIds.size());
+                write(tag);
+                writeBytes(value.getBytes(StandardCharsets.UTF_8));
+            } else {
+                write(refTag);
+                writeVarInt(id);
+            }
+        }
+
+        private byte[] toByteArray() {
+            return bytes.toByteArray();
+        }
+    }
+
+    private static final class Input {
+        private final byte[] bytes;
+        private int position;
+
+        private Input(final byte[] bytes, final int position) {
+            this.bytes = bytes;
+            this.position = position;
+        }
+
+        private boolean hasRemaining() {
+            return position < bytes.length;
+        }
+
+        private byte read() {
+            if (position >= bytes.length) {
+                throw new IllegalArgumentException(INVALID_FORMAT + "unexpected end of bytes");
+            }
+            return bytes[position++];
+        }
+
+        private int readVarInt() {
+            int value = 0;
+            for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+                final byte b = read();
+                value |= (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException(INVALID_FORMAT + "malformed varint");
+        }
+
+        private long readVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < Long.SIZE; shift += 7) {
+                final byte b = read();
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return (value >>> 1) ^ -(value & 1);
+                }
+            }
+            throw new IllegalArgumentException(INVALID_FORMAT + "malformed varint");
+        }
+
+        private double readDouble() {
+            long bits = 0;
+            for (int i = 0; i < 8; i++) {
+                bits = (bits << 8) | (read() & 0xFF);
+            }
+            return Double.longBitsToDouble(bits);
+        }
+
+        private byte[] readBytes() {
+            final int length = readVarInt();
+            if (length < 0 || length > bytes.length - position) {
+                throw new IllegalArgumentException(INVALID_FORMAT + "unexpected end of bytes");
+            }
+            final byte[] value = new byte[length];
+            System.arraycopy(bytes, position, value, 0, length);
+            position += length;
+            return value;
+        }
+
+        private String readString(final List<String> strings) {
+            final int length = readVarInt();
+            if (length < 0 || length > bytes.length - position) {
+                throw new IllegalArgumentException(INVALID_FORMAT + "unexpected end of bytes");
+            }
+            final String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+            position += length;
+            strings.add(value);
+            return value;
+        }
+
+        private String readStringRef(final List<String> strings) {
+            final int id = readVarInt();
+            if (id < 0 || id >= strings.size()) {
+                throw new IllegalArgumentException(INVALID_FORMAT + "unknown string id " + id);
+            }
+            return strings.get(id);
+        }
+    }
+}
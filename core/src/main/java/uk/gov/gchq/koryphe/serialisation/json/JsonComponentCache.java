@@ -0,0 +1,264 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.koryphe.serialisation.json;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import uk.gov.gchq.koryphe.Stateful;
+import uk.gov.gchq.koryphe.util.ComponentCopier;
+import uk.gov.gchq.koryphe.util.ReflectionUtil;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A <code>JsonComponentCache</code> caches components deserialised from JSON, so
+ * repeatedly receiving the same JSON does not repeat the deserialisation and
+ * any work done when the component is constructed, such as compiling
+ * regular expressions.
+ * <p>
+ * Components are cached against a canonical fingerprint of the JSON, in which
+ * fields are sorted and unambiguous simple class names are expanded, so formatting
+ * and field order differences do not prevent a cache hit. The cache is bounded and evicts
+ * the least recently used components.
+ * </p>
+ * <p>
+ * Every caller is given its own deep copy of the cached component, so callers
+ * can modify or instrument the component they are given without affecting
+ * anyone else. Only immutable values, such as strings and compiled patterns,
+ * are shared between the copies.
+ * If any class referenced by a "class" property in the JSON is annotated with
+ * {@link Stateful}, or the component cannot be copied, then the component is
+ * not cached and a new instance is deserialised each time.
+ * </p>
+ */
+public class JsonComponentCache {
+    public static final int DEFAULT_MAX_SIZE = 1000;
+
+    private static final String CLASS_PROPERTY = "class";
+
+    private final ObjectMapper mapper;
+    private final Cache<Key, Object> cache;
+    private final Map<String, Boolean> statefulClasses = new ConcurrentHashMap<>();
+    private final LongAdder uncacheableCount = new LongAdder();
+
+    public JsonComponentCache(final ObjectMapper mapper) {
+        this(mapper, DEFAULT_MAX_SIZE);
+    }
+
+    public JsonComponentCache(final ObjectMapper mapper, final long maxSize) {
+        if (null == mapper) {
+            throw new IllegalArgumentException("ObjectMapper is required");
+        }
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Max size must be at least 1");
+        }
+        this.mapper = mapper;
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Gets the component for the JSON, deserialising it if it is not cached.
+     *
+     * @param json the JSON
+     * @param type the type of the component
+     * @param <T>  the type of the component
+     * @return the component
+     * @throws IOException if the JSON cannot be deserialised
+     */
+    public <T> T deserialise(final String json, final Class<T> type) throws IOException {
+        return deserialise(mapper.readTree(json), type);
+    }
+
+    /**
+     * Gets the component for the JSON, deserialising it if it is not cached.
+     *
+     * @param json the JSON
+     * @param type the type of the component
+     * @param <T>  the type of the component
+     * @return the component
+     * @throws IOException if the JSON cannot be deserialised
+     */
+    public <T> T deserialise(final byte[] json, final Class<T> type) throws IOException {
+        return deserialise(mapper.readTree(json), type);
+    }
+
+    private <T> T deserialise(final JsonNode node, final Class<T> type) throws IOException {
+        final StringBuilder fingerprint = new StringBuilder();
+        if (!appendFingerprint(node, mapper.constructType(type), fingerprint)) {
+            uncacheableCount.increment();
+            return mapper.treeToValue(node, type);
+        }
+
+        final Key key = new Key(type, fingerprint.toString());
+        final Object cached = cache.getIfPresent(key);
+        if (null != cached) {
+            return type.cast(ComponentCopier.deepCopy(cached));
+        }
+
+        final T component = mapper.treeToValue(node, type);
+        if (null != component) {
+            final Object prototype;
+            try {
+                prototype = ComponentCopier.deepCopy(component);
+            } catch (final IllegalArgumentException e) {
+                uncacheableCount.increment();
+                return component;
+            }
+            cache.put(key, prototype);
+        }
+        return component;
+    }
+
+    public long getHitCount() {
+        return cache.stats().hitCount();
+    }
+
+    public long getMissCount() {
+        return cache.stats().missCount();
+    }
+
+    public long getEvictionCount() {
+        return cache.stats().evictionCount();
+    }
+
+    /**
+     * @return the number of times a component was not cached as it is stateful or cannot be copied.
+     */
+    public long getUncacheableCount() {
+        return uncacheableCount.sum();
+    }
+
+    public long size() {
+        return cache.size();
+    }
+
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Appends the canonical form of the JSON node to the fingerprint.
+     *
+     * @param node        the JSON node
+     * @param baseType    the type the node will be deserialised as, if known
+     * @param fingerprint the fingerprint to append to
+     * @return false if the node references a stateful class, so must not be cached
+     */
+    private boolean appendFingerprint(final JsonNode node, final JavaType baseType, final StringBuilder fingerprint) {
+        if (node.isObject()) {
+            final List<String> fieldNames = new ArrayList<>(node.size());
+            final Iterator<String> itr = node.fieldNames();
+            while (itr.hasNext()) {
+                fieldNames.add(itr.next());
+            }
+            Collections.sort(fieldNames);
+
+            fingerprint.append('{');
+            for (final String fieldName : fieldNames) {
+                final JsonNode value = node.get(fieldName);
+                fingerprint.append(mapper.getNodeFactory().textNode(fieldName)).append(':');
+                if (CLASS_PROPERTY.equals(fieldName) && value.isTextual()) {
+                    final String className = getClassName(value.asText(), baseType);
+                    if (isStateful(className)) {
+                        return false;
+                    }
+                    fingerprint.append(mapper.getNodeFactory().textNode(className));
+                } else if (!appendFingerprint(value, null, fingerprint)) {
+                    return false;
+                }
+                fingerprint.append(',');
+            }
+            fingerprint.append('}');
+        } else if (node.isArray()) {
+            fingerprint.append('[');
+            for (final JsonNode child : node) {
+                if (!appendFingerprint(child, null, fingerprint)) {
+                    return false;
+                }
+                fingerprint.append(',');
+            }
+            fingerprint.append(']');
+        } else {
+            fingerprint.append(node);
+        }
+        return true;
+    }
+
+    private static String getClassName(final String id, final JavaType baseType) {
+        try {
+            return SimpleClassNameCache.getClassName(id, baseType);
+        } catch (final IllegalArgumentException e) {
+            // The id is ambiguous, so leave it to the deserialisation to report the error.
+            return id;
+        }
+    }
+
+    private boolean isStateful(final String className) {
+        Boolean stateful = statefulClasses.get(className);
+        if (null == stateful) {
+            final Class<?> clazz = ReflectionUtil.getClassFromName(className);
+            stateful = null != clazz && clazz.isAnnotationPresent(Stateful.class);
+            // Only remember classes that exist, so unknown ids cannot grow the map
+            if (null != clazz) {
+                statefulClasses.put(className, stateful);
+            }
+        }
+        return stateful;
+    }
+
+    private static final class Key {
+        private final Class<?> type;
+        private final String fingerprint;
+
+        private Key(final Class<?> type, final String fingerprint) {
+            this.type = type;
+            this.fingerprint = fingerprint;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+
+            final Key key = (Key) obj;
+            return type.equals(key.type) && fingerprint.equals(key.fingerprint);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * type.hashCode() + fingerprint.hashCode();
+        }
+    }
+}
@@ -22,12 +22,15 @@ import org.apache.commons.lang3.StringUtils;
 import uk.gov.gchq.koryphe.util.ReflectionUtil;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
-import java.util.LinkedHashSet;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BinaryOperator;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -60,6 +63,10 @@ import java.util.stream.Collectors;
  * Only a small set of packages on the class path are scanned.
  * You can add extra packages to the scanner. See {@link ReflectionUtil} for details.
  * </p>
+ * <p>
+ * The cached ids are held in an immutable snapshot which is replaced atomically
+ * whenever classes are added, so lookups never need to lock.
+ * </p>
  *
  * @see ReflectionUtil
  */
@@ -73,49 +80,36 @@ public final class SimpleClassNameCache {
             Comparator.class
     );
 
-    private static final Set<String> DEFAULT_CORE_PACKAGES = Sets.newLinkedHashSet(
-            Arrays.asList("java.lang", "java.util")
-    );
-
     /**
      * Core packages such as java.lang that will be used to try and expand unknown
      * simple class names.
      */
-    private static Set<String> corePackages = new LinkedHashSet<>(DEFAULT_CORE_PACKAGES);
-
-    /**
-     * Base classes to use to find implementations to be added to idToClasses
-     */
-    private static Set<Class> baseClasses = ConcurrentHashMap.newKeySet();
+    private static final Set<String> DEFAULT_CORE_PACKAGES = Collections.unmodifiableSet(Sets.newLinkedHashSet(
+            Arrays.asList("java.lang", "java.util")
+    ));
 
     /**
-     * Map of simple class name to classes.
+     * Cached in place of a simple class name for classes that cannot be
+     * referenced by their simple class name.
      */
-    private static Map<String, Set<Class>> idToClasses = new ConcurrentHashMap<>();
+    private static final String NO_SIMPLE_CLASS_NAME = "";
 
     /**
-     * If conflicts are found in idToClasses this will be used to try to
-     * differentiate the classes.
+     * The current snapshot of simple class names, or null if not yet initialised.
      */
-    private static Map<Class<?>, Map<String, Class>> baseTypeToIdToClass = new ConcurrentHashMap<>();
+    private static final AtomicReference<Snapshot> SNAPSHOT = new AtomicReference<>();
 
     /**
      * If true then the full class name is used for serialisation.
      * The default is true, this could be changed to true in the next major release.
      */
-    private static boolean useFullNameForSerialisation = DEFAULT_USE_FULL_NAME_FOR_SERIALISATION;
-
-    private static boolean initialised = false;
+    private static volatile boolean useFullNameForSerialisation = DEFAULT_USE_FULL_NAME_FOR_SERIALISATION;
 
     private SimpleClassNameCache() {
     }
 
     public static void initialise() {
-        if (!initialised) {
-            baseClasses = createParentClasses();
-            idToClasses = createIdToClasses();
-            initialised = true;
-        }
+        getSnapshot();
     }
 
     /**
@@ -141,17 +135,15 @@ public final class SimpleClassNameCache {
      * @param classes         the classes to be included.
      */
     public static void addSimpleClassNames(final boolean includeSubtypes, final Class... classes) {
-        initialise();
+        final Map<String, Set<Class>> newIdToClasses = new HashMap<>();
         for (final Class clazz : classes) {
-            final Set<Class> existingClasses = getClassesFromId(clazz.getSimpleName());
-            if (null == existingClasses || !existingClasses.contains(clazz)) {
-                if (includeSubtypes) {
-                    addSimpleClassNames(idToClasses, clazz);
-                } else {
-                    addSimpleClassName(idToClasses, clazz);
-                }
+            if (includeSubtypes) {
+                addSimpleClassNames(newIdToClasses, clazz);
+            } else {
+                addSimpleClassName(newIdToClasses, clazz);
             }
         }
+        addIdClasses(newIdToClasses);
     }
 
     /**
@@ -172,39 +164,17 @@ public final class SimpleClassNameCache {
     }
 
     public static String getSimpleClassNameOrNull(final Class<?> clazz) {
-        String id;
         if (null == clazz || useFullNameForSerialisation) {
-            id = null;
-        } else {
-            initialise();
-
-            // If the class is an array, use the component type and we will
-            // add the array brackets at the end.
-            final boolean isArray = null != clazz.getComponentType();
-            final Class<?> nonArrayClass = isArray ? clazz.getComponentType() : clazz;
-            id = nonArrayClass.getSimpleName();
-
-            final Set<Class> classesForId = getClassesFromId(id);
-            if (null == classesForId || classesForId.isEmpty()) {
-                // If the class is unknown, check if the class is in one of the core packages
-                final Package classPackage = nonArrayClass.getPackage();
-                if (null != classPackage && corePackages.contains(classPackage.getName())) {
-                    // Found the class, so cache the result for next time.
-                    addIdClasses(id, Sets.newHashSet(nonArrayClass));
-                } else {
-                    id = null;
-                }
-            } else if (1 != classesForId.size()) {
-                // If there are multiple classes with the same class name then
-                // we can't return a simple class name.
-                id = null;
-            }
+            return null;
+        }
 
-            if (isArray && null != id) {
-                id = id + "[]";
-            }
+        final Snapshot snapshot = getSnapshot();
+        String id = snapshot.classToId.get(clazz);
+        if (null == id) {
+            id = findSimpleClassName(snapshot, clazz);
+            snapshot.classToId.putIfAbsent(clazz, null != id ? id : NO_SIMPLE_CLASS_NAME);
         }
-        return id;
+        return NO_SIMPLE_CLASS_NAME.equals(id) ? null : id;
     }
 
     /**
@@ -230,29 +200,28 @@ public final class SimpleClassNameCache {
     public static String getClassName(final String id, final JavaType baseType) {
         String className = null;
         if (null != id && !id.contains(".")) {
-            initialise();
+            final Snapshot snapshot = getSnapshot();
 
             // Remove the array brackets if required, these will be added again at the end.
             final boolean isArray = id.endsWith("[]");
-            String nonArrayId = isArray ? id.substring(0, id.length() - 2) : id;
-            nonArrayId = StringUtils.capitalize(nonArrayId);
+            final String nonArrayId = toKey(isArray ? id.substring(0, id.length() - 2) : id);
 
-            final Set<Class> classesForId = getClassesFromId(nonArrayId);
+            final Set<Class> classesForId = snapshot.idToClasses.get(nonArrayId);
             // If the class is unknown (not in the cache) then try the core packages
             if (null == classesForId || classesForId.isEmpty()) {
-                for (final String corePackage : corePackages) {
+                for (final String corePackage : DEFAULT_CORE_PACKAGES) {
                     final String classNameTmp = corePackage + "." + nonArrayId;
                     final Class<?> clazz = ReflectionUtil.getClassFromName(classNameTmp);
                     if (null != clazz) {
                         className = classNameTmp;
-                        addIdClasses(nonArrayId, Sets.newHashSet(clazz));
+                        addIdClasses(Collections.singletonMap(nonArrayId, Sets.newHashSet(clazz)));
                         break;
                     }
                 }
             } else if (1 == classesForId.size()) {
                 // There is exactly one class name for the given ID so we are
                 // confident that is this the class required.
-                className = classesForId.iterator().next().getName();
+                className = snapshot.idToClassName.get(nonArrayId);
             } else {
                 // If the base type has been provided then attempt to use
                 // it to resolve the conflicts
@@ -260,18 +229,12 @@ public final class SimpleClassNameCache {
                     final Class<?> baseClass = baseType.getRawClass();
 
                     // First check the conflict cache
-                    Map<String, Class> idToClass = baseTypeToIdToClass.get(baseClass);
-                    if (null != idToClass) {
-                        final Class clazz = getClassFromId(nonArrayId, idToClass);
-                        if (null != clazz) {
-                            className = clazz.getName();
-                        }
-                    }
+                    final Map<String, Class> idToClass = snapshot.baseTypeToIdToClass.computeIfAbsent(baseClass, k -> new ConcurrentHashMap<>());
+                    Class<?> matchedClass = idToClass.get(nonArrayId);
 
                     // If the conflict has not previously been seen, then try
                     // and resolve it and add it to the cache.
-                    if (null == className) {
-                        Class<?> matchedClass = null;
+                    if (null == matchedClass) {
                         for (final Class classForId : classesForId) {
                             if (baseClass.isAssignableFrom(classForId)) {
                                 if (null == matchedClass) {
@@ -284,14 +247,13 @@ public final class SimpleClassNameCache {
                         }
                         // If the conflict has been resolved then cache the result
                         if (null != matchedClass) {
-                            className = matchedClass.getName();
-                            if (null == idToClass) {
-                                idToClass = new ConcurrentHashMap<>();
-                                baseTypeToIdToClass.put(baseClass, idToClass);
-                            }
-                            addIdClass(nonArrayId, matchedClass, idToClass);
+                            idToClass.put(nonArrayId, matchedClass);
                         }
                     }
+
+                    if (null != matchedClass) {
+                        className = matchedClass.getName();
+                    }
                 }
                 // If the conflict cannot be resolved then explain to the user
                 // that they need to provide the full class name.
@@ -318,15 +280,79 @@ public final class SimpleClassNameCache {
      * Resets the caches.
      */
     public static void reset() {
-        baseClasses = createParentClasses();
-        idToClasses = createIdToClasses();
-        corePackages = new LinkedHashSet<>(DEFAULT_CORE_PACKAGES);
-        baseTypeToIdToClass = new ConcurrentHashMap<>();
+        SNAPSHOT.set(Snapshot.create());
+    }
+
+    private static Snapshot getSnapshot() {
+        Snapshot snapshot = SNAPSHOT.get();
+        if (null == snapshot) {
+            // If several threads initialise at once only the first snapshot is kept
+            SNAPSHOT.compareAndSet(null, Snapshot.create());
+            snapshot = SNAPSHOT.get();
+        }
+        return snapshot;
+    }
+
+    private static String findSimpleClassName(final Snapshot snapshot, final Class<?> clazz) {
+        // If the class is an array, use the component type and we will
+        // add the array brackets at the end.
+        final boolean isArray = null != clazz.getComponentType();
+        final Class<?> nonArrayClass = isArray ? clazz.getComponentType() : clazz;
+        String id = nonArrayClass.getSimpleName();
+
+        final Set<Class> classesForId = snapshot.idToClasses.get(toKey(id));
+        if (null == classesForId || classesForId.isEmpty()) {
+            // If the class is unknown, check if the class is in one of the core packages
+            final Package classPackage = nonArrayClass.getPackage();
+            if (null != classPackage && DEFAULT_CORE_PACKAGES.contains(classPackage.getName())) {
+                // Found the class, so cache the result for next time.
+                addIdClasses(Collections.singletonMap(toKey(id), Sets.newHashSet(nonArrayClass)));
+            } else {
+                id = null;
+            }
+        } else if (1 != classesForId.size()) {
+            // If there are multiple classes with the same class name then
+            // we can't return a simple class name.
+            id = null;
+        }
+
+        if (isArray && null != id) {
+            id = id + "[]";
+        }
+        return id;
+    }
+
+    /**
+     * Atomically replaces the snapshot with a copy that includes the given classes.
+     *
+     * @param newIdToClasses the ids and classes to add
+     */
+    private static void addIdClasses(final Map<String, Set<Class>> newIdToClasses) {
+        Snapshot current;
+        Snapshot updated;
+        do {
+            current = getSnapshot();
+            final Map<String, Set<Class>> idToClasses = new HashMap<>(current.idToClasses);
+            boolean changed = false;
+            for (final Map.Entry<String, Set<Class>> entry : newIdToClasses.entrySet()) {
+                final Set<Class> existing = idToClasses.get(entry.getKey());
+                if (null == existing || !existing.containsAll(entry.getValue())) {
+                    final Set<Class> classes = null == existing ? new HashSet<>() : new HashSet<>(existing);
+                    classes.addAll(entry.getValue());
+                    idToClasses.put(entry.getKey(), classes);
+                    changed = true;
+                }
+            }
+
+            if (!changed) {
+                return;
+            }
+            updated = new Snapshot(idToClasses);
+        } while (!SNAPSHOT.compareAndSet(current, updated));
     }
 
     private static Set<Class> createParentClasses() {
-        final Set<Class> newParentClasses = ConcurrentHashMap.newKeySet();
-        newParentClasses.addAll(DEFAULT_PARENT_CLASSES);
+        final Set<Class> newParentClasses = new HashSet<>(DEFAULT_PARENT_CLASSES);
         for (final Class clazz : ReflectionUtil.getAnnotatedTypes(JsonSimpleClassName.class)) {
             final JsonSimpleClassName anno = (JsonSimpleClassName) clazz.getAnnotation(JsonSimpleClassName.class);
             if (null != anno) {
@@ -340,7 +366,10 @@ public final class SimpleClassNameCache {
     }
 
     private static Map<String, Set<Class>> createIdToClasses() {
-        final Map<String, Set<Class>> map = new ConcurrentHashMap<>();
+        final Set<Class> baseClasses = createParentClasses();
+        final Map<String, Set<Class>> map = new HashMap<>();
+        // Find the implementations of all the base classes in a single scan
+        ReflectionUtil.cacheSubTypes(baseClasses.toArray(new Class[baseClasses.size()]));
         for (final Class baseClass : baseClasses) {
             addSimpleClassNames(map, baseClass);
         }
@@ -352,41 +381,75 @@ public final class SimpleClassNameCache {
     }
 
     private static void addSimpleClassName(final Map<String, Set<Class>> map, final Class clazz) {
-        final String id = StringUtils.capitalize(clazz.getSimpleName());
-        final Set<Class> value = map.get(id);
-        if (null == value) {
-            map.put(id, Sets.newHashSet(clazz));
-        } else {
-            value.add(clazz);
-        }
+        map.computeIfAbsent(toKey(clazz.getSimpleName()), k -> new HashSet<>()).add(clazz);
     }
 
     private static void addSimpleClassNames(final Map<String, Set<Class>> map, final Class baseClass) {
         final Map<String, Set<Class>> simpleClassNames = ReflectionUtil.getSimpleClassNames(baseClass);
         for (final Map.Entry<String, Set<Class>> entry : simpleClassNames.entrySet()) {
-            final String id = StringUtils.capitalize(entry.getKey());
-            final Set<Class> value = map.get(id);
-            if (null == value) {
-                map.put(id, Sets.newHashSet(entry.getValue()));
-            } else {
-                value.addAll(entry.getValue());
-            }
+            map.computeIfAbsent(toKey(entry.getKey()), k -> new HashSet<>()).addAll(entry.getValue());
         }
     }
 
-    private static Set<Class> getClassesFromId(final String id) {
-        return idToClasses.get(StringUtils.capitalize(id));
-    }
+    /**
+     * Converts an id into the capitalised form used as a key in the cache,
+     * only allocating a new string if the id is not already capitalised.
+     *
+     * @param id the id
+     * @return the capitalised id
+     */
+    private static String toKey(final String id) {
+        if (id.isEmpty()) {
+            return id;
+        }
 
-    private static Class getClassFromId(final String id, final Map<String, Class> idToClass) {
-        return idToClass.get(StringUtils.capitalize(id));
+        final char first = id.charAt(0);
+        return Character.toTitleCase(first) == first ? id : StringUtils.capitalize(id);
     }
 
-    private static void addIdClasses(final String id, final Set<Class> classes) {
-        idToClasses.put(StringUtils.capitalize(id), classes);
-    }
+    /**
+     * An immutable view of the simple class names, along with caches of
+     * lookups made against it. A new snapshot is published whenever classes
+     * are added, which also discards the lookup caches.
+     */
+    private static final class Snapshot {
+        /**
+         * Map of capitalised simple class name to classes.
+         */
+        private final Map<String, Set<Class>> idToClasses;
+
+        /**
+         * Map of capitalised simple class name to full class name, for ids
+         * that only match a single class.
+         */
+        private final Map<String, String> idToClassName;
+
+        /**
+         * Simple class names already resolved for classes during serialisation.
+         */
+        private final Map<Class<?>, String> classToId = new ConcurrentHashMap<>();
+
+        /**
+         * If conflicts are found in idToClasses this will be used to try to
+         * differentiate the classes.
+         */
+        private final Map<Class<?>, Map<String, Class>> baseTypeToIdToClass = new ConcurrentHashMap<>();
+
+        private Snapshot(final Map<String, Set<Class>> idToClasses) {
+            final Map<String, Set<Class>> immutableIdToClasses = new HashMap<>(idToClasses.size());
+            final Map<String, String> uniqueIdToClassName = new HashMap<>(idToClasses.size());
+            for (final Map.Entry<String, Set<Class>> entry : idToClasses.entrySet()) {
+                immutableIdToClasses.put(entry.getKey(), Collections.unmodifiableSet(new HashSet<>(entry.getValue())));
+                if (1 == entry.getValue().size()) {
+                    uniqueIdToClassName.put(entry.getKey(), entry.getValue().iterator().next().getName());
+                }
+            }
+            this.idToClasses = Collections.unmodifiableMap(immutableIdToClasses);
+            this.idToClassName = Collections.unmodifiableMap(uniqueIdToClassName);
+        }
 
-    private static void addIdClass(final String id, final Class clazz, final Map<String, Class> idToClass) {
-        idToClass.put(StringUtils.capitalize(id), clazz);
+        private static Snapshot create() {
+            return new Snapshot(createIdToClasses());
+        }
     }
 }
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.koryphe.signature;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import uk.gov.gchq.koryphe.ValidationResult;
+import uk.gov.gchq.koryphe.util.ComponentCopier;
+import uk.gov.gchq.koryphe.util.ComponentUtil;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Memoises the validation of {@link uk.gov.gchq.koryphe.composite.Composite}s, keyed by the structure
+ * of the composite and the argument types, so equivalent filter chains, such as those deserialised
+ * for each request, are only validated once per set of arguments.
+ * <p>
+ * Composites are compared with equals and hashCode, which walk the whole composite tree, so this
+ * is only done when {@link ComponentUtil#hasValueEquals(Object)} shows that every nested component
+ * is compared by value. Other composites, such as those containing components that hold state
+ * but are compared by class, are validated each time without being memoised.
+ * The cache holds a deep copy of each composite, so modifying a composite after it has been
+ * validated cannot change a memoised entry, and the modified composite is simply looked up again.
+ * If the composite cannot be copied its result is not memoised.
+ * </p>
+ * <p>
+ * The cache is bounded and evicts the least recently used entries. Only results are memoised;
+ * if the validation throws an exception nothing is cached. A copy of the memoised result is
+ * returned so callers are free to modify it.
+ * </p>
+ */
+final class CompositeValidationCache {
+    static final int MAX_SIZE = 1000;
+
+    private static final Cache<Key, ValidationResult> CACHE = CacheBuilder.newBuilder()
+            .maximumSize(MAX_SIZE)
+            .build();
+
+    private CompositeValidationCache() {
+        // Empty
+    }
+
+    static ValidationResult isInputValid(final Object composite, final Class<?>... arguments) {
+        return isValid(true, composite, arguments);
+    }
+
+    static ValidationResult isOutputValid(final Object composite, final Class<?>... arguments) {
+        return isValid(false, composite, arguments);
+    }
+
+    static void clear() {
+        CACHE.invalidateAll();
+    }
+
+    static long size() {
+        CACHE.cleanUp();
+        return CACHE.size();
+    }
+
+    private static ValidationResult isValid(final boolean isInput, final Object composite, final Class<?>... arguments) {
+        if (!ComponentUtil.hasValueEquals(composite)) {
+            return validate(isInput, composite, arguments);
+        }
+
+        final ValidationResult cached = CACHE.getIfPresent(new Key(isInput, composite, arguments));
+        if (null != cached) {
+            return copy(cached);
+        }
+
+        final ValidationResult result = validate(isInput, composite, arguments);
+        final Object snapshot;
+        try {
+            snapshot = ComponentCopier.deepCopy(composite);
+        } catch (final IllegalArgumentException e) {
+            return result;
+        }
+        CACHE.put(new Key(isInput, snapshot, arguments), copy(result));
+        return result;
+    }
+
+    private static ValidationResult validate(final boolean isInput, final Object composite, final Class<?>... arguments) {
+        return isInput ? ((InputValidator) composite).isInputValid(arguments) : ((OutputValidator) composite).isOutputValid(arguments);
+    }
+
+    private static ValidationResult copy(final ValidationResult result) {
+        final ValidationResult copy = new ValidationResult();
+        copy.add(result);
+        return copy;
+    }
+
+    private static final class Key {
+        private final boolean isInput;
+        private final Object composite;
+        private final Class<?>[] arguments;
+        private final int hash;
+
+        private Key(final boolean isInput, final Object composite, final Class<?>[] arguments) {
+            this.isInput = isInput;
+            this.composite = composite;
+            this.arguments = null != arguments ? arguments.clone() : null;
+            this.hash = 31 * (31 * Boolean.hashCode(isInput) + composite.hashCode()) + Arrays.hashCode(arguments);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+
+            final Key key = (Key) obj;
+            return isInput == key.isInput
+                    && hash == key.hash
+                    && Arrays.equals(arguments, key.arguments)
+                    && Objects.equals(composite, key.composite);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
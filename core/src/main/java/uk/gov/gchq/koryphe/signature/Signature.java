@@ -34,6 +34,7 @@ import java.lang.reflect.TypeVariable;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -50,6 +51,23 @@ public abstract class Signature {
     private static final boolean INPUT_SIGNATURE = true;
     private static final boolean OUTPUT_SIGNATURE = false;
 
+    /**
+     * The input signature types of each class, keyed by functional interface.
+     * A {@link ClassValue} is used so the cache does not prevent classes,
+     * such as lambdas, from being unloaded.
+     */
+    private static final ClassValue<Map<Class<?>, SignatureType>> INPUT_SIGNATURE_TYPES = new SignatureTypeCache();
+
+    /**
+     * The output signature types of each class, keyed by functional interface.
+     */
+    private static final ClassValue<Map<Class<?>, SignatureType>> OUTPUT_SIGNATURE_TYPES = new SignatureTypeCache();
+
+    /**
+     * The target method of each functional interface.
+     */
+    private static final Map<Class<?>, Method> TARGET_METHODS = new ConcurrentHashMap<>();
+
     /**
      * Tests whether this <code>Signature</code> is compatible with the types supplied.
      *
@@ -119,15 +137,40 @@ public abstract class Signature {
     }
 
     private static Signature createSignatureFromTypeVariable(final Object input, final Class functionClass, final boolean isInput) {
+        // The types of a wrapped BiFunction depend on the wrapped instance, so cannot be cached by class
+        if (input instanceof WrappedBiFunction) {
+            return createSignatureType(input, functionClass, isInput).createSignature(input, isInput);
+        }
+
+        final Map<Class<?>, SignatureType> signatureTypes = (isInput ? INPUT_SIGNATURE_TYPES : OUTPUT_SIGNATURE_TYPES).get(input.getClass());
+        SignatureType signatureType = signatureTypes.get(functionClass);
+        if (null == signatureType) {
+            signatureType = createSignatureType(input, functionClass, isInput);
+            signatureTypes.putIfAbsent(functionClass, signatureType);
+        }
+
+        return signatureType.createSignature(input, isInput);
+    }
+
+    private static SignatureType createSignatureType(final Object input, final Class functionClass, final boolean isInput) {
         final Map<TypeVariable<?>, Type> typeArgs = createTypeArgsFor(input, functionClass);
         final Method targetMethod = getTargetedMethodIn(functionClass);
         final Type targetMethodType = isInput ? targetMethod.getGenericParameterTypes()[0] : targetMethod.getGenericReturnType();
         final Type inputType = mapTargetMethodTypeToRequiredType(targetMethodType, typeArgs);
 
-        return createSignature(input, inputType, typeArgs, isInput);
+        return createSignatureType(inputType, typeArgs);
     }
 
     private static Method getTargetedMethodIn(final Class<?> clazz) {
+        Method targetMethod = TARGET_METHODS.get(clazz);
+        if (null == targetMethod) {
+            targetMethod = findTargetedMethodIn(clazz);
+            TARGET_METHODS.putIfAbsent(clazz, targetMethod);
+        }
+        return targetMethod;
+    }
+
+    private static Method findTargetedMethodIn(final Class<?> clazz) {
         try {
             if (!isAnnotatedFunctionalInterface(clazz)) {
                 throw new IllegalArgumentException(format("Unable to determine target method for %s; it is not a %s.", clazz, FunctionalInterface.class));
@@ -148,7 +191,7 @@ public abstract class Signature {
         return Stream.of(clazz.getAnnotations()).map(Annotation::annotationType).anyMatch(FunctionalInterface.class::equals);
     }
 
-    private static Signature createSignature(final Object input, final Type type, final Map<TypeVariable<?>, Type> typeArgs, final boolean isInput) {
+    private static SignatureType createSignatureType(final Type type, final Map<TypeVariable<?>, Type> typeArgs) {
         Type typeForInput = type;
         if (type instanceof TypeVariable) {
             final TypeVariable typeVariable = TypeVariable.class.cast(type);
@@ -170,10 +213,10 @@ public abstract class Signature {
                 for (final TypeVariable tupleType : tupleTypes) {
                     classes[i++] = getTypeClass(classTypeArgs.get(tupleType), typeArgs);
                 }
-                return new TupleSignature(input, clazz, classes, isInput);
+                return new SignatureType(clazz, classes);
             }
         }
-        return new SingletonSignature(input, clazz, isInput);
+        return new SignatureType(clazz, null);
     }
 
     private static Map<TypeVariable<?>, Type> createTypeArgsFor(final Object input, final Class<?> functionClass) {
@@ -278,5 +321,33 @@ public abstract class Signature {
 
     public static class UnknownGenericType {
     }
+
+    /**
+     * The types resolved for a class against a functional interface. These only
+     * depend on the class, so can be shared by all instances of it.
+     */
+    private static final class SignatureType {
+        private final Class clazz;
+        private final Class[] tupleClasses;
+
+        private SignatureType(final Class clazz, final Class[] tupleClasses) {
+            this.clazz = clazz;
+            this.tupleClasses = tupleClasses;
+        }
+
+        private Signature createSignature(final Object input, final boolean isInput) {
+            if (null == tupleClasses) {
+                return new SingletonSignature(input, clazz, isInput);
+            }
+            return new TupleSignature(input, clazz, tupleClasses, isInput);
+        }
+    }
+
+    private static final class SignatureTypeCache extends ClassValue<Map<Class<?>, SignatureType>> {
+        @Override
+        protected Map<Class<?>, SignatureType> computeValue(final Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    }
 }
 
@@ -17,6 +17,7 @@
 package uk.gov.gchq.koryphe.signature;
 
 import uk.gov.gchq.koryphe.ValidationResult;
+import uk.gov.gchq.koryphe.composite.Composite;
 
 import java.util.Arrays;
 
@@ -38,9 +39,15 @@ public class SingletonSignature extends Signature {
     public ValidationResult assignable(final Class<?>... arguments) {
         if (isInput) {
             if (input instanceof InputValidator) {
+                if (input instanceof Composite) {
+                    return CompositeValidationCache.isInputValid(input, arguments);
+                }
                 return ((InputValidator) input).isInputValid(arguments);
             }
         } else if (input instanceof OutputValidator) {
+            if (input instanceof Composite) {
+                return CompositeValidationCache.isOutputValid(input, arguments);
+            }
             return ((OutputValidator) input).isOutputValid(arguments);
         }
 
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.koryphe.tuple.function;
+
+import uk.gov.gchq.koryphe.impl.function.Memoize;
+import uk.gov.gchq.koryphe.tuple.Tuple;
+import uk.gov.gchq.koryphe.util.ComponentUtil;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A {@code TupleAdaptedFunctionPlan} applies the functions of a {@link TupleAdaptedFunctionComposite},
+ * but only computes each distinct pair of function and selection once per tuple.
+ * <p>
+ * When planning, a {@link TupleAdaptedFunction} is found to repeat an earlier one if their functions are
+ * equal and they select the same fields, and none of those fields has been projected to since the earlier
+ * function was applied. The output of the earlier function is kept in a slot while the tuple is being
+ * transformed and projected again instead of applying the function. Functions are only reused if they are not
+ * {@link uk.gov.gchq.koryphe.Stateful} and are equal because of their fields, see {@link ComponentUtil#hasValueEquals(Object)}.
+ * </p>
+ * <p>
+ * The same output object is projected into each field, so functions with mutable outputs
+ * should not be modified by later functions. The composite should not be changed after it has been planned.
+ * </p>
+ * <p>
+ * If planned with memoization, each function that is {@link uk.gov.gchq.koryphe.Deterministic} and applied
+ * rather than reused is wrapped in a {@link Memoize}, so repeated inputs across tuples are looked up in a cache.
+ * </p>
+ *
+ * @param <R> Reference type used by tuples
+ */
+public final class TupleAdaptedFunctionPlan<R> implements Function<Tuple<R>, Tuple<R>> {
+    private static final int NOT_SHARED = -1;
+
+    private final List<Function> functions;
+    private final int[] sources;
+    private final boolean[] kept;
+    private final int sharedCount;
+    private final int memoizedCount;
+
+    private TupleAdaptedFunctionPlan(final List<Function> functions, final int[] sources, final int memoizedCount) {
+        this.functions = functions;
+        this.sources = sources;
+        this.kept = new boolean[sources.length];
+        this.memoizedCount = memoizedCount;
+        int shared = 0;
+        for (final int source : sources) {
+            if (NOT_SHARED != source) {
+                kept[source] = true;
+                shared++;
+            }
+        }
+        this.sharedCount = shared;
+    }
+
+    /**
+     * @param composite the composite to plan
+     * @param <R>       Reference type used by tuples
+     * @return a function that gives the same result as the composite
+     */
+    public static <R> TupleAdaptedFunctionPlan<R> of(final TupleAdaptedFunctionComposite<R> composite) {
+        return of(composite, false);
+    }
+
+    /**
+     * @param composite the composite to plan
+     * @param memoize   true if deterministic functions should be wrapped in a {@link Memoize}
+     * @param <R>       Reference type used by tuples
+     * @return a function that gives the same result as the composite
+     */
+    public static <R> TupleAdaptedFunctionPlan<R> of(final TupleAdaptedFunctionComposite<R> composite, final boolean memoize) {
+        if (null == composite) {
+            throw new IllegalArgumentException("Composite is required");
+        }
+
+        final List<Function> functions = null != composite.getComponents()
+                ? new ArrayList<>(composite.getComponents())
+                : Collections.emptyList();
+        final int[] sources = new int[functions.size()];
+        for (int i = 0; i < functions.size(); i++) {
+            final int source = findSource(functions, i);
+            // Use the output of the function that was actually applied
+            sources[i] = NOT_SHARED != source && NOT_SHARED != sources[source] ? sources[source] : source;
+        }
+
+        int memoizedCount = 0;
+        if (memoize) {
+            for (int i = 0; i < functions.size(); i++) {
+                if (NOT_SHARED == sources[i] && isMemoizable(functions.get(i))) {
+                    final TupleAdaptedFunction function = (TupleAdaptedFunction) functions.get(i);
+                    functions.set(i, new TupleAdaptedFunction<>(function.getSelection(), new Memoize<>(function.getFunction()), function.getProjection()));
+                    memoizedCount++;
+                }
+            }
+        }
+        return new TupleAdaptedFunctionPlan<>(functions, sources, memoizedCount);
+    }
+
+    private static boolean isMemoizable(final Function function) {
+        return null != function && TupleAdaptedFunction.class == function.getClass()
+                && ComponentUtil.isDeterministic(((TupleAdaptedFunction) function).getFunction());
+    }
+
+    private static int findSource(final List<Function> functions, final int index) {
+        final TupleAdaptedFunction function = asShareable(functions.get(index));
+        if (null == function) {
+            return NOT_SHARED;
+        }
+
+        final List<Object> selection = Arrays.asList(function.getSelection());
+        // Search backwards, as a field projected to since an earlier function was applied changes the input.
+        // This includes a function projecting to its own selection, so projections are checked before a match.
+        for (int i = index - 1; i >= 0; i--) {
+            if (!(functions.get(i) instanceof TupleAdaptedFunction)
+                    || !Collections.disjoint(selection, Arrays.asList(((TupleAdaptedFunction) functions.get(i)).getProjection()))) {
+                return NOT_SHARED;
+            }
+            final TupleAdaptedFunction earlier = asShareable(functions.get(i));
+            if (null != earlier
+                    && earlier.getFunction().equals(function.getFunction())
+                    && selection.equals(Arrays.asList(earlier.getSelection()))) {
+                return i;
+            }
+        }
+        return NOT_SHARED;
+    }
+
+    private static TupleAdaptedFunction asShareable(final Function function) {
+        if (null == function || TupleAdaptedFunction.class != function.getClass()) {
+            return null;
+        }
+
+        final TupleAdaptedFunction adapted = (TupleAdaptedFunction) function;
+        if (null == adapted.getFunction() || null == adapted.getSelection()
+                || ComponentUtil.isStateful(adapted.getFunction())
+                || !ComponentUtil.hasValueEquals(adapted.getFunction())) {
+            return null;
+        }
+        return adapted;
+    }
+
+    @Override
+    public Tuple<R> apply(final Tuple<R> input) {
+        if (0 == sharedCount) {
+            Tuple<R> result = input;
+            for (final Function function : functions) {
+                result = (Tuple<R>) function.apply(result);
+            }
+            return result;
+        }
+
+        final Object[] slots = new Object[functions.size()];
+        Tuple<R> result = input;
+        for (int i = 0; i < functions.size(); i++) {
+            final Function function = functions.get(i);
+            if (NOT_SHARED != sources[i]) {
+                result = (Tuple<R>) ((TupleAdaptedFunction) function).getOutputAdapter().apply(result, slots[sources[i]]);
+            } else if (kept[i]) {
+                final TupleAdaptedFunction adapted = (TupleAdaptedFunction) function;
+                slots[i] = adapted.getFunction().apply(adapted.getInputAdapter().apply(result));
+                result = (Tuple<R>) adapted.getOutputAdapter().apply(result, slots[i]);
+            } else {
+                result = (Tuple<R>) function.apply(result);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the number of functions whose output is reused rather than computed
+     */
+    public int getSharedCount() {
+        return sharedCount;
+    }
+
+    /**
+     * @return the number of functions wrapped in a {@link Memoize}
+     */
+    public int getMemoizedCount() {
+        return memoizedCount;
+    }
+}
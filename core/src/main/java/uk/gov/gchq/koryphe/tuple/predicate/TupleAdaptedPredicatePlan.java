@@ -0,0 +1,240 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.koryphe.tuple.predicate;
+
+import uk.gov.gchq.koryphe.impl.predicate.And;
+import uk.gov.gchq.koryphe.impl.predicate.Not;
+import uk.gov.gchq.koryphe.impl.predicate.Or;
+import uk.gov.gchq.koryphe.predicate.AdaptedPredicate;
+import uk.gov.gchq.koryphe.predicate.PredicateComposite;
+import uk.gov.gchq.koryphe.tuple.Tuple;
+import uk.gov.gchq.koryphe.util.ComponentUtil;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * A {@code TupleAdaptedPredicatePlan} tests a tree of {@link And}, {@link Or}, {@link Not} and
+ * {@link PredicateComposite} predicates, but only computes each distinct pair of selection and
+ * input adapter once per tuple.
+ * <p>
+ * When planning, each {@link TupleAdaptedPredicate} wrapping an {@link AdaptedPredicate} is keyed by its
+ * selection and the input adapter function of the {@link AdaptedPredicate}. If a key is used more than once,
+ * the adapted value is computed the first time it is needed while testing a tuple and reused for the others.
+ * Functions are only reused if they are not {@link uk.gov.gchq.koryphe.Stateful} and are equal because of their
+ * fields, see {@link ComponentUtil#hasValueEquals(Object)}. All other predicates are tested as they are.
+ * </p>
+ * <p>
+ * The same adapted value is given to each predicate, so predicates should not modify their input.
+ * The predicate should not be changed after it has been planned.
+ * </p>
+ *
+ * @param <R> Reference type used by tuples
+ */
+public final class TupleAdaptedPredicatePlan<R> implements Predicate<Tuple<R>> {
+    private static final Object UNSET = new Object();
+
+    private final Node root;
+    private final int slotCount;
+
+    private TupleAdaptedPredicatePlan(final Node root, final int slotCount) {
+        this.root = root;
+        this.slotCount = slotCount;
+    }
+
+    /**
+     * @param predicate the predicate to plan
+     * @param <R>       Reference type used by tuples
+     * @return a predicate that gives the same result as the predicate
+     */
+    public static <R> TupleAdaptedPredicatePlan<R> of(final Predicate<Tuple<R>> predicate) {
+        if (null == predicate) {
+            throw new IllegalArgumentException("Predicate is required");
+        }
+
+        final Map<List<Object>, Integer> counts = new HashMap<>();
+        count(predicate, counts);
+        final Map<List<Object>, Integer> slots = new HashMap<>();
+        for (final Map.Entry<List<Object>, Integer> entry : counts.entrySet()) {
+            if (entry.getValue() > 1) {
+                slots.put(entry.getKey(), slots.size());
+            }
+        }
+        return new TupleAdaptedPredicatePlan<>(plan(predicate, slots), slots.size());
+    }
+
+    private static void count(final Predicate predicate, final Map<List<Object>, Integer> counts) {
+        final List<Object> key = getKey(predicate);
+        if (null != key) {
+            counts.merge(key, 1, Integer::sum);
+        } else {
+            for (final Predicate child : getChildren(predicate)) {
+                count(child, counts);
+            }
+        }
+    }
+
+    private static Node plan(final Predicate predicate, final Map<List<Object>, Integer> slots) {
+        final List<Object> key = getKey(predicate);
+        if (null != key) {
+            final Integer slot = slots.get(key);
+            return null != slot ? new SlotNode((TupleAdaptedPredicate) predicate, slot) : new LeafNode(predicate);
+        }
+
+        final Class<?> clazz = predicate.getClass();
+        if (Not.class == clazz) {
+            final Predicate negated = ((Not) predicate).getPredicate();
+            return null != negated ? new NotNode(plan(negated, slots)) : new LeafNode(predicate);
+        }
+
+        if (isComposite(predicate)) {
+            final List<Node> children = new ArrayList<>();
+            for (final Predicate child : getChildren(predicate)) {
+                children.add(plan(child, slots));
+            }
+            return new CompositeNode(children, Or.class == clazz);
+        }
+
+        return new LeafNode(predicate);
+    }
+
+    private static List<Predicate> getChildren(final Predicate predicate) {
+        if (Not.class == predicate.getClass() && null != ((Not) predicate).getPredicate()) {
+            return Arrays.asList(((Not) predicate).getPredicate());
+        }
+
+        if (isComposite(predicate)) {
+            return ((PredicateComposite) predicate).getComponents();
+        }
+
+        return new ArrayList<>();
+    }
+
+    private static boolean isComposite(final Predicate predicate) {
+        final Class<?> clazz = predicate.getClass();
+        return (And.class == clazz || Or.class == clazz || PredicateComposite.class == clazz
+                || TupleAdaptedPredicateComposite.class == clazz)
+                && null != ((PredicateComposite) predicate).getComponents();
+    }
+
+    private static List<Object> getKey(final Predicate predicate) {
+        if (TupleAdaptedPredicate.class != predicate.getClass()) {
+            return null;
+        }
+
+        final TupleAdaptedPredicate selection = (TupleAdaptedPredicate) predicate;
+        final Predicate adapted = selection.getPredicate();
+        if (null == selection.getSelection() || null == adapted || AdaptedPredicate.class != adapted.getClass()) {
+            return null;
+        }
+
+        final Function function = ((AdaptedPredicate) adapted).getInputAdapter();
+        if (null == function || null == ((AdaptedPredicate) adapted).getPredicate()
+                || ComponentUtil.isStateful(function) || !ComponentUtil.hasValueEquals(function)) {
+            return null;
+        }
+        return Arrays.asList(Arrays.asList(selection.getSelection()), function);
+    }
+
+    @Override
+    public boolean test(final Tuple<R> input) {
+        final Object[] slots = new Object[slotCount];
+        Arrays.fill(slots, UNSET);
+        return root.test(input, slots);
+    }
+
+    /**
+     * @return the number of adapted values that are computed once and shared
+     */
+    public int getSlotCount() {
+        return slotCount;
+    }
+
+    private abstract static class Node {
+        abstract boolean test(Tuple input, Object[] slots);
+    }
+
+    private static final class LeafNode extends Node {
+        private final Predicate predicate;
+
+        private LeafNode(final Predicate predicate) {
+            this.predicate = predicate;
+        }
+
+        @Override
+        boolean test(final Tuple input, final Object[] slots) {
+            return predicate.test(input);
+        }
+    }
+
+    private static final class SlotNode extends Node {
+        private final TupleAdaptedPredicate selection;
+        private final AdaptedPredicate adapted;
+        private final int slot;
+
+        private SlotNode(final TupleAdaptedPredicate selection, final int slot) {
+            this.selection = selection;
+            this.adapted = (AdaptedPredicate) selection.getPredicate();
+            this.slot = slot;
+        }
+
+        @Override
+        boolean test(final Tuple input, final Object[] slots) {
+            if (UNSET == slots[slot]) {
+                slots[slot] = adapted.getInputAdapter().apply(selection.getInputAdapter().apply(input));
+            }
+            return adapted.getPredicate().test(slots[slot]);
+        }
+    }
+
+    private static final class NotNode extends Node {
+        private final Node node;
+
+        private NotNode(final Node node) {
+            this.node = node;
+        }
+
+        @Override
+        boolean test(final Tuple input, final Object[] slots) {
+            return !node.test(input, slots);
+        }
+    }
+
+    private static final class CompositeNode extends Node {
+        private final List<Node> nodes;
+        private final boolean or;
+
+        private CompositeNode(final List<Node> nodes, final boolean or) {
+            this.nodes = nodes;
+            this.or = or;
+        }
+
+        @Override
+        boolean test(final Tuple input, final Object[] slots) {
+            for (final Node node : nodes) {
+                if (node.test(input, slots) == or) {
+                    return or;
+                }
+            }
+            return !or;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.koryphe.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A {@code ClassIndex} reads the class indexes written at compile time by the
+ * Koryphe class indexer, merging the indexes from every jar on the class path.
+ * Each line of an index is a key, either a base type or annotation class name,
+ * followed by a space and the name of an indexed class.
+ */
+final class ClassIndex {
+    static final String INDEX_RESOURCE = "META-INF/koryphe/class-index";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClassIndex.class);
+
+    private final Map<String, Set<String>> classNames;
+
+    private ClassIndex(final Map<String, Set<String>> classNames) {
+        this.classNames = classNames;
+    }
+
+    static ClassIndex load(final ClassLoader classLoader) {
+        final Map<String, Set<String>> classNames = new HashMap<>();
+        try {
+            final Enumeration<URL> resources = classLoader.getResources(INDEX_RESOURCE);
+            while (resources.hasMoreElements()) {
+                read(resources.nextElement(), classNames);
+            }
+        } catch (final IOException e) {
+            LOGGER.warn("Unable to read Koryphe class indexes, the class path will be scanned instead", e);
+            return new ClassIndex(Collections.emptyMap());
+        }
+        return new ClassIndex(classNames);
+    }
+
+    /**
+     * @param key the base type or annotation class name
+     * @return the indexed class names for the key, or null if the key has not been indexed
+     */
+    Set<String> getClassNames(final String key) {
+        return classNames.get(key);
+    }
+
+    boolean isEmpty() {
+        return classNames.isEmpty();
+    }
+
+    private static void read(final URL resource, final Map<String, Set<String>> classNames) throws IOException {
+        try (final BufferedReader reader = new BufferedReader(new InputStreamReader(resource.openStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while (null != (line = reader.readLine())) {
+                final int separator = line.indexOf(' ');
+                if (separator > 0) {
+                    classNames.computeIfAbsent(line.substring(0, separator), k -> new HashSet<>())
+                            .add(line.substring(separator + 1).trim());
+                }
+            }
+        }
+    }
+}
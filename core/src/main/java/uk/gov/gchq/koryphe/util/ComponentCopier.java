@@ -0,0 +1,208 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.koryphe.util;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+/**
+ * A <code>ComponentCopier</code> copies components, so a component can be
+ * handed out or modified without callers sharing mutable state.
+ * <p>
+ * A deep copy only shares values that are known to be immutable, such as strings,
+ * numbers, classes and compiled patterns, between the copies. Everything else is
+ * copied field by field, so the copies do not repeat any work done when the
+ * component was constructed. A shallow copy shares the values of all fields.
+ * In both cases transient fields are left as the no-arg constructor sets them.
+ * </p>
+ */
+public final class ComponentCopier {
+    private static final Set<Class<?>> IMMUTABLE_CLASSES = new HashSet<>();
+    private static final Set<Class<?>> COPYABLE_COLLECTION_CLASSES = new HashSet<>();
+
+    static {
+        IMMUTABLE_CLASSES.add(String.class);
+        IMMUTABLE_CLASSES.add(Boolean.class);
+        IMMUTABLE_CLASSES.add(Character.class);
+        IMMUTABLE_CLASSES.add(Byte.class);
+        IMMUTABLE_CLASSES.add(Short.class);
+        IMMUTABLE_CLASSES.add(Integer.class);
+        IMMUTABLE_CLASSES.add(Long.class);
+        IMMUTABLE_CLASSES.add(Float.class);
+        IMMUTABLE_CLASSES.add(Double.class);
+        IMMUTABLE_CLASSES.add(BigInteger.class);
+        IMMUTABLE_CLASSES.add(BigDecimal.class);
+        IMMUTABLE_CLASSES.add(Class.class);
+        IMMUTABLE_CLASSES.add(Pattern.class);
+
+        // These are the collections Jackson creates, which a no-arg constructor recreates exactly
+        COPYABLE_COLLECTION_CLASSES.add(ArrayList.class);
+        COPYABLE_COLLECTION_CLASSES.add(LinkedList.class);
+        COPYABLE_COLLECTION_CLASSES.add(HashSet.class);
+        COPYABLE_COLLECTION_CLASSES.add(LinkedHashSet.class);
+        COPYABLE_COLLECTION_CLASSES.add(TreeSet.class);
+        COPYABLE_COLLECTION_CLASSES.add(HashMap.class);
+        COPYABLE_COLLECTION_CLASSES.add(LinkedHashMap.class);
+        COPYABLE_COLLECTION_CLASSES.add(TreeMap.class);
+    }
+
+    private final Map<Object, Object> copies = new IdentityHashMap<>();
+    private final boolean deep;
+
+    private ComponentCopier(final boolean deep) {
+        this.deep = deep;
+    }
+
+    /**
+     * Deep copies a component.
+     *
+     * @param component the component to copy
+     * @param <T>       the type of the component
+     * @return the copy
+     * @throws IllegalArgumentException if the component contains a value that cannot be copied
+     */
+    public static <T> T deepCopy(final T component) {
+        return (T) new ComponentCopier(true).copyValue(component);
+    }
+
+    /**
+     * Shallow copies a component, so the copy has the same field values as the component.
+     *
+     * @param component the component to copy
+     * @param <T>       the type of the component
+     * @return the copy
+     * @throws IllegalArgumentException if the component cannot be copied
+     */
+    public static <T> T shallowCopy(final T component) {
+        return (T) new ComponentCopier(false).copyValue(component);
+    }
+
+    private Object copyValue(final Object value) {
+        if (null == value || isImmutable(value.getClass())) {
+            return value;
+        }
+
+        final Object existing = copies.get(value);
+        if (null != existing) {
+            return existing;
+        }
+
+        if (value.getClass().isArray()) {
+            return copyArray(value);
+        }
+        if (COPYABLE_COLLECTION_CLASSES.contains(value.getClass())) {
+            return value instanceof Map ? copyMap((Map<?, ?>) value) : copyCollection((Collection<?>) value);
+        }
+        return copyObject(value);
+    }
+
+    private Object copyElement(final Object value) {
+        return deep ? copyValue(value) : value;
+    }
+
+    private static boolean isImmutable(final Class<?> clazz) {
+        return IMMUTABLE_CLASSES.contains(clazz) || clazz.isEnum() || (null != clazz.getSuperclass() && clazz.getSuperclass().isEnum());
+    }
+
+    private Object copyArray(final Object array) {
+        final int length = Array.getLength(array);
+        final Object copy = Array.newInstance(array.getClass().getComponentType(), length);
+        copies.put(array, copy);
+        for (int i = 0; i < length; i++) {
+            Array.set(copy, i, copyElement(Array.get(array, i)));
+        }
+        return copy;
+    }
+
+    private Object copyCollection(final Collection<?> collection) {
+        if (collection instanceof TreeSet && null != ((TreeSet<?>) collection).comparator()) {
+            throw new IllegalArgumentException("Unable to copy a TreeSet with a comparator");
+        }
+        final Collection<Object> copy = (Collection<Object>) newInstance(collection.getClass());
+        copies.put(collection, copy);
+        for (final Object item : collection) {
+            copy.add(copyElement(item));
+        }
+        return copy;
+    }
+
+    private Object copyMap(final Map<?, ?> map) {
+        if (map instanceof TreeMap && null != ((TreeMap<?, ?>) map).comparator()) {
+            throw new IllegalArgumentException("Unable to copy a TreeMap with a comparator");
+        }
+        final Map<Object, Object> copy = (Map<Object, Object>) newInstance(map.getClass());
+        copies.put(map, copy);
+        for (final Map.Entry<?, ?> entry : map.entrySet()) {
+            copy.put(copyElement(entry.getKey()), copyElement(entry.getValue()));
+        }
+        return copy;
+    }
+
+    private Object copyObject(final Object value) {
+        final List<Field> fields = new ArrayList<>();
+        for (Class<?> clazz = value.getClass(); Object.class != clazz; clazz = clazz.getSuperclass()) {
+            if (clazz.getName().startsWith("java.") || clazz.getName().startsWith("javax.")) {
+                throw new IllegalArgumentException("Unable to copy " + value.getClass().getName());
+            }
+            for (final Field field : clazz.getDeclaredFields()) {
+                final int modifiers = field.getModifiers();
+                if (!Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers)) {
+                    fields.add(field);
+                }
+            }
+        }
+
+        final Object copy = newInstance(value.getClass());
+        copies.put(value, copy);
+        try {
+            for (final Field field : fields) {
+                field.setAccessible(true);
+                field.set(copy, copyElement(field.get(value)));
+            }
+        } catch (final IllegalAccessException | RuntimeException e) {
+            throw new IllegalArgumentException("Unable to copy " + value.getClass().getName(), e);
+        }
+        return copy;
+    }
+
+    private static Object newInstance(final Class<?> clazz) {
+        try {
+            final Constructor<?> constructor = clazz.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return constructor.newInstance();
+        } catch (final ReflectiveOperationException | RuntimeException e) {
+            throw new IllegalArgumentException("Unable to copy " + clazz.getName() + " as it does not have a no-arg constructor", e);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.koryphe.util;
+
+import uk.gov.gchq.koryphe.Deterministic;
+import uk.gov.gchq.koryphe.Stateful;
+import uk.gov.gchq.koryphe.function.KorypheFunction;
+import uk.gov.gchq.koryphe.predicate.KoryphePredicate;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Utilities for deciding whether components, such as {@link java.util.function.Function}s
+ * and {@link java.util.function.Predicate}s, can be shared or treated as interchangeable.
+ */
+public final class ComponentUtil {
+    private ComponentUtil() {
+        // Private constructor to prevent instantiation.
+    }
+
+    /**
+     * Checks whether two components that are {@link Object#equals(Object)} to each other
+     * can be relied on to behave in the same way. This is the case if the component's
+     * class overrides equals, or if it uses the class based equals of {@link KorypheFunction}
+     * or {@link KoryphePredicate} and has no fields of its own.
+     * <p>
+     * An overridden equals usually delegates to the equals of any nested components,
+     * such as the rules of a {@link uk.gov.gchq.koryphe.impl.function.StringRewrite},
+     * so the fields of the component, including collections, maps and arrays, are
+     * checked recursively. Nested components using the class based equals must not
+     * have fields of their own, whereas nested components using identity equals are
+     * only equal to themselves, so behave in the same way.
+     * </p>
+     *
+     * @param component the component
+     * @return true if equals compares everything that affects the component's behaviour
+     */
+    public static boolean hasValueEquals(final Object component) {
+        if (null == component) {
+            return true;
+        }
+
+        if (Object.class == getEqualsClass(component.getClass())) {
+            return false;
+        }
+
+        return hasNestedValueEquals(component, Collections.newSetFromMap(new IdentityHashMap<>()));
+    }
+
+    private static boolean hasNestedValueEquals(final Object value, final Set<Object> visited) {
+        if (null == value || !visited.add(value)) {
+            return true;
+        }
+
+        if (value instanceof Object[]) {
+            return hasNestedValueEquals(Arrays.asList((Object[]) value), visited);
+        }
+        if (value instanceof Collection) {
+            for (final Object item : (Collection<?>) value) {
+                if (!hasNestedValueEquals(item, visited)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (value instanceof Map) {
+            for (final Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                if (!hasNestedValueEquals(entry.getKey(), visited) || !hasNestedValueEquals(entry.getValue(), visited)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // Values from the JDK, such as strings and patterns, are compared by the component's own equals
+        final Class<?> clazz = value.getClass();
+        if (clazz.isArray() || clazz.isPrimitive() || clazz.getName().startsWith("java.") || clazz.getName().startsWith("javax.")) {
+            return true;
+        }
+
+        final Class<?> equalsClass = getEqualsClass(clazz);
+        if (Object.class == equalsClass) {
+            return true;
+        }
+
+        // The class based equals ignores all fields, so there must not be any
+        final boolean classBasedEquals = KorypheFunction.class == equalsClass || KoryphePredicate.class == equalsClass;
+        final Class<?> lastFieldClass = classBasedEquals ? equalsClass : Object.class;
+        for (Class<?> fieldClass = clazz; lastFieldClass != fieldClass; fieldClass = fieldClass.getSuperclass()) {
+            for (final Field field : fieldClass.getDeclaredFields()) {
+                final int modifiers = field.getModifiers();
+                if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers)) {
+                    continue;
+                }
+                if (classBasedEquals) {
+                    return false;
+                }
+
+                final Object fieldValue;
+                try {
+                    field.setAccessible(true);
+                    fieldValue = field.get(value);
+                } catch (final IllegalAccessException | RuntimeException e) {
+                    // The field cannot be checked, so it may not be compared by equals
+                    return false;
+                }
+                if (!hasNestedValueEquals(fieldValue, visited)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static Class<?> getEqualsClass(final Class<?> clazz) {
+        try {
+            return clazz.getMethod("equals", Object.class).getDeclaringClass();
+        } catch (final NoSuchMethodException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * @param component the component
+     * @return true if the component's class is annotated with {@link Stateful}
+     */
+    public static boolean isStateful(final Object component) {
+        return null != component && component.getClass().isAnnotationPresent(Stateful.class);
+    }
+
+    /**
+     * @param component the component
+     * @return true if the component's class is annotated with {@link Deterministic} and not {@link Stateful}
+     */
+    public static boolean isDeterministic(final Object component) {
+        return null != component && component.getClass().isAnnotationPresent(Deterministic.class) && !isStateful(component);
+    }
+}
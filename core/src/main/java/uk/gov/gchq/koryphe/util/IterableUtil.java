@@ -17,26 +17,49 @@ package uk.gov.gchq.koryphe.util;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
-import uk.gov.gchq.koryphe.impl.predicate.And;
 import uk.gov.gchq.koryphe.iterable.CloseableIterable;
 import uk.gov.gchq.koryphe.iterable.CloseableIterator;
-
+import uk.gov.gchq.koryphe.iterable.ExternalSortIterable;
+import uk.gov.gchq.koryphe.iterable.MergeSortedIterable;
+import uk.gov.gchq.koryphe.iterable.SkippableIterator;
+import uk.gov.gchq.koryphe.iterable.StreamIterable;
+import uk.gov.gchq.koryphe.iterable.StreamIterator;
+import uk.gov.gchq.koryphe.metrics.Instrumentation;
+import uk.gov.gchq.koryphe.metrics.IterableTracer;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 /**
  * An {@code IterableUtil} is a utility class providing capabilities for:
  * <ul>
  * <li>Lazily applying a {@link Function}, or a {@link List} of {@link Function}s,
  * to each element of an {@link Iterable}</li>
+ * <li>Lazily filtering the elements of an {@link Iterable}, fusing nested maps and
+ * filters into a single iterator</li>
  * <li>Flatmapping of nested {@link Iterable}s via concatenation, to allow correct closing of the iterables</li>
+ * <li>Sorting {@link Iterable}s that may not fit in memory, and merging already
+ * sorted {@link Iterable}s</li>
+ * <li>Grouping the elements of an {@link Iterable} into batches, either by size
+ * alone or by size and elapsed time</li>
  * </ul>
  */
 public final class IterableUtil {
+    private static final Object[] NO_COMPONENTS = new Object[0];
+
     private IterableUtil() {
         // Empty
     }
@@ -80,7 +103,7 @@ public final class IterableUtil {
                 throw new IllegalArgumentException("Predicates list cannot contain a null predicate");
             }
         }
-        return new FilteredIterable<>(iterable, predicates);
+        return PipelineIterable.create(iterable, predicates, true);
     }
 
     public static <I_ITEM, O_ITEM> CloseableIterable<O_ITEM> map(final Iterable<I_ITEM> iterable, final Function function) {
@@ -104,29 +127,228 @@ public final class IterableUtil {
                 throw new IllegalArgumentException("Functions list cannot contain a null function");
             }
         }
-        return new MappedIterable<>(iterable, functions);
+        return PipelineIterable.create(iterable, functions, false);
     }
 
     public static <T> CloseableIterable<T> concat(final Iterable<? extends Iterable<? extends T>> iterables) {
         return new ChainedIterable<>(iterables);
     }
 
+    /**
+     * Sorts the items of an iterable, spilling sorted runs to temporary files
+     * whenever more than the given number of items would be held in memory.
+     * The source is read when an iterator is requested and the sorted runs are
+     * then merged lazily.
+     *
+     * @param iterable         the items to sort
+     * @param comparator       the comparator to sort the items with
+     * @param maxItemsInMemory the maximum number of items to buffer in memory before
+     *                         spilling a sorted run to disk
+     * @param <T>              the type of the items in the iterable
+     * @return the sorted iterable
+     * @see ExternalSortIterable
+     */
+    public static <T> CloseableIterable<T> sort(final Iterable<T> iterable, final Comparator<? super T> comparator, final int maxItemsInMemory) {
+        if (null == iterable) {
+            return null;
+        }
+        return new ExternalSortIterable<>(iterable, comparator, maxItemsInMemory);
+    }
+
+    /**
+     * Sorts the items of an iterable, spilling sorted runs to temporary files
+     * in the given directory whenever more than the given number of items would
+     * be held in memory.
+     *
+     * @param iterable         the items to sort
+     * @param comparator       the comparator to sort the items with
+     * @param maxItemsInMemory the maximum number of items to buffer in memory before
+     *                         spilling a sorted run to disk
+     * @param tempDirectory    the directory to write sorted runs to
+     * @param <T>              the type of the items in the iterable
+     * @return the sorted iterable
+     * @see ExternalSortIterable
+     */
+    public static <T> CloseableIterable<T> sort(final Iterable<T> iterable, final Comparator<? super T> comparator, final int maxItemsInMemory, final Path tempDirectory) {
+        if (null == iterable) {
+            return null;
+        }
+        return new ExternalSortIterable<>(iterable, comparator, maxItemsInMemory, tempDirectory);
+    }
+
+    /**
+     * Lazily merges iterables that are each already sorted by the given comparator
+     * into a single sorted iterable.
+     *
+     * @param iterables  the sorted iterables to merge
+     * @param comparator the comparator the iterables are sorted by
+     * @param <T>        the type of the items in the iterables
+     * @return the lazily merged iterable
+     * @see MergeSortedIterable
+     */
+    public static <T> CloseableIterable<T> mergeSorted(final Iterable<? extends Iterable<? extends T>> iterables, final Comparator<? super T> comparator) {
+        return new MergeSortedIterable<>(iterables, comparator);
+    }
+
+    /**
+     * Limits an iterable to the items between a start and end index.
+     * Where the iterable allows it, the items before the start index are skipped
+     * without being read: random access {@link List}s are sliced, {@link StreamIterable}s
+     * use {@link Stream#skip(long)} and {@link SkippableIterator}s are asked to skip.
+     *
+     * @param iterable the items to limit
+     * @param start    the index of the first item to return
+     * @param end      the index at which to stop returning items, or null for no limit
+     * @param truncate if false, an exception is thrown when iterating past the end index
+     *                 and items remain
+     * @param <T>      the type of the items in the iterable
+     * @return the lazily limited iterable
+     */
     public static <T> CloseableIterable<T> limit(final Iterable<T> iterable, final int start, final Integer end, final boolean truncate) {
         return new LimitedIterable<>(iterable, start, end, truncate);
     }
 
-    private static class MappedIterable<I_ITEM, O_ITEM> implements CloseableIterable<O_ITEM> {
+    /**
+     * Lazily groups the items of an iterable into batches of the given size.
+     * The final batch may contain fewer items.
+     *
+     * @param iterable the items to batch
+     * @param size     the maximum number of items in each batch
+     * @param <T>      the type of the items in the iterable
+     * @return the lazily batched iterable
+     */
+    public static <T> CloseableIterable<List<T>> batch(final Iterable<T> iterable, final int size) {
+        return microBatch(iterable, size, null);
+    }
+
+    /**
+     * Lazily groups the items of an iterable into batches. A batch is emitted
+     * once it contains the given number of items, or once the given number of
+     * milliseconds has elapsed since the first item of the batch was read,
+     * whichever happens first. As the iterable is pulled, the elapsed time is
+     * only checked each time an item is read.
+     *
+     * @param iterable       the items to batch
+     * @param size           the maximum number of items in each batch
+     * @param maxBatchMillis the maximum time in milliseconds to spend filling
+     *                       a batch, or null for no time limit
+     * @param <T>            the type of the items in the iterable
+     * @return the lazily batched iterable
+     */
+    public static <T> CloseableIterable<List<T>> microBatch(final Iterable<T> iterable, final int size, final Long maxBatchMillis) {
+        if (null == iterable) {
+            return null;
+        }
+
+        if (size < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1");
+        }
+
+        if (null != maxBatchMillis && maxBatchMillis < 0) {
+            throw new IllegalArgumentException("Maximum batch time cannot be negative");
+        }
+        return new BatchedIterable<>(iterable, size, maxBatchMillis);
+    }
+
+    /**
+     * Lazily applies a batch-capable function to batches of items from an
+     * iterable, flattening the results back into a single iterable.
+     * This allows functions with a high per-call cost, such as lookups against
+     * an external store, to amortise that cost across a whole batch.
+     *
+     * @param iterable the items to map
+     * @param size     the maximum number of items to pass to each function call
+     * @param function the function to apply to each batch
+     * @param <I_ITEM> the type of the items in the input iterable
+     * @param <O_ITEM> the type of the items in the output iterable
+     * @return the lazily mapped iterable
+     */
+    public static <I_ITEM, O_ITEM> CloseableIterable<O_ITEM> mapBatches(final Iterable<I_ITEM> iterable, final int size, final Function<? super List<I_ITEM>, ? extends Iterable<? extends O_ITEM>> function) {
+        if (null == function) {
+            throw new IllegalArgumentException("Function cannot be null");
+        }
+
+        final CloseableIterable<List<I_ITEM>> batches = batch(iterable, size);
+        if (null == batches) {
+            return null;
+        }
+        return new BatchMappedIterable<>(batches, function);
+    }
+
+    private static <T> CloseableIterator<T> trace(final String stage, final Object[] components, final CloseableIterator<T> iterator) {
+        final IterableTracer tracer = Instrumentation.getIterableTracer();
+        if (null == tracer || !Instrumentation.isEnabled()) {
+            return iterator;
+        }
+        return tracer.trace(stage, components, iterator);
+    }
+
+    /**
+     * A {@code PipelineIterable} lazily applies a sequence of map and filter
+     * stages to the items of a source iterable. Mapping or filtering an existing
+     * pipeline creates a new pipeline over the same source with the extra stages
+     * appended, so nested calls produce a single iterator rather than a chain
+     * of wrappers.
+     */
+    private static final class PipelineIterable<I_ITEM, O_ITEM> implements CloseableIterable<O_ITEM> {
         private final Iterable<I_ITEM> iterable;
-        private final List<Function> functions;
+        private final Object[] stages;
+        private final boolean[] filterStages;
+        private final boolean hasFilter;
 
-        MappedIterable(final Iterable<I_ITEM> iterable, final List<Function> functions) {
+        private PipelineIterable(final Iterable<I_ITEM> iterable, final Object[] stages, final boolean[] filterStages) {
             this.iterable = iterable;
-            this.functions = functions;
+            this.stages = stages;
+            this.filterStages = filterStages;
+
+            boolean filter = false;
+            for (final boolean filterStage : filterStages) {
+                filter |= filterStage;
+            }
+            this.hasFilter = filter;
+        }
+
+        private static <I_ITEM, O_ITEM> PipelineIterable<I_ITEM, O_ITEM> create(final Iterable<I_ITEM> iterable, final List<?> newStages, final boolean filter) {
+            final Iterable<I_ITEM> source;
+            final Object[] stages;
+            final boolean[] filterStages;
+            if (iterable instanceof PipelineIterable) {
+                final PipelineIterable<I_ITEM, ?> pipeline = (PipelineIterable<I_ITEM, ?>) iterable;
+                source = pipeline.iterable;
+                stages = Arrays.copyOf(pipeline.stages, pipeline.stages.length + newStages.size());
+                filterStages = Arrays.copyOf(pipeline.filterStages, stages.length);
+            } else {
+                source = iterable;
+                stages = new Object[newStages.size()];
+                filterStages = new boolean[stages.length];
+            }
+
+            final int offset = stages.length - newStages.size();
+            for (int i = 0; i < newStages.size(); i++) {
+                stages[offset + i] = newStages.get(i);
+                filterStages[offset + i] = filter;
+            }
+            return new PipelineIterable<>(source, stages, filterStages);
         }
 
         @Override
         public CloseableIterator<O_ITEM> iterator() {
-            return new MappedIterator<>(iterable.iterator(), functions);
+            if (hasFilter) {
+                return trace("pipeline", stages, new FilteringPipelineIterator<>(iterable.iterator(), stages, filterStages));
+            }
+            return trace("pipeline", stages, new MappingPipelineIterator<>(iterable, stages));
+        }
+
+        @Override
+        public Spliterator<O_ITEM> spliterator() {
+            int characteristics = 0;
+            if (iterable instanceof Collection) {
+                characteristics = ((Collection<I_ITEM>) iterable).spliterator().characteristics() & Spliterator.ORDERED;
+                if (!hasFilter) {
+                    return Spliterators.spliterator(iterator(), ((Collection<I_ITEM>) iterable).size(), characteristics);
+                }
+            }
+            return Spliterators.spliteratorUnknownSize(iterator(), characteristics);
         }
 
         @Override
@@ -135,13 +357,16 @@ public final class IterableUtil {
         }
     }
 
-    private static class MappedIterator<I_ITEM, O_ITEM> implements CloseableIterator<O_ITEM> {
-        private final Iterator<? extends I_ITEM> iterator;
-        private final List<Function> functions;
+    private static final class MappingPipelineIterator<I_ITEM, O_ITEM> implements CloseableIterator<O_ITEM>, SkippableIterator<O_ITEM> {
+        private final Iterable<I_ITEM> iterable;
+        private final Object[] functions;
+        private Iterator<? extends I_ITEM> iterator;
+        private boolean started;
 
-        MappedIterator(final Iterator<I_ITEM> iterator, final List<Function> functions) {
-            this.iterator = iterator;
+        private MappingPipelineIterator(final Iterable<I_ITEM> iterable, final Object[] functions) {
+            this.iterable = iterable;
             this.functions = functions;
+            this.iterator = iterable.iterator();
         }
 
         @Override
@@ -149,12 +374,37 @@ public final class IterableUtil {
             return iterator.hasNext();
         }
 
+        @Override
+        public int skip(final int n) {
+            // Skipped items are never mapped, so the functions do not need to be applied to them
+            if (!started && iterable instanceof List && iterable instanceof RandomAccess) {
+                final List<I_ITEM> list = (List<I_ITEM>) iterable;
+                final int skipped = Math.min(n, list.size());
+                iterator = list.subList(skipped, list.size()).iterator();
+                started = true;
+                return skipped;
+            }
+
+            started = true;
+            if (iterator instanceof SkippableIterator) {
+                return ((SkippableIterator) iterator).skip(n);
+            }
+
+            int skipped = 0;
+            while (skipped < n && iterator.hasNext()) {
+                iterator.next();
+                skipped++;
+            }
+            return skipped;
+        }
+
         @Override
         public O_ITEM next() {
+            started = true;
             Object item = iterator.next();
             try {
-                for (final Function function : functions) {
-                    item = function.apply(item);
+                for (final Object function : functions) {
+                    item = ((Function) function).apply(item);
                 }
                 return (O_ITEM) item;
             } catch (final ClassCastException c) {
@@ -168,45 +418,25 @@ public final class IterableUtil {
         }
     }
 
-    private static class FilteredIterable<T> implements CloseableIterable<T> {
-        private final Iterable<T> iterable;
-        private final List<Predicate> predicates;
-
-        FilteredIterable(final Iterable<T> iterable, final List<Predicate> predicates) {
-            this.iterable = iterable;
-            this.predicates = predicates;
-        }
-
-        @Override
-        public CloseableIterator<T> iterator() {
-            return new FilteredIterator<>(iterable.iterator(), predicates);
-        }
-
-        @Override
-        public void close() {
-            CloseableUtil.close(iterable);
-        }
-    }
+    private static final class FilteringPipelineIterator<I_ITEM, O_ITEM> implements CloseableIterator<O_ITEM> {
+        private final Iterator<? extends I_ITEM> iterator;
+        private final Object[] stages;
+        private final boolean[] filterStages;
 
-    private static class FilteredIterator<T> implements CloseableIterator<T> {
-        private final Iterator<? extends T> iterator;
-        private final And<T> andPredicate;
+        private O_ITEM nextElement;
+        private Boolean hasNext;
 
-        FilteredIterator(final Iterator<T> iterator, final List<Predicate> predicates) {
+        private FilteringPipelineIterator(final Iterator<I_ITEM> iterator, final Object[] stages, final boolean[] filterStages) {
             this.iterator = iterator;
-            this.andPredicate = new And<>(predicates);
+            this.stages = stages;
+            this.filterStages = filterStages;
         }
 
-        private T nextElement;
-        private Boolean hasNext;
-
         @Override
         public boolean hasNext() {
             if (null == hasNext) {
                 while (iterator.hasNext()) {
-                    final T possibleNext = iterator.next();
-                    if (andPredicate.test(possibleNext)) {
-                        nextElement = possibleNext;
+                    if (applyStages(iterator.next())) {
                         hasNext = true;
                         return true;
                     }
@@ -224,12 +454,12 @@ public final class IterableUtil {
         }
 
         @Override
-        public T next() {
+        public O_ITEM next() {
             if ((null == hasNext) && (!hasNext())) {
                 throw new NoSuchElementException("Reached the end of the iterator");
             }
 
-            final T elementToReturn = nextElement;
+            final O_ITEM elementToReturn = nextElement;
             nextElement = null;
             hasNext = null;
 
@@ -245,6 +475,25 @@ public final class IterableUtil {
         public void close() {
             CloseableUtil.close(iterator);
         }
+
+        private boolean applyStages(final Object possibleNext) {
+            Object item = possibleNext;
+            for (int i = 0; i < stages.length; i++) {
+                if (filterStages[i]) {
+                    if (!((Predicate) stages[i]).test(item)) {
+                        return false;
+                    }
+                } else {
+                    try {
+                        item = ((Function) stages[i]).apply(item);
+                    } catch (final ClassCastException c) {
+                        throw new IllegalArgumentException("The input/output types of the functions were incompatible", c);
+                    }
+                }
+            }
+            nextElement = (O_ITEM) item;
+            return true;
+        }
     }
 
     private static class ChainedIterable<T> implements CloseableIterable<T> {
@@ -259,7 +508,7 @@ public final class IterableUtil {
 
         @Override
         public CloseableIterator<T> iterator() {
-            return new ChainedIterator<>(iterables.iterator());
+            return trace("concat", NO_COMPONENTS, new ChainedIterator<>(iterables.iterator()));
         }
 
         @Override
@@ -354,7 +603,19 @@ public final class IterableUtil {
 
         @Override
         public CloseableIterator<T> iterator() {
-            return new LimitedIterator<>(iterable.iterator(), start, end, truncate);
+            if (start > 0) {
+                if (iterable instanceof List && iterable instanceof RandomAccess) {
+                    final List<T> list = (List<T>) iterable;
+                    final int skipped = Math.min(start, list.size());
+                    return trace("limit", NO_COMPONENTS, new LimitedIterator<>(list.subList(skipped, list.size()).iterator(), start, end, truncate, skipped));
+                }
+
+                if (iterable instanceof StreamIterable) {
+                    final Stream<T> stream = ((StreamIterable<T>) iterable).getStream();
+                    return trace("limit", NO_COMPONENTS, new LimitedIterator<>(new StreamIterator<>(null == stream ? null : stream.skip(start)), start, end, truncate, start));
+                }
+            }
+            return trace("limit", NO_COMPONENTS, new LimitedIterator<>(iterable.iterator(), start, end, truncate));
         }
     }
 
@@ -364,7 +625,14 @@ public final class IterableUtil {
         private int index = 0;
         private Boolean truncate = true;
 
-        private LimitedIterator(final Iterator<T> iterator, final int start, final Integer end, final boolean truncate) {
+        /**
+         * @param iterator the iterator to limit, which may already have been moved past some items
+         * @param start    the index of the first item to return
+         * @param end      the index at which to stop returning items, or null for no limit
+         * @param truncate true if items after the end should be silently dropped
+         * @param skipped  the number of items the iterator has already been moved past
+         */
+        private LimitedIterator(final Iterator<T> iterator, final int start, final Integer end, final boolean truncate, final int skipped) {
             if (null != end && start > end) {
                 throw new IllegalArgumentException("start should be less than end");
             }
@@ -376,12 +644,21 @@ public final class IterableUtil {
             }
             this.end = end;
             this.truncate = truncate;
+            this.index = skipped;
+
+            if (index < start && this.iterator instanceof SkippableIterator) {
+                index += ((SkippableIterator<T>) this.iterator).skip(start - index);
+            }
 
             while (index < start && hasNext()) {
                 next();
             }
         }
 
+        private LimitedIterator(final Iterator<T> iterator, final int start, final Integer end, final boolean truncate) {
+            this(iterator, start, end, truncate, 0);
+        }
+
         @Override
         public void close() {
             CloseableUtil.close(iterator);
@@ -414,4 +691,135 @@ public final class IterableUtil {
             return iterator.next();
         }
     }
+
+    private static final class BatchedIterable<T> implements CloseableIterable<List<T>> {
+        private final Iterable<T> iterable;
+        private final int size;
+        private final Long maxBatchMillis;
+
+        private BatchedIterable(final Iterable<T> iterable, final int size, final Long maxBatchMillis) {
+            this.iterable = iterable;
+            this.size = size;
+            this.maxBatchMillis = maxBatchMillis;
+        }
+
+        @Override
+        public void close() {
+            CloseableUtil.close(iterable);
+        }
+
+        @Override
+        public CloseableIterator<List<T>> iterator() {
+            return trace("batch", NO_COMPONENTS, new BatchedIterator<>(iterable.iterator(), size, maxBatchMillis));
+        }
+    }
+
+    private static final class BatchedIterator<T> implements CloseableIterator<List<T>> {
+        private final Iterator<T> iterator;
+        private final int size;
+        private final Long maxBatchMillis;
+
+        private BatchedIterator(final Iterator<T> iterator, final int size, final Long maxBatchMillis) {
+            this.iterator = iterator;
+            this.size = size;
+            this.maxBatchMillis = maxBatchMillis;
+        }
+
+        @Override
+        public boolean hasNext() {
+            final boolean hasNext = iterator.hasNext();
+            if (!hasNext) {
+                close();
+            }
+            return hasNext;
+        }
+
+        @Override
+        public List<T> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("Reached the end of the iterator");
+            }
+
+            // Each batch gets its own list, sized up front, as callers are free to hold on to it
+            final List<T> batch = new ArrayList<>(size);
+            if (null == maxBatchMillis) {
+                while (batch.size() < size && iterator.hasNext()) {
+                    batch.add(iterator.next());
+                }
+            } else {
+                final long deadline = System.currentTimeMillis() + maxBatchMillis;
+                while (batch.size() < size && iterator.hasNext()) {
+                    batch.add(iterator.next());
+                    if (System.currentTimeMillis() >= deadline) {
+                        break;
+                    }
+                }
+            }
+            return batch;
+        }
+
+        @Override
+        public void close() {
+            CloseableUtil.close(iterator);
+        }
+    }
+
+    private static final class BatchMappedIterable<I_ITEM, O_ITEM> implements CloseableIterable<O_ITEM> {
+        private final CloseableIterable<List<I_ITEM>> batches;
+        private final Function<? super List<I_ITEM>, ? extends Iterable<? extends O_ITEM>> function;
+
+        private BatchMappedIterable(final CloseableIterable<List<I_ITEM>> batches, final Function<? super List<I_ITEM>, ? extends Iterable<? extends O_ITEM>> function) {
+            this.batches = batches;
+            this.function = function;
+        }
+
+        @Override
+        public void close() {
+            CloseableUtil.close(batches);
+        }
+
+        @Override
+        public CloseableIterator<O_ITEM> iterator() {
+            return trace("mapBatches", new Object[]{function}, new BatchMappedIterator<>(batches.iterator(), function));
+        }
+    }
+
+    private static final class BatchMappedIterator<I_ITEM, O_ITEM> implements CloseableIterator<O_ITEM> {
+        private final CloseableIterator<List<I_ITEM>> batches;
+        private final Function<? super List<I_ITEM>, ? extends Iterable<? extends O_ITEM>> function;
+        private Iterator<? extends O_ITEM> currentIterator = Collections.emptyIterator();
+
+        private BatchMappedIterator(final CloseableIterator<List<I_ITEM>> batches, final Function<? super List<I_ITEM>, ? extends Iterable<? extends O_ITEM>> function) {
+            this.batches = batches;
+            this.function = function;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!currentIterator.hasNext()) {
+                CloseableUtil.close(currentIterator);
+                if (!batches.hasNext()) {
+                    return false;
+                }
+
+                final Iterable<? extends O_ITEM> results = function.apply(batches.next());
+                currentIterator = null == results ? Collections.emptyIterator() : results.iterator();
+            }
+            return true;
+        }
+
+        @Override
+        public O_ITEM next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("Reached the end of the iterator");
+            }
+            return currentIterator.next();
+        }
+
+        @Override
+        public void close() {
+            CloseableUtil.close(currentIterator);
+            batches.close();
+        }
+    }
 }
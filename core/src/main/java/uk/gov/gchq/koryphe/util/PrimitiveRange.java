@@ -0,0 +1,179 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.koryphe.util;
+
+import java.util.Date;
+
+/**
+ * A {@code PrimitiveRange} is a range with {@link Long}, {@link Integer}, {@link Double}
+ * or {@link Date} bounds, compiled into primitive bounds and inclusivity flags. Testing a
+ * value gives the same result as {@link RangeUtil#inRange(Comparable, Comparable, Comparable, Comparable, Boolean, Boolean, Boolean, Boolean)}
+ * without calling {@link Comparable#compareTo(Object)} or checking any flags for null.
+ * <p>
+ * A range only {@link #supports(Object)} values of exactly the same class as its bounds.
+ * Ranges with other bounds support no values, so callers should fall back to {@link RangeUtil}.
+ * Doubles are compared with {@link Double#compare(double, double)}, so NaN and -0.0
+ * are ordered in the same way as by {@link Double#compareTo(Double)}.
+ * </p>
+ */
+public final class PrimitiveRange {
+    private static final PrimitiveRange UNSUPPORTED = new PrimitiveRange(null, null, null, true, true, false, false);
+
+    private final Class<?> type;
+    private final long longStart;
+    private final long longEnd;
+    private final double doubleStart;
+    private final double doubleEnd;
+    private final boolean startInclusive;
+    private final boolean endInclusive;
+    private final boolean startFullyContained;
+    private final boolean endFullyContained;
+
+    private PrimitiveRange(final Class<?> type, final Object start, final Object end,
+                           final boolean startInclusive, final boolean endInclusive,
+                           final boolean startFullyContained, final boolean endFullyContained) {
+        this.type = type;
+        // Missing bounds are replaced by inclusive bounds that every value satisfies
+        this.longStart = null != start && Double.class != type ? toLong(start) : Long.MIN_VALUE;
+        this.longEnd = null != end && Double.class != type ? toLong(end) : Long.MAX_VALUE;
+        this.doubleStart = null != start && Double.class == type ? (Double) start : Double.NEGATIVE_INFINITY;
+        this.doubleEnd = null != end && Double.class == type ? (Double) end : Double.NaN;
+        this.startInclusive = null == start || startInclusive;
+        this.endInclusive = null == end || endInclusive;
+        this.startFullyContained = startFullyContained;
+        this.endFullyContained = endFullyContained;
+    }
+
+    /**
+     * Compiles a range. If the bounds are not supported, the range will not support any values.
+     *
+     * @param start               the start of the range, or null if unbounded
+     * @param end                 the end of the range, or null if unbounded
+     * @param startInclusive      true, or null, if the start of the range is inclusive
+     * @param endInclusive        true, or null, if the end of the range is inclusive
+     * @param startFullyContained true if the start of the range is fully contained
+     * @param endFullyContained   true if the end of the range is fully contained
+     * @return the compiled range
+     */
+    public static PrimitiveRange of(final Object start, final Object end,
+                                    final Boolean startInclusive, final Boolean endInclusive,
+                                    final Boolean startFullyContained, final Boolean endFullyContained) {
+        final Class<?> type = null != start ? start.getClass() : null != end ? end.getClass() : null;
+        if (!isSupportedType(type) || (null != start && null != end && start.getClass() != end.getClass())) {
+            return UNSUPPORTED;
+        }
+
+        return new PrimitiveRange(type, start, end,
+                null == startInclusive || startInclusive,
+                null == endInclusive || endInclusive,
+                null == startFullyContained ? RangeUtil.DEFAULT_FULLY_CONTAINED : startFullyContained,
+                null == endFullyContained ? RangeUtil.DEFAULT_FULLY_CONTAINED : endFullyContained);
+    }
+
+    /**
+     * Compiles a range with the default fully contained flags.
+     *
+     * @param start          the start of the range, or null if unbounded
+     * @param end            the end of the range, or null if unbounded
+     * @param startInclusive true, or null, if the start of the range is inclusive
+     * @param endInclusive   true, or null, if the end of the range is inclusive
+     * @return the compiled range
+     */
+    public static PrimitiveRange of(final Object start, final Object end, final Boolean startInclusive, final Boolean endInclusive) {
+        return of(start, end, startInclusive, endInclusive, null, null);
+    }
+
+    public boolean supports(final Object value) {
+        return null != value && value.getClass() == type;
+    }
+
+    /**
+     * Checks whether values of a class are supported, so primitive values of
+     * that class can be tested with {@link #inRange(long, long)} or
+     * {@link #inRange(double, double)}.
+     *
+     * @param valueClass the class of values
+     * @return true if the bounds are of the same class
+     */
+    public boolean supports(final Class<?> valueClass) {
+        return null != type && type == valueClass;
+    }
+
+    /**
+     * Checks whether start and end values are in the range. Both values must be
+     * {@link #supports(Object) supported}.
+     *
+     * @param startValue the start value to test
+     * @param endValue   the end value to test
+     * @return true if the values are in the range
+     */
+    public boolean inRange(final Object startValue, final Object endValue) {
+        if (Double.class == type) {
+            return inRange((double) (Double) startValue, (double) (Double) endValue);
+        }
+        return inRange(toLong(startValue), toLong(endValue));
+    }
+
+    /**
+     * Checks whether start and end values are in a range of {@link Long}, {@link Integer}
+     * or {@link Date} bounds. Dates are given as milliseconds since the epoch.
+     *
+     * @param startValue the start value to test
+     * @param endValue   the end value to test
+     * @return true if the values are in the range
+     */
+    public boolean inRange(final long startValue, final long endValue) {
+        return RangeUtil.inRange(
+                startInclusive ? startValue >= longStart : startValue > longStart,
+                endInclusive ? startValue <= longEnd : startValue < longEnd,
+                startInclusive ? endValue >= longStart : endValue > longStart,
+                endInclusive ? endValue <= longEnd : endValue < longEnd,
+                startFullyContained,
+                endFullyContained);
+    }
+
+    /**
+     * Checks whether start and end values are in a range of {@link Double} bounds.
+     *
+     * @param startValue the start value to test
+     * @param endValue   the end value to test
+     * @return true if the values are in the range
+     */
+    public boolean inRange(final double startValue, final double endValue) {
+        final int startToStart = Double.compare(startValue, doubleStart);
+        final int startToEnd = Double.compare(startValue, doubleEnd);
+        final int endToStart = Double.compare(endValue, doubleStart);
+        final int endToEnd = Double.compare(endValue, doubleEnd);
+        return RangeUtil.inRange(
+                startInclusive ? startToStart >= 0 : startToStart > 0,
+                endInclusive ? startToEnd <= 0 : startToEnd < 0,
+                startInclusive ? endToStart >= 0 : endToStart > 0,
+                endInclusive ? endToEnd <= 0 : endToEnd < 0,
+                startFullyContained,
+                endFullyContained);
+    }
+
+    private static boolean isSupportedType(final Class<?> type) {
+        return Long.class == type || Integer.class == type || Double.class == type || Date.class == type;
+    }
+
+    private static long toLong(final Object value) {
+        if (value instanceof Date) {
+            return ((Date) value).getTime();
+        }
+        return ((Number) value).longValue();
+    }
+}
@@ -69,12 +69,31 @@ public final class RangeUtil {
         final boolean isStartFullyContained = null == startFullyContained ? DEFAULT_FULLY_CONTAINED : startFullyContained;
         final boolean isEndFullyContained = null == endFullyContained ? DEFAULT_FULLY_CONTAINED : endFullyContained;
 
-        final boolean startMoreThanStart = isMoreThanStart(startValue, rangeStart, startInclusive);
-        final boolean startLessThanEnd = isLessThanEnd(startValue, rangeEnd, endInclusive);
-        final boolean startInRange = startMoreThanStart && startLessThanEnd;
+        return inRange(
+                isMoreThanStart(startValue, rangeStart, startInclusive),
+                isLessThanEnd(startValue, rangeEnd, endInclusive),
+                isMoreThanStart(endValue, rangeStart, startInclusive),
+                isLessThanEnd(endValue, rangeEnd, endInclusive),
+                isStartFullyContained,
+                isEndFullyContained
+        );
+    }
 
-        final boolean endMoreThanStart = isMoreThanStart(endValue, rangeStart, startInclusive);
-        final boolean endLessThanEnd = isLessThanEnd(endValue, rangeEnd, endInclusive);
+    /**
+     * Checks the results of comparing start and end values to a range.
+     *
+     * @param startMoreThanStart    true if the start value is after the start of the range
+     * @param startLessThanEnd      true if the start value is before the end of the range
+     * @param endMoreThanStart      true if the end value is after the start of the range
+     * @param endLessThanEnd        true if the end value is before the end of the range
+     * @param isStartFullyContained true if the start of the range is fully contained
+     * @param isEndFullyContained   true if the end of the range is fully contained
+     * @return true if the start and end values are within the range.
+     */
+    static boolean inRange(final boolean startMoreThanStart, final boolean startLessThanEnd,
+                           final boolean endMoreThanStart, final boolean endLessThanEnd,
+                           final boolean isStartFullyContained, final boolean isEndFullyContained) {
+        final boolean startInRange = startMoreThanStart && startLessThanEnd;
         final boolean endInRange = endMoreThanStart && endLessThanEnd;
 
         // [  ] the test item time range
@@ -21,6 +21,7 @@ import io.github.lukehutch.fastclasspathscanner.FastClasspathScanner;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Modifier;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -36,19 +37,34 @@ import java.util.concurrent.ConcurrentHashMap;
  * If you wish to include your own packages/classes in the scanner you can call
  * {@link ReflectionUtil#addReflectionPackages(String...)} or set the System Property
  * "koryphe.reflection.packages" with a csv of your additional packages.
+ * <p>
+ * Scanning the class path can be slow, so if the System Property
+ * "koryphe.reflection.useClassIndex" is set to true then the class indexes
+ * written at compile time by the Koryphe class-indexer annotation processor are
+ * used instead, where they cover the requested type. Only enable this if every jar
+ * containing classes in the reflection packages was compiled with the class-indexer
+ * on its class path, otherwise classes from those jars will not be found.
+ * </p>
+ * <p>
+ * When new reflection packages are added, only the new packages are scanned and the
+ * results are merged into the existing caches. The number of threads used by the
+ * scanner can be set with the System Property "koryphe.reflection.scanThreads".
+ * </p>
  */
 public final class ReflectionUtil {
     public static final String PACKAGES_KEY = "koryphe.reflection.packages";
+    public static final String USE_CLASS_INDEX_KEY = "koryphe.reflection.useClassIndex";
+    public static final String SCAN_THREADS_KEY = "koryphe.reflection.scanThreads";
     public static final Set<String> DEFAULT_PACKAGES = Collections.unmodifiableSet(Sets.newHashSet("uk.gov.gchq"));
 
     private static Set<String> packages;
     private static Map<Class<?>, Map<String, Set<Class>>> simpleClassNamesCache;
     private static Map<Class<?>, Set<Class>> subclassesCache;
     private static Map<Class<? extends Annotation>, Set<Class>> annoClassesCache;
+    private static volatile ClassIndex classIndex;
 
     static {
         resetReflectionPackages();
-        resetReflectionCache();
     }
 
     private ReflectionUtil() {
@@ -100,28 +116,25 @@ public final class ReflectionUtil {
     public static Set<Class> getSubTypes(final Class<?> clazz) {
         Set<Class> subClasses = subclassesCache.get(clazz);
         if (null == subClasses) {
-            updateReflectionPackages();
-
-            final Set<Class> newSubClasses = new HashSet<>();
-            if (clazz.isInterface()) {
-                getScanner().matchClassesImplementing(clazz, c -> {
-                    if (isPublicConcrete(c)) {
-                        newSubClasses.add(c);
-                    }
-                }).scan();
-            } else {
-                getScanner().matchSubclassesOf(clazz, c -> {
-                    if (isPublicConcrete(c)) {
-                        newSubClasses.add(c);
-                    }
-                }).scan();
-            }
-            subClasses = Collections.unmodifiableSet(newSubClasses);
-            subclassesCache.put(clazz, subClasses);
+            subClasses = findSubTypes(Collections.singleton(clazz)).get(clazz);
         }
         return subClasses;
     }
 
+    /**
+     * Finds and caches the implementations of all the given classes, using a
+     * single scan of the class path for any that are not already cached.
+     * Calling this before looking up several classes with
+     * {@link #getSubTypes(Class)} avoids scanning once per class.
+     *
+     * @param classes the classes to get sub types of.
+     */
+    public static void cacheSubTypes(final Class<?>... classes) {
+        if (null != classes) {
+            findSubTypes(Arrays.asList(classes));
+        }
+    }
+
     /**
      * Get classes annotated with the given annotation class. The results are cached.
      *
@@ -129,15 +142,32 @@ public final class ReflectionUtil {
      * @return the annotated classes.
      */
     public static Set<Class> getAnnotatedTypes(final Class<? extends Annotation> annoClass) {
+        final Set<Class> annoClasses = annoClassesCache.get(annoClass);
+        return null != annoClasses ? annoClasses : findAnnotatedTypes(annoClass);
+    }
+
+    /**
+     * Finds and caches the classes annotated with the given annotation class. This
+     * holds the same lock as {@link #scanNewPackages(Set)}, so a scan of the existing
+     * packages cannot replace the results merged in for newly added packages.
+     *
+     * @param annoClass the annotation class to get classes for.
+     * @return the annotated classes.
+     */
+    private static synchronized Set<Class> findAnnotatedTypes(final Class<? extends Annotation> annoClass) {
+        updateReflectionPackages();
+
         Set<Class> annoClasses = annoClassesCache.get(annoClass);
         if (null == annoClasses) {
-            updateReflectionPackages();
-            annoClasses = new HashSet<>();
-            getScanner().matchClassesWithAnnotation(annoClass, annoClasses::add).scan();
+            annoClasses = getIndexedClasses(annoClass.getName());
+            if (null == annoClasses) {
+                final Map<Class<? extends Annotation>, Set<Class>> annotatedTypes = Collections.singletonMap(annoClass, new HashSet<>());
+                scan(packages, Collections.emptyMap(), annotatedTypes);
+                annoClasses = annotatedTypes.get(annoClass);
+            }
             annoClasses = Collections.unmodifiableSet(annoClasses);
-            subclassesCache.put(annoClass, annoClasses);
+            annoClassesCache.put(annoClass, annoClasses);
         }
-
         return annoClasses;
     }
 
@@ -177,9 +207,13 @@ public final class ReflectionUtil {
      * "koryphe.reflection.packages".
      */
     public static void resetReflectionPackages() {
-        packages = ConcurrentHashMap.newKeySet();
-        addReflectionPackages(DEFAULT_PACKAGES);
-        addReflectionPackages(System.getProperty(PACKAGES_KEY));
+        final Set<String> newPackages = ConcurrentHashMap.newKeySet();
+        addPackages(newPackages, DEFAULT_PACKAGES);
+        addPackages(newPackages, Collections.singleton(System.getProperty(PACKAGES_KEY)));
+        packages = newPackages;
+
+        // Packages may have been removed, so the cached results can no longer be trusted
+        resetReflectionCache();
     }
 
     /**
@@ -199,8 +233,8 @@ public final class ReflectionUtil {
     }
 
     /**
-     * Adds new reflection packages. If any new packages are found then the
-     * reflection cache is reset.
+     * Adds new reflection packages. If any new packages are found then they
+     * are scanned and the results are merged into the reflection cache.
      *
      * @param newPackages new packages to add. These can be CSVs.
      */
@@ -216,30 +250,246 @@ public final class ReflectionUtil {
 
     public static void addReflectionPackages(final Iterable<String> newPackages) {
         if (null != newPackages) {
-            boolean hasNewPackage = false;
-            for (final String packageCsv : newPackages) {
-                if (null != packageCsv) {
-                    for (final String path : packageCsv.replace(" ", "").split(",")) {
-                        final String pathChecked = path.endsWith(".") ? path.substring(0, path.length() - 1) : path;
-                        if (!packages.contains(pathChecked)) {
-                            packages.add(pathChecked);
-                            hasNewPackage = true;
-                        }
+            final Set<String> addedPackages = addPackages(packages, newPackages);
+            if (!addedPackages.isEmpty()) {
+                scanNewPackages(addedPackages);
+            }
+        }
+    }
+
+    public static Set<String> getReflectionPackages() {
+        return Collections.unmodifiableSet(packages);
+    }
+
+    /**
+     * Gets the classes in the reflection packages recorded in the class index
+     * under the given key.
+     *
+     * @param key the base type or annotation class name
+     * @return the indexed classes, or null if the class index is disabled or
+     * does not cover the key.
+     */
+    private static Set<Class> getIndexedClasses(final String key) {
+        if (!Boolean.parseBoolean(System.getProperty(USE_CLASS_INDEX_KEY))) {
+            return null;
+        }
+
+        if (null == classIndex) {
+            classIndex = ClassIndex.load(ReflectionUtil.class.getClassLoader());
+        }
+
+        final Set<String> classNames = classIndex.getClassNames(key);
+        if (null == classNames) {
+            return null;
+        }
+
+        final Set<Class> classes = new HashSet<>();
+        for (final String className : classNames) {
+            if (isInReflectionPackages(className)) {
+                try {
+                    classes.add(Class.forName(className, false, ReflectionUtil.class.getClassLoader()));
+                } catch (final ClassNotFoundException | LinkageError e) {
+                    // The index is out of date or the class cannot be loaded, so skip it as a scan would
+                }
+            }
+        }
+        return classes;
+    }
+
+    private static boolean isInReflectionPackages(final String className) {
+        for (final String reflectionPackage : packages) {
+            if (className.startsWith(reflectionPackage + ".")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Set<String> addPackages(final Set<String> existingPackages, final Iterable<String> newPackages) {
+        final Set<String> addedPackages = new HashSet<>();
+        for (final String packageCsv : newPackages) {
+            if (null != packageCsv) {
+                for (final String path : packageCsv.replace(" ", "").split(",")) {
+                    final String pathChecked = path.endsWith(".") ? path.substring(0, path.length() - 1) : path;
+                    if (existingPackages.add(pathChecked)) {
+                        addedPackages.add(pathChecked);
                     }
                 }
             }
+        }
+        return addedPackages;
+    }
+
+    /**
+     * Finds and caches the sub types of the given classes. This holds the same lock
+     * as {@link #scanNewPackages(Set)}, so a scan of the existing packages cannot
+     * replace the results merged in for newly added packages.
+     *
+     * @param classes the classes to get sub types of.
+     * @return the sub types of each class.
+     */
+    private static synchronized Map<Class<?>, Set<Class>> findSubTypes(final Collection<Class<?>> classes) {
+        updateReflectionPackages();
+
+        final Map<Class<?>, Set<Class>> results = new HashMap<>();
+        final Map<Class<?>, Set<Class>> toScan = new HashMap<>();
+        for (final Class<?> clazz : classes) {
+            final Set<Class> cached = subclassesCache.get(clazz);
+            if (null != cached) {
+                results.put(clazz, cached);
+            } else {
+                final Set<Class> indexed = getIndexedSubTypes(clazz);
+                if (null != indexed) {
+                    results.put(clazz, Collections.unmodifiableSet(indexed));
+                } else {
+                    toScan.put(clazz, new HashSet<>());
+                }
+            }
+        }
 
-            if (hasNewPackage) {
-                resetReflectionCache();
+        if (!toScan.isEmpty()) {
+            scan(packages, toScan, Collections.emptyMap());
+            for (final Map.Entry<Class<?>, Set<Class>> entry : toScan.entrySet()) {
+                results.put(entry.getKey(), Collections.unmodifiableSet(entry.getValue()));
             }
         }
+
+        subclassesCache.putAll(results);
+        return results;
     }
 
-    public static Set<String> getReflectionPackages() {
-        return Collections.unmodifiableSet(packages);
+    /**
+     * Scans newly added packages for the types already in the caches and
+     * merges the results in, rather than discarding the caches.
+     *
+     * @param addedPackages the newly added packages
+     */
+    private static synchronized void scanNewPackages(final Set<String> addedPackages) {
+        if (null == subclassesCache) {
+            // Still initialising, so there is nothing cached yet
+            return;
+        }
+
+        // Packages within an existing package will already have been scanned
+        final Set<String> uncoveredPackages = new HashSet<>();
+        for (final String addedPackage : addedPackages) {
+            boolean covered = false;
+            for (final String existingPackage : packages) {
+                if (!addedPackages.contains(existingPackage) && addedPackage.startsWith(existingPackage + ".")) {
+                    covered = true;
+                    break;
+                }
+            }
+            if (!covered) {
+                uncoveredPackages.add(addedPackage);
+            }
+        }
+        if (uncoveredPackages.isEmpty()) {
+            return;
+        }
+
+        final Map<Class<?>, Set<Class>> subTypes = new HashMap<>();
+        for (final Map.Entry<Class<?>, Set<Class>> entry : subclassesCache.entrySet()) {
+            final Set<Class> indexed = getIndexedSubTypes(entry.getKey());
+            if (null != indexed) {
+                subclassesCache.put(entry.getKey(), Collections.unmodifiableSet(indexed));
+            } else {
+                subTypes.put(entry.getKey(), new HashSet<>(entry.getValue()));
+            }
+        }
+
+        final Map<Class<? extends Annotation>, Set<Class>> annotatedTypes = new HashMap<>();
+        for (final Map.Entry<Class<? extends Annotation>, Set<Class>> entry : annoClassesCache.entrySet()) {
+            final Set<Class> indexed = getIndexedClasses(entry.getKey().getName());
+            if (null != indexed) {
+                annoClassesCache.put(entry.getKey(), Collections.unmodifiableSet(indexed));
+            } else {
+                annotatedTypes.put(entry.getKey(), new HashSet<>(entry.getValue()));
+            }
+        }
+
+        if (!subTypes.isEmpty() || !annotatedTypes.isEmpty()) {
+            scan(uncoveredPackages, subTypes, annotatedTypes);
+            for (final Map.Entry<Class<?>, Set<Class>> entry : subTypes.entrySet()) {
+                subclassesCache.put(entry.getKey(), Collections.unmodifiableSet(entry.getValue()));
+            }
+            for (final Map.Entry<Class<? extends Annotation>, Set<Class>> entry : annotatedTypes.entrySet()) {
+                annoClassesCache.put(entry.getKey(), Collections.unmodifiableSet(entry.getValue()));
+            }
+        }
+
+        // Simple class names are derived from the sub types, so can be rebuilt without scanning
+        simpleClassNamesCache.clear();
+    }
+
+    /**
+     * Runs a single class path scan over the given packages, collecting
+     * the sub types of every key of subTypes and the annotated classes of
+     * every key of annotatedTypes into the corresponding values.
+     *
+     * @param scanPackages   the packages to scan
+     * @param subTypes       the classes to find sub types of, mapped to the sets to add them to
+     * @param annotatedTypes the annotations to find classes for, mapped to the sets to add them to
+     */
+    private static void scan(final Collection<String> scanPackages,
+                             final Map<Class<?>, Set<Class>> subTypes,
+                             final Map<Class<? extends Annotation>, Set<Class>> annotatedTypes) {
+        final FastClasspathScanner scanner = new FastClasspathScanner(scanPackages.toArray(new String[scanPackages.size()]));
+        for (final Map.Entry<Class<?>, Set<Class>> entry : subTypes.entrySet()) {
+            final Set<Class> matches = entry.getValue();
+            if (entry.getKey().isInterface()) {
+                scanner.matchClassesImplementing((Class) entry.getKey(), c -> {
+                    if (isPublicConcrete((Class) c)) {
+                        matches.add((Class) c);
+                    }
+                });
+            } else {
+                scanner.matchSubclassesOf((Class) entry.getKey(), c -> {
+                    if (isPublicConcrete((Class) c)) {
+                        matches.add((Class) c);
+                    }
+                });
+            }
+        }
+        for (final Map.Entry<Class<? extends Annotation>, Set<Class>> entry : annotatedTypes.entrySet()) {
+            scanner.matchClassesWithAnnotation(entry.getKey(), entry.getValue()::add);
+        }
+
+        final Integer scanThreads = getScanThreads();
+        if (null == scanThreads) {
+            scanner.scan();
+        } else {
+            scanner.scan(scanThreads);
+        }
+    }
+
+    private static Integer getScanThreads() {
+        final String scanThreads = System.getProperty(SCAN_THREADS_KEY);
+        if (null != scanThreads) {
+            try {
+                final int threads = Integer.parseInt(scanThreads.trim());
+                if (threads > 0) {
+                    return threads;
+                }
+            } catch (final NumberFormatException e) {
+                // Fall back to the scanner's default
+            }
+        }
+        return null;
     }
 
-    private static FastClasspathScanner getScanner() {
-        return new FastClasspathScanner(packages.toArray(new String[packages.size()]));
+    private static Set<Class> getIndexedSubTypes(final Class<?> clazz) {
+        final Set<Class> indexedClasses = getIndexedClasses(clazz.getName());
+        if (null == indexedClasses) {
+            return null;
+        }
+
+        final Set<Class> subTypes = new HashSet<>();
+        for (final Class c : indexedClasses) {
+            if (clazz.isAssignableFrom(c) && isPublicConcrete(c)) {
+                subTypes.add(c);
+            }
+        }
+        return subTypes;
     }
 }
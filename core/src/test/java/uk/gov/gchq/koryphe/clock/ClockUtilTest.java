@@ -0,0 +1,68 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.koryphe.clock;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ClockUtilTest {
+    @AfterEach
+    public void resetClock() {
+        ClockUtil.setClock(null);
+    }
+
+    @Test
+    public void shouldUseCoarseClockByDefault() {
+        // When
+        final KorypheClock clock = ClockUtil.getClock();
+
+        // Then
+        assertTrue(clock instanceof CoarseClock);
+        assertEquals(ClockUtil.DEFAULT_RESOLUTION_MILLIS, ((CoarseClock) clock).getResolutionMillis());
+        assertSame(clock, ClockUtil.getClock());
+    }
+
+    @Test
+    public void shouldUseClockThatHasBeenSet() {
+        // Given
+        final ManualClock clock = new ManualClock(1000L);
+
+        // When
+        ClockUtil.setClock(clock);
+        clock.advance(500L);
+
+        // Then
+        assertSame(clock, ClockUtil.getClock());
+        assertEquals(1500L, ClockUtil.currentTimeMillis());
+    }
+
+    @Test
+    public void shouldRestoreDefaultClockWhenSetToNull() {
+        // Given
+        ClockUtil.setClock(new ManualClock(1000L));
+
+        // When
+        ClockUtil.setClock(null);
+
+        // Then
+        assertTrue(ClockUtil.getClock() instanceof CoarseClock);
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.koryphe.clock;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CoarseClockTest {
+    @Test
+    public void shouldFollowSystemClock() throws InterruptedException {
+        // Given
+        try (final CoarseClock clock = new CoarseClock(1L)) {
+            final long start = clock.currentTimeMillis();
+
+            // When
+            Thread.sleep(50L);
+
+            // Then
+            final long time = clock.currentTimeMillis();
+            assertTrue(time > start, "Clock did not advance");
+            assertTrue(time <= System.currentTimeMillis());
+        }
+    }
+
+    @Test
+    public void shouldStopWhenClosed() throws InterruptedException {
+        // Given
+        final CoarseClock clock = new CoarseClock(1L);
+
+        // When
+        clock.close();
+        Thread.sleep(5L);
+        final long time = clock.currentTimeMillis();
+        Thread.sleep(20L);
+
+        // Then
+        assertEquals(time, clock.currentTimeMillis());
+    }
+
+    @Test
+    public void shouldRequirePositiveResolution() {
+        assertThrows(IllegalArgumentException.class, () -> new CoarseClock(0L));
+    }
+}
@@ -20,6 +20,9 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import uk.gov.gchq.koryphe.binaryoperator.BinaryOperatorTest;
+import uk.gov.gchq.koryphe.tuple.ArrayTuple;
+import uk.gov.gchq.koryphe.tuple.Tuple;
+import uk.gov.gchq.koryphe.tuple.binaryoperator.TupleAdaptedBinaryOperator;
 import uk.gov.gchq.koryphe.util.JsonSerialiser;
 
 import java.io.IOException;
@@ -29,8 +32,11 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static uk.gov.gchq.koryphe.util.AllocationBudget.assertAllocatesAtMost;
 
 public class SumTest extends BinaryOperatorTest {
+    // A boxed Integer or Long, with or without compressed object pointers
+    private static final long BOXED_RESULT_BYTES = 24;
 
     private Number state;
 
@@ -447,4 +453,37 @@ public class SumTest extends BinaryOperatorTest {
     protected Class<Sum> getFunctionClass() {
         return Sum.class;
     }
+
+    @Test
+    public void shouldOnlyAllocateTheBoxedResultWhenSummingIntegers() {
+        // Given
+        final Sum sum = new Sum();
+        final Integer a = 1000;
+        final Integer b = 2000;
+
+        // When / Then
+        assertAllocatesAtMost(BOXED_RESULT_BYTES, () -> sum.apply(a, b));
+    }
+
+    @Test
+    public void shouldOnlyAllocateTheBoxedResultWhenSummingLongs() {
+        // Given
+        final Sum sum = new Sum();
+        final Long a = 1000L;
+        final Long b = 2000L;
+
+        // When / Then
+        assertAllocatesAtMost(BOXED_RESULT_BYTES, () -> sum.apply(a, b));
+    }
+
+    @Test
+    public void shouldOnlyAllocateTheBoxedResultWhenSummingTupleFields() {
+        // Given
+        final TupleAdaptedBinaryOperator<Integer, Number> sum = new TupleAdaptedBinaryOperator<>(new Sum(), new Integer[]{1});
+        final Tuple<Integer> state = new ArrayTuple(new Object[]{"a", 1000L});
+        final Tuple<Integer> input = new ArrayTuple(new Object[]{"b", 2000L});
+
+        // When / Then
+        assertAllocatesAtMost(BOXED_RESULT_BYTES, () -> sum.apply(state, input));
+    }
 }
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.koryphe.impl.function;
+
+import com.google.common.collect.Lists;
+import org.json.XML;
+import org.junit.jupiter.api.Test;
+
+import uk.gov.gchq.koryphe.function.FunctionTest;
+import uk.gov.gchq.koryphe.iterable.CloseableIterable;
+import uk.gov.gchq.koryphe.iterable.CloseableIterator;
+import uk.gov.gchq.koryphe.util.JsonSerialiser;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DeserialiseXmlElementsTest extends FunctionTest {
+    @Override
+    protected Function getInstance() {
+        return new DeserialiseXmlElements("root/element");
+    }
+
+    @Override
+    protected Class<? extends Function> getFunctionClass() {
+        return DeserialiseXmlElements.class;
+    }
+
+    @Override
+    protected Class[] getExpectedSignatureInputClasses() {
+        return new Class[] {String.class};
+    }
+
+    @Override
+    protected Class[] getExpectedSignatureOutputClasses() {
+        return new Class[] {Iterable.class};
+    }
+
+    @Test
+    @Override
+    public void shouldJsonSerialiseAndDeserialise() throws IOException {
+        // Given
+        final DeserialiseXmlElements function = new DeserialiseXmlElements("feed/entry");
+
+        // When
+        final String json = JsonSerialiser.serialise(function);
+        final DeserialiseXmlElements deserialised = JsonSerialiser.deserialise(json, DeserialiseXmlElements.class);
+
+        // Then
+        JsonSerialiser.assertEquals(String.format("{%n" +
+                "   \"class\" : \"uk.gov.gchq.koryphe.impl.function.DeserialiseXmlElements\",%n" +
+                "   \"path\" : \"feed/entry\"%n" +
+                "}"), json);
+        assertEquals("feed/entry", deserialised.getPath());
+    }
+
+    @Test
+    public void shouldParseRepeatedElements() {
+        // Given
+        final DeserialiseXmlElements function = new DeserialiseXmlElements("feed/entry");
+        final String input = "<feed><title>ignored</title>" +
+                "<entry id=\"1\"><title>first</title></entry>" +
+                "<entry>second</entry>" +
+                "<other><entry>ignored</entry></other>" +
+                "<entry/></feed>";
+
+        // When
+        final Iterable<Map<String, Object>> result = function.apply(input);
+
+        // Then
+        final Map<String, Object> first = new HashMap<>();
+        first.put("id", 1);
+        first.put("title", "first");
+        assertEquals(Arrays.asList(
+                Collections.singletonMap("entry", first),
+                Collections.singletonMap("entry", "second"),
+                Collections.singletonMap("entry", "")
+        ), Lists.newArrayList(result));
+    }
+
+    @Test
+    public void shouldParseElementsInTheSameWayAsDeserialiseXml() {
+        // Given
+        final DeserialiseXmlElements function = new DeserialiseXmlElements("root/*");
+        final List<String> elements = Arrays.asList(
+                "<a x=\"1\"><b>2</b><b>3</b>text</a>",
+                "<c><![CDATA[42]]></c>",
+                "<d><e><f>null</f></e></d>"
+        );
+
+        // When
+        final Iterable<Map<String, Object>> result = function.apply("<root>" + String.join("", elements) + "</root>");
+
+        // Then
+        final List<Map<String, Object>> expected = Lists.newArrayList();
+        for (final String element : elements) {
+            expected.add(XML.toJSONObject(element).toMap());
+        }
+        assertEquals(expected, Lists.newArrayList(result));
+    }
+
+    @Test
+    public void shouldParseDocumentAgainForEachIteration() {
+        // Given
+        final DeserialiseXmlElements function = new DeserialiseXmlElements("root/a");
+        final Iterable<Map<String, Object>> result = function.apply("<root><a>1</a><a>2</a></root>");
+
+        // When
+        final List<Map<String, Object>> first = Lists.newArrayList(result);
+        final List<Map<String, Object>> second = Lists.newArrayList(result);
+
+        // Then
+        assertEquals(2, first.size());
+        assertEquals(first, second);
+    }
+
+    @Test
+    public void shouldParseElementsLazily() {
+        // Given
+        final DeserialiseXmlElements function = new DeserialiseXmlElements("root/a");
+        final String input = "<root><a>1</a><a>2</a><broken></root>";
+
+        // When
+        final CloseableIterator<Map<String, Object>> iterator = ((CloseableIterable<Map<String, Object>>) function.apply(input)).iterator();
+
+        // Then
+        assertEquals(Collections.singletonMap("a", 1), iterator.next());
+        assertEquals(Collections.singletonMap("a", 2), iterator.next());
+        assertThrows(RuntimeException.class, iterator::hasNext);
+    }
+
+    @Test
+    public void shouldStopIteratingWhenClosed() {
+        // Given
+        final DeserialiseXmlElements function = new DeserialiseXmlElements("root/a");
+        final CloseableIterator<Map<String, Object>> iterator = ((CloseableIterable<Map<String, Object>>) function.apply("<root><a>1</a><a>2</a></root>")).iterator();
+        assertTrue(iterator.hasNext());
+        iterator.next();
+
+        // When
+        iterator.close();
+
+        // Then
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void shouldReturnNullForNullInput() {
+        // Given
+        final DeserialiseXmlElements function = new DeserialiseXmlElements("root/a");
+
+        // When
+        final Iterable<Map<String, Object>> result = function.apply(null);
+
+        // Then
+        assertNull(result);
+    }
+
+    @Test
+    public void shouldRequireAPath() {
+        // Given
+        final DeserialiseXmlElements function = new DeserialiseXmlElements();
+
+        // When / Then
+        assertThrows(IllegalArgumentException.class, () -> function.apply("<root/>"));
+    }
+}
@@ -15,6 +15,7 @@
  */
 package uk.gov.gchq.koryphe.impl.function;
 
+import org.json.XML;
 import org.junit.jupiter.api.Test;
 
 import uk.gov.gchq.koryphe.function.FunctionTest;
@@ -22,12 +23,16 @@ import uk.gov.gchq.koryphe.util.JsonSerialiser;
 
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class DeserialiseXmlTest extends FunctionTest {
     @Override
@@ -100,4 +105,151 @@ public class DeserialiseXmlTest extends FunctionTest {
         // Then
         assertNull(result);
     }
+
+    @Test
+    public void shouldJsonSerialiseAndDeserialiseWithPaths() throws IOException {
+        // Given
+        final DeserialiseXml function = new DeserialiseXml().paths("root/element1", "root/*/element2");
+
+        // When
+        final String json = JsonSerialiser.serialise(function);
+        final DeserialiseXml deserialised = JsonSerialiser.deserialise(json, DeserialiseXml.class);
+
+        // Then
+        JsonSerialiser.assertEquals(String.format("{%n" +
+                "   \"class\" : \"uk.gov.gchq.koryphe.impl.function.DeserialiseXml\",%n" +
+                "   \"paths\" : [\"root/element1\", \"root/*/element2\"]%n" +
+                "}"), json);
+        assertEquals(function, deserialised);
+        assertNotEquals(new DeserialiseXml(), deserialised);
+    }
+
+    @Test
+    public void shouldParseXmlInTheSameWayAsOrgJson() {
+        // Given
+        final DeserialiseXml function = new DeserialiseXml();
+        final List<String> inputs = Arrays.asList(
+                "<root/>",
+                "<root></root>",
+                "<root>  </root>",
+                "<root>text</root>",
+                "<root a=\"1\" b=\"true\" c=\"null\" d=\"1.5\" e=\"007\" f=\"\"/>",
+                "<root><a>1</a><a>2</a><a>3</a></root>",
+                "<root><a>12345678901234567890</a><b>-0</b><c>1e3</c><d>0x10</d><e>false</e><f>null</f></root>",
+                "<root a=\"attr\"><a>element</a></root>",
+                "<root content=\"attr\">text</root>",
+                "<root><content>element</content>text</root>",
+                "<root>before<child/>after</root>",
+                "<root>first<!-- comment -->second</root>",
+                "<root>first<?pi data?>second</root>",
+                "<root><![CDATA[ <not> &xml; 123 ]]></root>",
+                "<root>text<![CDATA[cdata]]>more</root>",
+                "<root><![CDATA[]]></root>",
+                "<root>&lt;&amp;&gt;&quot;&apos; &#65;&#x42;</root>",
+                "<root a=\"&lt;&amp;&#65;\"/>",
+                "<?xml version=\"1.0\" encoding=\"UTF-8\"?><!-- header --><root>value</root>",
+                "<p:root xmlns:p=\"urn:p\" xmlns=\"urn:default\"><p:child p:attr=\"x\">y</p:child><child/></p:root>",
+                "<root>\n  <a>\n    <b>1</b>\n    <b/>\n  </a>\n  <a>text</a>\n</root>",
+                "<root><a><b><c><d>deep</d></c></b></a></root>",
+                "<root>\u00e9\u4e2d\ud83d\ude00</root>"
+        );
+
+        for (final String input : inputs) {
+            // When
+            final Map<String, Object> result = function.apply(input);
+
+            // Then
+            assertEquals(XML.toJSONObject(input).toMap(), result, input);
+        }
+    }
+
+    @Test
+    public void shouldOnlyParseElementsOnPaths() {
+        // Given
+        final DeserialiseXml function = new DeserialiseXml().paths("feed/entry/title");
+        final String input = "<feed version=\"2\"><meta><owner>me</owner></meta>" +
+                "<entry id=\"1\"><title>first</title><body>ignored</body></entry>" +
+                "<entry id=\"2\"><body>ignored</body></entry>" +
+                "<entry id=\"3\"><title lang=\"en\">third</title></entry></feed>";
+
+        // When
+        final Map<String, Object> result = function.apply(input);
+
+        // Then
+        final Map<String, Object> thirdTitle = new HashMap<>();
+        thirdTitle.put("lang", "en");
+        thirdTitle.put("content", "third");
+        final Map<String, Object> entries = Collections.singletonMap("entry", Arrays.asList(
+                Collections.singletonMap("title", "first"),
+                Collections.singletonMap("title", thirdTitle)));
+        assertEquals(Collections.singletonMap("feed", entries), result);
+    }
+
+    @Test
+    public void shouldMatchAnyElementNameWithWildcardPaths() {
+        // Given
+        final DeserialiseXml function = new DeserialiseXml().paths("root/*/id", "root/meta");
+        final String input = "<root><meta>m</meta><a><id>1</id><x/></a><b><id>2</id></b><c><y/></c></root>";
+
+        // When
+        final Map<String, Object> result = function.apply(input);
+
+        // Then
+        final Map<String, Object> root = new HashMap<>();
+        root.put("meta", "m");
+        root.put("a", Collections.singletonMap("id", 1));
+        root.put("b", Collections.singletonMap("id", 2));
+        assertEquals(Collections.singletonMap("root", root), result);
+    }
+
+    @Test
+    public void shouldReturnEmptyMapWhenNoElementsAreOnPaths() {
+        // Given
+        final DeserialiseXml function = new DeserialiseXml().paths("other");
+
+        // When
+        final Map<String, Object> result = function.apply("<root><a>1</a></root>");
+
+        // Then
+        assertEquals(Collections.emptyMap(), result);
+    }
+
+    @Test
+    public void shouldNotAllowPathsToBeModifiedThroughTheGetter() {
+        // Given
+        final DeserialiseXml function = new DeserialiseXml().paths("root/a");
+        assertEquals(Collections.singletonMap("root", Collections.singletonMap("a", 1)), function.apply("<root><a>1</a><b>2</b></root>"));
+
+        // When / Then
+        assertThrows(UnsupportedOperationException.class, () -> function.getPaths().add("root/b"));
+        assertEquals(Collections.singletonList("root/a"), function.getPaths());
+    }
+
+    @Test
+    public void shouldRejectEmptyPathSegments() {
+        // Given
+        final DeserialiseXml function = new DeserialiseXml().paths("root//a");
+
+        // When / Then
+        assertThrows(IllegalArgumentException.class, () -> function.apply("<root/>"));
+    }
+
+    @Test
+    public void shouldNotResolveExternalEntities() {
+        // Given
+        final DeserialiseXml function = new DeserialiseXml();
+        final String input = "<!DOCTYPE root [<!ENTITY xxe SYSTEM \"file:///etc/passwd\">]><root>&xxe;</root>";
+
+        // When / Then
+        assertThrows(RuntimeException.class, () -> function.apply(input));
+    }
+
+    @Test
+    public void shouldThrowExceptionForMalformedXml() {
+        // Given
+        final DeserialiseXml function = new DeserialiseXml();
+
+        // When / Then
+        assertThrows(RuntimeException.class, () -> function.apply("<root><a></root>"));
+    }
 }
@@ -0,0 +1,221 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.koryphe.impl.function;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import uk.gov.gchq.koryphe.function.FunctionTest;
+import uk.gov.gchq.koryphe.function.KorypheFunction;
+import uk.gov.gchq.koryphe.util.JsonSerialiser;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MemoizeTest extends FunctionTest {
+    private static final AtomicInteger CALLS = new AtomicInteger();
+
+    @BeforeEach
+    public void before() {
+        CALLS.set(0);
+    }
+
+    @Test
+    public void shouldOnlyApplyFunctionOncePerInput() {
+        // Given
+        final Memoize<String, String> function = new Memoize<>(new CountingUpperCase());
+
+        // When
+        final String first = function.apply("a");
+        final String second = function.apply("a");
+        final String third = function.apply("b");
+
+        // Then
+        assertEquals("A", first);
+        assertEquals("A", second);
+        assertEquals("B", third);
+        assertEquals(2, CALLS.get());
+        assertEquals(1, function.getHitCount());
+        assertEquals(2, function.getMissCount());
+        assertEquals(1.0 / 3, function.getHitRate(), 0.0001);
+    }
+
+    @Test
+    public void shouldCacheNullOutputs() {
+        // Given
+        final Memoize<String, String> function = new Memoize<>(new CountingUpperCase());
+
+        // When
+        function.apply("null");
+        final String result = function.apply("null");
+
+        // Then
+        assertNull(result);
+        assertEquals(1, CALLS.get());
+    }
+
+    @Test
+    public void shouldNotCacheNullInputs() {
+        // Given
+        final Memoize<String, String> function = new Memoize<>(new CountingUpperCase());
+
+        // When
+        function.apply(null);
+        function.apply(null);
+
+        // Then
+        assertEquals(2, CALLS.get());
+        assertEquals(0, function.size());
+    }
+
+    @Test
+    public void shouldCompareByteArrayInputsByContents() {
+        // Given
+        final Memoize<byte[], byte[]> function = new Memoize<>(new Base64Decode());
+        final byte[] input = "dGVzdA==".getBytes();
+
+        // When
+        final byte[] first = function.apply(input);
+        final byte[] second = function.apply(input.clone());
+
+        // Then
+        assertArrayEquals("test".getBytes(), first);
+        assertArrayEquals("test".getBytes(), second);
+        assertEquals(1, function.getHitCount());
+    }
+
+    @Test
+    public void shouldEvictWhenMaxSizeIsReached() {
+        // Given
+        final Memoize<String, String> function = new Memoize<>(new CountingUpperCase(), 1);
+
+        // When
+        function.apply("a");
+        function.apply("b");
+        function.apply("a");
+
+        // Then
+        assertEquals(3, CALLS.get());
+        assertEquals(1, function.size());
+        assertEquals(2, function.getEvictionCount());
+    }
+
+    @Test
+    public void shouldEvictByWeightWhenWeigherIsSet() {
+        // Given
+        final Memoize<String, String> function = new Memoize<>(new CountingUpperCase(), 5);
+        function.setWeigher(new Length());
+
+        // When
+        function.apply("abc");
+        function.apply("def");
+
+        // Then
+        assertEquals(1, function.size());
+    }
+
+    @Test
+    public void shouldRejectNullWeights() {
+        // Given
+        final Memoize<String, String> function = new Memoize<>(new CountingUpperCase(), 5);
+        function.setWeigher(output -> null);
+
+        // When / Then
+        final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> function.apply("abc"));
+        assertTrue(exception.getMessage().contains("null weight"));
+    }
+
+    @Test
+    public void shouldRecomputeAfterClear() {
+        // Given
+        final Memoize<String, String> function = new Memoize<>(new CountingUpperCase());
+        function.apply("a");
+
+        // When
+        function.clear();
+        function.apply("a");
+
+        // Then
+        assertEquals(2, CALLS.get());
+    }
+
+    @Test
+    public void shouldRequireAPositiveMaxSize() {
+        assertThrows(IllegalArgumentException.class, () -> new Memoize<>(new CountingUpperCase(), 0));
+    }
+
+    @Override
+    protected Memoize getInstance() {
+        return new Memoize<>(new ToUpperCase());
+    }
+
+    @Override
+    protected Class<? extends Memoize> getFunctionClass() {
+        return Memoize.class;
+    }
+
+    @Override
+    protected Class[] getExpectedSignatureInputClasses() {
+        return new Class[]{ Object.class };
+    }
+
+    @Override
+    protected Class[] getExpectedSignatureOutputClasses() {
+        return new Class[]{ String.class };
+    }
+
+    @Test
+    @Override
+    public void shouldJsonSerialiseAndDeserialise() throws IOException {
+        // Given
+        final Memoize<Object, String> function = new Memoize<>(new ToUpperCase(), 100);
+        function.setExpireAfterMillis(1000L);
+
+        // When
+        final String json = JsonSerialiser.serialise(function);
+
+        // Then
+        JsonSerialiser.assertEquals(String.format("{%n" +
+                "  \"class\" : \"uk.gov.gchq.koryphe.impl.function.Memoize\",%n" +
+                "  \"function\" : {%n" +
+                "    \"class\" : \"uk.gov.gchq.koryphe.impl.function.ToUpperCase\"%n" +
+                "  },%n" +
+                "  \"maxSize\" : 100,%n" +
+                "  \"expireAfterMillis\" : 1000%n" +
+                "}"), json);
+
+        // When 2
+        final Memoize deserialised = JsonSerialiser.deserialise(json, Memoize.class);
+
+        // Then 2
+        assertEquals(function, deserialised);
+    }
+
+    public static class CountingUpperCase extends KorypheFunction<String, String> {
+        @Override
+        public String apply(final String input) {
+            CALLS.incrementAndGet();
+            return null != input && !"null".equals(input) ? input.toUpperCase() : null;
+        }
+    }
+}
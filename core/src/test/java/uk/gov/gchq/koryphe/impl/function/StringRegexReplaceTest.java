@@ -21,12 +21,17 @@ import uk.gov.gchq.koryphe.function.FunctionTest;
 import uk.gov.gchq.koryphe.util.JsonSerialiser;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class StringRegexReplaceTest extends FunctionTest {
+    private static final List<String> INPUTS = Arrays.asList("", "a", "An input string.", "a.b.c", "x$y\\z", "aaa", "  lots   of\tspace ", "2020-01-31");
 
     @Test
     public void shouldHandleNullInput() {
@@ -66,6 +71,98 @@ public class StringRegexReplaceTest extends FunctionTest {
         assertEquals("An inpu tring.", result);
     }
 
+    @Test
+    public void shouldReplaceLikeStringReplaceAll() {
+        // Given
+        final String[][] rules = {
+                {"input", "output"},
+                {"\\.", "-"},
+                {".", "_"},
+                {"a", "$0$0"},
+                {"\\$", "\\\\"},
+                {"\\s+", " "},
+                {"(\\d+)-(\\d+)-(\\d+)", "$3/$2/$1"},
+                {"(?<year>\\d{4})", "${year}!"},
+                {"a*", "-"},
+                {"^", ">"},
+                {"(a)|(b)", "[$1$2]"},
+                {"(a)", "$10"}
+        };
+
+        for (final String[] rule : rules) {
+            final StringRegexReplace function = new StringRegexReplace(rule[0], rule[1]);
+            for (final String input : INPUTS) {
+                // When
+                final String result = function.apply(input);
+
+                // Then
+                assertEquals(input.replaceAll(rule[0], rule[1]), result, "Replacing " + rule[0] + " with " + rule[1] + " in " + input);
+            }
+        }
+    }
+
+    @Test
+    public void shouldReturnInputWhenNothingMatches() {
+        // Given
+        final StringRegexReplace function = new StringRegexReplace("z+", "y");
+        final String input = "An input string.";
+
+        // When
+        final String result = function.apply(input);
+
+        // Then
+        assertSame(input, result);
+    }
+
+    @Test
+    public void shouldUseUpdatedRegexAndReplacement() {
+        // Given
+        final StringRegexReplace function = new StringRegexReplace("input", "output");
+        function.apply("An input string.");
+
+        // When
+        function.setRegex("str\\w+");
+        function.setReplacement("sentence");
+        final String result = function.apply("An input string.");
+
+        // Then
+        assertEquals("An input sentence.", result);
+    }
+
+    @Test
+    public void shouldRejectReferencesToMissingGroups() {
+        // Given
+        final StringRegexReplace function = new StringRegexReplace("(a)", "$2");
+
+        // When / Then
+        assertThrows(IllegalArgumentException.class, () -> function.apply("a"));
+    }
+
+    @Test
+    public void shouldRejectNamedReferencesWhenRegexHasNoGroups() {
+        // Given
+        final StringRegexReplace function = new StringRegexReplace("abc", "x${foo}y");
+
+        // When
+        final Exception exception = assertThrows(IllegalArgumentException.class, () -> function.apply("zabcz"));
+
+        // Then
+        assertEquals("No group with name {foo}", exception.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> "zabcz".replaceAll("abc", "x${foo}y"));
+    }
+
+    @Test
+    public void shouldReplaceNamedReferences() {
+        // Given
+        final StringRegexReplace function = new StringRegexReplace("a(?<foo>b)c", "x${foo}y");
+
+        // When
+        final String result = function.apply("zabcz");
+
+        // Then
+        assertEquals("zxbyz", result);
+    }
+
     @Override
     protected StringRegexReplace getInstance() {
         return new StringRegexReplace();
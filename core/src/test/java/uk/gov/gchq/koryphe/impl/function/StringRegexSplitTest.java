@@ -21,10 +21,13 @@ import uk.gov.gchq.koryphe.function.FunctionTest;
 import uk.gov.gchq.koryphe.util.JsonSerialiser;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.List;
+import java.util.regex.Pattern;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.IsCollectionContaining.hasItems;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 
@@ -55,6 +58,24 @@ public class StringRegexSplitTest extends FunctionTest {
         assertThat(result, hasItems("first", "second", "third"));
     }
 
+    @Test
+    public void shouldSplitLikePatternSplit() {
+        // Given
+        final List<String> regexes = Arrays.asList(",", "\\.", "::", "\\s*,\\s*", "[,;]", "a*", "\\|");
+        final List<String> inputs = Arrays.asList("", ",", ",,", "a,b", ",a,,b,,", "a.b.", "::x::y", "a , b;c", "no separators", "x|y|");
+
+        for (final String regex : regexes) {
+            final StringRegexSplit function = new StringRegexSplit(regex);
+            for (final String input : inputs) {
+                // When
+                final List<String> result = function.apply(input);
+
+                // Then
+                assertEquals(Arrays.asList(Pattern.compile(regex).split(input)), result, "Splitting " + input + " on " + regex);
+            }
+        }
+    }
+
     @Override
     protected StringRegexSplit getInstance() {
         return new StringRegexSplit();
@@ -15,12 +15,15 @@
  */
 package uk.gov.gchq.koryphe.impl.function;
 
+import org.apache.commons.lang3.StringUtils;
 import org.junit.jupiter.api.Test;
 
 import uk.gov.gchq.koryphe.function.FunctionTest;
 import uk.gov.gchq.koryphe.util.JsonSerialiser;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -92,6 +95,24 @@ public class StringReplaceTest extends FunctionTest {
         assertEquals("An output string.", result);
     }
 
+    @Test
+    public void shouldReplaceLikeStringUtilsReplace() {
+        // Given
+        final List<String> inputs = Arrays.asList("", "a", "aaa", "An input string.", "a.b.c", "$1 and \\2");
+        final String[][] rules = {{"a", "b"}, {"a", "aa"}, {"aa", ""}, {".", "$0"}, {"$1", "\\"}, {"", "x"}};
+
+        for (final String[] rule : rules) {
+            final StringReplace function = new StringReplace(rule[0], rule[1]);
+            for (final String input : inputs) {
+                // When
+                final String result = function.apply(input);
+
+                // Then
+                assertEquals(StringUtils.replace(input, rule[0], rule[1]), result, "Replacing " + rule[0] + " with " + rule[1] + " in " + input);
+            }
+        }
+    }
+
     @Override
     protected StringReplace getInstance() {
         return new StringReplace();
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.koryphe.impl.function;
+
+import org.junit.jupiter.api.Test;
+
+import uk.gov.gchq.koryphe.function.FunctionTest;
+import uk.gov.gchq.koryphe.util.JsonSerialiser;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class StringRewriteTest extends FunctionTest {
+
+    @Test
+    public void shouldHandleNullInput() {
+        // Given
+        final StringRewrite function = new StringRewrite(new StringReplace("a", "b"));
+
+        // When
+        final String result = function.apply(null);
+
+        // Then
+        assertNull(result);
+    }
+
+    @Test
+    public void shouldApplyRulesInOrder() {
+        // Given
+        final StringRewrite function = new StringRewrite(
+                new StringRegexReplace("\\s+", " "),
+                new StringReplace("colour", "color"),
+                new StringRegexReplace("(\\w+)@(\\w+)", "$2 at $1"),
+                new StringReplace(" ", "_"));
+        final String input = "The  colour\tof  user@example";
+
+        // When
+        final String result = function.apply(input);
+
+        // Then
+        assertEquals("The_color_of_example_at_user", result);
+    }
+
+    @Test
+    public void shouldApplyEachRuleToTheOutputOfTheLast() {
+        // Given
+        final StringRewrite function = new StringRewrite(
+                new StringReplace("a", "b"),
+                new StringReplace("b", "c"),
+                new StringRegexReplace("c+", "d"));
+
+        // When
+        final String result = function.apply("abcabc");
+
+        // Then
+        assertEquals("d", result);
+    }
+
+    @Test
+    public void shouldMatchApplyingRulesSeparately() {
+        // Given
+        final List<Function<String, String>> rules = Arrays.asList(
+                new StringRegexReplace("[aeiou]", ""),
+                new StringReplace("t", "tt"),
+                String::toUpperCase,
+                new StringRegexReplace("(T+)", "<$1>"),
+                new StringReplace("missing", "x"),
+                new StringRegexReplace("\\.", "!"));
+        final StringRewrite function = new StringRewrite(rules);
+        final List<String> inputs = Arrays.asList("", "text", "An input string.", "nothing to see", "a.t.e.");
+
+        for (final String input : inputs) {
+            String expected = input;
+            for (final Function<String, String> rule : rules) {
+                expected = rule.apply(expected);
+            }
+
+            // When
+            final String result = function.apply(input);
+
+            // Then
+            assertEquals(expected, result, "Rewriting " + input);
+        }
+    }
+
+    @Test
+    public void shouldReturnInputWhenNothingMatches() {
+        // Given
+        final StringRewrite function = new StringRewrite(new StringReplace("x", "y"), new StringRegexReplace("z+", "y"));
+        final String input = "An input string.";
+
+        // When
+        final String result = function.apply(input);
+
+        // Then
+        assertSame(input, result);
+    }
+
+    @Test
+    public void shouldReturnInputWhenThereAreNoRules() {
+        // Given
+        final StringRewrite function = new StringRewrite(Collections.emptyList());
+        final String input = "An input string.";
+
+        // When
+        final String result = function.apply(input);
+
+        // Then
+        assertSame(input, result);
+    }
+
+    @Override
+    protected StringRewrite getInstance() {
+        return new StringRewrite(new StringReplace("a", "b"));
+    }
+
+    @Override
+    protected Class<? extends StringRewrite> getFunctionClass() {
+        return StringRewrite.class;
+    }
+
+    @Override
+    protected Class[] getExpectedSignatureInputClasses() {
+        return new Class[]{ String.class };
+    }
+
+    @Override
+    protected Class[] getExpectedSignatureOutputClasses() {
+        return new Class[]{ String.class };
+    }
+
+    @Test
+    @Override
+    public void shouldJsonSerialiseAndDeserialise() throws IOException {
+        // Given
+        final StringRewrite function = new StringRewrite(new StringRegexReplace("\\s+", " "), new StringReplace("find", "replace"));
+
+        // When
+        final String json = JsonSerialiser.serialise(function);
+
+        // Then
+        JsonSerialiser.assertEquals(String.format("{%n" +
+                "  \"class\" : \"uk.gov.gchq.koryphe.impl.function.StringRewrite\",%n" +
+                "  \"rules\" : [ {%n" +
+                "    \"class\" : \"uk.gov.gchq.koryphe.impl.function.StringRegexReplace\",%n" +
+                "    \"regex\" : \"\\\\s+\",%n" +
+                "    \"replacement\" : \" \"%n" +
+                "  }, {%n" +
+                "    \"class\" : \"uk.gov.gchq.koryphe.impl.function.StringReplace\",%n" +
+                "    \"searchString\" : \"find\",%n" +
+                "    \"replacement\" : \"replace\"%n" +
+                "  } ]%n" +
+                "}"), json);
+
+        // When 2
+        final StringRewrite deserialised = JsonSerialiser.deserialise(json, StringRewrite.class);
+
+        // Then 2
+        assertEquals("a replace b", deserialised.apply("a   find  b"));
+    }
+}
@@ -18,6 +18,8 @@ package uk.gov.gchq.koryphe.impl.predicate;
 
 import org.junit.jupiter.api.Test;
 
+import uk.gov.gchq.koryphe.clock.ClockUtil;
+import uk.gov.gchq.koryphe.clock.ManualClock;
 import uk.gov.gchq.koryphe.predicate.PredicateTest;
 import uk.gov.gchq.koryphe.util.JsonSerialiser;
 
@@ -97,6 +99,28 @@ public class AgeOffTest extends PredicateTest {
         assertFalse(accepted);
     }
 
+    @Test
+    public void shouldAgeOffUsingClock() {
+        // Given
+        final ManualClock clock = new ManualClock(CUSTOM_AGE_OFF * 10);
+        final AgeOff filter = new AgeOff(CUSTOM_AGE_OFF);
+        final long timestamp = clock.currentTimeMillis() - CUSTOM_AGE_OFF + 1;
+        ClockUtil.setClock(clock);
+
+        try {
+            // When
+            final boolean acceptedBefore = filter.test(timestamp);
+            clock.advance(1L);
+            final boolean acceptedAfter = filter.test(timestamp);
+
+            // Then
+            assertTrue(acceptedBefore);
+            assertFalse(acceptedAfter);
+        } finally {
+            ClockUtil.setClock(null);
+        }
+    }
+
     @Test
     public void shouldJsonSerialiseAndDeserialise() throws IOException {
         // Given
@@ -124,6 +124,32 @@ public class AreInTest extends PredicateTest {
         assertFalse(accepted);
     }
 
+    @Test
+    public void shouldAcceptWhenAllValuesInListOfAllowedValues() {
+        // Given
+        final AreIn filter = new AreIn(list);
+
+        // When
+        boolean accepted = filter.test(Collections.singletonList(VALUE2));
+
+        // Then
+        assertTrue(accepted);
+    }
+
+    @Test
+    public void shouldUseNewAllowedValuesWhenValuesAreSet() {
+        // Given
+        final AreIn filter = new AreIn(list);
+        filter.test(list);
+
+        // When
+        filter.setValues(Collections.singletonList(VALUE1));
+        boolean accepted = filter.test(list);
+
+        // Then
+        assertFalse(accepted);
+    }
+
     @Test
     public void shouldAcceptEmptyLists() {
         // Given
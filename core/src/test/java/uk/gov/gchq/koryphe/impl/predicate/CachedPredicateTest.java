@@ -0,0 +1,229 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.koryphe.impl.predicate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import uk.gov.gchq.koryphe.Stateful;
+import uk.gov.gchq.koryphe.predicate.KoryphePredicate;
+import uk.gov.gchq.koryphe.predicate.PredicateTest;
+import uk.gov.gchq.koryphe.util.JsonSerialiser;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CachedPredicateTest extends PredicateTest {
+    private static final AtomicInteger CALLS = new AtomicInteger();
+
+    @BeforeEach
+    public void before() {
+        CALLS.set(0);
+    }
+
+    @Test
+    public void shouldCacheStringResultsOnceSeenTwice() {
+        // Given
+        final CachedPredicate<Object> filter = new CachedPredicate<>(new CountingStartsWithA());
+
+        // When
+        final boolean first = filter.test("apple");
+        final boolean second = filter.test("apple");
+        final boolean third = filter.test("apple");
+        final boolean fourth = filter.test("banana");
+
+        // Then
+        assertTrue(first);
+        assertTrue(second);
+        assertTrue(third);
+        assertFalse(fourth);
+        assertEquals(3, CALLS.get());
+        assertEquals(1, filter.getHitCount());
+        assertEquals(3, filter.getMissCount());
+        assertEquals(0.25, filter.getHitRate(), 0.0001);
+    }
+
+    @Test
+    public void shouldCacheFalseResults() {
+        // Given
+        final CachedPredicate<Object> filter = new CachedPredicate<>(new CountingStartsWithA());
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            assertFalse(filter.test("banana"));
+        }
+
+        // Then
+        assertEquals(2, CALLS.get());
+    }
+
+    @Test
+    public void shouldCacheResultsForOtherInputs() {
+        // Given
+        final CachedPredicate<Object> filter = new CachedPredicate<>(new CountingStartsWithA());
+
+        // When
+        filter.test(1L);
+        filter.test(1L);
+
+        // Then
+        assertEquals(1, CALLS.get());
+        assertEquals(1, filter.getHitCount());
+    }
+
+    @Test
+    public void shouldNotCacheNullInputs() {
+        // Given
+        final CachedPredicate<Object> filter = new CachedPredicate<>(new CountingStartsWithA());
+
+        // When
+        filter.test(null);
+        filter.test(null);
+
+        // Then
+        assertEquals(2, CALLS.get());
+        assertEquals(0, filter.getHitCount() + filter.getMissCount());
+    }
+
+    @Test
+    public void shouldNotCacheStatefulPredicates() {
+        // Given
+        final CachedPredicate<Object> filter = new CachedPredicate<>(new StatefulStartsWithA());
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            filter.test("apple");
+        }
+
+        // Then
+        assertEquals(3, CALLS.get());
+    }
+
+    @Test
+    public void shouldGiveSameResultsAsPredicateForSkewedInputs() {
+        // Given
+        final Regex regex = new Regex("^[a-c].*[0-4]$");
+        final CachedPredicate<String> filter = new CachedPredicate<>(regex, 1000);
+        final Random random = new Random(1);
+
+        for (int i = 0; i < 10000; i++) {
+            final String input = (char) ('a' + random.nextInt(6)) + Integer.toString(random.nextInt(i % 10 == 0 ? 100000 : 20));
+
+            // When
+            final boolean result = filter.test(input);
+
+            // Then
+            assertEquals(regex.test(input), result, input);
+        }
+        assertTrue(filter.getHitRate() > 0.5);
+    }
+
+    @Test
+    public void shouldWorkInsideAnd() {
+        // Given
+        final CachedPredicate<Object> cached = new CachedPredicate<>(new CountingStartsWithA());
+        final And<Object> filter = new And<>(new IsA(String.class), cached);
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            assertTrue(filter.test("apple"));
+        }
+
+        // Then
+        assertEquals(2, CALLS.get());
+    }
+
+    @Test
+    public void shouldRecomputeAfterClear() {
+        // Given
+        final CachedPredicate<Object> filter = new CachedPredicate<>(new CountingStartsWithA());
+        filter.test(1L);
+
+        // When
+        filter.clear();
+        filter.test(1L);
+
+        // Then
+        assertEquals(2, CALLS.get());
+    }
+
+    @Test
+    public void shouldRequireAPositiveMaxSize() {
+        assertThrows(IllegalArgumentException.class, () -> new CachedPredicate<>(new CountingStartsWithA(), 0));
+    }
+
+    @Test
+    public void shouldCreateDifferentFingerprintsForDifferentStrings() {
+        assertEquals(CachedPredicate.fingerprint("value"), CachedPredicate.fingerprint("value"));
+        assertTrue(CachedPredicate.fingerprint("value") != CachedPredicate.fingerprint("values"));
+        assertEquals(0, CachedPredicate.fingerprint("") & 1);
+    }
+
+    @Test
+    @Override
+    public void shouldJsonSerialiseAndDeserialise() throws IOException {
+        // Given
+        final CachedPredicate<Object> filter = new CachedPredicate<>(new IsA(String.class), 100);
+
+        // When
+        final String json = JsonSerialiser.serialise(filter);
+
+        // Then
+        JsonSerialiser.assertEquals(String.format("{%n" +
+                "  \"class\" : \"uk.gov.gchq.koryphe.impl.predicate.CachedPredicate\",%n" +
+                "  \"predicate\" : {%n" +
+                "    \"class\" : \"uk.gov.gchq.koryphe.impl.predicate.IsA\",%n" +
+                "    \"type\" : \"java.lang.String\"%n" +
+                "  },%n" +
+                "  \"maxSize\" : 100%n" +
+                "}"), json);
+
+        // When 2
+        final CachedPredicate deserialised = JsonSerialiser.deserialise(json, CachedPredicate.class);
+
+        // Then 2
+        assertEquals(filter, deserialised);
+    }
+
+    @Override
+    protected CachedPredicate getInstance() {
+        return new CachedPredicate<>(new IsA(String.class));
+    }
+
+    @Override
+    protected Class<? extends CachedPredicate> getPredicateClass() {
+        return CachedPredicate.class;
+    }
+
+    public static class CountingStartsWithA extends KoryphePredicate<Object> {
+        @Override
+        public boolean test(final Object input) {
+            CALLS.incrementAndGet();
+            return null != input && input.toString().startsWith("a");
+        }
+    }
+
+    @Stateful
+    public static class StatefulStartsWithA extends CountingStartsWithA {
+    }
+}
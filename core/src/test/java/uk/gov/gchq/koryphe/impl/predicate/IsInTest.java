@@ -31,6 +31,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static uk.gov.gchq.koryphe.util.AllocationBudget.assertAllocatesNothing;
 
 public class IsInTest extends PredicateTest {
 
@@ -90,4 +91,18 @@ public class IsInTest extends PredicateTest {
     protected IsIn getInstance() {
         return new IsIn(Collections.singletonList("someValue"));
     }
+
+    @Test
+    public void shouldNotAllocateWhenTesting() {
+        // Given
+        final IsIn filter = new IsIn(Arrays.asList("A", "B", 1000L, 2.5));
+        final Long included = 1000L;
+        final String excluded = "C";
+
+        // When / Then
+        assertAllocatesNothing(() -> {
+            filter.test(included);
+            filter.test(excluded);
+        });
+    }
 }
@@ -29,6 +29,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static uk.gov.gchq.koryphe.util.AllocationBudget.assertAllocatesNothing;
 
 public class IsLessThanTest extends PredicateTest {
 
@@ -180,6 +181,35 @@ public class IsLessThanTest extends PredicateTest {
         assertFalse(predicate.isInputValid(Integer.class, Integer.class).isValid());
     }
 
+    @Test
+    public void shouldTestPrimitivesInTheSameWayAsBoxedValues() {
+        // Given
+        final IsLessThan longFilter = new IsLessThan(5L, true);
+        final IsLessThan doubleFilter = new IsLessThan(0.0);
+
+        // When / Then
+        for (final long value : new long[] {Long.MIN_VALUE, 4L, 5L, 6L, Long.MAX_VALUE}) {
+            assertEquals(longFilter.test(Long.valueOf(value)), longFilter.testLong(value));
+        }
+        for (final double value : new double[] {Double.NEGATIVE_INFINITY, -1.0, -0.0, 0.0, 1.0, Double.NaN}) {
+            assertEquals(doubleFilter.test(Double.valueOf(value)), doubleFilter.testDouble(value));
+        }
+        assertTrue(doubleFilter.testDouble(-0.0));
+        assertFalse(doubleFilter.testDouble(Double.NaN));
+    }
+
+    @Test
+    public void shouldNotAllocateWhenTestingPrimitives() {
+        // Given
+        final IsLessThan filter = new IsLessThan(5L);
+
+        // When / Then
+        assertAllocatesNothing(() -> {
+            filter.testLong(4L);
+            filter.testLong(1000L);
+        });
+    }
+
     @Override
     protected Class<IsLessThan> getPredicateClass() {
         return IsLessThan.class;
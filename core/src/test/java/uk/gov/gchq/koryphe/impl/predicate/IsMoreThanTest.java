@@ -28,6 +28,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static uk.gov.gchq.koryphe.util.AllocationBudget.assertAllocatesNothing;
 
 public class IsMoreThanTest extends PredicateTest {
 
@@ -139,6 +140,53 @@ public class IsMoreThanTest extends PredicateTest {
         assertFalse(predicate.isInputValid(Integer.class, Integer.class).isValid());
     }
 
+    @Test
+    public void shouldTestPrimitivesInTheSameWayAsBoxedValues() {
+        // Given
+        final IsMoreThan longFilter = new IsMoreThan(5L);
+        final IsMoreThan doubleFilter = new IsMoreThan(-0.0, true);
+        final IsMoreThan intFilter = new IsMoreThan(5);
+
+        // When / Then
+        for (final long value : new long[] {Long.MIN_VALUE, 4L, 5L, 6L, Long.MAX_VALUE}) {
+            assertEquals(longFilter.test(Long.valueOf(value)), longFilter.testLong(value));
+            assertEquals(intFilter.test(Long.valueOf(value)), intFilter.testLong(value));
+        }
+        for (final double value : new double[] {Double.NEGATIVE_INFINITY, -1.0, -0.0, 0.0, 1.0, Double.NaN}) {
+            assertEquals(doubleFilter.test(Double.valueOf(value)), doubleFilter.testDouble(value));
+        }
+        assertFalse(doubleFilter.testDouble(-1.0));
+        assertTrue(doubleFilter.testDouble(0.0));
+        assertTrue(doubleFilter.testDouble(Double.NaN));
+        assertFalse(intFilter.testLong(6L));
+    }
+
+    @Test
+    public void shouldNotAllocateWhenTestingPrimitives() {
+        // Given
+        final IsMoreThan filter = new IsMoreThan(5L, true);
+
+        // When / Then
+        assertAllocatesNothing(() -> {
+            filter.testLong(4L);
+            filter.testLong(1000L);
+        });
+    }
+
+    @Test
+    public void shouldRecompileWhenControlValueChanges() {
+        // Given
+        final IsMoreThan filter = new IsMoreThan(5L);
+        filter.test(6L);
+
+        // When
+        filter.setControlValue(10L);
+
+        // Then
+        assertFalse(filter.test(6L));
+        assertFalse(filter.testLong(6L));
+    }
+
     @Override
     protected Class<IsMoreThan> getPredicateClass() {
         return IsMoreThan.class;
@@ -23,8 +23,15 @@ import uk.gov.gchq.koryphe.predicate.PredicateTest;
 import uk.gov.gchq.koryphe.util.JsonSerialiser;
 
 import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -92,6 +99,83 @@ public class MapContainsPredicateTest extends PredicateTest {
         assertFalse(accepted);
     }
 
+    @Test
+    public void shouldAcceptWhenAnyAllowedKeyInMap() {
+        // Given
+        final MapContainsPredicate filter = new MapContainsPredicate(new IsIn("key0", "key1"));
+
+        // When
+        boolean accepted = filter.test(map1);
+
+        // Then
+        assertTrue(accepted);
+    }
+
+    @Test
+    public void shouldRejectWhenNoAllowedKeyInMap() {
+        // Given
+        final MapContainsPredicate filter = new MapContainsPredicate(new IsIn("key0", "key2"));
+
+        // When
+        boolean accepted = filter.test(map1);
+
+        // Then
+        assertFalse(accepted);
+    }
+
+    @Test
+    public void shouldRejectNullKeyWhenMapCannotContainNull() {
+        // Given
+        final MapContainsPredicate filter = new MapContainsPredicate(new IsEqual(null));
+        final Map<Object, Integer> map = new ConcurrentHashMap<>(map1);
+
+        // When
+        boolean accepted = filter.test(map);
+
+        // Then
+        assertFalse(accepted);
+    }
+
+    @Test
+    public void shouldGiveSameResultForHashMapsAsForOtherMaps() {
+        // Given
+        final Map<Object, Integer> hashMap = new HashMap<>();
+        for (int i = 0; i < 100; i++) {
+            hashMap.put("key" + i, i);
+        }
+        final Map<Object, Integer> treeMap = new TreeMap<>(hashMap);
+        final Map<Object, Integer> mixedKeys = new HashMap<>(hashMap);
+        mixedKeys.put(5, 5);
+        mixedKeys.put(null, 0);
+        final Map<Object, Integer> mixedKeysScanned = new MapWrapper(mixedKeys);
+        final Iterable<Predicate> keyPredicates = Arrays.asList(
+                new IsEqual("key5"), new IsEqual("key500"), new IsEqual(5), new IsEqual(5L), new IsEqual(null),
+                new IsIn("key1", "other"), new IsIn("other"), new IsIn(5, null), new IsIn(),
+                new Regex("key7"), new Regex("key7."), new Regex("KEY7"), new Regex(Pattern.compile("key7", Pattern.CASE_INSENSITIVE)),
+                new Regex(Pattern.compile("key.*", Pattern.LITERAL)));
+
+        for (final Predicate keyPredicate : keyPredicates) {
+            final MapContainsPredicate filter = new MapContainsPredicate(keyPredicate);
+
+            // When
+            final boolean hashResult = filter.test(hashMap);
+            final boolean treeResult = filter.test(treeMap);
+
+            // Then
+            assertEquals(treeResult, hashResult, keyPredicate.toString());
+
+            // A Regex cannot be applied to the keys that are not strings
+            if (!(keyPredicate instanceof Regex)) {
+                // When
+                final boolean mixedResult = filter.test(mixedKeys);
+                final boolean mixedScannedResult = filter.test(mixedKeysScanned);
+
+                // Then
+                assertEquals(mixedScannedResult, mixedResult, keyPredicate.toString());
+            }
+        }
+    }
+
     @Test
     public void shouldJsonSerialiseAndDeserialise() throws IOException {
         // Given
@@ -126,4 +210,17 @@ public class MapContainsPredicateTest extends PredicateTest {
     protected MapContainsPredicate getInstance() {
         return new MapContainsPredicate(KEY_PREDICATE_1);
     }
+
+    private static class MapWrapper extends AbstractMap<Object, Integer> {
+        private final Map<Object, Integer> map;
+
+        MapWrapper(final Map<Object, Integer> map) {
+            this.map = map;
+        }
+
+        @Override
+        public Set<Entry<Object, Integer>> entrySet() {
+            return map.entrySet();
+        }
+    }
 }
@@ -16,8 +16,12 @@
 
 package uk.gov.gchq.koryphe.impl.predicate.range;
 
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import uk.gov.gchq.koryphe.clock.ClockUtil;
+import uk.gov.gchq.koryphe.clock.ManualClock;
 import uk.gov.gchq.koryphe.predicate.PredicateTest;
 import uk.gov.gchq.koryphe.util.JsonSerialiser;
 import uk.gov.gchq.koryphe.util.TimeUnit;
@@ -33,11 +37,24 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static uk.gov.gchq.koryphe.util.AllocationBudget.assertAllocatesNothing;
 import static uk.gov.gchq.koryphe.util.DateUtil.DAYS_TO_MILLISECONDS;
 import static uk.gov.gchq.koryphe.util.DateUtil.HOURS_TO_MILLISECONDS;
 import static uk.gov.gchq.koryphe.util.DateUtil.MINUTES_TO_MILLISECONDS;
 
 public abstract class AbstractInTimeRangeTest<T extends Comparable<T>> extends PredicateTest {
+    private final ManualClock clock = new ManualClock();
+
+    @BeforeEach
+    public void setClock() {
+        ClockUtil.setClock(clock);
+    }
+
+    @AfterEach
+    public void resetClock() {
+        ClockUtil.setClock(null);
+    }
 
     @Test
     public void shouldAcceptValuesInRange() {
@@ -205,7 +222,7 @@ public abstract class AbstractInTimeRangeTest<T extends Comparable<T>> extends P
                 .endOffset(-2L)
                 .build();
 
-        final long now = System.currentTimeMillis();
+        final long now = clock.currentTimeMillis();
         final List<Long> validValues = Arrays.asList(
                 now - 7 * DAYS_TO_MILLISECONDS + 5000,
                 now - 3 * DAYS_TO_MILLISECONDS,
@@ -226,8 +243,8 @@ public abstract class AbstractInTimeRangeTest<T extends Comparable<T>> extends P
     @Test
     public void shouldAcceptValuesInRangeDayOffsetFromStart() {
         // Given
-        final long start = System.currentTimeMillis() - 100 * DAYS_TO_MILLISECONDS;
-        final long end = System.currentTimeMillis() - 60 * DAYS_TO_MILLISECONDS;
+        final long start = clock.currentTimeMillis() - 100 * DAYS_TO_MILLISECONDS;
+        final long end = clock.currentTimeMillis() - 60 * DAYS_TO_MILLISECONDS;
         final AbstractInTimeRange<T> filter = createBuilder()
                 .start(Long.toString(start))
                 .startOffset(-7L)
@@ -261,7 +278,7 @@ public abstract class AbstractInTimeRangeTest<T extends Comparable<T>> extends P
                 .offsetUnit(TimeUnit.HOUR)
                 .build();
 
-        final long now = System.currentTimeMillis();
+        final long now = clock.currentTimeMillis();
         final List<Long> validValues = Arrays.asList(
                 now - 100 * HOURS_TO_MILLISECONDS + 5000,
                 now - 50 * HOURS_TO_MILLISECONDS,
@@ -287,7 +304,7 @@ public abstract class AbstractInTimeRangeTest<T extends Comparable<T>> extends P
                 .offsetUnit(TimeUnit.MINUTE)
                 .build();
 
-        final long now = System.currentTimeMillis();
+        final long now = clock.currentTimeMillis();
         final List<Long> validValues = Arrays.asList(
                 now - 100 * MINUTES_TO_MILLISECONDS + 5000,
                 now - 50 * MINUTES_TO_MILLISECONDS,
@@ -313,7 +330,7 @@ public abstract class AbstractInTimeRangeTest<T extends Comparable<T>> extends P
                 .offsetUnit(TimeUnit.SECOND)
                 .build();
 
-        final long now = System.currentTimeMillis();
+        final long now = clock.currentTimeMillis();
         final List<Long> validValues = Arrays.asList(
                 now - 100000L + 5000,
                 now - 50000L,
@@ -339,7 +356,7 @@ public abstract class AbstractInTimeRangeTest<T extends Comparable<T>> extends P
                 .offsetUnit(TimeUnit.MILLISECOND)
                 .build();
 
-        final long now = System.currentTimeMillis();
+        final long now = clock.currentTimeMillis();
         final List<Long> validValues = Arrays.asList(
                 now - 100000L + 5000,
                 now - 50000L,
@@ -363,7 +380,7 @@ public abstract class AbstractInTimeRangeTest<T extends Comparable<T>> extends P
                 .endOffset(-2L)
                 .build();
 
-        final long now = System.currentTimeMillis();
+        final long now = clock.currentTimeMillis();
         final List<Long> values = Arrays.asList(
                 now - 10 * DAYS_TO_MILLISECONDS + 5000,
                 now - 3 * DAYS_TO_MILLISECONDS,
@@ -381,7 +398,7 @@ public abstract class AbstractInTimeRangeTest<T extends Comparable<T>> extends P
                 .startOffset(-7L)
                 .build();
 
-        final long now = System.currentTimeMillis();
+        final long now = clock.currentTimeMillis();
         final List<Long> values = Arrays.asList(
                 now - 7 * DAYS_TO_MILLISECONDS + 5000,
                 now - 3 * DAYS_TO_MILLISECONDS,
@@ -393,6 +410,59 @@ public abstract class AbstractInTimeRangeTest<T extends Comparable<T>> extends P
         testValues(true, values, filter);
     }
 
+    @Test
+    public void shouldMoveOffsetRangeWhenClockAdvances() {
+        // Given
+        final AbstractInTimeRange<T> filter = createBuilder()
+                .startOffset(-10000L)
+                .endOffset(-1000L)
+                .offsetUnit(TimeUnit.MILLISECOND)
+                .build();
+        final long now = clock.currentTimeMillis();
+        testValues(true, Collections.singletonList(now - 10000L), filter);
+
+        // When
+        clock.advance(1L);
+
+        // Then
+        testValues(false, Collections.singletonList(now - 10000L), filter);
+        testValues(true, Collections.singletonList(now - 9999L), filter);
+    }
+
+    @Test
+    public void shouldNotMoveAbsoluteRangeWhenClockAdvances() {
+        // Given
+        final long start = clock.currentTimeMillis() - 100 * DAYS_TO_MILLISECONDS;
+        final AbstractInTimeRange<T> filter = createBuilder()
+                .start(Long.toString(start))
+                .startOffset(-7L)
+                .build();
+
+        // When
+        clock.advance(DAYS_TO_MILLISECONDS);
+
+        // Then
+        testValues(true, Collections.singletonList(start - 7 * DAYS_TO_MILLISECONDS), filter);
+        assertTrue(filter.test(convert(clock.currentTimeMillis())));
+    }
+
+    @Test
+    public void shouldNotAllocateWhenTestingOffsetRange() {
+        // Given
+        final AbstractInTimeRange<T> filter = createBuilder()
+                .startOffset(-7L)
+                .endOffset(-2L)
+                .build();
+        final T included = convert(clock.currentTimeMillis() - 3 * DAYS_TO_MILLISECONDS);
+        final T excluded = convert(clock.currentTimeMillis());
+
+        // When / Then
+        assertAllocatesNothing(() -> {
+            filter.test(included);
+            filter.test(excluded);
+        });
+    }
+
     @Test
     public void shouldConstructFromOffsetMillis() {
         // When
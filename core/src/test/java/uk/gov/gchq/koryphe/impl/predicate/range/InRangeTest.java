@@ -31,6 +31,7 @@ import java.util.function.Predicate;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static uk.gov.gchq.koryphe.util.AllocationBudget.assertAllocatesNothing;
 
 public class InRangeTest<T extends Comparable<T>> extends PredicateTest {
 
@@ -196,6 +197,49 @@ public class InRangeTest<T extends Comparable<T>> extends PredicateTest {
         return "{\"" + getTClass().getName() + "\": " + value + "}";
     }
 
+    @Test
+    public void shouldTestPrimitiveLongsInTheSameWayAsBoxedValues() {
+        // Given
+        final InRange<Long> filter = new InRange.Builder<Long>()
+                .start(1L)
+                .end(10L)
+                .endInclusive(false)
+                .build();
+
+        // When / Then
+        for (final long value : new long[] {Long.MIN_VALUE, 0L, 1L, 5L, 9L, 10L, Long.MAX_VALUE}) {
+            assertEquals(filter.test(value), filter.testLong(value), "Failed for value: " + value);
+        }
+    }
+
+    @Test
+    public void shouldTestPrimitiveDoublesInTheSameWayAsBoxedValues() {
+        // Given
+        final InRange<Double> filter = new InRange.Builder<Double>()
+                .start(-0.0)
+                .build();
+
+        // When / Then
+        for (final double value : new double[] {Double.NEGATIVE_INFINITY, -1.0, -0.0, 0.0, 1.0, Double.NaN}) {
+            assertEquals(filter.test(value), filter.testDouble(value), "Failed for value: " + value);
+        }
+    }
+
+    @Test
+    public void shouldNotAllocateWhenTestingPrimitiveLongs() {
+        // Given
+        final InRange<Long> filter = new InRange.Builder<Long>()
+                .start(1L)
+                .end(10L)
+                .build();
+
+        // When / Then
+        assertAllocatesNothing(() -> {
+            filter.testLong(5L);
+            filter.testLong(50L);
+        });
+    }
+
     @Override
     protected Class<? extends InRange> getPredicateClass() {
         return getInstance().getClass();
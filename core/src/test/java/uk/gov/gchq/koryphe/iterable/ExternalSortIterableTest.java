@@ -0,0 +1,137 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.koryphe.iterable;
+
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.EnumSet;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ExternalSortIterableTest {
+
+    @TempDir
+    Path tempDirectory;
+
+    @Test
+    public void shouldSortInMemoryWhenItemsFitInMemory() {
+        // Given
+        final List<Integer> values = Arrays.asList(3, 1, 2);
+
+        // When
+        final ExternalSortIterable<Integer> sorted = new ExternalSortIterable<>(values, Comparator.naturalOrder(), 10);
+
+        // Then
+        assertEquals(Arrays.asList(1, 2, 3), Lists.newArrayList(sorted));
+    }
+
+    @Test
+    public void shouldSortBySpillingRunsToDisk() {
+        // Given
+        final List<Integer> values = new ArrayList<>();
+        final Random random = new Random(1);
+        for (int i = 0; i < 1000; i++) {
+            values.add(random.nextInt(100));
+        }
+        final List<Integer> expected = new ArrayList<>(values);
+        Collections.sort(expected, Comparator.reverseOrder());
+        final int runFilesBefore = countRunFiles();
+
+        // When
+        final ExternalSortIterable<Integer> sorted = new ExternalSortIterable<>(values, Comparator.reverseOrder(), 64);
+
+        // Then
+        assertEquals(expected, Lists.newArrayList(sorted));
+        assertEquals(runFilesBefore, countRunFiles());
+    }
+
+    @Test
+    public void shouldDeleteRunsWhenIteratorIsClosedEarly() {
+        // Given
+        final List<Integer> values = Arrays.asList(5, 4, 3, 2, 1);
+        final int runFilesBefore = countRunFiles();
+        final ExternalSortIterable<Integer> sorted = new ExternalSortIterable<>(values, Comparator.naturalOrder(), 2);
+
+        // When
+        final CloseableIterator<Integer> iterator = sorted.iterator();
+        assertEquals(1, (int) iterator.next());
+        iterator.close();
+
+        // Then
+        assertEquals(runFilesBefore, countRunFiles());
+    }
+
+    @Test
+    public void shouldWriteOwnerOnlyRunsToTheGivenDirectory() throws IOException {
+        // Given
+        final List<Integer> values = Arrays.asList(5, 4, 3, 2, 1);
+        final ExternalSortIterable<Integer> sorted = new ExternalSortIterable<>(values, Comparator.naturalOrder(), 2, tempDirectory);
+
+        // When
+        final CloseableIterator<Integer> iterator = sorted.iterator();
+
+        // Then
+        final boolean posix = FileSystems.getDefault().supportedFileAttributeViews().contains("posix");
+        try (final Stream<Path> runs = Files.list(tempDirectory)) {
+            for (final Path run : (Iterable<Path>) runs::iterator) {
+                if (posix) {
+                    assertEquals(EnumSet.of(PosixFilePermission.OWNER_READ, PosixFilePermission.OWNER_WRITE), Files.getPosixFilePermissions(run));
+                }
+            }
+        }
+        assertEquals(2, countFiles(tempDirectory));
+        assertEquals(1, (int) iterator.next());
+        iterator.close();
+        assertEquals(0, countFiles(tempDirectory));
+    }
+
+    @Test
+    public void shouldThrowExceptionIfMaxItemsInMemoryIsLessThanOne() {
+        // When
+        final Exception exception = assertThrows(IllegalArgumentException.class, () -> new ExternalSortIterable<>(Collections.<Integer>emptyList(), Comparator.naturalOrder(), 0));
+
+        // Then
+        assertEquals("Maximum number of items in memory must be at least 1", exception.getMessage());
+    }
+
+    private static int countRunFiles() {
+        final File[] files = new File(System.getProperty("java.io.tmpdir")).listFiles((dir, name) -> name.startsWith("koryphe-sort-"));
+        return null == files ? 0 : files.length;
+    }
+
+    private static long countFiles(final Path directory) throws IOException {
+        try (final Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.koryphe.iterable;
+
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MergeSortedIterableTest {
+
+    @Test
+    public void shouldMergeSortedIterables() {
+        // Given
+        final List<Integer> itr1 = Arrays.asList(1, 4, 7);
+        final List<Integer> itr2 = Collections.emptyList();
+        final List<Integer> itr3 = Arrays.asList(2, 3, 8, 9);
+        final List<Integer> itr4 = Arrays.asList(5, 6);
+
+        // When
+        final MergeSortedIterable<Integer> merged = new MergeSortedIterable<>(Arrays.asList(itr1, itr2, itr3, itr4), Comparator.naturalOrder());
+
+        // Then
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 9), Lists.newArrayList(merged));
+    }
+
+    @Test
+    public void shouldKeepInputOrderForEqualItems() {
+        // Given
+        final List<String> itr1 = Arrays.asList("a1", "b1");
+        final List<String> itr2 = Arrays.asList("a2", "b2");
+
+        // When
+        final MergeSortedIterable<String> merged = new MergeSortedIterable<>(Arrays.asList(itr1, itr2), Comparator.comparing(s -> s.charAt(0)));
+
+        // Then
+        assertEquals(Arrays.asList("a1", "a2", "b1", "b2"), Lists.newArrayList(merged));
+    }
+
+    @Test
+    public void shouldReturnNothingWhenThereAreNoIterables() {
+        // When
+        final MergeSortedIterable<Integer> merged = new MergeSortedIterable<>(Collections.<List<Integer>>emptyList(), Comparator.naturalOrder());
+
+        // Then
+        assertTrue(Lists.newArrayList(merged).isEmpty());
+    }
+
+    @Test
+    public void shouldThrowExceptionIfComparatorIsNull() {
+        // When
+        final Exception exception = assertThrows(IllegalArgumentException.class, () -> new MergeSortedIterable<>(Collections.<List<Integer>>emptyList(), null));
+
+        // Then
+        assertEquals("Comparator cannot be null", exception.getMessage());
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.koryphe.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class InMemoryMetricsTest {
+
+    @Test
+    public void shouldCountOutcomes() {
+        // Given
+        final InMemoryMetrics metrics = new InMemoryMetrics("test");
+
+        // When
+        metrics.record(Metrics.Outcome.PASS, 10);
+        metrics.record(Metrics.Outcome.PASS, 20);
+        metrics.record(Metrics.Outcome.FAIL, 30);
+        metrics.record(Metrics.Outcome.EXCEPTION, 40);
+
+        // Then
+        assertEquals(4, metrics.getInvocationCount());
+        assertEquals(2, metrics.getPassCount());
+        assertEquals(1, metrics.getFailCount());
+        assertEquals(1, metrics.getExceptionCount());
+        assertEquals(100, metrics.getTotalTimeNanos());
+        assertEquals(25.0, metrics.getMeanTimeNanos());
+    }
+
+    @Test
+    public void shouldRecordLatenciesInPowerOf2Buckets() {
+        // Given
+        final InMemoryMetrics metrics = new InMemoryMetrics("test");
+
+        // When
+        metrics.record(Metrics.Outcome.SUCCESS, 0);
+        metrics.record(Metrics.Outcome.SUCCESS, 1);
+        metrics.record(Metrics.Outcome.SUCCESS, 5);
+        metrics.record(Metrics.Outcome.SUCCESS, 7);
+        metrics.record(Metrics.Outcome.SUCCESS, 1000);
+
+        // Then
+        final long[] histogram = metrics.getLatencyHistogram();
+        assertEquals(1, histogram[0]);
+        assertEquals(1, histogram[1]);
+        assertEquals(2, histogram[3]);
+        assertEquals(1, histogram[10]);
+    }
+
+    @Test
+    public void shouldGetLatencyPercentiles() {
+        // Given
+        final InMemoryMetrics metrics = new InMemoryMetrics("test");
+        for (int i = 0; i < 99; i++) {
+            metrics.record(Metrics.Outcome.SUCCESS, 100);
+        }
+        metrics.record(Metrics.Outcome.SUCCESS, 1_000_000);
+
+        // When / Then
+        assertEquals(127, metrics.getLatencyPercentileNanos(50));
+        assertEquals(127, metrics.getLatencyPercentileNanos(99));
+        assertEquals(1_048_575, metrics.getLatencyPercentileNanos(100));
+    }
+
+    @Test
+    public void shouldReturnZeroPercentileWhenNoInvocations() {
+        assertEquals(0, new InMemoryMetrics("test").getLatencyPercentileNanos(99));
+    }
+
+    @Test
+    public void shouldRejectInvalidPercentile() {
+        assertThrows(IllegalArgumentException.class, () -> new InMemoryMetrics("test").getLatencyPercentileNanos(101));
+    }
+
+    @Test
+    public void shouldReset() {
+        // Given
+        final InMemoryMetrics metrics = new InMemoryMetrics("test");
+        metrics.record(Metrics.Outcome.SUCCESS, 10);
+
+        // When
+        metrics.reset();
+
+        // Then
+        assertEquals(0, metrics.getInvocationCount());
+        assertEquals(0, metrics.getTotalTimeNanos());
+    }
+}
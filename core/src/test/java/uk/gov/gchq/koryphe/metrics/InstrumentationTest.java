@@ -0,0 +1,219 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.koryphe.metrics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import uk.gov.gchq.koryphe.function.FunctionComposite;
+import uk.gov.gchq.koryphe.impl.binaryoperator.Sum;
+import uk.gov.gchq.koryphe.impl.function.ToLong;
+import uk.gov.gchq.koryphe.impl.function.ToString;
+import uk.gov.gchq.koryphe.impl.predicate.And;
+import uk.gov.gchq.koryphe.impl.predicate.IsA;
+import uk.gov.gchq.koryphe.impl.predicate.IsMoreThan;
+import uk.gov.gchq.koryphe.impl.predicate.Not;
+import uk.gov.gchq.koryphe.signature.Signature;
+import uk.gov.gchq.koryphe.tuple.ArrayTuple;
+import uk.gov.gchq.koryphe.tuple.Tuple;
+import uk.gov.gchq.koryphe.tuple.binaryoperator.TupleAdaptedBinaryOperatorComposite;
+import uk.gov.gchq.koryphe.tuple.predicate.TupleAdaptedPredicate;
+
+import java.util.Arrays;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class InstrumentationTest {
+
+    @BeforeEach
+    public void before() {
+        Instrumentation.setEnabled(true);
+    }
+
+    @AfterEach
+    public void after() {
+        Instrumentation.setEnabled(false);
+    }
+
+    @Test
+    public void shouldRecordPassAndFailCountsForEachPredicateInTree() {
+        // Given
+        final InMemoryMetricsRegistry registry = new InMemoryMetricsRegistry();
+        final And<Tuple<Integer>> and = new And.Builder<Tuple<Integer>>()
+                .select(0)
+                .execute(new IsA(String.class))
+                .select(1)
+                .execute(new IsMoreThan(5))
+                .build();
+
+        // When
+        final Predicate<Tuple<Integer>> instrumented = Instrumentation.instrument((Predicate) and, registry);
+        instrumented.test(new ArrayTuple("a", 10));
+        instrumented.test(new ArrayTuple("a", 1));
+        instrumented.test(new ArrayTuple(1, 10));
+
+        // Then
+        assertEquals(Arrays.asList(
+                "And",
+                "And/0:IntegerTupleAdaptedPredicate/IsA",
+                "And/1:IntegerTupleAdaptedPredicate/IsMoreThan"
+        ), Arrays.asList(registry.getAllMetrics().keySet().toArray()));
+
+        final InMemoryMetrics andMetrics = registry.getMetrics("And");
+        assertEquals(3, andMetrics.getInvocationCount());
+        assertEquals(1, andMetrics.getPassCount());
+        assertEquals(2, andMetrics.getFailCount());
+
+        final InMemoryMetrics isAMetrics = registry.getMetrics("And/0:IntegerTupleAdaptedPredicate/IsA");
+        assertEquals(2, isAMetrics.getPassCount());
+        assertEquals(1, isAMetrics.getFailCount());
+
+        final InMemoryMetrics isMoreThanMetrics = registry.getMetrics("And/1:IntegerTupleAdaptedPredicate/IsMoreThan");
+        assertEquals(1, isMoreThanMetrics.getPassCount());
+        assertEquals(1, isMoreThanMetrics.getFailCount());
+    }
+
+    @Test
+    public void shouldKeepTupleAdaptedPredicatesInComposites() {
+        // Given
+        final And<Tuple<Integer>> and = new And.Builder<Tuple<Integer>>()
+                .select(0)
+                .execute(new IsMoreThan(5))
+                .build();
+
+        // When
+        final Predicate instrumented = Instrumentation.instrument((Predicate) and, new InMemoryMetricsRegistry());
+
+        // Then
+        final And<?> instrumentedAnd = (And) ((InstrumentedPredicate) instrumented).getPredicate();
+        final Predicate component = instrumentedAnd.getComponents().get(0);
+        assertTrue(component instanceof TupleAdaptedPredicate);
+        assertTrue(((TupleAdaptedPredicate) component).getPredicate() instanceof InstrumentedPredicate);
+    }
+
+    @Test
+    public void shouldNotModifyTheInstrumentedTree() {
+        // Given
+        final IsMoreThan isMoreThan = new IsMoreThan(5);
+        final And<Tuple<Integer>> and = new And.Builder<Tuple<Integer>>()
+                .select(1)
+                .execute(isMoreThan)
+                .build();
+        final TupleAdaptedPredicate adapted = (TupleAdaptedPredicate) and.getComponents().get(0);
+        final Not<Tuple<Integer>> not = new Not<>(and);
+
+        // When
+        final Predicate<Tuple<Integer>> instrumented = Instrumentation.instrument(not, new InMemoryMetricsRegistry());
+
+        // Then
+        assertFalse(instrumented.test(new ArrayTuple("a", 10)));
+        assertSame(and, not.getPredicate());
+        assertSame(adapted, and.getComponents().get(0));
+        assertSame(isMoreThan, adapted.getPredicate());
+    }
+
+    @Test
+    public void shouldRecordFunctionsAndNestedPredicates() {
+        // Given
+        final InMemoryMetricsRegistry registry = new InMemoryMetricsRegistry();
+        final FunctionComposite function = new FunctionComposite(Arrays.asList(new ToString(), new ToLong()));
+        final Not<Object> not = new Not<>(new IsA(String.class));
+
+        // When
+        final Function<Object, Object> instrumentedFunction = Instrumentation.instrument((Function) function, registry);
+        final Predicate<Object> instrumentedNot = Instrumentation.instrument(not, registry);
+        instrumentedFunction.apply(1);
+        instrumentedNot.test("a");
+
+        // Then
+        assertEquals(1, registry.getMetrics("FunctionComposite").getCount(Metrics.Outcome.SUCCESS));
+        assertEquals(1, registry.getMetrics("FunctionComposite/0:ToString").getCount(Metrics.Outcome.SUCCESS));
+        assertEquals(1, registry.getMetrics("FunctionComposite/1:ToLong").getCount(Metrics.Outcome.SUCCESS));
+        assertEquals(1, registry.getMetrics("Not").getFailCount());
+        assertEquals(1, registry.getMetrics("Not/IsA").getPassCount());
+    }
+
+    @Test
+    public void shouldRecordBinaryOperatorsInsideTupleAdaptedBinaryOperators() {
+        // Given
+        final InMemoryMetricsRegistry registry = new InMemoryMetricsRegistry();
+        final TupleAdaptedBinaryOperatorComposite<Integer> aggregator = new TupleAdaptedBinaryOperatorComposite.Builder<Integer>()
+                .select(new Integer[]{0})
+                .execute(new Sum())
+                .build();
+
+        // When
+        final BinaryOperator<Tuple<Integer>> instrumented = Instrumentation.instrument((BinaryOperator) aggregator, registry);
+        final Tuple<Integer> result = instrumented.apply(new ArrayTuple(new Object[]{1}), new ArrayTuple(new Object[]{2}));
+
+        // Then
+        assertEquals(3, result.get(0));
+        assertEquals(1, registry.getMetrics("TupleAdaptedBinaryOperatorComposite").getInvocationCount());
+        assertEquals(1, registry.getMetrics("TupleAdaptedBinaryOperatorComposite/0:TupleAdaptedBinaryOperator/Sum").getInvocationCount());
+    }
+
+    @Test
+    public void shouldRecordExceptions() {
+        // Given
+        final InMemoryMetricsRegistry registry = new InMemoryMetricsRegistry();
+        final Function<Object, Long> instrumented = Instrumentation.instrument(new ToLong(), registry);
+
+        // When
+        assertThrows(IllegalArgumentException.class, () -> instrumented.apply(new Object()));
+
+        // Then
+        assertEquals(1, registry.getMetrics("ToLong").getExceptionCount());
+    }
+
+    @Test
+    public void shouldNotRecordWhenDisabled() {
+        // Given
+        final InMemoryMetricsRegistry registry = new InMemoryMetricsRegistry();
+        final Predicate<Object> instrumented = Instrumentation.instrument(new IsA(String.class), registry);
+        Instrumentation.setEnabled(false);
+
+        // When
+        final boolean result = instrumented.test("a");
+
+        // Then
+        assertTrue(result);
+        assertEquals(0, registry.getMetrics("IsA").getInvocationCount());
+    }
+
+    @Test
+    public void shouldKeepSignatureOfInstrumentedComponent() {
+        // Given
+        final Predicate<Comparable> instrumented = Instrumentation.instrument(new IsMoreThan(5), new InMemoryMetricsRegistry());
+
+        // When / Then
+        assertTrue(Signature.getInputSignature(instrumented).assignable(Integer.class).isValid());
+        assertFalse(Signature.getInputSignature(instrumented).assignable(String.class).isValid());
+    }
+
+    @Test
+    public void shouldUseInMemoryRegistryByDefault() {
+        assertTrue(Instrumentation.getDefaultRegistry() instanceof InMemoryMetricsRegistry);
+    }
+}
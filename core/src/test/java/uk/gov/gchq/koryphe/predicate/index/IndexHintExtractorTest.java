@@ -0,0 +1,339 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.koryphe.predicate.index;
+
+import org.junit.jupiter.api.Test;
+
+import uk.gov.gchq.koryphe.impl.predicate.And;
+import uk.gov.gchq.koryphe.impl.predicate.IsEqual;
+import uk.gov.gchq.koryphe.impl.predicate.IsIn;
+import uk.gov.gchq.koryphe.impl.predicate.IsLessThan;
+import uk.gov.gchq.koryphe.impl.predicate.IsMoreThan;
+import uk.gov.gchq.koryphe.impl.predicate.Not;
+import uk.gov.gchq.koryphe.impl.predicate.Or;
+import uk.gov.gchq.koryphe.impl.predicate.Regex;
+import uk.gov.gchq.koryphe.impl.predicate.range.InDateRange;
+import uk.gov.gchq.koryphe.impl.predicate.range.InRange;
+import uk.gov.gchq.koryphe.impl.predicate.range.InTimeRange;
+import uk.gov.gchq.koryphe.tuple.ArrayTuple;
+import uk.gov.gchq.koryphe.tuple.Tuple;
+import uk.gov.gchq.koryphe.tuple.predicate.IntegerTupleAdaptedPredicate;
+import uk.gov.gchq.koryphe.tuple.predicate.TupleAdaptedPredicate;
+import uk.gov.gchq.koryphe.util.TimeUnit;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IndexHintExtractorTest {
+    private static final String[] STRINGS = {"", "a", "ab", "abc", "abd", "b", "ba", "a.c", "aab"};
+
+    @Test
+    public void shouldExtractPointsFromIsEqualAndIsIn() {
+        // When
+        final IndexHints<Object> isEqual = IndexHintExtractor.extract(new IsEqual(5L));
+        final IndexHints<Object> isIn = IndexHintExtractor.extract(new IsIn(1L, 2L));
+
+        // Then
+        assertEquals(new PointConstraint(Collections.singleton(5L)), isEqual.getConstraint(IndexHints.INPUT));
+        assertFalse(isEqual.hasResidual());
+        assertEquals(new PointConstraint(Arrays.asList(1L, 2L)), isIn.getConstraint(IndexHints.INPUT));
+        assertFalse(isIn.hasResidual());
+        assertTrue(isIn.getResidual().test(3L));
+    }
+
+    @Test
+    public void shouldExtractRangesFromComparisons() {
+        // When
+        final IndexHints<Comparable> isMoreThan = IndexHintExtractor.extract(new IsMoreThan(5L, true));
+        final IndexHints<Comparable> isLessThan = IndexHintExtractor.extract(new IsLessThan(5L));
+        final IndexHints<Long> inRange = IndexHintExtractor.extract(new InRange.Builder<Long>()
+                .start(1L)
+                .end(10L)
+                .endInclusive(false)
+                .build());
+
+        // Then
+        assertEquals(new RangeConstraint(5L, null, true, true), isMoreThan.getConstraint(IndexHints.INPUT));
+        assertEquals(new RangeConstraint(null, 5L, true, false), isLessThan.getConstraint(IndexHints.INPUT));
+        assertEquals(new RangeConstraint(1L, 10L, true, false), inRange.getConstraint(IndexHints.INPUT));
+        assertFalse(isMoreThan.hasResidual());
+        assertFalse(isLessThan.hasResidual());
+        assertFalse(inRange.hasResidual());
+    }
+
+    @Test
+    public void shouldExtractRangesFromAbsoluteTimeRanges() {
+        // Given
+        final InTimeRange absolute = new InTimeRange.Builder()
+                .start("1000")
+                .end("2000")
+                .timeUnit(TimeUnit.SECOND)
+                .build();
+        final InDateRange absoluteDates = new InDateRange.Builder()
+                .start("1000")
+                .end("2000")
+                .endInclusive(false)
+                .build();
+        final InTimeRange relative = new InTimeRange.Builder()
+                .startOffset(-1L)
+                .offsetUnit(TimeUnit.DAY)
+                .build();
+
+        // When / Then
+        assertEquals(new RangeConstraint(1L, 2L, true, true), IndexHintExtractor.extract(absolute).getConstraint(IndexHints.INPUT));
+        assertEquals(new RangeConstraint(new Date(1000L), new Date(2000L), true, false), IndexHintExtractor.extract(absoluteDates).getConstraint(IndexHints.INPUT));
+        final IndexHints<Long> relativeHints = IndexHintExtractor.extract(relative);
+        assertTrue(relativeHints.getConstraints().isEmpty());
+        assertSame(relative, relativeHints.getResidual());
+    }
+
+    @Test
+    public void shouldExtractPrefixesFromRegexes() {
+        assertRegex(new PrefixConstraint("abc"), true, "abc.*");
+        assertRegex(new PrefixConstraint("abc"), true, "^abc[0-9]+");
+        assertRegex(new PrefixConstraint("a.c"), true, "a\\.c\\d");
+        assertRegex(new PrefixConstraint("ab"), true, "abc?");
+        assertRegex(new PrefixConstraint("ab"), true, "ab+c");
+        assertRegex(new PrefixConstraint("ab"), true, "abc{2}");
+        assertRegex(new PointConstraint(Collections.singleton("abc")), false, "abc");
+        assertRegex(null, true, "abc|abd");
+        assertRegex(null, true, ".*abc");
+        assertRegex(null, true, "\\Qabc\\E");
+    }
+
+    @Test
+    public void shouldNotExtractFromCaseInsensitiveRegexes() {
+        // When
+        final IndexHints<String> hints = IndexHintExtractor.extract(new Regex("(?i)abc"));
+        final IndexHints<String> flagHints = IndexHintExtractor.extract(new Regex(java.util.regex.Pattern.compile("abc", java.util.regex.Pattern.CASE_INSENSITIVE)));
+
+        // Then
+        assertTrue(hints.getConstraints().isEmpty());
+        assertTrue(flagHints.getConstraints().isEmpty());
+    }
+
+    @Test
+    public void shouldExtractConstraintsPerSelectedField() {
+        // Given
+        final Regex regex = new Regex("ab.*");
+        final And<Tuple<Integer>> and = new And.Builder<Tuple<Integer>>()
+                .select(0).execute(new IsMoreThan(1L))
+                .select(0).execute(new IsLessThan(10L, true))
+                .select(1).execute(regex)
+                .select(0, 1).execute(new IsEqual("unused"))
+                .build();
+
+        // When
+        final IndexHints<Tuple<Integer>> hints = IndexHintExtractor.extract(and);
+
+        // Then
+        assertEquals(new RangeConstraint(1L, 10L, false, true), hints.getConstraint(0));
+        assertEquals(new PrefixConstraint("ab"), hints.getConstraint(1));
+        final And<?> residual = (And<?>) hints.getResidual();
+        assertEquals(2, residual.getComponents().size());
+        assertSame(regex, ((TupleAdaptedPredicate) residual.getComponents().get(0)).getPredicate());
+        assertSame(and.getComponents().get(3), residual.getComponents().get(1));
+    }
+
+    @Test
+    public void shouldKeepConstraintsThatCannotBeIntersectedInTheResidual() {
+        // Given
+        final IntegerTupleAdaptedPredicate isMoreThan = new IntegerTupleAdaptedPredicate(new IsMoreThan("abc"), 0);
+        final And<Tuple<Integer>> and = new And<>(new IntegerTupleAdaptedPredicate(new Regex("ab.*"), 0), isMoreThan);
+
+        // When
+        final IndexHints<Tuple<Integer>> hints = IndexHintExtractor.extract(and);
+
+        // Then
+        assertEquals(new PrefixConstraint("ab"), hints.getConstraint(0));
+        assertEquals(2, ((And<?>) hints.getResidual()).getComponents().size());
+        assertSame(isMoreThan, ((And<?>) hints.getResidual()).getComponents().get(1));
+    }
+
+    @Test
+    public void shouldIntersectToAnEmptyConstraintForContradictions() {
+        // When
+        final IndexHints<Object> hints = IndexHintExtractor.extract(new And<>(new IsIn(1L, 2L), new IsMoreThan(5L)));
+
+        // Then
+        assertEquals(new PointConstraint(Collections.emptySet()), hints.getConstraint(IndexHints.INPUT));
+        assertFalse(hints.hasResidual());
+    }
+
+    @Test
+    public void shouldUnionPointsExactlyAndRangesConservatively() {
+        // Given
+        final Or<Object> points = new Or<>(new IsEqual(1L), new IsIn(2L, 3L));
+        final Or<Object> ranges = new Or<>(new IsLessThan(1L), new IsMoreThan(5L));
+
+        // When
+        final IndexHints<Object> pointHints = IndexHintExtractor.extract(points);
+        final IndexHints<Object> rangeHints = IndexHintExtractor.extract(ranges);
+
+        // Then
+        assertEquals(new PointConstraint(Arrays.asList(1L, 2L, 3L)), pointHints.getConstraint(IndexHints.INPUT));
+        assertFalse(pointHints.hasResidual());
+        assertEquals(new RangeConstraint(null, null, true, true), rangeHints.getConstraint(IndexHints.INPUT));
+        assertSame(ranges, rangeHints.getResidual());
+    }
+
+    @Test
+    public void shouldOnlyUnionFieldsConstrainedByEveryPredicate() {
+        // Given
+        final Or<Tuple<Integer>> or = new Or.Builder<Tuple<Integer>>()
+                .select(0).execute(new IsEqual(1L))
+                .select(1).execute(new IsEqual("a"))
+                .build();
+
+        // When
+        final IndexHints<Tuple<Integer>> hints = IndexHintExtractor.extract(or);
+
+        // Then
+        assertTrue(hints.getConstraints().isEmpty());
+        assertSame(or, hints.getResidual());
+    }
+
+    @Test
+    public void shouldLeaveNotInTheResidual() {
+        // Given
+        final Not<Object> not = new Not<>(new IsEqual(1L));
+
+        // When
+        final IndexHints<Object> hints = IndexHintExtractor.extract(not);
+
+        // Then
+        assertTrue(hints.getConstraints().isEmpty());
+        assertSame(not, hints.getResidual());
+    }
+
+    @Test
+    public void shouldRequireAPredicate() {
+        assertThrows(IllegalArgumentException.class, () -> IndexHintExtractor.extract(null));
+    }
+
+    @Test
+    public void shouldBeEquivalentToConstraintsAndResidualForRandomPredicates() {
+        final Random random = new Random(1);
+        for (int i = 0; i < 2000; i++) {
+            // Given
+            final Predicate<Tuple<Integer>> predicate = randomTuplePredicate(random, 3);
+
+            // When
+            final IndexHints<Tuple<Integer>> hints = IndexHintExtractor.extract(predicate);
+
+            // Then
+            for (long value = -1; value < 12; value++) {
+                for (final String string : STRINGS) {
+                    final Tuple<Integer> tuple = new ArrayTuple(value, string);
+                    final boolean expected = predicate.test(tuple);
+                    boolean constrained = true;
+                    for (final Map.Entry<Object, FieldConstraint> entry : hints.getConstraints().entrySet()) {
+                        constrained = constrained && entry.getValue().test(tuple.get((Integer) entry.getKey()));
+                    }
+                    final String message = predicate + " with " + tuple + " gave " + hints;
+                    if (expected) {
+                        assertTrue(constrained, message);
+                    }
+                    assertEquals(expected, constrained && hints.getResidual().test(tuple), message);
+                }
+            }
+        }
+    }
+
+    private static Predicate<Tuple<Integer>> randomTuplePredicate(final Random random, final int depth) {
+        final int choice = random.nextInt(depth > 0 ? 5 : 2);
+        if (0 == choice) {
+            return new IntegerTupleAdaptedPredicate(randomLongPredicate(random, depth), 0);
+        }
+        if (1 == choice) {
+            return new IntegerTupleAdaptedPredicate(randomStringPredicate(random), 1);
+        }
+        if (2 == choice) {
+            return new Not<>(randomTuplePredicate(random, depth - 1));
+        }
+
+        final List<Predicate> components = new ArrayList<>();
+        for (int i = random.nextInt(3); i >= 0; i--) {
+            components.add(randomTuplePredicate(random, depth - 1));
+        }
+        return 3 == choice ? new And<>(components) : new Or<>(components);
+    }
+
+    private static Predicate randomLongPredicate(final Random random, final int depth) {
+        final long value = random.nextInt(10);
+        switch (random.nextInt(depth > 0 ? 8 : 6)) {
+            case 0:
+                return new IsEqual(value);
+            case 1:
+                return new IsIn(value, value + random.nextInt(3), 7L);
+            case 2:
+                return new IsMoreThan(value, random.nextBoolean());
+            case 3:
+                return new IsLessThan(value, random.nextBoolean());
+            case 4:
+                return new InRange.Builder<Long>()
+                        .start(random.nextBoolean() ? value : null)
+                        .end(random.nextBoolean() ? value + random.nextInt(5) : null)
+                        .startInclusive(random.nextBoolean())
+                        .endInclusive(random.nextBoolean())
+                        .build();
+            case 5:
+                return new InTimeRange.Builder()
+                        .start(String.valueOf(value))
+                        .endInclusive(random.nextBoolean())
+                        .end(String.valueOf(value + random.nextInt(5)))
+                        .build();
+            case 6:
+                return new And<>(randomLongPredicate(random, depth - 1), randomLongPredicate(random, depth - 1));
+            default:
+                return new Or<>(randomLongPredicate(random, depth - 1), randomLongPredicate(random, depth - 1));
+        }
+    }
+
+    private static Predicate randomStringPredicate(final Random random) {
+        final String value = STRINGS[random.nextInt(STRINGS.length)];
+        switch (random.nextInt(4)) {
+            case 0:
+                return new IsEqual(value);
+            case 1:
+                return new IsIn(new HashSet<>(Arrays.asList(value, STRINGS[random.nextInt(STRINGS.length)])));
+            case 2:
+                return new Regex(random.nextBoolean() ? value + ".*" : value + "[cd]?");
+            default:
+                return new IsMoreThan(value, random.nextBoolean());
+        }
+    }
+
+    private static void assertRegex(final FieldConstraint expected, final boolean residual, final String regex) {
+        final IndexHints<String> hints = IndexHintExtractor.extract(new Regex(regex));
+        assertEquals(expected, hints.getConstraint(IndexHints.INPUT), regex);
+        assertEquals(residual, hints.hasResidual(), regex);
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.koryphe.predicate.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RangeConstraintTest {
+    @Test
+    public void shouldTestValuesOfTheBoundType() {
+        // Given
+        final RangeConstraint range = new RangeConstraint(1L, 5L, false, true);
+
+        // Then
+        assertFalse(range.test(1L));
+        assertTrue(range.test(2L));
+        assertTrue(range.test(5L));
+        assertFalse(range.test(6L));
+        assertFalse(range.test(2));
+        assertFalse(range.test(null));
+    }
+
+    @Test
+    public void shouldIntersectToTheTightestBounds() {
+        // Given
+        final RangeConstraint first = new RangeConstraint(1L, 10L, true, true);
+        final RangeConstraint second = new RangeConstraint(1L, 5L, false, false);
+
+        // When / Then
+        assertEquals(new RangeConstraint(1L, 5L, false, false), first.intersect(second));
+        assertEquals(new RangeConstraint(1L, 5L, false, false), second.intersect(first));
+        assertEquals(new RangeConstraint(1L, 10L, true, true), first.intersect(new RangeConstraint(null, null, true, true)));
+    }
+
+    @Test
+    public void shouldIntersectDisjointRangesToNoPoints() {
+        // Given
+        final RangeConstraint first = new RangeConstraint(null, 5L, true, false);
+        final RangeConstraint second = new RangeConstraint(5L, null, true, true);
+
+        // When / Then
+        assertEquals(new PointConstraint(Collections.emptySet()), first.intersect(second));
+    }
+
+    @Test
+    public void shouldNotCombineRangesOfDifferentTypes() {
+        // Given
+        final RangeConstraint longs = new RangeConstraint(1L, 10L, true, true);
+        final RangeConstraint strings = new RangeConstraint("a", "b", true, true);
+
+        // When / Then
+        assertNull(longs.intersect(strings));
+        assertNull(longs.union(strings));
+        assertNull(longs.intersect(new PrefixConstraint("a")));
+    }
+
+    @Test
+    public void shouldUnionToTheHull() {
+        // Given
+        final RangeConstraint first = new RangeConstraint(1L, 3L, false, true);
+        final RangeConstraint second = new RangeConstraint(5L, 10L, true, false);
+
+        // When / Then
+        assertEquals(new RangeConstraint(1L, 10L, false, false), first.union(second));
+        assertEquals(new RangeConstraint(0L, 10L, true, true), second.union(new PointConstraint(Arrays.asList(0L, 10L))));
+        assertNull(second.union(new PointConstraint(Collections.singleton(1))));
+    }
+
+    @Test
+    public void shouldRequireBoundsOfTheSameType() {
+        assertThrows(IllegalArgumentException.class, () -> new RangeConstraint(1L, 2, true, true));
+    }
+}
@@ -0,0 +1,359 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.koryphe.predicate.simplify;
+
+import org.junit.jupiter.api.Test;
+
+import uk.gov.gchq.koryphe.Stateful;
+import uk.gov.gchq.koryphe.impl.predicate.And;
+import uk.gov.gchq.koryphe.impl.predicate.If;
+import uk.gov.gchq.koryphe.impl.predicate.IsEqual;
+import uk.gov.gchq.koryphe.impl.predicate.IsIn;
+import uk.gov.gchq.koryphe.impl.predicate.IsLessThan;
+import uk.gov.gchq.koryphe.impl.predicate.IsMoreThan;
+import uk.gov.gchq.koryphe.impl.predicate.Not;
+import uk.gov.gchq.koryphe.impl.predicate.Or;
+import uk.gov.gchq.koryphe.impl.predicate.Regex;
+import uk.gov.gchq.koryphe.impl.predicate.range.InRange;
+import uk.gov.gchq.koryphe.predicate.KoryphePredicate;
+import uk.gov.gchq.koryphe.predicate.PredicateComposite;
+import uk.gov.gchq.koryphe.tuple.ArrayTuple;
+import uk.gov.gchq.koryphe.tuple.Tuple;
+import uk.gov.gchq.koryphe.tuple.predicate.IntegerTupleAdaptedPredicate;
+import uk.gov.gchq.koryphe.tuple.predicate.TupleAdaptedPredicate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PredicateSimplifierTest {
+    private static final String[] STRINGS = {"", "a", "ab", "abc", "b", "ba"};
+
+    @Test
+    public void shouldFlattenNestedComposites() {
+        // Given
+        final Predicate<Object> predicate = new And<>(new And<>(new IsString(), new HasValue()), new And<>(new And<>(new HasAnyValue())));
+
+        // When
+        final Predicate<Object> simplified = PredicateSimplifier.simplify(predicate);
+
+        // Then
+        assertEquals(new And<>(new IsString(), new HasValue(), new HasAnyValue()), simplified);
+    }
+
+    @Test
+    public void shouldRemoveDoubleNegation() {
+        // Given
+        final IsEqual isEqual = new IsEqual(1L);
+
+        // When / Then
+        assertSame(isEqual, PredicateSimplifier.simplify(new Not<>(new Not<>(isEqual))));
+    }
+
+    @Test
+    public void shouldRemoveDuplicates() {
+        // When
+        final Predicate<Object> simplified = PredicateSimplifier.simplify(new Or<>(new IsEqual("a"), new Regex("b.*"), new Regex("b.*")));
+
+        // Then
+        assertEquals(new Or<>(new IsEqual("a"), new Regex("b.*")), simplified);
+    }
+
+    @Test
+    public void shouldNotRemovePredicatesThatOnlyHaveClassEquality() {
+        // Given
+        final And<Object> and = new And<>(new Threshold(1), new Threshold(2));
+
+        // When / Then
+        assertSame(and, PredicateSimplifier.simplify(and));
+    }
+
+    @Test
+    public void shouldMergeSetMembershipOnTheSameSelection() {
+        // Given
+        final And<Tuple<Integer>> and = new And.Builder<Tuple<Integer>>()
+                .select(0).execute(new IsIn(1L, 2L, 3L))
+                .select(1).execute(new IsEqual("a"))
+                .select(0).execute(new IsIn(2L, 3L, 4L))
+                .build();
+        final Or<Tuple<Integer>> or = new Or.Builder<Tuple<Integer>>()
+                .select(0).execute(new IsEqual(1L))
+                .select(0).execute(new IsIn(2L))
+                .build();
+
+        // When
+        final Predicate<Tuple<Integer>> simplifiedAnd = PredicateSimplifier.simplify(and);
+        final Predicate<Tuple<Integer>> simplifiedOr = PredicateSimplifier.simplify(or);
+
+        // Then
+        final List<Predicate> andComponents = ((And) simplifiedAnd).getComponents();
+        assertEquals(2, andComponents.size());
+        assertEquals(new IsIn(2L, 3L), ((TupleAdaptedPredicate) andComponents.get(0)).getPredicate());
+        assertSame(and.getComponents().get(1), andComponents.get(1));
+        final List<Predicate> orComponents = ((Or) simplifiedOr).getComponents();
+        assertEquals(1, orComponents.size());
+        assertEquals(new IsIn(1L, 2L), ((IntegerTupleAdaptedPredicate) orComponents.get(0)).getPredicate());
+    }
+
+    @Test
+    public void shouldMergeRangesAndComparisons() {
+        // Given
+        final InRange<Long> first = new InRange.Builder<Long>().start(1L).end(10L).build();
+        final InRange<Long> second = new InRange.Builder<Long>().start(5L).end(20L).endInclusive(false).build();
+
+        // When / Then
+        assertEquals(new InRange.Builder<Long>().start(5L).end(10L).build(), PredicateSimplifier.simplify(new And<>(first, second)));
+        assertEquals(new InRange.Builder<Long>().start(1L).end(20L).endInclusive(false).build(), PredicateSimplifier.simplify(new Or<>(first, second)));
+        assertEquals(new IsMoreThan(5L), PredicateSimplifier.simplify(new And<>(new IsMoreThan(5L, true), new IsMoreThan(5L))));
+        assertEquals(new IsLessThan(3L, true), PredicateSimplifier.simplify(new Or<>(new IsLessThan(1L), new IsLessThan(3L, true))));
+    }
+
+    @Test
+    public void shouldNotMergeDisjointRangesInAnOr() {
+        // Given
+        final Or<Object> or = new Or<>(new InRange.Builder<Long>().start(1L).end(2L).build(),
+                new InRange.Builder<Long>().start(3L).end(4L).build());
+
+        // When / Then
+        assertSame(or, PredicateSimplifier.simplify(or));
+    }
+
+    @Test
+    public void shouldFoldContradictionsToFalse() {
+        // When
+        final Predicate<Object> simplified = PredicateSimplifier.simplify(new And<>(new IsIn(1L, 2L), new IsEqual(3L)));
+
+        // Then
+        assertEquals(new Or<>(), simplified);
+    }
+
+    @Test
+    public void shouldFoldConstantIfs() {
+        // Given
+        final IsEqual then = new IsEqual(1L);
+        final IsEqual otherwise = new IsEqual(2L);
+
+        // When / Then
+        assertSame(then, PredicateSimplifier.simplify(new If<>(true, then, otherwise)));
+        assertSame(then, PredicateSimplifier.simplify(new If<>(new And<>(), then, otherwise)));
+        assertSame(otherwise, PredicateSimplifier.simplify(new If<>(new Or<>(), then, otherwise)));
+        assertEquals(new Or<>(), PredicateSimplifier.simplify(new If<>(false, then)));
+        assertEquals(new Not<>(then), PredicateSimplifier.simplify(new If<>(then, new Or<>(), new And<>())));
+    }
+
+    @Test
+    public void shouldRemoveUnreachablePredicates() {
+        // When
+        final Predicate<Object> or = PredicateSimplifier.simplify(new Or<>(new IsEqual(1L), new Not<>(new Or<>()), new IsEqual(2L)));
+        final Predicate<Object> and = PredicateSimplifier.simplify(new And<>(new IsEqual(1L), new And<>(), new IsEqual(1L)));
+
+        // Then
+        assertEquals(new And<>(), or);
+        assertEquals(new IsEqual(1L), and);
+    }
+
+    @Test
+    public void shouldNotRemoveStatefulPredicates() {
+        // Given
+        final And<Object> and = new And<>(new Counter(), new Or<>(), new IsEqual(1L));
+
+        // When
+        final Predicate<Object> simplified = PredicateSimplifier.simplify(and);
+
+        // Then
+        assertEquals(new And<>(and.getComponents().get(0), new Or<>()), simplified);
+    }
+
+    @Test
+    public void shouldReturnOriginalPredicateIfUnchanged() {
+        // Given
+        final And<Tuple<Integer>> and = new And.Builder<Tuple<Integer>>()
+                .select(0).execute(new IsEqual(1L))
+                .select(1).execute(new IsEqual("a"))
+                .build();
+
+        // When / Then
+        assertSame(and, PredicateSimplifier.simplify(and));
+    }
+
+    @Test
+    public void shouldRequireAPredicate() {
+        assertThrows(IllegalArgumentException.class, () -> PredicateSimplifier.simplify(null));
+    }
+
+    @Test
+    public void shouldBeEquivalentForRandomPredicates() {
+        final Random random = new Random(1);
+        for (int i = 0; i < 3000; i++) {
+            // Given
+            final Predicate<Tuple<Integer>> predicate = randomTuplePredicate(random, 4);
+
+            // When
+            final Predicate<Tuple<Integer>> simplified = PredicateSimplifier.simplify(predicate);
+
+            // Then
+            final String message = predicate + " simplified to " + simplified;
+            assertTrue(countNodes(simplified) <= countNodes(predicate), message);
+            for (long value = -1; value < 12; value++) {
+                for (final String string : STRINGS) {
+                    final Tuple<Integer> tuple = new ArrayTuple(value, string);
+                    assertEquals(predicate.test(tuple), simplified.test(tuple), message + " with " + tuple);
+                }
+            }
+        }
+    }
+
+    private static Predicate<Tuple<Integer>> randomTuplePredicate(final Random random, final int depth) {
+        final int choice = random.nextInt(depth > 0 ? 8 : 3);
+        switch (choice) {
+            case 0:
+            case 1:
+                return new IntegerTupleAdaptedPredicate(randomLongPredicate(random, depth), 0);
+            case 2:
+                return new IntegerTupleAdaptedPredicate(randomStringPredicate(random), 1);
+            case 3:
+                return new Not<>(randomTuplePredicate(random, depth - 1));
+            case 4:
+                return random.nextBoolean()
+                        ? new If<>(random.nextBoolean(), randomTuplePredicate(random, depth - 1), randomTuplePredicate(random, depth - 1))
+                        : new If<>(randomTuplePredicate(random, depth - 1), randomTuplePredicate(random, depth - 1), random.nextBoolean() ? randomTuplePredicate(random, depth - 1) : null);
+            default:
+                final List<Predicate> components = new ArrayList<>();
+                for (int i = random.nextInt(4); i >= 0; i--) {
+                    components.add(randomTuplePredicate(random, depth - 1));
+                }
+                if (random.nextInt(4) == 0) {
+                    // Repeat a component to give duplicates
+                    components.add(components.get(0));
+                }
+                return 5 == choice ? new And<>(components) : 6 == choice ? new Or<>(components) : new PredicateComposite<>(components);
+        }
+    }
+
+    private static Predicate randomLongPredicate(final Random random, final int depth) {
+        final long value = random.nextInt(10);
+        switch (random.nextInt(depth > 0 ? 10 : 7)) {
+            case 0:
+                return new IsEqual(value);
+            case 1:
+                return new IsIn(value, value + random.nextInt(3), 7L);
+            case 2:
+                return new IsMoreThan(value, random.nextBoolean());
+            case 3:
+                return new IsLessThan(value, random.nextBoolean());
+            case 4:
+                return new InRange.Builder<Long>()
+                        .start(random.nextBoolean() ? value : null)
+                        .end(random.nextBoolean() ? value + random.nextInt(5) : null)
+                        .startInclusive(random.nextBoolean())
+                        .endInclusive(random.nextBoolean())
+                        .build();
+            case 5:
+                return new And<>();
+            case 6:
+                return new Or<>();
+            case 7:
+                return new Not<>(randomLongPredicate(random, depth - 1));
+            case 8:
+                return new And<>(randomLongPredicate(random, depth - 1), randomLongPredicate(random, depth - 1));
+            default:
+                return new Or<>(randomLongPredicate(random, depth - 1), randomLongPredicate(random, depth - 1));
+        }
+    }
+
+    private static Predicate randomStringPredicate(final Random random) {
+        final String value = STRINGS[random.nextInt(STRINGS.length)];
+        switch (random.nextInt(4)) {
+            case 0:
+                return new IsEqual(value);
+            case 1:
+                return new IsIn(value, STRINGS[random.nextInt(STRINGS.length)]);
+            case 2:
+                return new Regex(value + ".*");
+            default:
+                return new IsMoreThan(value, random.nextBoolean());
+        }
+    }
+
+    private static int countNodes(final Predicate<?> predicate) {
+        if (null == predicate) {
+            return 0;
+        }
+
+        int count = 1;
+        if (predicate instanceof PredicateComposite) {
+            for (final Object component : ((PredicateComposite<?, ?>) predicate).getComponents()) {
+                count += countNodes((Predicate<?>) component);
+            }
+        } else if (predicate instanceof Not) {
+            count += countNodes(((Not<?>) predicate).getPredicate());
+        } else if (predicate instanceof If) {
+            final If<?> ifPredicate = (If<?>) predicate;
+            count += countNodes(ifPredicate.getPredicate()) + countNodes(ifPredicate.getThen()) + countNodes(ifPredicate.getOtherwise());
+        } else if (predicate instanceof TupleAdaptedPredicate) {
+            count += countNodes(((TupleAdaptedPredicate<?, ?>) predicate).getPredicate());
+        }
+        return count;
+    }
+
+    public static class IsString extends KoryphePredicate<Object> {
+        @Override
+        public boolean test(final Object input) {
+            return input instanceof String;
+        }
+    }
+
+    public static class HasValue extends KoryphePredicate<Object> {
+        @Override
+        public boolean test(final Object input) {
+            return null != input;
+        }
+    }
+
+    public static class HasAnyValue extends HasValue {
+    }
+
+    public static class Threshold extends KoryphePredicate<Object> {
+        private final int threshold;
+
+        public Threshold(final int threshold) {
+            this.threshold = threshold;
+        }
+
+        @Override
+        public boolean test(final Object input) {
+            return input instanceof Integer && (Integer) input > threshold;
+        }
+    }
+
+    @Stateful
+    public static class Counter extends KoryphePredicate<Object> {
+        private int count;
+
+        @Override
+        public boolean test(final Object input) {
+            return 0 == count++;
+        }
+    }
+}
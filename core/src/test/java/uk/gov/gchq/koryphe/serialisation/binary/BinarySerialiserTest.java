@@ -0,0 +1,219 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.koryphe.serialisation.binary;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import uk.gov.gchq.koryphe.impl.binaryoperator.Max;
+import uk.gov.gchq.koryphe.impl.binaryoperator.Sum;
+import uk.gov.gchq.koryphe.impl.predicate.And;
+import uk.gov.gchq.koryphe.impl.predicate.IsA;
+import uk.gov.gchq.koryphe.impl.predicate.IsEqual;
+import uk.gov.gchq.koryphe.impl.predicate.IsIn;
+import uk.gov.gchq.koryphe.impl.predicate.IsMoreThan;
+import uk.gov.gchq.koryphe.impl.predicate.Not;
+import uk.gov.gchq.koryphe.serialisation.json.SimpleClassNameIdResolver;
+import uk.gov.gchq.koryphe.tuple.binaryoperator.TupleAdaptedBinaryOperatorComposite;
+import uk.gov.gchq.koryphe.util.JsonSerialiser;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BinarySerialiserTest {
+    private final ObjectMapper mapper = createObjectMapper();
+    private final BinarySerialiser serialiser = new BinarySerialiser(mapper);
+
+    @Test
+    public void shouldRoundTripPredicateTree() throws IOException {
+        // Given
+        final And<Object> filter = createFilter();
+
+        // When
+        final byte[] bytes = serialiser.serialise(filter);
+        final And deserialised = serialiser.deserialise(bytes, And.class);
+
+        // Then
+        assertEquals(mapper.writeValueAsString(filter), mapper.writeValueAsString(deserialised));
+    }
+
+    @Test
+    public void shouldRoundTripAggregator() throws IOException {
+        // Given
+        final TupleAdaptedBinaryOperatorComposite<String> aggregator = new TupleAdaptedBinaryOperatorComposite.Builder<String>()
+                .select(new String[]{"count"})
+                .execute(new Sum())
+                .select(new String[]{"max"})
+                .execute(new Max())
+                .build();
+
+        // When
+        final byte[] bytes = serialiser.serialise(aggregator);
+        final TupleAdaptedBinaryOperatorComposite deserialised = serialiser.deserialise(bytes, TupleAdaptedBinaryOperatorComposite.class);
+
+        // Then
+        assertEquals(mapper.writeValueAsString(aggregator), mapper.writeValueAsString(deserialised));
+    }
+
+    @Test
+    public void shouldBeEquivalentToJson() throws IOException {
+        // Given
+        final And<Object> filter = createFilter();
+        final String json = mapper.writeValueAsString(filter);
+
+        // When
+        final byte[] bytes = serialiser.serialise(filter);
+        final byte[] bytesFromJson = serialiser.fromJson(json);
+
+        // Then
+        JsonSerialiser.assertEquals(json, serialiser.toJson(bytes));
+        assertEquals(json, mapper.writeValueAsString(serialiser.deserialise(bytesFromJson, And.class)));
+        assertEquals(json, mapper.writeValueAsString(serialiser.deserialise(bytes, And.class)));
+    }
+
+    @Test
+    public void shouldBeSmallerThanJson() throws IOException {
+        // Given
+        final And<Object> filter = createFilter();
+
+        // When
+        final byte[] bytes = serialiser.serialise(filter);
+        final byte[] json = mapper.writeValueAsBytes(filter);
+
+        // Then
+        assertTrue(bytes.length < json.length / 2, "Binary size " + bytes.length + " should be less than half the JSON size " + json.length);
+    }
+
+    @Test
+    public void shouldRoundTripNumbersAsJsonWould() throws IOException {
+        // Given
+        final Map<String, Object> map = new LinkedHashMap<>();
+        map.put("int", 1);
+        map.put("negativeInt", -300);
+        map.put("long", Long.MIN_VALUE);
+        map.put("smallLong", 5L);
+        map.put("bigInteger", BigInteger.valueOf(Long.MAX_VALUE).multiply(BigInteger.TEN));
+        map.put("double", 1.5d);
+        map.put("float", 0.1f);
+        map.put("bigDecimal", new BigDecimal("-12.345"));
+        map.put("boolean", true);
+        map.put("null", null);
+        map.put("list", Arrays.asList("a", "b", "a"));
+
+        final TypeReference<Map<String, Object>> type = new TypeReference<Map<String, Object>>() {
+        };
+
+        // When
+        final Map<String, Object> deserialised = serialiser.deserialise(serialiser.serialise(map), type);
+
+        // Then
+        final Map<String, Object> expected = mapper.readValue(mapper.writeValueAsString(map), type);
+        assertEquals(expected, deserialised);
+    }
+
+    @Test
+    public void shouldRoundTripUnicodeStrings() throws IOException {
+        // Given
+        final IsEqual predicate = new IsEqual("\u00e9\u4e2d\ud83d\ude00");
+
+        // When
+        final IsEqual deserialised = serialiser.deserialise(serialiser.serialise(predicate), IsEqual.class);
+
+        // Then
+        assertEquals(predicate, deserialised);
+    }
+
+    @Test
+    public void shouldRejectBytesNotInBinaryFormat() {
+        // Given
+        final byte[] bytes = "{}".getBytes();
+
+        // When / Then
+        final Exception exception = assertThrows(IllegalArgumentException.class, () -> serialiser.deserialise(bytes, And.class));
+        assertEquals("Bytes are not in the Koryphe binary format", exception.getMessage());
+    }
+
+    @Test
+    public void shouldRejectUnsupportedVersion() {
+        // Given
+        final byte[] bytes = {'K', 'B', 99};
+
+        // When / Then
+        final Exception exception = assertThrows(IllegalArgumentException.class, () -> serialiser.deserialise(bytes, And.class));
+        assertTrue(exception.getMessage().startsWith("Unsupported binary format version: 99"));
+    }
+
+    @Test
+    public void shouldRejectTruncatedBytes() throws IOException {
+        // Given
+        final byte[] bytes = serialiser.serialise(createFilter());
+        final byte[] truncated = Arrays.copyOf(bytes, bytes.length / 2);
+
+        // When / Then
+        assertThrows(IllegalArgumentException.class, () -> serialiser.deserialise(truncated, And.class));
+    }
+
+    @Test
+    public void shouldRejectBytesEndingInsideAnObject() throws IOException {
+        // Given
+        final byte[] bytes = serialiser.serialise(createFilter());
+        final byte[] withoutLastEndObject = Arrays.copyOf(bytes, bytes.length - 1);
+
+        // When / Then
+        final Exception exception = assertThrows(IllegalArgumentException.class, () -> serialiser.deserialise(withoutLastEndObject, And.class));
+        assertEquals("Invalid binary format: unexpected end of bytes", exception.getMessage());
+    }
+
+    @Test
+    public void shouldRequireObjectMapper() {
+        assertThrows(IllegalArgumentException.class, () -> new BinarySerialiser(null));
+    }
+
+    private And<Object> createFilter() {
+        return new And.Builder<>()
+                .select(0)
+                .execute(new IsA(String.class))
+                .select(1)
+                .execute(new IsMoreThan(5L, true))
+                .select(2)
+                .execute(new IsIn(1, -2, 3.5, "value"))
+                .select(3)
+                .execute(new Not<>(new IsEqual("test")))
+                .select(4)
+                .execute(new IsMoreThan(10, false))
+                .select(5)
+                .execute(new IsMoreThan(20, false))
+                .build();
+    }
+
+    private static ObjectMapper createObjectMapper() {
+        final ObjectMapper mapper = new ObjectMapper();
+        mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        SimpleClassNameIdResolver.configureObjectMapper(mapper);
+        return mapper;
+    }
+}
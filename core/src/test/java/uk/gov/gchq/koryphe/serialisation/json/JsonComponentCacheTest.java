@@ -0,0 +1,222 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.koryphe.serialisation.json;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import uk.gov.gchq.koryphe.Stateful;
+import uk.gov.gchq.koryphe.impl.predicate.And;
+import uk.gov.gchq.koryphe.impl.predicate.IsA;
+import uk.gov.gchq.koryphe.impl.predicate.Regex;
+import uk.gov.gchq.koryphe.predicate.KoryphePredicate;
+
+import java.io.IOException;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class JsonComponentCacheTest {
+    private static final String REGEX_JSON = "{\"class\": \"uk.gov.gchq.koryphe.impl.predicate.Regex\", \"value\": {\"java.util.regex.Pattern\": \"[a-z]+\"}}";
+
+    private final ObjectMapper mapper = createObjectMapper();
+
+    @BeforeEach
+    @AfterEach
+    public void beforeAndAfter() {
+        SimpleClassNameCache.reset();
+    }
+
+    @Test
+    public void shouldReturnCachedComponentForSameJson() throws IOException {
+        // Given
+        final JsonComponentCache cache = new JsonComponentCache(mapper);
+
+        // When
+        final KoryphePredicate first = cache.deserialise(REGEX_JSON, KoryphePredicate.class);
+        final KoryphePredicate second = cache.deserialise(REGEX_JSON, KoryphePredicate.class);
+
+        // Then
+        assertTrue(first instanceof Regex);
+        assertNotSame(first, second);
+        assertEquals(first, second);
+        assertSame(((Regex) first).getControlValue(), ((Regex) second).getControlValue());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void shouldIgnoreFieldOrderFormattingAndSimpleClassNames() throws IOException {
+        // Given
+        final JsonComponentCache cache = new JsonComponentCache(mapper);
+        final String json = "{\"class\":\"And\",\"predicates\":[{\"type\":\"java.lang.String\",\"class\":\"IsA\"}]}";
+        final String equivalentJson = String.format("{%n" +
+                "  \"predicates\" : [ {%n" +
+                "    \"class\" : \"uk.gov.gchq.koryphe.impl.predicate.IsA\",%n" +
+                "    \"type\" : \"java.lang.String\"%n" +
+                "  } ],%n" +
+                "  \"class\" : \"uk.gov.gchq.koryphe.impl.predicate.And\"%n" +
+                "}");
+
+        // When
+        final And first = cache.deserialise(json, And.class);
+        final And second = cache.deserialise(equivalentJson.getBytes(), And.class);
+
+        // Then
+        assertEquals(1, first.getComponents().size());
+        assertTrue(first.getComponents().get(0) instanceof IsA);
+        assertEquals(1, cache.getHitCount());
+        assertEquals(first, second);
+    }
+
+    @Test
+    public void shouldNotShareModificationsBetweenCallers() throws IOException {
+        // Given
+        final JsonComponentCache cache = new JsonComponentCache(mapper);
+        final String json = "{\"class\":\"And\",\"predicates\":[{\"type\":\"java.lang.String\",\"class\":\"IsA\"}]}";
+        final And first = cache.deserialise(json, And.class);
+
+        // When
+        ((IsA) first.getComponents().get(0)).setType(Integer.class.getName());
+        first.getComponents().add(new IsA(Long.class));
+        final And second = cache.deserialise(json, And.class);
+        ((IsA) second.getComponents().get(0)).setType(Double.class.getName());
+        final And third = cache.deserialise(json, And.class);
+
+        // Then
+        assertEquals(1, third.getComponents().size());
+        assertEquals(String.class.getName(), ((IsA) third.getComponents().get(0)).getType());
+        assertNotSame(second.getComponents(), third.getComponents());
+    }
+
+    @Test
+    public void shouldNotCacheComponentsThatCannotBeCopied() throws IOException {
+        // Given
+        final JsonComponentCache cache = new JsonComponentCache(mapper);
+        final String json = "{\"class\": \"" + DatePredicate.class.getName() + "\", \"date\": 0}";
+
+        // When
+        final DatePredicate first = cache.deserialise(json, DatePredicate.class);
+        final DatePredicate second = cache.deserialise(json, DatePredicate.class);
+
+        // Then
+        assertNotSame(first.date, second.date);
+        assertEquals(0, cache.size());
+        assertEquals(2, cache.getUncacheableCount());
+    }
+
+    @Test
+    public void shouldCacheDifferentJsonSeparately() throws IOException {
+        // Given
+        final JsonComponentCache cache = new JsonComponentCache(mapper);
+
+        // When
+        final KoryphePredicate first = cache.deserialise(REGEX_JSON, KoryphePredicate.class);
+        final KoryphePredicate second = cache.deserialise(REGEX_JSON.replace("[a-z]+", "[0-9]+"), KoryphePredicate.class);
+
+        // Then
+        assertNotSame(first, second);
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void shouldNotCacheStatefulComponents() throws IOException {
+        // Given
+        final JsonComponentCache cache = new JsonComponentCache(mapper);
+        final String json = "{\"class\": \"uk.gov.gchq.koryphe.impl.predicate.And\", \"predicates\": [{\"class\": \"" + StatefulPredicate.class.getName() + "\"}]}";
+
+        // When
+        final And first = cache.deserialise(json, And.class);
+        final And second = cache.deserialise(json, And.class);
+
+        // Then
+        assertNotSame(first, second);
+        assertEquals(0, cache.size());
+        assertEquals(2, cache.getUncacheableCount());
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedComponents() throws IOException {
+        // Given
+        final JsonComponentCache cache = new JsonComponentCache(mapper, 1);
+        final KoryphePredicate first = cache.deserialise(REGEX_JSON, KoryphePredicate.class);
+
+        // When
+        cache.deserialise(REGEX_JSON.replace("[a-z]+", "[0-9]+"), KoryphePredicate.class);
+        final KoryphePredicate third = cache.deserialise(REGEX_JSON, KoryphePredicate.class);
+
+        // Then
+        assertNotSame(first, third);
+        assertEquals(1, cache.size());
+        assertEquals(2, cache.getEvictionCount());
+    }
+
+    @Test
+    public void shouldNotShareComponentsBetweenTypes() throws IOException {
+        // Given
+        final JsonComponentCache cache = new JsonComponentCache(mapper);
+
+        // When
+        final Object first = cache.deserialise(REGEX_JSON, KoryphePredicate.class);
+        final Object second = cache.deserialise(REGEX_JSON, Regex.class);
+
+        // Then
+        assertNotSame(first, second);
+    }
+
+    @Test
+    public void shouldRequireAPositiveMaxSize() {
+        assertThrows(IllegalArgumentException.class, () -> new JsonComponentCache(mapper, 0));
+    }
+
+    private static ObjectMapper createObjectMapper() {
+        final ObjectMapper mapper = new ObjectMapper();
+        mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        SimpleClassNameIdResolver.configureObjectMapper(mapper);
+        return mapper;
+    }
+
+    public static class DatePredicate extends KoryphePredicate<Object> {
+        private Date date;
+
+        public void setDate(final Date date) {
+            this.date = date;
+        }
+
+        @Override
+        public boolean test(final Object input) {
+            return date.equals(input);
+        }
+    }
+
+    @Stateful
+    public static class StatefulPredicate extends KoryphePredicate<Object> {
+        private int count;
+
+        @Override
+        public boolean test(final Object input) {
+            return 0 == count++;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.koryphe.serialisation.json;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import uk.gov.gchq.koryphe.impl.predicate.IsA;
+import uk.gov.gchq.koryphe.impl.predicate.IsMoreThan;
+import uk.gov.gchq.koryphe.util.ReflectionUtil;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class SimpleClassNameCacheTest {
+
+    @BeforeEach
+    @AfterEach
+    public void beforeAndAfter() {
+        SimpleClassNameCache.setUseFullNameForSerialisation(true);
+        SimpleClassNameCache.reset();
+        ReflectionUtil.resetReflectionPackages();
+        ReflectionUtil.resetReflectionCache();
+    }
+
+    @Test
+    public void shouldGetClassNameForCapitalisedAndUncapitalisedIds() {
+        // When
+        final String capitalised = SimpleClassNameCache.getClassName("IsA");
+        final String uncapitalised = SimpleClassNameCache.getClassName("isA");
+
+        // Then
+        assertEquals(IsA.class.getName(), capitalised);
+        assertEquals(IsA.class.getName(), uncapitalised);
+    }
+
+    @Test
+    public void shouldGetClassNameForArrayIds() {
+        // When
+        final String className = SimpleClassNameCache.getClassName("IsA[]");
+
+        // Then
+        assertEquals("[L" + IsA.class.getName() + ";", className);
+    }
+
+    @Test
+    public void shouldReturnSameSimpleClassNameOnRepeatedLookups() {
+        // Given
+        SimpleClassNameCache.setUseFullNameForSerialisation(false);
+
+        // When
+        final String first = SimpleClassNameCache.getSimpleClassNameOrNull(IsA.class);
+        final String second = SimpleClassNameCache.getSimpleClassNameOrNull(IsA.class);
+
+        // Then
+        assertEquals("IsA", first);
+        assertEquals("IsA", second);
+    }
+
+    @Test
+    public void shouldReturnNullForUnknownClassesOnRepeatedLookups() {
+        // Given
+        SimpleClassNameCache.setUseFullNameForSerialisation(false);
+
+        // When
+        final String first = SimpleClassNameCache.getSimpleClassNameOrNull(SimpleClassNameCacheTest.class);
+        final String second = SimpleClassNameCache.getSimpleClassNameOrNull(SimpleClassNameCacheTest.class);
+
+        // Then
+        assertNull(first);
+        assertNull(second);
+    }
+
+    @Test
+    public void shouldUseSimpleClassNamesForCorePackageClasses() {
+        // Given
+        SimpleClassNameCache.setUseFullNameForSerialisation(false);
+
+        // When
+        final String simpleClassName = SimpleClassNameCache.getSimpleClassNameOrNull(StringBuilder.class);
+        final String className = SimpleClassNameCache.getClassName("StringBuilder");
+
+        // Then
+        assertEquals("StringBuilder", simpleClassName);
+        assertEquals(StringBuilder.class.getName(), className);
+    }
+
+    @Test
+    public void shouldSeeAddedSimpleClassNamesAfterInitialisation() {
+        // Given
+        SimpleClassNameCache.setUseFullNameForSerialisation(false);
+        SimpleClassNameCache.initialise();
+        assertNull(SimpleClassNameCache.getSimpleClassNameOrNull(SimpleClassNameCacheTest.class));
+
+        // When
+        SimpleClassNameCache.addSimpleClassNames(false, SimpleClassNameCacheTest.class);
+
+        // Then
+        assertEquals("SimpleClassNameCacheTest", SimpleClassNameCache.getSimpleClassNameOrNull(SimpleClassNameCacheTest.class));
+        assertEquals(SimpleClassNameCacheTest.class.getName(), SimpleClassNameCache.getClassName("SimpleClassNameCacheTest"));
+    }
+
+    @Test
+    public void shouldResolveClassNamesConcurrently() throws Exception {
+        // Given
+        SimpleClassNameCache.setUseFullNameForSerialisation(false);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        final List<Future<String>> results = new ArrayList<>();
+
+        // When
+        try {
+            for (int i = 0; i < 100; i++) {
+                results.add(executor.submit(() -> SimpleClassNameCache.getClassName("IsMoreThan")));
+                results.add(executor.submit(() -> SimpleClassNameCache.getSimpleClassName(IsMoreThan.class)));
+            }
+
+            // Then
+            for (int i = 0; i < results.size(); i += 2) {
+                assertEquals(IsMoreThan.class.getName(), results.get(i).get());
+                assertEquals("IsMoreThan", results.get(i + 1).get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
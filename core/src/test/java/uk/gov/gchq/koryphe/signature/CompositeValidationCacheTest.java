@@ -0,0 +1,175 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.koryphe.signature;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import uk.gov.gchq.koryphe.ValidationResult;
+import uk.gov.gchq.koryphe.impl.predicate.IsA;
+import uk.gov.gchq.koryphe.impl.predicate.IsMoreThan;
+import uk.gov.gchq.koryphe.impl.predicate.Or;
+import uk.gov.gchq.koryphe.predicate.KoryphePredicate;
+import uk.gov.gchq.koryphe.predicate.PredicateComposite;
+import uk.gov.gchq.koryphe.util.ComponentCopier;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CompositeValidationCacheTest {
+
+    @BeforeEach
+    @AfterEach
+    public void clearCache() {
+        CompositeValidationCache.clear();
+    }
+
+    @Test
+    public void shouldMemoiseValidationOfTheSameComposite() {
+        // Given
+        final Or<Object> predicate = new Or<>(new IsMoreThan(1), new IsA(Integer.class));
+
+        // When
+        final ValidationResult firstResult = Signature.getInputSignature(predicate).assignable(Integer.class);
+        final ValidationResult secondResult = Signature.getInputSignature(predicate).assignable(Integer.class);
+
+        // Then
+        assertTrue(firstResult.isValid());
+        assertTrue(secondResult.isValid());
+        assertEquals(1, CompositeValidationCache.size());
+    }
+
+    @Test
+    public void shouldShareResultsBetweenEqualComposites() {
+        // Given
+        final Or<Object> first = new Or<>(new IsMoreThan(1), new IsA(Integer.class));
+        final Or<Object> second = new Or<>(new IsMoreThan(1), new IsA(Integer.class));
+        final Or<Object> copy = ComponentCopier.deepCopy(first);
+
+        // When
+        final ValidationResult firstResult = Signature.getInputSignature(first).assignable(Integer.class);
+        final ValidationResult secondResult = Signature.getInputSignature(second).assignable(Integer.class);
+        final ValidationResult copyResult = Signature.getInputSignature(copy).assignable(Integer.class);
+
+        // Then
+        assertTrue(firstResult.isValid());
+        assertTrue(secondResult.isValid());
+        assertTrue(copyResult.isValid());
+        assertEquals(1, CompositeValidationCache.size());
+    }
+
+    @Test
+    public void shouldNotMemoiseCompositesThatAreNotComparedByValue() {
+        // Given
+        final Or<Object> first = new Or<>(new StringOnly());
+        final Or<Object> second = new Or<>(new StringOnly());
+        ((StringOnly) second.getComponents().get(0)).allowed = Integer.class;
+
+        // When
+        final ValidationResult firstResult = Signature.getInputSignature(first).assignable(Integer.class);
+        final ValidationResult secondResult = Signature.getInputSignature(second).assignable(Integer.class);
+
+        // Then
+        assertEquals(first, second);
+        assertFalse(firstResult.isValid());
+        assertTrue(secondResult.isValid());
+        assertEquals(0, CompositeValidationCache.size());
+    }
+
+    @Test
+    public void shouldValidateDifferentArgumentsSeparately() {
+        // Given
+        final Or<Object> predicate = new Or<>(new IsMoreThan(1));
+
+        // When
+        final ValidationResult integerResult = Signature.getInputSignature(predicate).assignable(Integer.class);
+        final ValidationResult stringResult = Signature.getInputSignature(predicate).assignable(String.class);
+
+        // Then
+        assertTrue(integerResult.isValid());
+        assertFalse(stringResult.isValid());
+    }
+
+    @Test
+    public void shouldReturnCopiesOfMemoisedResults() {
+        // Given
+        final Or<Object> predicate = new Or<>(new IsMoreThan(1));
+        final ValidationResult firstResult = Signature.getInputSignature(predicate).assignable(Integer.class);
+
+        // When
+        firstResult.addError("Some error");
+        final ValidationResult secondResult = Signature.getInputSignature(predicate).assignable(Integer.class);
+
+        // Then
+        assertTrue(secondResult.isValid());
+    }
+
+    @Test
+    public void shouldRevalidateModifiedComposites() {
+        // Given
+        final List<Predicate> components = new ArrayList<>();
+        components.add(new IsMoreThan(1));
+        final PredicateComposite predicate = new PredicateComposite(components);
+        assertTrue(Signature.getInputSignature(predicate).assignable(Integer.class).isValid());
+
+        // When
+        components.add(new IsMoreThan("a"));
+        final ValidationResult result = Signature.getInputSignature(predicate).assignable(Integer.class);
+        final ValidationResult originalResult = Signature.getInputSignature(new PredicateComposite(Collections.singletonList(new IsMoreThan(1))))
+                .assignable(Integer.class);
+
+        // Then
+        assertFalse(result.isValid());
+        assertTrue(originalResult.isValid());
+    }
+
+    @Test
+    public void shouldBoundTheCacheSize() {
+        // When
+        for (int i = 0; i < CompositeValidationCache.MAX_SIZE + 10; i++) {
+            Signature.getInputSignature(new Or<>(new IsMoreThan(i))).assignable(Integer.class);
+        }
+
+        // Then
+        assertTrue(CompositeValidationCache.size() <= CompositeValidationCache.MAX_SIZE);
+    }
+
+    public static class StringOnly extends KoryphePredicate<Object> implements InputValidator {
+        private Class<?> allowed = String.class;
+
+        @Override
+        public boolean test(final Object input) {
+            return allowed.isInstance(input);
+        }
+
+        @Override
+        public ValidationResult isInputValid(final Class<?>... arguments) {
+            final ValidationResult result = new ValidationResult();
+            if (1 != arguments.length || !allowed.isAssignableFrom(arguments[0])) {
+                result.addError("Expected " + allowed);
+            }
+            return result;
+        }
+    }
+}
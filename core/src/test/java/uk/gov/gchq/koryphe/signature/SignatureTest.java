@@ -522,6 +522,32 @@ public class SignatureTest {
         assertFalse(signature.assignable(Object.class, Object.class).isValid());
     }
 
+    @Test
+    public void shouldReuseResolvedTypesForInstancesOfTheSameClass() {
+        // Given
+        final Signature first = Signature.getInputSignature(new MockFunction2());
+        final Signature second = Signature.getInputSignature(new MockFunction2());
+
+        // Then
+        assertArrayEquals(first.getClasses(), second.getClasses());
+        assertEquals(first.getNumClasses(), second.getNumClasses());
+    }
+
+    @Test
+    public void shouldUseInstanceInputValidatorWhenTypesAreCached() {
+        // Given
+        final IsMoreThan integerPredicate = new IsMoreThan(1);
+        final IsMoreThan stringPredicate = new IsMoreThan("a");
+
+        // When
+        final ValidationResult integerResult = Signature.getInputSignature(integerPredicate).assignable(Integer.class);
+        final ValidationResult stringResult = Signature.getInputSignature(stringPredicate).assignable(Integer.class);
+
+        // Then
+        assertTrue(integerResult.isValid());
+        assertFalse(stringResult.isValid());
+    }
+
     private class TestIntegerBinaryOperator implements BinaryOperator<Integer> {
         @Override
         public Integer apply(final Integer integer, final Integer integer2) {
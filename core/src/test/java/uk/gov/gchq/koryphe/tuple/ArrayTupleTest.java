@@ -21,6 +21,7 @@ import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static uk.gov.gchq.koryphe.util.AllocationBudget.assertAllocatesNothing;
 
 public class ArrayTupleTest {
 
@@ -53,4 +54,18 @@ public class ArrayTupleTest {
         }
         assertEquals(initialValues.length, Iterables.size(tuple), "Found unexpected number of values");
     }
+
+    @Test
+    public void shouldNotAllocateWhenGettingAndPuttingValues() {
+        // Given
+        final ArrayTuple tuple = new ArrayTuple(new Object[]{"a", 1000L, 2.5});
+        final Long value = 2000L;
+
+        // When / Then
+        assertAllocatesNothing(() -> {
+            tuple.put(1, value);
+            tuple.get(1);
+            tuple.get(2);
+        });
+    }
 }
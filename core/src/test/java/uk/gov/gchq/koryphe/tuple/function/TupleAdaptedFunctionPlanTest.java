@@ -0,0 +1,213 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.koryphe.tuple.function;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import uk.gov.gchq.koryphe.Deterministic;
+import uk.gov.gchq.koryphe.Stateful;
+import uk.gov.gchq.koryphe.function.KorypheFunction;
+import uk.gov.gchq.koryphe.impl.function.StringReplace;
+import uk.gov.gchq.koryphe.impl.function.StringRewrite;
+import uk.gov.gchq.koryphe.impl.function.ToUpperCase;
+import uk.gov.gchq.koryphe.tuple.MapTuple;
+import uk.gov.gchq.koryphe.tuple.Tuple;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TupleAdaptedFunctionPlanTest {
+    private static final AtomicInteger CALLS = new AtomicInteger();
+
+    @BeforeEach
+    public void before() {
+        CALLS.set(0);
+    }
+
+    @Test
+    public void shouldComputeRepeatedFunctionOnce() {
+        // Given
+        final TupleAdaptedFunctionComposite<String> composite = new TupleAdaptedFunctionComposite.Builder<String>()
+                .select(new String[]{"name"}).execute(new CountingLowerCase()).project(new String[]{"a"})
+                .select(new String[]{"name"}).execute(new CountingLowerCase()).project(new String[]{"b"})
+                .select(new String[]{"name"}).execute(new CountingLowerCase()).project(new String[]{"c"})
+                .build();
+        final TupleAdaptedFunctionPlan<String> plan = TupleAdaptedFunctionPlan.of(composite);
+
+        // When
+        final Tuple<String> result = plan.apply(createTuple("Value"));
+
+        // Then
+        assertEquals(2, plan.getSharedCount());
+        assertEquals(1, CALLS.get());
+        assertEquals("value", result.get("a"));
+        assertEquals("value", result.get("b"));
+        assertEquals("value", result.get("c"));
+    }
+
+    @Test
+    public void shouldRecomputeWhenSelectionIsProjectedToInBetween() {
+        // Given
+        final TupleAdaptedFunctionComposite<String> composite = new TupleAdaptedFunctionComposite.Builder<String>()
+                .select(new String[]{"name"}).execute(new CountingLowerCase()).project(new String[]{"a"})
+                .select(new String[]{"name"}).execute(new ToUpperCase()).project(new String[]{"name"})
+                .select(new String[]{"name"}).execute(new CountingLowerCase()).project(new String[]{"b"})
+                .build();
+        final TupleAdaptedFunctionPlan<String> plan = TupleAdaptedFunctionPlan.of(composite);
+
+        // When
+        final Tuple<String> result = plan.apply(createTuple("Value"));
+
+        // Then
+        assertEquals(0, plan.getSharedCount());
+        assertEquals(2, CALLS.get());
+        assertEquals("value", result.get("a"));
+        assertEquals("VALUE", result.get("name"));
+    }
+
+    @Test
+    public void shouldRecomputeWhenEarlierFunctionProjectsToItsOwnSelection() {
+        // Given
+        final TupleAdaptedFunctionComposite<String> composite = new TupleAdaptedFunctionComposite.Builder<String>()
+                .select(new String[]{"a"}).execute(new StringRewrite(new StringReplace("x", "xx"))).project(new String[]{"a"})
+                .select(new String[]{"a"}).execute(new StringRewrite(new StringReplace("x", "xx"))).project(new String[]{"b"})
+                .build();
+        final TupleAdaptedFunctionPlan<String> plan = TupleAdaptedFunctionPlan.of(composite);
+        final MapTuple<String> tuple = new MapTuple<>();
+        tuple.put("a", "x");
+
+        // When
+        final Tuple<String> result = plan.apply(tuple);
+
+        // Then
+        assertEquals(0, plan.getSharedCount());
+        assertEquals("xx", result.get("a"));
+        assertEquals("xxxx", result.get("b"));
+    }
+
+    @Test
+    public void shouldNotShareFunctionsWithDifferentNestedFunctions() {
+        // Given
+        final TupleAdaptedFunctionComposite<String> composite = new TupleAdaptedFunctionComposite.Builder<String>()
+                .select(new String[]{"name"}).execute(new StringRewrite(new StringReplace("V", "x"))).project(new String[]{"a"})
+                .select(new String[]{"name"}).execute(new StringRewrite(new StringReplace("V", "y"))).project(new String[]{"b"})
+                .build();
+        final TupleAdaptedFunctionPlan<String> plan = TupleAdaptedFunctionPlan.of(composite);
+
+        // When
+        final Tuple<String> result = plan.apply(createTuple("Value"));
+
+        // Then
+        assertEquals(0, plan.getSharedCount());
+        assertEquals("xalue", result.get("a"));
+        assertEquals("yalue", result.get("b"));
+    }
+
+    @Test
+    public void shouldNotShareStatefulFunctions() {
+        // Given
+        final TupleAdaptedFunctionComposite<String> composite = new TupleAdaptedFunctionComposite.Builder<String>()
+                .select(new String[]{"name"}).execute(new StatefulCounter()).project(new String[]{"a"})
+                .select(new String[]{"name"}).execute(new StatefulCounter()).project(new String[]{"b"})
+                .build();
+        final TupleAdaptedFunctionPlan<String> plan = TupleAdaptedFunctionPlan.of(composite);
+
+        // When
+        plan.apply(createTuple("Value"));
+
+        // Then
+        assertEquals(0, plan.getSharedCount());
+        assertEquals(2, CALLS.get());
+    }
+
+    @Test
+    public void shouldGiveSameResultAsComposite() {
+        // Given
+        final TupleAdaptedFunctionComposite<String> composite = new TupleAdaptedFunctionComposite.Builder<String>()
+                .select(new String[]{"name"}).execute(new CountingLowerCase()).project(new String[]{"a"})
+                .select(new String[]{"a"}).execute(new ToUpperCase()).project(new String[]{"b"})
+                .select(new String[]{"name"}).execute(new CountingLowerCase()).project(new String[]{"c"})
+                .select(new String[]{"b"}).execute(new ToUpperCase()).project(new String[]{"d"})
+                .build();
+        final TupleAdaptedFunctionPlan<String> plan = TupleAdaptedFunctionPlan.of(composite);
+
+        // When
+        final Tuple<String> expected = composite.apply(createTuple("Value"));
+        final Tuple<String> result = plan.apply(createTuple("Value"));
+
+        // Then
+        assertEquals(1, plan.getSharedCount());
+        assertEquals(expected, result);
+    }
+
+    @Test
+    public void shouldMemoizeDeterministicFunctionsAcrossTuples() {
+        // Given
+        final TupleAdaptedFunctionComposite<String> composite = new TupleAdaptedFunctionComposite.Builder<String>()
+                .select(new String[]{"name"}).execute(new DeterministicLowerCase()).project(new String[]{"a"})
+                .select(new String[]{"name"}).execute(new DeterministicLowerCase()).project(new String[]{"b"})
+                .select(new String[]{"name"}).execute(new CountingLowerCase()).project(new String[]{"c"})
+                .build();
+        final TupleAdaptedFunctionPlan<String> plan = TupleAdaptedFunctionPlan.of(composite, true);
+
+        // When
+        plan.apply(createTuple("Value"));
+        final Tuple<String> result = plan.apply(createTuple("Value"));
+
+        // Then
+        assertEquals(1, plan.getSharedCount());
+        assertEquals(1, plan.getMemoizedCount());
+        assertEquals(3, CALLS.get());
+        assertEquals("value", result.get("a"));
+        assertEquals("value", result.get("b"));
+        assertEquals("value", result.get("c"));
+    }
+
+    @Test
+    public void shouldRequireAComposite() {
+        assertThrows(IllegalArgumentException.class, () -> TupleAdaptedFunctionPlan.of(null));
+    }
+
+    private static Tuple<String> createTuple(final String name) {
+        final MapTuple<String> tuple = new MapTuple<>();
+        tuple.put("name", name);
+        return tuple;
+    }
+
+    public static class CountingLowerCase extends KorypheFunction<String, String> {
+        @Override
+        public String apply(final String input) {
+            CALLS.incrementAndGet();
+            return null != input ? input.toLowerCase() : null;
+        }
+    }
+
+    @Deterministic
+    public static class DeterministicLowerCase extends CountingLowerCase {
+    }
+
+    @Stateful
+    public static class StatefulCounter extends KorypheFunction<String, Integer> {
+        @Override
+        public Integer apply(final String input) {
+            return CALLS.incrementAndGet();
+        }
+    }
+}
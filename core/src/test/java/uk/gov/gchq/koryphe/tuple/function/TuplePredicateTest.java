@@ -18,7 +18,9 @@ package uk.gov.gchq.koryphe.tuple.function;
 
 import org.junit.jupiter.api.Test;
 
+import uk.gov.gchq.koryphe.impl.predicate.IsMoreThan;
 import uk.gov.gchq.koryphe.predicate.MockPredicateObject;
+import uk.gov.gchq.koryphe.tuple.ArrayTuple;
 import uk.gov.gchq.koryphe.tuple.Tuple;
 import uk.gov.gchq.koryphe.tuple.TupleInputAdapter;
 import uk.gov.gchq.koryphe.tuple.predicate.TupleAdaptedPredicate;
@@ -36,6 +38,7 @@ import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static uk.gov.gchq.koryphe.util.AllocationBudget.assertAllocatesNothing;
 
 public class TuplePredicateTest {
 
@@ -132,4 +135,18 @@ public class TuplePredicateTest {
         assertNotSame(inputAdapter, deserialisedInputAdapter);
         assertTrue(deserialisedInputAdapter instanceof Function);
     }
+
+    @Test
+    public void shouldNotAllocateWhenTestingASingleSelection() {
+        // Given
+        final TupleAdaptedPredicate<Integer, Comparable> predicate = new TupleAdaptedPredicate<>(new IsMoreThan(500L), new Integer[]{1});
+        final Tuple<Integer> passing = new ArrayTuple(new Object[]{"a", 1000L});
+        final Tuple<Integer> failing = new ArrayTuple(new Object[]{"b", 100L});
+
+        // When / Then
+        assertAllocatesNothing(() -> {
+            predicate.test(passing);
+            predicate.test(failing);
+        });
+    }
 }
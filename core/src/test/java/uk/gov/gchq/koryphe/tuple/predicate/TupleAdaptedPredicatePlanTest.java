@@ -0,0 +1,156 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.koryphe.tuple.predicate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import uk.gov.gchq.koryphe.function.KorypheFunction;
+import uk.gov.gchq.koryphe.impl.predicate.And;
+import uk.gov.gchq.koryphe.impl.predicate.IsEqual;
+import uk.gov.gchq.koryphe.impl.predicate.Not;
+import uk.gov.gchq.koryphe.impl.predicate.Or;
+import uk.gov.gchq.koryphe.impl.predicate.Regex;
+import uk.gov.gchq.koryphe.impl.predicate.StringContains;
+import uk.gov.gchq.koryphe.predicate.AdaptedPredicate;
+import uk.gov.gchq.koryphe.tuple.MapTuple;
+import uk.gov.gchq.koryphe.tuple.Tuple;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TupleAdaptedPredicatePlanTest {
+    private static final AtomicInteger CALLS = new AtomicInteger();
+
+    @BeforeEach
+    public void before() {
+        CALLS.set(0);
+    }
+
+    @Test
+    public void shouldComputeRepeatedAdaptedInputOnce() {
+        // Given
+        final Predicate<Tuple<String>> predicate = new And<>(
+                lowerCaseName(new StringContains("al")),
+                lowerCaseName(new Regex("^v.*")));
+        final TupleAdaptedPredicatePlan<String> plan = TupleAdaptedPredicatePlan.of(predicate);
+
+        // When
+        final boolean result = plan.test(createTuple("Value"));
+
+        // Then
+        assertTrue(result);
+        assertEquals(1, plan.getSlotCount());
+        assertEquals(1, CALLS.get());
+    }
+
+    @Test
+    public void shouldOnlyComputeAdaptedInputWhenNeeded() {
+        // Given
+        final Predicate<Tuple<String>> predicate = new Or<>(
+                new TupleAdaptedPredicate<>(new IsEqual("Value"), new String[]{"name"}),
+                lowerCaseName(new StringContains("al")),
+                new Not<>(lowerCaseName(new Regex("^v.*"))));
+        final TupleAdaptedPredicatePlan<String> plan = TupleAdaptedPredicatePlan.of(predicate);
+
+        // When
+        final boolean result = plan.test(createTuple("Value"));
+
+        // Then
+        assertTrue(result);
+        assertEquals(1, plan.getSlotCount());
+        assertEquals(0, CALLS.get());
+    }
+
+    @Test
+    public void shouldNotShareAdaptedInputsForDifferentSelections() {
+        // Given
+        final Predicate<Tuple<String>> predicate = new And<>(
+                lowerCaseName(new StringContains("al")),
+                new TupleAdaptedPredicate<>(new AdaptedPredicate<>(new CountingLowerCase(), new StringContains("th")), new String[]{"other"}));
+        final TupleAdaptedPredicatePlan<String> plan = TupleAdaptedPredicatePlan.of(predicate);
+
+        // When
+        final boolean result = plan.test(createTuple("Value"));
+
+        // Then
+        assertTrue(result);
+        assertEquals(0, plan.getSlotCount());
+        assertEquals(2, CALLS.get());
+    }
+
+    @Test
+    public void shouldGiveSameResultAsPredicate() {
+        // Given
+        final Predicate<Tuple<String>> predicate = new Or<>(
+                new And<>(lowerCaseName(new StringContains("al")), new Not<>(lowerCaseName(new Regex(".*x.*")))),
+                new Or<>(),
+                new TupleAdaptedPredicateComposite.Builder<String>()
+                        .select(new String[]{"name"}).execute(new IsEqual("other"))
+                        .build(),
+                new Not<>(lowerCaseName(new Regex("^v.*"))));
+        final TupleAdaptedPredicatePlan<String> plan = TupleAdaptedPredicatePlan.of(predicate);
+
+        for (final String name : Arrays.asList("Value", "Vex", "other", "xal", "")) {
+            // When
+            final boolean expected = predicate.test(createTuple(name));
+            final boolean result = plan.test(createTuple(name));
+
+            // Then
+            assertEquals(expected, result, name);
+        }
+    }
+
+    @Test
+    public void shouldTestEmptyOrAsFalse() {
+        // Given
+        final TupleAdaptedPredicatePlan<String> plan = TupleAdaptedPredicatePlan.of(new Or<>());
+
+        // When / Then
+        assertFalse(plan.test(createTuple("Value")));
+    }
+
+    @Test
+    public void shouldRequireAPredicate() {
+        assertThrows(IllegalArgumentException.class, () -> TupleAdaptedPredicatePlan.of(null));
+    }
+
+    private static TupleAdaptedPredicate<String, Object> lowerCaseName(final Predicate<String> predicate) {
+        return new TupleAdaptedPredicate<>(new AdaptedPredicate<>(new CountingLowerCase(), predicate), new String[]{"name"});
+    }
+
+    private static Tuple<String> createTuple(final String name) {
+        final MapTuple<String> tuple = new MapTuple<>();
+        tuple.put("name", name);
+        tuple.put("other", "Other");
+        return tuple;
+    }
+
+    public static class CountingLowerCase extends KorypheFunction<Object, String> {
+        @Override
+        public String apply(final Object input) {
+            CALLS.incrementAndGet();
+            return null != input ? input.toString().toLowerCase() : null;
+        }
+    }
+}
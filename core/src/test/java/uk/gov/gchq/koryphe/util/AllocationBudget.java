@@ -0,0 +1,123 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.koryphe.util;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Asserts that an operation stays within a budget of bytes allocated per invocation,
+ * measured with the allocation counter of the current thread, so that accidental
+ * boxing or wrapper allocation on hot paths fails the build.
+ * <p>
+ * The operation is warmed up and then measured over several rounds, and the lowest
+ * round is compared with the budget. Budgets therefore apply to the operation once
+ * the JIT has compiled it, and allocations that escape analysis removes are not counted.
+ * </p>
+ * <p>
+ * Budgets are checked in the normal core test phase, as the core pom sets the
+ * {@value #ENABLED_KEY} system property to true. They can be turned off with
+ * <code>mvn test -D{@value #ENABLED_KEY}=false</code>. The tests are also skipped on
+ * JVMs that cannot measure thread allocations, and on JVMs running without the
+ * optimising compiler or escape analysis, where budgets of compiled code cannot hold.
+ * </p>
+ */
+public final class AllocationBudget {
+    public static final String ENABLED_KEY = "koryphe.allocation.budgets.enabled";
+
+    private static final int WARM_UP_INVOCATIONS = 10000;
+    private static final int MEASURED_INVOCATIONS = 100000;
+    private static final int MEASURED_ROUNDS = 10;
+    private static final Runnable NO_OP = () -> {
+    };
+
+    private AllocationBudget() {
+        // Empty
+    }
+
+    public static void assertAllocatesNothing(final Runnable operation) {
+        assertAllocatesAtMost(0, operation);
+    }
+
+    /**
+     * Asserts an operation allocates no more than the given number of bytes per
+     * invocation, on average.
+     *
+     * @param bytesPerInvocation the budget
+     * @param operation          the operation to measure
+     */
+    public static void assertAllocatesAtMost(final long bytesPerInvocation, final Runnable operation) {
+        final double allocated = measureBytesPerInvocation(operation);
+        assertTrue(allocated <= bytesPerInvocation,
+                String.format("Expected at most %d bytes per invocation but %.2f were allocated", bytesPerInvocation, allocated));
+    }
+
+    public static double measureBytesPerInvocation(final Runnable operation) {
+        assumeTrue(Boolean.getBoolean(ENABLED_KEY), "Allocation budgets are only checked when " + ENABLED_KEY + " is true");
+        assumeTrue(isOptimisingJit(), "Allocation budgets need the optimising compiler with escape analysis");
+        final com.sun.management.ThreadMXBean threadMXBean = getThreadMXBean();
+        run(operation, WARM_UP_INVOCATIONS);
+        run(NO_OP, WARM_UP_INVOCATIONS);
+
+        // The cost of reading the counter is measured and removed, so only the operation is counted.
+        // The lowest of several rounds is used, so allocations made while the JIT is still compiling are ignored.
+        long lowest = Long.MAX_VALUE;
+        for (int round = 0; round < MEASURED_ROUNDS && lowest > 0; round++) {
+            final long overhead = measure(threadMXBean, NO_OP);
+            final long allocated = measure(threadMXBean, operation);
+            lowest = Math.min(lowest, Math.max(0, allocated - overhead));
+        }
+        return lowest / (double) MEASURED_INVOCATIONS;
+    }
+
+    private static long measure(final com.sun.management.ThreadMXBean threadMXBean, final Runnable operation) {
+        final long threadId = Thread.currentThread().getId();
+        final long before = threadMXBean.getThreadAllocatedBytes(threadId);
+        run(operation, MEASURED_INVOCATIONS);
+        return threadMXBean.getThreadAllocatedBytes(threadId) - before;
+    }
+
+    private static void run(final Runnable operation, final int invocations) {
+        for (int i = 0; i < invocations; i++) {
+            operation.run();
+        }
+    }
+
+    private static boolean isOptimisingJit() {
+        for (final String argument : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+            if ("-Xint".equals(argument)
+                    || "-XX:-DoEscapeAnalysis".equals(argument)
+                    || argument.matches("-XX:TieredStopAtLevel=[0-3]")) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static com.sun.management.ThreadMXBean getThreadMXBean() {
+        final java.lang.management.ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        assumeTrue(threadMXBean instanceof com.sun.management.ThreadMXBean, "Thread allocation measurement is not available");
+        final com.sun.management.ThreadMXBean allocationMXBean = (com.sun.management.ThreadMXBean) threadMXBean;
+        assumeTrue(allocationMXBean.isThreadAllocatedMemorySupported(), "Thread allocation measurement is not supported");
+        if (!allocationMXBean.isThreadAllocatedMemoryEnabled()) {
+            allocationMXBean.setThreadAllocatedMemoryEnabled(true);
+        }
+        return allocationMXBean;
+    }
+}
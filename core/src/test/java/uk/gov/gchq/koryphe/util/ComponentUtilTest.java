@@ -0,0 +1,122 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.koryphe.util;
+
+import org.junit.jupiter.api.Test;
+
+import uk.gov.gchq.koryphe.Stateful;
+import uk.gov.gchq.koryphe.impl.function.Base64Decode;
+import uk.gov.gchq.koryphe.impl.function.DeserialiseJson;
+import uk.gov.gchq.koryphe.impl.function.ParseDate;
+import uk.gov.gchq.koryphe.impl.function.ParseTime;
+import uk.gov.gchq.koryphe.function.KorypheFunction;
+import uk.gov.gchq.koryphe.impl.function.ReverseString;
+import uk.gov.gchq.koryphe.impl.function.StringReplace;
+import uk.gov.gchq.koryphe.impl.function.StringRewrite;
+import uk.gov.gchq.koryphe.impl.function.StringTrim;
+import uk.gov.gchq.koryphe.impl.function.ToLowerCase;
+import uk.gov.gchq.koryphe.impl.predicate.IsA;
+import uk.gov.gchq.koryphe.impl.predicate.IsMoreThan;
+import uk.gov.gchq.koryphe.impl.predicate.Not;
+import uk.gov.gchq.koryphe.impl.predicate.Or;
+
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ComponentUtilTest {
+
+    @Test
+    public void shouldHaveValueEqualsWhenEqualsIsOverridden() {
+        assertTrue(ComponentUtil.hasValueEquals(new IsMoreThan(5)));
+    }
+
+    @Test
+    public void shouldHaveValueEqualsWhenClassBasedEqualsAndNoFields() {
+        assertTrue(ComponentUtil.hasValueEquals(new ToLowerCase()));
+    }
+
+    @Test
+    public void shouldNotHaveValueEqualsWhenClassBasedEqualsAndFields() {
+        assertFalse(ComponentUtil.hasValueEquals(new Prefix()));
+    }
+
+    @Test
+    public void shouldNotHaveValueEqualsWhenIdentityEquals() {
+        final Function<String, String> lambda = String::trim;
+        assertFalse(ComponentUtil.hasValueEquals(lambda));
+    }
+
+    @Test
+    public void shouldNotHaveValueEqualsWhenNestedComponentHasClassBasedEqualsAndFields() {
+        // Given
+        final StringRewrite first = new StringRewrite(new StringReplace("x", "y"));
+        final StringRewrite second = new StringRewrite(new StringReplace("x", "z"));
+
+        // When / Then
+        assertEquals(first, second);
+        assertFalse(ComponentUtil.hasValueEquals(first));
+    }
+
+    @Test
+    public void shouldHaveValueEqualsWhenNestedComponentsHaveValueEquals() {
+        assertTrue(ComponentUtil.hasValueEquals(new StringRewrite(new StringTrim(), new ReverseString())));
+        assertTrue(ComponentUtil.hasValueEquals(new Not<>(new Or<>(new IsMoreThan(5), new IsA(String.class)))));
+    }
+
+    @Test
+    public void shouldHaveValueEqualsWhenNestedComponentHasIdentityEquals() {
+        final Function<String, String> lambda = String::trim;
+        assertTrue(ComponentUtil.hasValueEquals(new StringRewrite(lambda)));
+    }
+
+    @Test
+    public void shouldDetectStatefulComponents() {
+        assertTrue(ComponentUtil.isStateful(new StatefulPrefix()));
+        assertFalse(ComponentUtil.isStateful(new Prefix()));
+        assertFalse(ComponentUtil.isStateful(null));
+    }
+
+    @Test
+    public void shouldDetectDeterministicComponents() {
+        assertTrue(ComponentUtil.isDeterministic(new ParseTime()));
+        assertFalse(ComponentUtil.isDeterministic(new ToLowerCase()));
+        assertFalse(ComponentUtil.isDeterministic(null));
+    }
+
+    @Test
+    public void shouldNotTreatFunctionsWithMutableOutputsAsDeterministic() {
+        assertFalse(ComponentUtil.isDeterministic(new ParseDate()));
+        assertFalse(ComponentUtil.isDeterministic(new DeserialiseJson<>()));
+        assertFalse(ComponentUtil.isDeterministic(new Base64Decode()));
+    }
+
+    public static class Prefix extends KorypheFunction<String, String> {
+        private String prefix = "a";
+
+        @Override
+        public String apply(final String input) {
+            return prefix + input;
+        }
+    }
+
+    @Stateful
+    public static class StatefulPrefix extends Prefix {
+    }
+}
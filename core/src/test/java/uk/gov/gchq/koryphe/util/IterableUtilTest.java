@@ -20,13 +20,26 @@ import com.google.common.collect.Lists;
 import org.junit.jupiter.api.Test;
 
 import uk.gov.gchq.koryphe.iterable.CloseableIterable;
+import uk.gov.gchq.koryphe.iterable.CloseableIterator;
+import uk.gov.gchq.koryphe.iterable.SkippableIterator;
+import uk.gov.gchq.koryphe.iterable.StreamIterable;
+import uk.gov.gchq.koryphe.metrics.Instrumentation;
+import uk.gov.gchq.koryphe.metrics.IterableTracer;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.Iterator;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -217,4 +230,269 @@ public class IterableUtilTest {
         // Then
         assertEquals(values, Lists.newArrayList(equalValues));
     }
+
+    @Test
+    public void shouldBatchItems() {
+        // Given
+        final List<Integer> values = Arrays.asList(0, 1, 2, 3, 4);
+
+        // When
+        final CloseableIterable<List<Integer>> batches = IterableUtil.batch(values, 2);
+
+        // Then
+        assertEquals(Arrays.asList(Arrays.asList(0, 1), Arrays.asList(2, 3), Collections.singletonList(4)), Lists.newArrayList(batches));
+    }
+
+    @Test
+    public void shouldReturnNoBatchesForEmptyIterable() {
+        // When
+        final CloseableIterable<List<Integer>> batches = IterableUtil.batch(Collections.<Integer>emptyList(), 2);
+
+        // Then
+        assertTrue(Lists.newArrayList(batches).isEmpty());
+    }
+
+    @Test
+    public void shouldThrowExceptionIfBatchSizeIsLessThanOne() {
+        // When
+        final Exception exception = assertThrows(IllegalArgumentException.class, () -> IterableUtil.batch(Arrays.asList(0, 1), 0));
+
+        // Then
+        assertEquals("Batch size must be at least 1", exception.getMessage());
+    }
+
+    @Test
+    public void shouldMicroBatchItemsBySizeWhenTimeLimitIsNotReached() {
+        // Given
+        final List<Integer> values = Arrays.asList(0, 1, 2, 3, 4);
+
+        // When
+        final CloseableIterable<List<Integer>> batches = IterableUtil.microBatch(values, 3, 60000L);
+
+        // Then
+        assertEquals(Arrays.asList(Arrays.asList(0, 1, 2), Arrays.asList(3, 4)), Lists.newArrayList(batches));
+    }
+
+    @Test
+    public void shouldMicroBatchItemsByTime() {
+        // Given
+        final List<Integer> values = Arrays.asList(0, 1, 2, 3);
+
+        // When
+        final CloseableIterable<List<Integer>> batches = IterableUtil.microBatch(values, 10, 0L);
+
+        // Then
+        assertEquals(Arrays.asList(Collections.singletonList(0), Collections.singletonList(1), Collections.singletonList(2), Collections.singletonList(3)), Lists.newArrayList(batches));
+    }
+
+    @Test
+    public void shouldMapBatches() {
+        // Given
+        final List<Integer> values = Arrays.asList(0, 1, 2, 3, 4);
+        final List<Integer> batchSizes = new ArrayList<>();
+
+        // When
+        final CloseableIterable<String> results = IterableUtil.mapBatches(values, 2, batch -> {
+            batchSizes.add(batch.size());
+            final List<String> strings = new ArrayList<>();
+            for (final Integer value : batch) {
+                strings.add(String.valueOf(value));
+            }
+            return strings;
+        });
+
+        // Then
+        assertEquals(Arrays.asList("0", "1", "2", "3", "4"), Lists.newArrayList(results));
+        assertEquals(Arrays.asList(2, 2, 1), batchSizes);
+    }
+
+    @Test
+    public void shouldApplyNestedMapsAndFiltersInOrder() {
+        // Given
+        final List<Integer> values = Arrays.asList(0, 1, 2, 3, 4, 5);
+
+        // When
+        final CloseableIterable<Integer> doubled = IterableUtil.map(values, (Function<Integer, Integer>) i -> i * 2);
+        final CloseableIterable<Integer> filtered = IterableUtil.filter(doubled, (Predicate<Integer>) i -> i > 2);
+        final CloseableIterable<String> mapped = IterableUtil.map(filtered, (Function<Integer, String>) i -> "v" + i);
+        final CloseableIterable<String> result = IterableUtil.filter(mapped, (Predicate<String>) s -> !"v6".equals(s));
+
+        // Then
+        assertEquals(Arrays.asList("v4", "v8", "v10"), Lists.newArrayList(result));
+        assertEquals(Arrays.asList("v4", "v6", "v8", "v10"), Lists.newArrayList(mapped));
+    }
+
+    @Test
+    public void shouldNotApplyStagesOfOuterPipelineToInnerPipeline() {
+        // Given
+        final List<Integer> values = Arrays.asList(1, 2, 3);
+        final CloseableIterable<Integer> inner = IterableUtil.map(values, (Function<Integer, Integer>) i -> i + 1);
+
+        // When
+        IterableUtil.map(inner, (Function<Integer, Integer>) i -> i * 10);
+
+        // Then
+        assertEquals(Arrays.asList(2, 3, 4), Lists.newArrayList(inner));
+    }
+
+    @Test
+    public void shouldProvideSizedSpliteratorForMappedCollection() {
+        // Given
+        final List<Integer> values = Arrays.asList(1, 2, 3);
+
+        // When
+        final Spliterator<Integer> spliterator = IterableUtil.<Integer, Integer>map(values, (Function<Integer, Integer>) i -> i + 1).spliterator();
+
+        // Then
+        assertEquals(3, spliterator.getExactSizeIfKnown());
+        assertTrue(spliterator.hasCharacteristics(Spliterator.ORDERED));
+        assertEquals(Arrays.asList(2, 3, 4), StreamSupport.stream(spliterator, false).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void shouldProvideUnsizedSpliteratorForFilteredCollection() {
+        // Given
+        final List<Integer> values = Arrays.asList(1, 2, 3);
+
+        // When
+        final Spliterator<Integer> spliterator = IterableUtil.filter(values, (Predicate<Integer>) i -> i > 1).spliterator();
+
+        // Then
+        assertEquals(-1, spliterator.getExactSizeIfKnown());
+        assertTrue(spliterator.hasCharacteristics(Spliterator.ORDERED));
+        assertEquals(Arrays.asList(2, 3), StreamSupport.stream(spliterator, false).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void shouldSkipToStartOfRandomAccessList() {
+        // Given
+        final List<Integer> values = Arrays.asList(0, 1, 2, 3, 4, 5);
+
+        // When
+        final CloseableIterable<Integer> limitedValues = IterableUtil.limit(values, 3, 5, true);
+
+        // Then
+        assertEquals(Arrays.asList(3, 4), Lists.newArrayList(limitedValues));
+    }
+
+    @Test
+    public void shouldSkipToStartOfStreamIterable() {
+        // Given
+        final StreamIterable<Integer> values = new StreamIterable<>(() -> Stream.of(0, 1, 2, 3, 4, 5));
+
+        // When
+        final CloseableIterable<Integer> limitedValues = IterableUtil.limit(values, 2, 4, true);
+
+        // Then
+        assertEquals(Arrays.asList(2, 3), Lists.newArrayList(limitedValues));
+    }
+
+    @Test
+    public void shouldUseSkippableIteratorToReachStart() {
+        // Given
+        final List<Integer> values = Arrays.asList(0, 1, 2, 3, 4, 5);
+        final int[] nextCalls = new int[1];
+        final Iterable<Integer> skippable = () -> new SkippableIterator<Integer>() {
+            private int index;
+
+            @Override
+            public int skip(final int n) {
+                final int skipped = Math.min(n, values.size() - index);
+                index += skipped;
+                return skipped;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return index < values.size();
+            }
+
+            @Override
+            public Integer next() {
+                nextCalls[0]++;
+                return values.get(index++);
+            }
+        };
+
+        // When
+        final CloseableIterable<Integer> limitedValues = IterableUtil.limit(skippable, 4, null, true);
+
+        // Then
+        assertEquals(Arrays.asList(4, 5), Lists.newArrayList(limitedValues));
+        assertEquals(2, nextCalls[0]);
+    }
+
+    @Test
+    public void shouldNotApplyFunctionsToSkippedItems() {
+        // Given
+        final List<Integer> values = Arrays.asList(0, 1, 2, 3, 4, 5);
+        final List<Integer> mappedInputs = new ArrayList<>();
+        final CloseableIterable<Integer> mapped = IterableUtil.map(new LinkedList<>(values), (Function<Integer, Integer>) i -> {
+            mappedInputs.add(i);
+            return i * 10;
+        });
+
+        // When
+        final CloseableIterable<Integer> limitedValues = IterableUtil.limit(mapped, 4, null, true);
+
+        // Then
+        assertEquals(Arrays.asList(40, 50), Lists.newArrayList(limitedValues));
+        assertEquals(Arrays.asList(4, 5), mappedInputs);
+    }
+
+    @Test
+    public void shouldSortItems() {
+        // Given
+        final List<Integer> values = Arrays.asList(4, 0, 3, 1, 2);
+
+        // When
+        final CloseableIterable<Integer> sorted = IterableUtil.sort(values, Comparator.naturalOrder(), 2);
+
+        // Then
+        assertEquals(Arrays.asList(0, 1, 2, 3, 4), Lists.newArrayList(sorted));
+    }
+
+    @Test
+    public void shouldMergeSortedItems() {
+        // Given
+        final List<Integer> itr1 = Arrays.asList(0, 3, 4);
+        final List<Integer> itr2 = Arrays.asList(1, 2, 5);
+
+        // When
+        final CloseableIterable<Integer> merged = IterableUtil.mergeSorted(Arrays.asList(itr1, itr2), Comparator.naturalOrder());
+
+        // Then
+        assertEquals(Arrays.asList(0, 1, 2, 3, 4, 5), Lists.newArrayList(merged));
+    }
+
+    @Test
+    public void shouldTraceFusedPipelineStagesAsOneStage() {
+        // Given
+        final Function<Integer, Integer> doubler = i -> i * 2;
+        final Predicate<Integer> isSmall = i -> i < 5;
+        final List<String> stages = new ArrayList<>();
+        final List<Object> components = new ArrayList<>();
+        Instrumentation.setIterableTracer(new IterableTracer() {
+            @Override
+            public <T> CloseableIterator<T> trace(final String stage, final Object[] stageComponents, final CloseableIterator<T> iterator) {
+                stages.add(stage);
+                components.addAll(Arrays.asList(stageComponents));
+                return iterator;
+            }
+        });
+        Instrumentation.setEnabled(true);
+
+        try {
+            // When
+            final Iterable<Integer> values = IterableUtil.limit(IterableUtil.filter(IterableUtil.map(Arrays.asList(1, 2, 3), doubler), isSmall), 0, 1, true);
+
+            // Then
+            assertEquals(Collections.singletonList(2), Lists.newArrayList(values));
+            assertEquals(Arrays.asList("pipeline", "limit"), stages);
+            assertEquals(Arrays.asList(doubler, isSmall), components);
+        } finally {
+            Instrumentation.setIterableTracer(null);
+            Instrumentation.setEnabled(false);
+        }
+    }
 }
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.koryphe.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PrimitiveRangeTest {
+    private static final List<Boolean> FLAGS = Arrays.asList(null, true, false);
+
+    @Test
+    public void shouldMatchRangeUtilForLongs() {
+        assertSameAsRangeUtil(random -> (long) random.nextInt(10) - 5, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    @Test
+    public void shouldMatchRangeUtilForIntegers() {
+        assertSameAsRangeUtil(random -> random.nextInt(10) - 5, Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    @Test
+    public void shouldMatchRangeUtilForDoubles() {
+        final Double[] specialValues = {Double.NaN, -0.0, 0.0, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, 1.5};
+        assertSameAsRangeUtil(random -> random.nextBoolean()
+                ? specialValues[random.nextInt(specialValues.length)]
+                : (double) (random.nextInt(10) - 5), Double.NaN, -0.0);
+    }
+
+    @Test
+    public void shouldMatchRangeUtilForDates() {
+        assertSameAsRangeUtil(random -> new Date(random.nextInt(10)), new Date(Long.MIN_VALUE), new Date(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void shouldOnlySupportValuesOfTheSameClassAsTheBounds() {
+        // Given
+        final PrimitiveRange range = PrimitiveRange.of(1L, 10L, true, true);
+
+        // Then
+        assertTrue(range.supports(5L));
+        assertTrue(range.supports(Long.class));
+        assertFalse(range.supports(5));
+        assertFalse(range.supports(Double.class));
+        assertFalse(range.supports((Object) null));
+    }
+
+    @Test
+    public void shouldNotSupportOtherBoundTypes() {
+        assertFalse(PrimitiveRange.of("a", "b", true, true).supports("a"));
+        assertFalse(PrimitiveRange.of(1L, 2, true, true).supports(1L));
+        assertFalse(PrimitiveRange.of(null, null, true, true).supports((Object) null));
+        assertFalse(PrimitiveRange.of(new java.sql.Timestamp(1L), null, true, true).supports(new Date(1L)));
+    }
+
+    private static <T extends Comparable<T>> void assertSameAsRangeUtil(final Function<Random, T> generator, final T min, final T max) {
+        final Random random = new Random(1);
+        for (int i = 0; i < 20000; i++) {
+            final T start = pick(random, generator, min, max, true);
+            final T end = pick(random, generator, min, max, true);
+            final Boolean startInclusive = FLAGS.get(random.nextInt(3));
+            final Boolean endInclusive = FLAGS.get(random.nextInt(3));
+            final Boolean startFullyContained = FLAGS.get(random.nextInt(3));
+            final Boolean endFullyContained = FLAGS.get(random.nextInt(3));
+            final T startValue = pick(random, generator, min, max, false);
+            final T endValue = pick(random, generator, min, max, false);
+
+            final PrimitiveRange range = PrimitiveRange.of(start, end, startInclusive, endInclusive, startFullyContained, endFullyContained);
+            final boolean expected = RangeUtil.inRange(startValue, endValue, start, end, startInclusive, endInclusive, startFullyContained, endFullyContained);
+
+            final String description = Arrays.asList(start, end, startInclusive, endInclusive, startFullyContained, endFullyContained, startValue, endValue).toString();
+            if (null != start || null != end) {
+                assertTrue(range.supports(startValue), description);
+                assertEquals(expected, range.inRange(startValue, endValue), description);
+            }
+        }
+    }
+
+    private static <T> T pick(final Random random, final Function<Random, T> generator, final T min, final T max, final boolean allowNull) {
+        final int choice = random.nextInt(20);
+        if (0 == choice && allowNull) {
+            return null;
+        }
+        if (1 == choice) {
+            return min;
+        }
+        if (2 == choice) {
+            return max;
+        }
+        return generator.apply(random);
+    }
+}
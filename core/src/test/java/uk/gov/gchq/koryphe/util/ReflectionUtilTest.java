@@ -24,12 +24,16 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import uk.gov.gchq.koryphe.impl.predicate.IsMoreThan;
+import uk.gov.gchq.koryphe.predicate.MockPredicateTrue;
 import uk.gov.gchq.koryphe.serialisation.json.obj.first.TestCustomNumber;
 
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -42,6 +46,8 @@ public class ReflectionUtilTest {
     @BeforeEach
     @AfterEach
     public void cleanUp() {
+        System.clearProperty(ReflectionUtil.USE_CLASS_INDEX_KEY);
+        System.clearProperty(ReflectionUtil.SCAN_THREADS_KEY);
         ReflectionUtil.resetReflectionPackages();
         ReflectionUtil.resetReflectionCache();
     }
@@ -168,4 +174,92 @@ public class ReflectionUtilTest {
         expected.add(UnsignedLong.class.getPackage().getName());
         assertEquals(expected, ReflectionUtil.getReflectionPackages());
     }
+
+    @Test
+    public void shouldReturnSameSubclassesFromClassIndexAsFromScanning() {
+        // Given
+        final Set<Class> scannedPredicates = ReflectionUtil.getSubTypes(Predicate.class);
+        final Set<Class> scannedFunctions = ReflectionUtil.getSubTypes(Function.class);
+        ReflectionUtil.resetReflectionCache();
+
+        // When
+        System.setProperty(ReflectionUtil.USE_CLASS_INDEX_KEY, "true");
+        final Set<Class> indexedPredicates = ReflectionUtil.getSubTypes(Predicate.class);
+        final Set<Class> indexedFunctions = ReflectionUtil.getSubTypes(Function.class);
+
+        // Then
+        assertThat(indexedPredicates, IsCollectionContaining.hasItems(IsMoreThan.class, MockPredicateTrue.class));
+        assertEquals(scannedPredicates, indexedPredicates);
+        assertEquals(scannedFunctions, indexedFunctions);
+    }
+
+    @Test
+    public void shouldScanForTypesNotInClassIndex() {
+        // Given
+        System.setProperty(ReflectionUtil.USE_CLASS_INDEX_KEY, "true");
+
+        // When
+        final Set<Class> subclasses = ReflectionUtil.getSubTypes(Number.class);
+
+        // Then
+        assertThat(subclasses, IsCollectionContaining.hasItems(TestCustomNumber.class));
+    }
+
+    @Test
+    public void shouldMergeNewPackagesIntoCachedSubclasses() {
+        // Given
+        final Set<Class> subclassesBefore = ReflectionUtil.getSubTypes(Number.class);
+        assertFalse(subclassesBefore.contains(UnsignedLong.class));
+
+        // When
+        ReflectionUtil.addReflectionPackages(UnsignedLong.class.getPackage().getName());
+        final Set<Class> subclassesAfter = ReflectionUtil.getSubTypes(Number.class);
+
+        // Then
+        assertThat(subclassesAfter, IsCollectionContaining.hasItems(
+                TestCustomNumber.class,
+                uk.gov.gchq.koryphe.serialisation.json.obj.second.TestCustomNumber.class,
+                UnsignedLong.class
+        ));
+        assertEquals(Collections.singleton(UnsignedLong.class), ReflectionUtil.getSimpleClassNames(Number.class).get(UnsignedLong.class.getSimpleName()));
+    }
+
+    @Test
+    public void shouldNotChangeCachedSubclassesWhenSubPackageIsAdded() {
+        // Given
+        final Set<Class> subclassesBefore = ReflectionUtil.getSubTypes(Number.class);
+
+        // When
+        ReflectionUtil.addReflectionPackages(TestCustomNumber.class.getPackage().getName());
+
+        // Then
+        assertSame(subclassesBefore, ReflectionUtil.getSubTypes(Number.class));
+    }
+
+    @Test
+    public void shouldCacheSubclassesOfSeveralClasses() {
+        // Given
+        ReflectionUtil.cacheSubTypes(Number.class, Predicate.class);
+
+        // When
+        final Set<Class> numbers = ReflectionUtil.getSubTypes(Number.class);
+        final Set<Class> predicates = ReflectionUtil.getSubTypes(Predicate.class);
+
+        // Then
+        assertThat(numbers, IsCollectionContaining.hasItems(TestCustomNumber.class));
+        assertThat(predicates, IsCollectionContaining.hasItems(IsMoreThan.class));
+        assertSame(numbers, ReflectionUtil.getSubTypes(Number.class));
+    }
+
+    @Test
+    public void shouldScanWithConfiguredNumberOfThreads() {
+        // Given
+        System.setProperty(ReflectionUtil.SCAN_THREADS_KEY, "2");
+
+        // When
+        final Set<Class> subclasses = ReflectionUtil.getSubTypes(Number.class);
+
+        // Then
+        assertThat(subclasses, IsCollectionContaining.hasItems(TestCustomNumber.class));
+    }
 }
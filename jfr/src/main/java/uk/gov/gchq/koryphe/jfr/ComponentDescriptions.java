@@ -0,0 +1,58 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.koryphe.jfr;
+
+import uk.gov.gchq.koryphe.Summary;
+
+import java.util.StringJoiner;
+
+final class ComponentDescriptions {
+    private static final ClassValue<String> SUMMARIES = new ClassValue<String>() {
+        @Override
+        protected String computeValue(final Class<?> type) {
+            final Summary summary = type.getAnnotation(Summary.class);
+            return null == summary ? "" : summary.value();
+        }
+    };
+
+    private ComponentDescriptions() {
+        // Empty
+    }
+
+    /**
+     * @param componentClass the class of the component
+     * @return the {@link Summary} text of the class, or an empty string if it is not annotated.
+     */
+    static String getSummary(final Class<?> componentClass) {
+        return null == componentClass ? "" : SUMMARIES.get(componentClass);
+    }
+
+    static String getClassNames(final Object[] components) {
+        final StringJoiner names = new StringJoiner(", ");
+        for (final Object component : components) {
+            names.add(null == component ? "null" : component.getClass().getName());
+        }
+        return names.toString();
+    }
+
+    static String getSummaries(final Object[] components) {
+        final StringJoiner summaries = new StringJoiner("; ");
+        for (final Object component : components) {
+            summaries.add(getSummary(null == component ? null : component.getClass()));
+        }
+        return summaries.toString();
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.koryphe.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * An <code>IterableStageEvent</code> spans the life of an iterator created by an
+ * {@link uk.gov.gchq.koryphe.util.IterableUtil} stage, from when it is opened until
+ * it is closed or exhausted.
+ */
+@Name("uk.gov.gchq.koryphe.IterableStage")
+@Label("Iterable Stage")
+@Category("Koryphe")
+@Description("An iterator created by a lazy map, filter, limit, concat or batch stage")
+public class IterableStageEvent extends jdk.jfr.Event {
+    @Label("Stage")
+    String stage;
+
+    @Label("Components")
+    @Description("The classes of the functions and predicates applied by the stage")
+    String components;
+
+    @Label("Summaries")
+    @Description("The summaries of the functions and predicates applied by the stage")
+    String summaries;
+
+    @Label("Item Count")
+    @Description("The number of items returned by the iterator")
+    long itemCount;
+
+    @Label("Exhausted")
+    @Description("True if the iterator was read to the end, false if it was closed early")
+    boolean exhausted;
+}
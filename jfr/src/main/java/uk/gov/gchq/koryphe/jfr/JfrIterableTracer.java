@@ -0,0 +1,102 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.koryphe.jfr;
+
+import uk.gov.gchq.koryphe.iterable.CloseableIterator;
+import uk.gov.gchq.koryphe.iterable.SkippableIterator;
+import uk.gov.gchq.koryphe.metrics.IterableTracer;
+
+/**
+ * A <code>JfrIterableTracer</code> emits an {@link IterableStageEvent} for each
+ * iterator created by an {@link uk.gov.gchq.koryphe.util.IterableUtil} stage.
+ * Iterators are returned unwrapped if no recording has the event enabled.
+ */
+public class JfrIterableTracer implements IterableTracer {
+    @Override
+    public <T> CloseableIterator<T> trace(final String stage, final Object[] components, final CloseableIterator<T> iterator) {
+        final IterableStageEvent event = new IterableStageEvent();
+        if (!event.isEnabled()) {
+            return iterator;
+        }
+
+        event.stage = stage;
+        event.components = ComponentDescriptions.getClassNames(components);
+        event.summaries = ComponentDescriptions.getSummaries(components);
+        event.begin();
+        if (iterator instanceof SkippableIterator) {
+            return new TracedSkippableIterator<>(iterator, event);
+        }
+        return new TracedIterator<>(iterator, event);
+    }
+
+    private static class TracedIterator<T> implements CloseableIterator<T> {
+        protected final CloseableIterator<T> iterator;
+        private final IterableStageEvent event;
+        private long itemCount;
+        private boolean finished;
+
+        TracedIterator(final CloseableIterator<T> iterator, final IterableStageEvent event) {
+            this.iterator = iterator;
+            this.event = event;
+        }
+
+        @Override
+        public boolean hasNext() {
+            final boolean hasNext = iterator.hasNext();
+            if (!hasNext) {
+                finish(true);
+            }
+            return hasNext;
+        }
+
+        @Override
+        public T next() {
+            final T next = iterator.next();
+            itemCount++;
+            return next;
+        }
+
+        @Override
+        public void close() {
+            try {
+                iterator.close();
+            } finally {
+                finish(false);
+            }
+        }
+
+        private void finish(final boolean exhausted) {
+            if (!finished) {
+                finished = true;
+                event.end();
+                event.itemCount = itemCount;
+                event.exhausted = exhausted;
+                event.commit();
+            }
+        }
+    }
+
+    private static final class TracedSkippableIterator<T> extends TracedIterator<T> implements SkippableIterator<T> {
+        TracedSkippableIterator(final CloseableIterator<T> iterator, final IterableStageEvent event) {
+            super(iterator, event);
+        }
+
+        @Override
+        public int skip(final int n) {
+            return ((SkippableIterator<T>) iterator).skip(n);
+        }
+    }
+}
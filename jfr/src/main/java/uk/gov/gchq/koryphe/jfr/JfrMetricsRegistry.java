@@ -0,0 +1,90 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.koryphe.jfr;
+
+import uk.gov.gchq.koryphe.metrics.InMemoryMetricsRegistry;
+import uk.gov.gchq.koryphe.metrics.Metrics;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A <code>JfrMetricsRegistry</code> keeps the {@link uk.gov.gchq.koryphe.metrics.InMemoryMetrics}
+ * for each component and also emits a {@link SlowInvocationEvent} for each invocation
+ * that takes at least the slow threshold.
+ * <p>
+ * The threshold defaults to the {@value #SLOW_THRESHOLD_MILLIS_KEY} system property,
+ * or {@value #DEFAULT_SLOW_THRESHOLD_MILLIS}ms if it is not set. Only invocations
+ * above the threshold pay the cost of creating an event, so fast invocations are
+ * not recorded.
+ * </p>
+ */
+public class JfrMetricsRegistry extends InMemoryMetricsRegistry {
+    public static final String SLOW_THRESHOLD_MILLIS_KEY = "koryphe.jfr.slowThresholdMillis";
+    public static final long DEFAULT_SLOW_THRESHOLD_MILLIS = 10;
+
+    private final long slowThresholdNanos;
+
+    public JfrMetricsRegistry() {
+        this(Long.getLong(SLOW_THRESHOLD_MILLIS_KEY, DEFAULT_SLOW_THRESHOLD_MILLIS), TimeUnit.MILLISECONDS);
+    }
+
+    public JfrMetricsRegistry(final long slowThreshold, final TimeUnit unit) {
+        if (slowThreshold < 0) {
+            throw new IllegalArgumentException("Slow threshold must not be negative: " + slowThreshold);
+        }
+        this.slowThresholdNanos = unit.toNanos(slowThreshold);
+    }
+
+    @Override
+    public Metrics getMetrics(final String name, final Object component) {
+        final Class<?> componentClass = null == component ? null : component.getClass();
+        return new JfrMetrics(getMetrics(name), name, componentClass, slowThresholdNanos);
+    }
+
+    public long getSlowThresholdNanos() {
+        return slowThresholdNanos;
+    }
+
+    private static final class JfrMetrics implements Metrics {
+        private final Metrics delegate;
+        private final String name;
+        private final Class<?> componentClass;
+        private final long slowThresholdNanos;
+
+        private JfrMetrics(final Metrics delegate, final String name, final Class<?> componentClass, final long slowThresholdNanos) {
+            this.delegate = delegate;
+            this.name = name;
+            this.componentClass = componentClass;
+            this.slowThresholdNanos = slowThresholdNanos;
+        }
+
+        @Override
+        public void record(final Outcome outcome, final long durationNanos) {
+            delegate.record(outcome, durationNanos);
+            if (durationNanos >= slowThresholdNanos) {
+                final SlowInvocationEvent event = new SlowInvocationEvent();
+                if (event.isEnabled()) {
+                    event.name = name;
+                    event.componentClass = componentClass;
+                    event.summary = ComponentDescriptions.getSummary(componentClass);
+                    event.outcome = outcome.name();
+                    event.invocationDuration = durationNanos;
+                    event.commit();
+                }
+            }
+        }
+    }
+}
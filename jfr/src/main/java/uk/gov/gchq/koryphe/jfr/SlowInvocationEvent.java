@@ -0,0 +1,49 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.koryphe.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * A <code>SlowInvocationEvent</code> is emitted when an instrumented component
+ * takes at least the threshold configured in {@link JfrMetricsRegistry} to run.
+ */
+@Name("uk.gov.gchq.koryphe.SlowInvocation")
+@Label("Slow Invocation")
+@Category("Koryphe")
+@Description("An invocation of a function, predicate or binary operator that was slower than the threshold")
+public class SlowInvocationEvent extends jdk.jfr.Event {
+    @Label("Name")
+    @Description("The path of the component in its instrumented tree")
+    String name;
+
+    @Label("Component Class")
+    Class<?> componentClass;
+
+    @Label("Summary")
+    String summary;
+
+    @Label("Outcome")
+    String outcome;
+
+    @Label("Invocation Duration")
+    @Timespan(Timespan.NANOSECONDS)
+    long invocationDuration;
+}
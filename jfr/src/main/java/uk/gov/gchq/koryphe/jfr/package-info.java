@@ -0,0 +1,25 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/**
+ * Java Flight Recorder events for Koryphe. Adding this module to the classpath
+ * registers a {@link uk.gov.gchq.koryphe.metrics.MetricsRegistry} that emits an
+ * event for each slow invocation of an instrumented function, predicate or binary
+ * operator, and an {@link uk.gov.gchq.koryphe.metrics.IterableTracer} that emits
+ * an event for each {@link uk.gov.gchq.koryphe.util.IterableUtil} stage that is
+ * iterated. Events are only emitted while a recording has them enabled.
+ */
+package uk.gov.gchq.koryphe.jfr;
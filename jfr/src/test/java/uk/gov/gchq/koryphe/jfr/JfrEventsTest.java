@@ -0,0 +1,182 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.koryphe.jfr;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import uk.gov.gchq.koryphe.impl.predicate.IsMoreThan;
+import uk.gov.gchq.koryphe.iterable.CloseableIterator;
+import uk.gov.gchq.koryphe.iterable.StreamIterator;
+import uk.gov.gchq.koryphe.metrics.Instrumentation;
+import uk.gov.gchq.koryphe.util.IterableUtil;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class JfrEventsTest {
+    private static final String SLOW_INVOCATION = "uk.gov.gchq.koryphe.SlowInvocation";
+    private static final String ITERABLE_STAGE = "uk.gov.gchq.koryphe.IterableStage";
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    public void before() {
+        Instrumentation.setEnabled(true);
+    }
+
+    @AfterEach
+    public void after() {
+        Instrumentation.setDefaultRegistry(null);
+        Instrumentation.setEnabled(false);
+    }
+
+    @Test
+    public void shouldRegisterRegistryAndTracerWithServiceLoader() {
+        assertTrue(Instrumentation.getDefaultRegistry() instanceof JfrMetricsRegistry);
+        assertTrue(Instrumentation.getIterableTracer() instanceof JfrIterableTracer);
+    }
+
+    @Test
+    public void shouldEmitEventForSlowInvocations() throws IOException {
+        // Given
+        final JfrMetricsRegistry registry = new JfrMetricsRegistry(0, TimeUnit.MILLISECONDS);
+        final Predicate<Comparable> predicate = Instrumentation.instrument(new IsMoreThan(1), registry);
+
+        // When
+        final List<RecordedEvent> events = record(SLOW_INVOCATION, () -> {
+            predicate.test(0);
+            predicate.test(2);
+        });
+
+        // Then
+        assertEquals(2, events.size());
+        final RecordedEvent event = events.get(0);
+        assertEquals("IsMoreThan", event.getString("name"));
+        assertEquals(IsMoreThan.class.getName(), event.getClass("componentClass").getName());
+        assertEquals("Checks if a comparable is more than a provided value", event.getString("summary"));
+        assertEquals("FAIL", event.getString("outcome"));
+        assertEquals("PASS", events.get(1).getString("outcome"));
+        assertEquals(2, registry.getMetrics("IsMoreThan").getInvocationCount());
+    }
+
+    @Test
+    public void shouldNotEmitEventForFastInvocations() throws IOException {
+        // Given
+        final JfrMetricsRegistry registry = new JfrMetricsRegistry(1, TimeUnit.HOURS);
+        final Predicate<Comparable> predicate = Instrumentation.instrument(new IsMoreThan(1), registry);
+
+        // When
+        final List<RecordedEvent> events = record(SLOW_INVOCATION, () -> predicate.test(2));
+
+        // Then
+        assertTrue(events.isEmpty());
+        assertEquals(1, registry.getMetrics("IsMoreThan").getInvocationCount());
+    }
+
+    @Test
+    public void shouldEmitEventForEachIterableStage() throws IOException {
+        // Given
+        final Function<Integer, Integer> doubler = i -> i * 2;
+        final Iterable<Integer> values = IterableUtil.filter(IterableUtil.map(Arrays.asList(1, 2, 3), doubler), new IsMoreThan(2));
+
+        // When
+        final List<RecordedEvent> events = record(ITERABLE_STAGE, () -> values.forEach(value -> {
+        }));
+
+        // Then
+        assertEquals(1, events.size());
+        final RecordedEvent event = events.get(0);
+        assertEquals("pipeline", event.getString("stage"));
+        assertEquals(doubler.getClass().getName() + ", " + IsMoreThan.class.getName(), event.getString("components"));
+        assertEquals("; Checks if a comparable is more than a provided value", event.getString("summaries"));
+        assertEquals(2, event.getLong("itemCount"));
+        assertTrue(event.getBoolean("exhausted"));
+    }
+
+    @Test
+    public void shouldEmitEventWhenIteratorIsClosedEarly() throws IOException {
+        // Given
+        final Iterable<List<Integer>> batches = IterableUtil.batch(Arrays.asList(1, 2, 3), 2);
+
+        // When
+        final List<RecordedEvent> events = record(ITERABLE_STAGE, () -> {
+            final CloseableIterator<List<Integer>> iterator = (CloseableIterator<List<Integer>>) batches.iterator();
+            iterator.next();
+            iterator.close();
+        });
+
+        // Then
+        assertEquals(1, events.size());
+        assertEquals("batch", events.get(0).getString("stage"));
+        assertEquals(1, events.get(0).getLong("itemCount"));
+        assertFalse(events.get(0).getBoolean("exhausted"));
+    }
+
+    @Test
+    public void shouldNotWrapIteratorsWhenEventIsDisabled() {
+        // Given
+        final CloseableIterator<Integer> iterator = new StreamIterator<>(Arrays.asList(1, 2).stream());
+
+        // When
+        final Object traced = new JfrIterableTracer().trace("pipeline", new Object[0], iterator);
+
+        // Then
+        assertSame(iterator, traced);
+    }
+
+    @Test
+    public void shouldRequireANonNegativeThreshold() {
+        assertThrows(IllegalArgumentException.class, () -> new JfrMetricsRegistry(-1, TimeUnit.MILLISECONDS));
+    }
+
+    private List<RecordedEvent> record(final String eventName, final Runnable runnable) throws IOException {
+        final Path file = tempDir.resolve("koryphe.jfr");
+        try (final Recording recording = new Recording()) {
+            recording.enable(eventName).withThreshold(Duration.ZERO);
+            recording.start();
+            runnable.run();
+            recording.stop();
+            recording.dump(file);
+        }
+
+        final List<RecordedEvent> events = new ArrayList<>(RecordingFile.readAllEvents(file));
+        return events.stream()
+                .filter(event -> eventName.equals(event.getEventType().getName()))
+                .collect(Collectors.toList());
+    }
+}
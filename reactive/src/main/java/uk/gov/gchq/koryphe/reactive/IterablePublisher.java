@@ -0,0 +1,169 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.koryphe.reactive;
+
+import uk.gov.gchq.koryphe.util.CloseableUtil;
+
+import java.util.Iterator;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An {@code IterablePublisher} is a {@link Flow.Publisher} that emits the items of an {@link Iterable}.
+ * <p>
+ * Items are only pulled from the iterable when a subscriber has requested them, and
+ * they are pulled on the provided {@link Executor} rather than the requesting thread.
+ * Each subscriber is given its own iterator, which is closed once the iterator has been
+ * exhausted, an error occurs or the subscription is cancelled.
+ * </p>
+ *
+ * @param <T> the type of items in the iterable
+ */
+public class IterablePublisher<T> implements Flow.Publisher<T> {
+    private final Iterable<T> iterable;
+    private final Executor executor;
+
+    public IterablePublisher(final Iterable<T> iterable) {
+        this(iterable, ForkJoinPool.commonPool());
+    }
+
+    public IterablePublisher(final Iterable<T> iterable, final Executor executor) {
+        if (null == iterable) {
+            throw new IllegalArgumentException("Iterable cannot be null");
+        }
+        if (null == executor) {
+            throw new IllegalArgumentException("Executor cannot be null");
+        }
+        this.iterable = iterable;
+        this.executor = executor;
+    }
+
+    @Override
+    public void subscribe(final Flow.Subscriber<? super T> subscriber) {
+        if (null == subscriber) {
+            throw new NullPointerException("Subscriber cannot be null");
+        }
+        final IterableSubscription<T> subscription = new IterableSubscription<>(iterable, executor, subscriber);
+        subscriber.onSubscribe(subscription);
+    }
+
+    public Iterable<T> getIterable() {
+        return iterable;
+    }
+
+    private static final class IterableSubscription<T> implements Flow.Subscription, Runnable {
+        private final Iterable<T> iterable;
+        private final Executor executor;
+        private final Flow.Subscriber<? super T> subscriber;
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger pendingDrains = new AtomicInteger();
+
+        private Iterator<T> iterator;
+        private volatile boolean cancelled;
+        private volatile IllegalArgumentException invalidRequest;
+
+        private IterableSubscription(final Iterable<T> iterable, final Executor executor, final Flow.Subscriber<? super T> subscriber) {
+            this.iterable = iterable;
+            this.executor = executor;
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(final long n) {
+            if (n <= 0) {
+                invalidRequest = new IllegalArgumentException("Requested number of items must be positive, but was " + n);
+            } else {
+                long current;
+                long updated;
+                do {
+                    current = requested.get();
+                    updated = current + n < 0 ? Long.MAX_VALUE : current + n;
+                } while (!requested.compareAndSet(current, updated));
+            }
+            scheduleDrain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            scheduleDrain();
+        }
+
+        @Override
+        public void run() {
+            int missed = 1;
+            while (true) {
+                if (cancelled) {
+                    CloseableUtil.close(iterator);
+                    return;
+                }
+
+                if (null != invalidRequest) {
+                    terminate();
+                    subscriber.onError(invalidRequest);
+                    return;
+                }
+
+                try {
+                    if (null == iterator) {
+                        iterator = iterable.iterator();
+                    }
+
+                    final long demand = requested.get();
+                    long emitted = 0;
+                    while (emitted != demand && !cancelled && iterator.hasNext()) {
+                        subscriber.onNext(iterator.next());
+                        emitted++;
+                    }
+
+                    if (!cancelled && !iterator.hasNext()) {
+                        terminate();
+                        subscriber.onComplete();
+                        return;
+                    }
+
+                    if (0 != emitted && Long.MAX_VALUE != demand) {
+                        requested.addAndGet(-emitted);
+                    }
+                } catch (final RuntimeException e) {
+                    terminate();
+                    subscriber.onError(e);
+                    return;
+                }
+
+                missed = pendingDrains.addAndGet(-missed);
+                if (0 == missed) {
+                    return;
+                }
+            }
+        }
+
+        private void scheduleDrain() {
+            // Only one drain may run at a time; signals arriving mid-drain are picked up by the running drain
+            if (0 == pendingDrains.getAndIncrement()) {
+                executor.execute(this);
+            }
+        }
+
+        private void terminate() {
+            cancelled = true;
+            CloseableUtil.close(iterator);
+        }
+    }
+}
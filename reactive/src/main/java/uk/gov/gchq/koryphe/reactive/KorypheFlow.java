@@ -0,0 +1,262 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.koryphe.reactive;
+
+import uk.gov.gchq.koryphe.iterable.CloseableIterable;
+
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * A {@code KorypheFlow} is a utility class providing capabilities for:
+ * <ul>
+ * <li>Converting between {@link Iterable}s and {@link Flow.Publisher}s</li>
+ * <li>Lazily applying a {@link Function} to each item emitted by a {@link Flow.Publisher}</li>
+ * <li>Filtering the items emitted by a {@link Flow.Publisher} with a {@link Predicate}</li>
+ * <li>Reducing the items emitted by a {@link Flow.Publisher} with a {@link BinaryOperator}</li>
+ * </ul>
+ * Demand from downstream subscribers is propagated upstream, so no stage buffers
+ * more items than have been requested.
+ */
+public final class KorypheFlow {
+    private KorypheFlow() {
+        // Empty
+    }
+
+    public static <T> Flow.Publisher<T> fromIterable(final Iterable<T> iterable) {
+        return new IterablePublisher<>(iterable);
+    }
+
+    public static <T> CloseableIterable<T> toIterable(final Flow.Publisher<T> publisher) {
+        return new PublisherIterable<>(publisher);
+    }
+
+    /**
+     * Lazily applies a function to each item emitted by a publisher.
+     *
+     * @param publisher the publisher of the items to map
+     * @param function  the function to apply
+     * @param <I>       the type of the items emitted by the publisher
+     * @param <O>       the type of the mapped items
+     * @return the mapped publisher
+     */
+    public static <I, O> Flow.Publisher<O> map(final Flow.Publisher<I> publisher, final Function<? super I, ? extends O> function) {
+        if (null == publisher) {
+            throw new IllegalArgumentException("Publisher cannot be null");
+        }
+        if (null == function) {
+            throw new IllegalArgumentException("Function cannot be null");
+        }
+        return subscriber -> publisher.subscribe(new MapSubscriber<>(subscriber, function));
+    }
+
+    /**
+     * Filters items emitted by a publisher.
+     * If the predicate returns false then an item is not valid and is removed.
+     *
+     * @param publisher the publisher of the items to filter
+     * @param predicate the predicate to apply
+     * @param <T>       the type of the items emitted by the publisher
+     * @return the filtered publisher
+     */
+    public static <T> Flow.Publisher<T> filter(final Flow.Publisher<T> publisher, final Predicate<? super T> predicate) {
+        if (null == publisher) {
+            throw new IllegalArgumentException("Publisher cannot be null");
+        }
+        if (null == predicate) {
+            throw new IllegalArgumentException("Predicate cannot be null");
+        }
+        return subscriber -> publisher.subscribe(new FilterSubscriber<>(subscriber, predicate));
+    }
+
+    /**
+     * Reduces the items emitted by a publisher into a single item, which is
+     * emitted once the publisher completes. If the publisher does not emit
+     * any items then nothing is emitted.
+     *
+     * @param publisher the publisher of the items to reduce
+     * @param operator  the binary operator used to combine items
+     * @param <T>       the type of the items emitted by the publisher
+     * @return a publisher of the reduced item
+     */
+    public static <T> Flow.Publisher<T> reduce(final Flow.Publisher<? extends T> publisher, final BinaryOperator<T> operator) {
+        if (null == publisher) {
+            throw new IllegalArgumentException("Publisher cannot be null");
+        }
+        if (null == operator) {
+            throw new IllegalArgumentException("Operator cannot be null");
+        }
+        return subscriber -> publisher.subscribe(new ReduceSubscriber<>(subscriber, operator));
+    }
+
+    private abstract static class ForwardingSubscriber<I, O> implements Flow.Subscriber<I> {
+        protected final Flow.Subscriber<? super O> downstream;
+        protected Flow.Subscription upstream;
+        protected boolean done;
+
+        ForwardingSubscriber(final Flow.Subscriber<? super O> downstream) {
+            this.downstream = downstream;
+        }
+
+        @Override
+        public void onSubscribe(final Flow.Subscription subscription) {
+            this.upstream = subscription;
+            downstream.onSubscribe(subscription);
+        }
+
+        @Override
+        public void onError(final Throwable throwable) {
+            if (!done) {
+                done = true;
+                downstream.onError(throwable);
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            if (!done) {
+                done = true;
+                downstream.onComplete();
+            }
+        }
+
+        protected void fail(final RuntimeException e) {
+            upstream.cancel();
+            onError(e);
+        }
+    }
+
+    private static final class MapSubscriber<I, O> extends ForwardingSubscriber<I, O> {
+        private final Function<? super I, ? extends O> function;
+
+        private MapSubscriber(final Flow.Subscriber<? super O> downstream, final Function<? super I, ? extends O> function) {
+            super(downstream);
+            this.function = function;
+        }
+
+        @Override
+        public void onNext(final I item) {
+            if (done) {
+                return;
+            }
+
+            final O result;
+            try {
+                result = function.apply(item);
+            } catch (final RuntimeException e) {
+                fail(e);
+                return;
+            }
+
+            if (null == result) {
+                fail(new NullPointerException("Function " + function + " returned null, which cannot be published"));
+            } else {
+                downstream.onNext(result);
+            }
+        }
+    }
+
+    private static final class FilterSubscriber<T> extends ForwardingSubscriber<T, T> {
+        private final Predicate<? super T> predicate;
+
+        private FilterSubscriber(final Flow.Subscriber<? super T> downstream, final Predicate<? super T> predicate) {
+            super(downstream);
+            this.predicate = predicate;
+        }
+
+        @Override
+        public void onNext(final T item) {
+            if (done) {
+                return;
+            }
+
+            final boolean valid;
+            try {
+                valid = predicate.test(item);
+            } catch (final RuntimeException e) {
+                fail(e);
+                return;
+            }
+
+            if (valid) {
+                downstream.onNext(item);
+            } else {
+                // The dropped item used up some of the downstream demand, so replace it
+                upstream.request(1);
+            }
+        }
+    }
+
+    private static final class ReduceSubscriber<T> extends ForwardingSubscriber<T, T> implements Flow.Subscription {
+        private final BinaryOperator<T> operator;
+        private final AtomicBoolean requested = new AtomicBoolean();
+        private T result;
+
+        private ReduceSubscriber(final Flow.Subscriber<? super T> downstream, final BinaryOperator<T> operator) {
+            super(downstream);
+            this.operator = operator;
+        }
+
+        @Override
+        public void onSubscribe(final Flow.Subscription subscription) {
+            this.upstream = subscription;
+            downstream.onSubscribe(this);
+        }
+
+        @Override
+        public void onNext(final T item) {
+            if (done) {
+                return;
+            }
+
+            try {
+                result = null == result ? item : operator.apply(result, item);
+            } catch (final RuntimeException e) {
+                fail(e);
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            if (!done) {
+                done = true;
+                if (null != result) {
+                    downstream.onNext(result);
+                    result = null;
+                }
+                downstream.onComplete();
+            }
+        }
+
+        @Override
+        public void request(final long n) {
+            if (n <= 0) {
+                upstream.request(n);
+            } else if (requested.compareAndSet(false, true)) {
+                // Only one item is ever emitted, so once any demand exists the whole input can be consumed
+                upstream.request(Long.MAX_VALUE);
+            }
+        }
+
+        @Override
+        public void cancel() {
+            upstream.cancel();
+        }
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.gov.gchq.koryphe.reactive;
+
+import uk.gov.gchq.koryphe.iterable.CloseableIterable;
+import uk.gov.gchq.koryphe.iterable.CloseableIterator;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Flow;
+
+/**
+ * A {@code PublisherIterable} is a {@link CloseableIterable} that exposes the items
+ * emitted by a {@link Flow.Publisher}.
+ * <p>
+ * Each call to {@link #iterator()} subscribes to the publisher. The iterator requests
+ * at most {@code bufferSize} items ahead of the consumer and blocks in {@code hasNext}
+ * until the next item arrives. Closing the iterator cancels its subscription.
+ * </p>
+ *
+ * @param <T> the type of items emitted by the publisher
+ */
+public class PublisherIterable<T> implements CloseableIterable<T> {
+    public static final int DEFAULT_BUFFER_SIZE = 256;
+
+    private final Flow.Publisher<T> publisher;
+    private final int bufferSize;
+
+    public PublisherIterable(final Flow.Publisher<T> publisher) {
+        this(publisher, DEFAULT_BUFFER_SIZE);
+    }
+
+    public PublisherIterable(final Flow.Publisher<T> publisher, final int bufferSize) {
+        if (null == publisher) {
+            throw new IllegalArgumentException("Publisher cannot be null");
+        }
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("Buffer size must be at least 1");
+        }
+        this.publisher = publisher;
+        this.bufferSize = bufferSize;
+    }
+
+    @Override
+    public void close() {
+        // Subscriptions are owned, and cancelled, by the iterators
+    }
+
+    @Override
+    public CloseableIterator<T> iterator() {
+        final PublisherIterator<T> iterator = new PublisherIterator<>(bufferSize);
+        publisher.subscribe(iterator);
+        return iterator;
+    }
+
+    private static final class PublisherIterator<T> implements CloseableIterator<T>, Flow.Subscriber<T> {
+        private static final Object COMPLETE = new Object();
+
+        private final BlockingQueue<Object> queue;
+        private final int bufferSize;
+        private final int replenishThreshold;
+
+        private volatile Flow.Subscription subscription;
+        private volatile boolean closed;
+        private Object nextSignal;
+        private boolean finished;
+        private int consumed;
+
+        private PublisherIterator(final int bufferSize) {
+            // Leave space for the terminal signal as well as a full buffer of items
+            this.queue = new ArrayBlockingQueue<>(bufferSize + 1);
+            this.bufferSize = bufferSize;
+            this.replenishThreshold = Math.max(1, bufferSize / 2);
+        }
+
+        @Override
+        public void onSubscribe(final Flow.Subscription subscription) {
+            if (null != this.subscription) {
+                subscription.cancel();
+                return;
+            }
+            this.subscription = subscription;
+            if (closed) {
+                subscription.cancel();
+            } else {
+                subscription.request(bufferSize);
+            }
+        }
+
+        @Override
+        public void onNext(final T item) {
+            queue.offer(item);
+        }
+
+        @Override
+        public void onError(final Throwable throwable) {
+            queue.offer(new ErrorSignal(throwable));
+        }
+
+        @Override
+        public void onComplete() {
+            queue.offer(COMPLETE);
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (finished) {
+                return false;
+            }
+
+            if (null == nextSignal) {
+                try {
+                    nextSignal = queue.take();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    close();
+                    throw new IllegalStateException("Interrupted whilst waiting for the next item", e);
+                }
+            }
+
+            if (COMPLETE == nextSignal) {
+                finished = true;
+                return false;
+            }
+
+            if (nextSignal instanceof ErrorSignal) {
+                finished = true;
+                final Throwable cause = ((ErrorSignal) nextSignal).throwable;
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                throw new IllegalStateException("Publisher failed to provide the next item", cause);
+            }
+
+            return true;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("Reached the end of the iterator");
+            }
+
+            final T item = (T) nextSignal;
+            nextSignal = null;
+            consumed++;
+            if (consumed == replenishThreshold) {
+                consumed = 0;
+                subscription.request(replenishThreshold);
+            }
+            return item;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            finished = true;
+            final Flow.Subscription current = subscription;
+            if (null != current) {
+                current.cancel();
+            }
+            queue.clear();
+        }
+    }
+
+    private static final class ErrorSignal {
+        private final Throwable throwable;
+
+        private ErrorSignal(final Throwable throwable) {
+            this.throwable = throwable;
+        }
+    }
+}
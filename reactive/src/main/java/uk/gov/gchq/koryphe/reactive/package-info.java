@@ -0,0 +1,22 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/**
+ * Adapters between Koryphe's pull based {@link uk.gov.gchq.koryphe.iterable.CloseableIterable}s
+ * and the push based {@link java.util.concurrent.Flow} API, so that Koryphe functions,
+ * predicates and binary operators can be applied to reactive streams.
+ */
+package uk.gov.gchq.koryphe.reactive;
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2020 Crown Copyright
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package uk.gov.gchq.koryphe.reactive;
+
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.Test;
+
+import uk.gov.gchq.koryphe.impl.binaryoperator.Sum;
+import uk.gov.gchq.koryphe.impl.function.ToString;
+import uk.gov.gchq.koryphe.impl.predicate.IsMoreThan;
+import uk.gov.gchq.koryphe.iterable.CloseableIterable;
+import uk.gov.gchq.koryphe.iterable.CloseableIterator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Flow;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class KorypheFlowTest {
+
+    @Test
+    public void shouldRoundTripIterableThroughPublisher() {
+        // Given
+        final List<Integer> values = Arrays.asList(1, 2, 3, 4, 5);
+
+        // When
+        final CloseableIterable<Integer> result = KorypheFlow.toIterable(KorypheFlow.fromIterable(values));
+
+        // Then
+        assertEquals(values, Lists.newArrayList(result));
+    }
+
+    @Test
+    public void shouldOnlyEmitRequestedItems() {
+        // Given
+        final List<Integer> values = Arrays.asList(1, 2, 3, 4, 5);
+        final List<Integer> received = Collections.synchronizedList(new ArrayList<>());
+        final Flow.Subscription[] subscription = new Flow.Subscription[1];
+        final IterablePublisher<Integer> publisher = new IterablePublisher<>(values, Runnable::run);
+
+        // When
+        publisher.subscribe(new Flow.Subscriber<Integer>() {
+            @Override
+            public void onSubscribe(final Flow.Subscription s) {
+                subscription[0] = s;
+            }
+
+            @Override
+            public void onNext(final Integer item) {
+                received.add(item);
+            }
+
+            @Override
+            public void onError(final Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+        subscription[0].request(2);
+
+        // Then
+        assertEquals(Arrays.asList(1, 2), received);
+    }
+
+    @Test
+    public void shouldApplyKorypheFunctionPredicateAndBinaryOperator() {
+        // Given
+        final List<Integer> values = Arrays.asList(1, 2, 3, 4, 5);
+
+        // When
+        final Flow.Publisher<Integer> filtered = KorypheFlow.filter(KorypheFlow.fromIterable(values), new IsMoreThan(2));
+        final Flow.Publisher<Number> reduced = KorypheFlow.reduce(filtered, new Sum());
+        final Flow.Publisher<String> mapped = KorypheFlow.map(reduced, new ToString());
+
+        // Then
+        assertEquals(Collections.singletonList("12"), Lists.newArrayList(KorypheFlow.toIterable(mapped)));
+    }
+
+    @Test
+    public void shouldFilterWithSmallBuffer() {
+        // Given
+        final List<Integer> values = Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8);
+
+        // When
+        final Flow.Publisher<Integer> filtered = KorypheFlow.filter(KorypheFlow.fromIterable(values), i -> i % 2 == 0);
+
+        // Then
+        assertEquals(Arrays.asList(2, 4, 6, 8), Lists.newArrayList(new PublisherIterable<>(filtered, 1)));
+    }
+
+    @Test
+    public void shouldPropagateFunctionErrors() {
+        // Given
+        final Flow.Publisher<Integer> mapped = KorypheFlow.map(KorypheFlow.fromIterable(Arrays.asList(1, 2)), i -> {
+            throw new IllegalStateException("failed");
+        });
+
+        // When
+        final Exception exception = assertThrows(IllegalStateException.class, () -> Lists.newArrayList(KorypheFlow.toIterable(mapped)));
+
+        // Then
+        assertEquals("failed", exception.getMessage());
+    }
+
+    @Test
+    public void shouldCloseSourceIteratorWhenIteratorIsClosed() throws InterruptedException {
+        // Given
+        final List<Integer> values = Arrays.asList(1, 2, 3, 4, 5);
+        final boolean[] closed = new boolean[1];
+        final Iterable<Integer> source = () -> new CloseableIterator<Integer>() {
+            private int index;
+
+            @Override
+            public void close() {
+                closed[0] = true;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return index < values.size();
+            }
+
+            @Override
+            public Integer next() {
+                return values.get(index++);
+            }
+        };
+        final CloseableIterator<Integer> iterator = new PublisherIterable<>(new IterablePublisher<>(source, Runnable::run), 1).iterator();
+
+        // When
+        assertTrue(iterator.hasNext());
+        assertEquals(1, (int) iterator.next());
+        iterator.close();
+
+        // Then
+        assertTrue(closed[0]);
+        assertFalse(iterator.hasNext());
+    }
+}